@@ -4,18 +4,22 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import java.time.InstantSource;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /** Configuration class defining application-level beans for the TED Talks project. */
 @Configuration
+@EnableScheduling
 @Slf4j
 public class AppConfig {
 
@@ -48,6 +52,55 @@ public class AppConfig {
         rejectionPolicy);
   }
 
+  /**
+   * Platform-thread pool that parses chunks of uploaded CSV files in parallel. Parsing is
+   * CPU-bound, so the pool is sized by the configured number of parse workers rather than by import
+   * count.
+   */
+  @Bean(name = "csvParseExecutor", destroyMethod = "shutdown")
+  public ExecutorService csvParseExecutor(TedTalksConfig config) {
+    return Executors.newFixedThreadPool(
+        config.csv().parseWorkers(), Thread.ofPlatform().name("csv-parse-", 0).factory());
+  }
+
+  /**
+   * Virtual-thread executor running the writer stage of CSV import pipelines. Writers spend their
+   * time waiting on the database, so each one gets its own virtual thread.
+   */
+  @Bean(name = "csvWriteExecutor", destroyMethod = "shutdown")
+  public ExecutorService csvWriteExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("csv-write-", 0).factory());
+  }
+
+  /**
+   * Writer permits shared by all CSV import pipelines. Every batch is written while holding one, so
+   * database write concurrency stays capped however many imports run with however many writers.
+   */
+  @Bean(name = "csvWriterPermits")
+  public Semaphore csvWriterPermits(TedTalksConfig config) {
+    return new Semaphore(config.csv().maxConcurrentWriters(), true);
+  }
+
+  /**
+   * Single platform thread recomputing the stored influence scores of all talks after the weights
+   * change, one recompute at a time.
+   */
+  @Bean(name = "influenceExecutor", destroyMethod = "shutdownNow")
+  public ExecutorService influenceExecutor() {
+    return Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("influence-recompute").daemon().factory());
+  }
+
+  /**
+   * Virtual-thread executor refreshing cached influence results in the background. Refreshes
+   * spend their time waiting on the database, so each one gets its own virtual thread.
+   */
+  @Bean(name = "influenceRefreshExecutor", destroyMethod = "shutdown")
+  public ExecutorService influenceRefreshExecutor() {
+    return Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("influence-refresh-", 0).factory());
+  }
+
   /**
    * Provides a bean for getting the current instant with system precision.
    *
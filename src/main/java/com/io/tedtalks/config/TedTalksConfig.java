@@ -4,13 +4,19 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
 /** Configuration class for the TED Talks application. */
 @Validated
 @ConfigurationProperties(prefix = "ted-talks")
-public record TedTalksConfig(@Valid Csv csv, @Valid Influence influence) {
+public record TedTalksConfig(
+    @Valid Csv csv,
+    @Valid Influence influence,
+    @Valid @DefaultValue Listing listing,
+    @Valid @DefaultValue TalkCache talkCache) {
 
   /**
    * Represents the configuration properties for CSV processing in the TED Talks application.
@@ -18,17 +24,140 @@ public record TedTalksConfig(@Valid Csv csv, @Valid Influence influence) {
    * @param batchSize The batch size for processing CSV records.
    * @param maxConcurrentImports Maximum number of concurrent CSV import operations.
    * @param importQueueCapacity Maximum number of import requests that can wait in queue.
+   * @param engine The persistence engine used to write imported batches.
+   * @param parser The parser used to read CSV records.
+   * @param parseWorkers Number of threads parsing chunks of an uploaded file in parallel; 1 parses
+   *     sequentially.
+   * @param maxConcurrentWriters Maximum number of batches written to the database concurrently,
+   *     across all imports.
+   * @param writerThreads Number of writers persisting the parsed batches of an import
+   *     concurrently.
+   * @param pipelineCapacity Maximum number of parsed batches waiting for a writer; the parser
+   *     blocks when it is reached.
+   * @param progressFlushInterval Interval at which the progress counters of running imports are
+   *     written to the import status table.
+   * @param writeMode The default write mode of imports that do not request one.
+   * @param streamSessionTtl Time a streaming import may wait for its content before it is marked
+   *     failed.
    */
   public record Csv(
-      @Min(1) int batchSize, @Min(1) int maxConcurrentImports, @Min(0) int importQueueCapacity) {}
+      @Min(1) int batchSize,
+      @Min(1) int maxConcurrentImports,
+      @Min(0) int importQueueCapacity,
+      @DefaultValue("jpa") Engine engine,
+      @DefaultValue("opencsv") Parser parser,
+      @DefaultValue("1") @Min(1) int parseWorkers,
+      @DefaultValue("2") @Min(1) int maxConcurrentWriters,
+      @DefaultValue("2") @Min(1) int writerThreads,
+      @DefaultValue("4") @Min(1) int pipelineCapacity,
+      @DefaultValue("2s") Duration progressFlushInterval,
+      @DefaultValue("insert") WriteMode writeMode,
+      @DefaultValue("10m") Duration streamSessionTtl) {
+
+    /**
+     * Persistence engines available for CSV imports.
+     *
+     * <ul>
+     *   <li>JPA - Batches are saved through the repository and the persistence context.
+     *   <li>JDBC - Batches are written with batched JDBC statements, bypassing the persistence
+     *       context.
+     * </ul>
+     */
+    public enum Engine {
+      JPA,
+      JDBC
+    }
+
+    /**
+     * Parsers available for CSV imports.
+     *
+     * <ul>
+     *   <li>OPENCSV - Records are bound to beans through OpenCSV's header mapping.
+     *   <li>FAST - Records are decoded by a hand-written parser for the fixed TED Talks schema,
+     *       without reflection or intermediate strings for numbers and dates.
+     * </ul>
+     */
+    public enum Parser {
+      OPENCSV,
+      FAST
+    }
+
+    /**
+     * Write modes available for CSV imports.
+     *
+     * <ul>
+     *   <li>INSERT - Rows are inserted as new talks; rows whose link is already stored or occurs
+     *       earlier in the file are skipped.
+     *   <li>UPSERT - Rows are merged on their link, the natural key of a talk: existing talks are
+     *       updated, new ones inserted. Repeated links within the file are skipped after their
+     *       first occurrence.
+     *   <li>DELTA - Like UPSERT, but rows are first compared with the stored talks through their
+     *       content hash, and only new and changed rows are written.
+     * </ul>
+     */
+    public enum WriteMode {
+      INSERT,
+      UPSERT,
+      DELTA
+    }
+  }
 
   /**
    * Represents the influence configuration properties for the TED Talks application.
    *
    * @param viewsWeight The weight attributed to the number of views (0.0 to 1.0 inclusive).
    * @param likesWeight The weight attributed to the number of likes (0.0 to 1.0 inclusive).
+   * @param resultCacheSize Maximum number of influence results read from the database that are
+   *     cached until the next write.
+   * @param staleWhileRevalidate Age up to which an influence result outdated by a write is still
+   *     served while it is refreshed in the background; zero always waits for the refresh.
    */
   public record Influence(
       @DecimalMin("0.0") @DecimalMax("1.0") double viewsWeight,
-      @DecimalMin("0.0") @DecimalMax("1.0") double likesWeight) {}
+      @DecimalMin("0.0") @DecimalMax("1.0") double likesWeight,
+      @DefaultValue("256") @Min(1) int resultCacheSize,
+      @DefaultValue("5s") Duration staleWhileRevalidate) {}
+
+  /**
+   * Represents the configuration properties of the TED Talks listing.
+   *
+   * @param countCacheSize Maximum number of filter combinations whose match count is cached for
+   *     estimated totals.
+   * @param countCacheTtl Time after which a cached match count is computed again.
+   * @param keywordSearch The way the keyword filter matches talks.
+   * @param suggestRefreshInterval Interval at which the suggestion index merges the talks written
+   *     since its last build into a new one, once too many are pending.
+   */
+  public record Listing(
+      @DefaultValue("1000") @Min(1) int countCacheSize,
+      @DefaultValue("60s") Duration countCacheTtl,
+      @DefaultValue("full-text") KeywordSearch keywordSearch,
+      @DefaultValue("1s") Duration suggestRefreshInterval) {
+
+    /**
+     * Keyword search strategies of the listing.
+     *
+     * <ul>
+     *   <li>PREFIX - The keyword matches the start of the title or author, through the indexed
+     *       lower-case columns of the database.
+     *   <li>FULL_TEXT - The keyword is split into words matched anywhere in the title or author,
+     *       the last one as a prefix, through an in-process full-text index that also ranks the
+     *       results by relevance.
+     * </ul>
+     */
+    public enum KeywordSearch {
+      PREFIX,
+      FULL_TEXT
+    }
+  }
+
+  /**
+   * Represents the configuration properties of the cache of single-talk lookups.
+   *
+   * @param maxSize Maximum number of talks kept in the cache; the least recently read one is
+   *     evicted beyond it.
+   * @param ttl Time after which a cached talk is read again from the database.
+   */
+  public record TalkCache(
+      @DefaultValue("10000") @Min(1) int maxSize, @DefaultValue("5m") Duration ttl) {}
 }
@@ -0,0 +1,56 @@
+package com.io.tedtalks.config;
+
+import com.io.tedtalks.controller.ConditionalRequests;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+/**
+ * Web MVC configuration: the {@code Cache-Control} header of each endpoint and the conditional
+ * requests of the talks and influence endpoints.
+ *
+ * <p>Talks are answered with {@code no-cache}, so that clients revalidate them with their entity
+ * tag on every use. Influence results may be reused for the stale-while-revalidate window, since
+ * the server serves results that old itself while it refreshes them. The weights, the cache
+ * statistics and the import status change without a write of talks and are not stored.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+  private final ConditionalRequests conditionalRequests;
+  private final TedTalksConfig config;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    WebContentInterceptor cacheControl = new WebContentInterceptor();
+    cacheControl.addCacheMapping(
+        CacheControl.noCache(), "/api/v1/talks", "/api/v1/talks/{id}");
+    cacheControl.addCacheMapping(
+        CacheControl.maxAge(config.influence().staleWhileRevalidate()),
+        "/api/v1/influence/speakers",
+        "/api/v1/influence/speaker",
+        "/api/v1/influence/talks",
+        "/api/v1/influence/talks/by-year");
+    cacheControl.addCacheMapping(
+        CacheControl.noStore(),
+        "/api/v1/influence/weights",
+        "/api/v1/talks/cache/stats",
+        "/api/v1/import/status/{importId}");
+    registry.addInterceptor(cacheControl);
+
+    registry
+        .addInterceptor(conditionalRequests)
+        .addPathPatterns(
+            "/api/v1/talks",
+            "/api/v1/talks/{id}",
+            "/api/v1/influence/speakers",
+            "/api/v1/influence/speaker",
+            "/api/v1/influence/talks",
+            "/api/v1/influence/talks/by-year")
+        .excludePathPatterns("/api/v1/talks/suggest");
+  }
+}
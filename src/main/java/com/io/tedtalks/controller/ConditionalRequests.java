@@ -0,0 +1,135 @@
+package com.io.tedtalks.controller;
+
+import com.io.tedtalks.service.DataGeneration;
+import com.io.tedtalks.service.InfluenceAnalysisService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Answers conditional GET requests of talks and influence results without running any query.
+ *
+ * <p>The entity tag of a response is derived from the {@link DataGeneration} read before the
+ * request is handled, the default influence weights and the request URI, parameters and accepted
+ * media types, so it can be computed up front: a request whose {@code If-None-Match} header holds
+ * it is answered with {@code 304 Not Modified} before it reaches its controller. A successful
+ * response is tagged with the generation of the data it holds, which is older than the one read
+ * up front if a cache served a result it was still refreshing. Error responses are not tagged.
+ * Since the generation advances only once the caches and indexes have applied a write, a response
+ * read from them is never tagged with a generation newer than its data.
+ *
+ * <p>It is registered as an interceptor for the paths it applies to by {@code WebConfig}.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ConditionalRequests implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+  private static final String VERSION = ConditionalRequests.class.getName() + ".version";
+
+  private final DataGeneration dataGeneration;
+  private final InfluenceAnalysisService influenceAnalysisService;
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+      return true;
+    }
+
+    Version version = new Version(dataGeneration.current(), variant(request));
+    ETag etag = version.etag();
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null
+        && ETag.parse(ifNoneMatch).stream()
+            .anyMatch(candidate -> candidate.isWildcard() || candidate.compare(etag, false))) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      response.setHeader(HttpHeaders.ETAG, etag.formattedTag());
+      return false;
+    }
+
+    request.setAttribute(VERSION, version);
+    dataGeneration.watchReads();
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    dataGeneration.unwatchReads();
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (body instanceof ProblemDetail
+        || !(request instanceof ServletServerHttpRequest servletRequest)
+        || !(response instanceof ServletServerHttpResponse servletResponse)
+        || servletResponse.getServletResponse().getStatus() != HttpServletResponse.SC_OK
+        || !(servletRequest.getServletRequest().getAttribute(VERSION) instanceof Version version)) {
+      return body;
+    }
+
+    Version served =
+        new Version(dataGeneration.readGeneration(version.generation()), version.variant());
+    response.getHeaders().setETag(served.etag().formattedTag());
+    return body;
+  }
+
+  private String variant(HttpServletRequest request) {
+    int variant =
+        Objects.hash(
+            influenceAnalysisService.resolveWeights(null, null),
+            request.getRequestURI(),
+            parameters(request),
+            request.getHeader(HttpHeaders.ACCEPT));
+    return Integer.toHexString(variant);
+  }
+
+  private static Map<String, List<String>> parameters(HttpServletRequest request) {
+    Map<String, List<String>> parameters = new TreeMap<>();
+    request.getParameterMap().forEach((name, values) -> parameters.put(name, List.of(values)));
+    return parameters;
+  }
+
+  /**
+   * The version of a response: the generation of the data it holds and a hash of what else it
+   * depends on, computed once before the request is handled.
+   *
+   * @param generation the generation of the data
+   * @param variant the hash of the weights, URI, parameters and accepted media types
+   */
+  private record Version(long generation, String variant) {
+
+    ETag etag() {
+      return new ETag(generation + "-" + variant, false);
+    }
+  }
+}
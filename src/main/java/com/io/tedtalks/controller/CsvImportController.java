@@ -1,17 +1,20 @@
 package com.io.tedtalks.controller;
 
+import com.io.tedtalks.config.TedTalksConfig;
 import com.io.tedtalks.dto.ImportInitResponse;
 import com.io.tedtalks.dto.ImportStatusResponse;
 import com.io.tedtalks.service.CsvImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -32,19 +35,53 @@ public class CsvImportController {
    * Initiates the import process for a TED Talks CSV file.
    *
    * @param file the CSV file to be imported
+   * @param mode the way rows are written; defaults to the configured write mode
    */
   @PostMapping(value = "/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   @ResponseStatus(HttpStatus.ACCEPTED)
   @Operation(summary = "Import TED Talks from CSV file")
   public ImportInitResponse importCsv(
-      @Parameter(description = "CSV file to import") @RequestParam("file") MultipartFile file) {
-    String importId = csvImportService.startImport(file);
-    String statusUrl =
-        ServletUriComponentsBuilder.fromCurrentContextPath()
-            .path("/api/v1/import/status/{importId}")
-            .buildAndExpand(importId)
-            .toUriString();
-    return ImportInitResponse.of(importId, statusUrl);
+      @Parameter(description = "CSV file to import") @RequestParam("file") MultipartFile file,
+      @Parameter(description = "INSERT adds every row, UPSERT merges rows on their link")
+          @RequestParam(required = false)
+          TedTalksConfig.Csv.WriteMode mode) {
+    String importId = csvImportService.startImport(file, mode);
+    return ImportInitResponse.of(importId, urlFor("/api/v1/import/status/{importId}", importId));
+  }
+
+  /**
+   * Opens a streaming import. The CSV content is then sent as the raw body of a PUT request to the
+   * returned upload URL, and is parsed as it arrives instead of being stored first.
+   *
+   * @param mode the way rows are written; defaults to the configured write mode
+   */
+  @PostMapping("/stream")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  @Operation(summary = "Open a streaming TED Talks CSV import")
+  public ImportInitResponse openStreamingImport(
+      @Parameter(description = "INSERT adds every row, UPSERT merges rows on their link")
+          @RequestParam(required = false)
+          TedTalksConfig.Csv.WriteMode mode) {
+    String importId = csvImportService.startStreamingImport(mode);
+    return ImportInitResponse.ofStream(
+        importId,
+        urlFor("/api/v1/import/status/{importId}", importId),
+        urlFor("/api/v1/import/stream/{importId}", importId));
+  }
+
+  /**
+   * Streams CSV content into an import opened with {@link #openStreamingImport}. The request
+   * completes once the content has been imported.
+   *
+   * @param importId the unique identifier of the import process
+   * @param content the raw CSV request body
+   */
+  @PutMapping(
+      value = "/stream/{importId}",
+      consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+  @Operation(summary = "Stream CSV content into an open import")
+  public ImportStatusResponse streamCsv(@PathVariable String importId, InputStream content) {
+    return csvImportService.streamImport(importId, content);
   }
 
   /**
@@ -57,4 +94,11 @@ public class CsvImportController {
   public ImportStatusResponse getImportStatus(@PathVariable String importId) {
     return csvImportService.getImportStatus(importId);
   }
+
+  private static String urlFor(String path, String importId) {
+    return ServletUriComponentsBuilder.fromCurrentContextPath()
+        .path(path)
+        .buildAndExpand(importId)
+        .toUriString();
+  }
 }
@@ -1,25 +1,39 @@
 package com.io.tedtalks.controller;
 
+import com.io.tedtalks.dto.InfluenceWeightsRequest;
+import com.io.tedtalks.dto.InfluenceWeightsResponse;
 import com.io.tedtalks.dto.SpeakerInfluenceResponse;
 import com.io.tedtalks.dto.TedTalkResponse;
 import com.io.tedtalks.dto.YearlyInfluenceResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
 import com.io.tedtalks.exception.ResourceNotFoundException;
 import com.io.tedtalks.service.InfluenceAnalysisService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-/** REST controller for handling operations related to speaker and talk influence analysis. */
+/**
+ * REST controller for handling operations related to speaker and talk influence analysis.
+ *
+ * <p>Every ranking accepts optional {@code viewsWeight} and {@code likesWeight} parameters that
+ * override the default weights for that request; a weight left out keeps its default value.
+ */
 @RestController
 @RequestMapping("/api/v1/influence")
 @RequiredArgsConstructor
@@ -33,6 +47,8 @@ public class InfluenceAnalysisController {
    * Fetches the most influential speakers based on their influence metrics.
    *
    * @param topN the number of top speakers to return; should be a positive integer.
+   * @param viewsWeight the weight of views overriding the default one, if any.
+   * @param likesWeight the weight of likes overriding the default one, if any.
    * @return a list of SpeakerInfluenceResponse objects representing the most influential speakers.
    */
   @GetMapping("/speakers")
@@ -42,22 +58,47 @@ public class InfluenceAnalysisController {
           @Min(1)
           @Max(100)
           @RequestParam(defaultValue = "5")
-          int topN) {
-    return influenceAnalysisService.getMostInfluentialSpeakers(topN);
+          int topN,
+      @Parameter(description = "Weight of views overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double viewsWeight,
+      @Parameter(description = "Weight of likes overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double likesWeight) {
+    return overrides(viewsWeight, likesWeight)
+        .map(weights -> influenceAnalysisService.getMostInfluentialSpeakers(topN, weights))
+        .orElseGet(() -> influenceAnalysisService.getMostInfluentialSpeakers(topN));
   }
 
   /**
    * Retrieves the influence metrics of a specific speaker based on the provided author name.
    *
    * @param author the name of the speaker whose influence metrics are to be fetched
+   * @param viewsWeight the weight of views overriding the default one, if any.
+   * @param likesWeight the weight of likes overriding the default one, if any.
    * @throws ResourceNotFoundException if the specified speaker is not found
    */
   @GetMapping("/speaker")
   @Operation(summary = "Get specific speaker's influence")
   public SpeakerInfluenceResponse getSpeakerInfluence(
-      @Parameter(description = "Author name") @RequestParam @NotBlank String author) {
-    return influenceAnalysisService
-        .getSpeakerInfluence(author)
+      @Parameter(description = "Author name") @RequestParam @NotBlank String author,
+      @Parameter(description = "Weight of views overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double viewsWeight,
+      @Parameter(description = "Weight of likes overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double likesWeight) {
+    return overrides(viewsWeight, likesWeight)
+        .map(weights -> influenceAnalysisService.getSpeakerInfluence(author, weights))
+        .orElseGet(() -> influenceAnalysisService.getSpeakerInfluence(author))
         .orElseThrow(() -> new ResourceNotFoundException("Speaker not found: " + author));
   }
 
@@ -65,6 +106,8 @@ public class InfluenceAnalysisController {
    * Fetches the most influential TED Talks based on their influence metrics.
    *
    * @param topN the number of top talks to return; should be a positive integer.
+   * @param viewsWeight the weight of views overriding the default one, if any.
+   * @param likesWeight the weight of likes overriding the default one, if any.
    * @return a list of TedTalkResponse objects representing the most influential talks.
    */
   @GetMapping("/talks")
@@ -74,19 +117,78 @@ public class InfluenceAnalysisController {
           @Min(1)
           @Max(100)
           @RequestParam(defaultValue = "5")
-          int topN) {
-    return influenceAnalysisService.getMostInfluentialTalks(topN);
+          int topN,
+      @Parameter(description = "Weight of views overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double viewsWeight,
+      @Parameter(description = "Weight of likes overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double likesWeight) {
+    return overrides(viewsWeight, likesWeight)
+        .map(weights -> influenceAnalysisService.getMostInfluentialTalks(topN, weights))
+        .orElseGet(() -> influenceAnalysisService.getMostInfluentialTalks(topN));
   }
 
   /**
    * Retrieves the most influential TED Talk for each year based on their influence metrics.
    *
+   * @param viewsWeight the weight of views overriding the default one, if any.
+   * @param likesWeight the weight of likes overriding the default one, if any.
    * @return a list of YearlyInfluenceResponse objects, where each object contains the year and the
    *     corresponding most influential TED Talk for that year.
    */
   @GetMapping("/talks/by-year")
   @Operation(summary = "Get most influential talk per year")
-  public List<YearlyInfluenceResponse> getMostInfluentialTalkByYear() {
-    return influenceAnalysisService.getMostInfluentialTalkByYear();
+  public List<YearlyInfluenceResponse> getMostInfluentialTalkByYear(
+      @Parameter(description = "Weight of views overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double viewsWeight,
+      @Parameter(description = "Weight of likes overriding the default one")
+          @DecimalMin("0.0")
+          @DecimalMax("1.0")
+          @RequestParam(required = false)
+          Double likesWeight) {
+    return overrides(viewsWeight, likesWeight)
+        .map(influenceAnalysisService::getMostInfluentialTalkByYear)
+        .orElseGet(influenceAnalysisService::getMostInfluentialTalkByYear);
+  }
+
+  /**
+   * Retrieves the default weights influence is computed with.
+   *
+   * @return the default weights and whether the stored influence scores are computed under them.
+   */
+  @GetMapping("/weights")
+  @Operation(summary = "Get default influence weights")
+  public InfluenceWeightsResponse getDefaultWeights() {
+    return influenceAnalysisService.getDefaultWeights();
+  }
+
+  /**
+   * Changes the default weights influence is computed with. The stored influence scores and the
+   * in-memory rankings are recomputed in the background.
+   *
+   * @param request the new default weights.
+   * @return the new default weights and whether the stored influence scores are computed under
+   *     them.
+   */
+  @PutMapping("/weights")
+  @Operation(summary = "Change default influence weights")
+  public InfluenceWeightsResponse changeDefaultWeights(
+      @Valid @RequestBody InfluenceWeightsRequest request) {
+    return influenceAnalysisService.changeDefaultWeights(request);
+  }
+
+  private Optional<InfluenceWeights> overrides(Double viewsWeight, Double likesWeight) {
+    if (viewsWeight == null && likesWeight == null) {
+      return Optional.empty();
+    }
+    return Optional.of(influenceAnalysisService.resolveWeights(viewsWeight, likesWeight));
   }
 }
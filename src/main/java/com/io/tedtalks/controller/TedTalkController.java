@@ -1,9 +1,19 @@
 package com.io.tedtalks.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.io.tedtalks.dto.PageCursor;
 import com.io.tedtalks.dto.PagedResponse;
 import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.dto.TalkBatchOperation;
+import com.io.tedtalks.dto.TalkBatchResponse;
+import com.io.tedtalks.dto.TalkBatchResult;
+import com.io.tedtalks.dto.TalkCacheStats;
+import com.io.tedtalks.dto.TalkSuggestion;
 import com.io.tedtalks.dto.TedTalkRequest;
 import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.dto.TotalCount;
 import com.io.tedtalks.service.TedTalkService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,11 +21,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -37,6 +52,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class TedTalkController {
 
   private final TedTalkService tedTalkService;
+  private final ObjectMapper objectMapper;
 
   /**
    * Creates a new TED Talk resource.
@@ -56,13 +72,18 @@ public class TedTalkController {
    *
    * @param author an optional parameter to filter TED Talks by author name.
    * @param year an optional parameter to filter TED Talks by the year of publication.
-   * @param keyword an optional parameter to search for a keyword in the title or author name.
+   * @param keyword an optional parameter to search for words in the title or author name.
    * @param page the page number for pagination; defaults to 0 if not specified.
    * @param size the number of items per page; defaults to 100 if not specified, with a maximum
    *     value of 100.
-   * @param sortBy the field by which to sort the results (e.g., title, author, views, likes, year).
+   * @param sortBy the field by which to sort the results (e.g., title, author, views, likes, year),
+   *     or relevance to rank keyword matches by their full-text score.
    * @param sortDirection the direction of sorting; can be either ASC (ascending) or DESC
    *     (descending).
+   * @param cursor an optional {@code nextCursor} from a previous response; when present, the page
+   *     following it is returned in the cursor's sort order, and page and sort are ignored.
+   * @param includeTotal how to count all matching talks: false, exact (or true) or estimate;
+   *     defaults to exact for numbered pages and false for cursor pages.
    * @return a paginated response containing a list of filtered and sorted TED Talks.
    */
   @GetMapping
@@ -87,15 +108,91 @@ public class TedTalkController {
           @Min(1)
           @Max(100)
           int size,
-      @Parameter(description = "Sort field (e.g., title, author, views, likes, year)")
+      @Parameter(description = "Sort field (e.g., title, author, views, likes, year, relevance)")
           @RequestParam(defaultValue = "id")
-          @Pattern(regexp = "id|title|author|views|likes|year", message = "Invalid sort field")
+          @Pattern(
+              regexp = "id|title|author|views|likes|year|relevance",
+              message = "Invalid sort field")
           String sortBy,
       @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC")
-          Sort.Direction sortDirection) {
+          Sort.Direction sortDirection,
+      @Parameter(description = "Continuation token returned as nextCursor by a previous page")
+          @RequestParam(required = false)
+          @Size(max = 2048)
+          String cursor,
+      @Parameter(
+              description =
+                  "Total count: false, exact or estimate (default: exact without cursor, false"
+                      + " with cursor)")
+          @RequestParam(required = false)
+          @Pattern(regexp = TotalCount.PARAMETER_PATTERN, message = "Invalid total count")
+          String includeTotal) {
 
+    if (cursor != null) {
+      TotalCount totalCount = TotalCount.fromParameter(includeTotal, TotalCount.NONE);
+      return tedTalkService.getTalksAfter(
+          author, year, keyword, PageCursor.decode(cursor), size, totalCount);
+    }
+    TotalCount totalCount = TotalCount.fromParameter(includeTotal, TotalCount.EXACT);
     PaginationParams params = PaginationParams.of(page, size, sortBy, sortDirection);
-    return tedTalkService.getTalks(author, year, keyword, params.toPageable());
+    return tedTalkService.getTalks(author, year, keyword, params, totalCount);
+  }
+
+  /**
+   * Creates, updates and deletes TED Talks in batch. The operations are sent as a JSON array or as
+   * newline-delimited JSON, one operation per line, and are read as they arrive and written in
+   * chunked transactions. Each operation succeeds or fails on its own.
+   *
+   * @param content the raw request body of operations such as {@code {"op": "UPDATE", "id": 7,
+   *     "talk": {...}}}.
+   * @return the outcome of every operation read, in batch order.
+   * @throws IOException if the request body cannot be read.
+   */
+  @PostMapping(
+      value = "/batch",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  @Operation(summary = "Create, update and delete TED Talks in batch")
+  public TalkBatchResponse applyBatch(InputStream content) throws IOException {
+    MappingIterator<TalkBatchOperation> operations;
+    try {
+      operations = objectMapper.readerFor(TalkBatchOperation.class).readValues(content);
+    } catch (JsonProcessingException e) {
+      return TalkBatchResponse.fromResults(
+          List.of(TalkBatchResult.failed(0, null, HttpStatus.BAD_REQUEST, "Unreadable operation")));
+    }
+    try (operations) {
+      return tedTalkService.applyBatch(operations);
+    }
+  }
+
+  /**
+   * Suggests TED Talks as the user types, from an in-memory index of title and author words.
+   *
+   * @param q the typed text; every word must start a word of the title or author.
+   * @param limit the maximum number of suggestions; defaults to 10, with a maximum value of 20.
+   * @return the matching TED Talks, most viewed first.
+   */
+  @GetMapping("/suggest")
+  @Operation(summary = "Suggest TED Talks matching the typed text")
+  public List<TalkSuggestion> suggest(
+      @Parameter(description = "Typed text") @RequestParam @NotBlank @Size(max = 100) String q,
+      @Parameter(description = "Maximum number of suggestions")
+          @RequestParam(defaultValue = "10")
+          @Min(1)
+          @Max(20)
+          int limit) {
+    return tedTalkService.suggest(q, limit);
+  }
+
+  /**
+   * Retrieves the statistics of the cache serving TED Talk lookups by identifier.
+   *
+   * @return the size and the hit, miss, eviction and invalidation counts of the cache.
+   */
+  @GetMapping("/cache/stats")
+  @Operation(summary = "Get TED Talk lookup cache statistics")
+  public TalkCacheStats getCacheStats() {
+    return tedTalkService.getCacheStats();
   }
 
   /**
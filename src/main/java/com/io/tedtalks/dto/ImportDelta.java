@@ -0,0 +1,11 @@
+package com.io.tedtalks.dto;
+
+/**
+ * Represents how the rows of a delta import compare to the stored talks.
+ *
+ * @param rowsUnchanged The number of rows identical to the stored talk with the same link; they are
+ *     not written.
+ * @param rowsChanged The number of rows whose stored talk was updated.
+ * @param rowsNew The number of rows inserted as new talks.
+ */
+public record ImportDelta(long rowsUnchanged, long rowsChanged, long rowsNew) {}
@@ -1,15 +1,31 @@
 package com.io.tedtalks.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Represents the response returned when initializing a CSV import operation.
  *
  * @param importId The unique identifier associated with the import process.
  * @param message A descriptive message about the import initialization.
  * @param statusUrl The URL to check the status of the import operation.
+ * @param uploadUrl The URL to stream the CSV content to, for streaming imports only.
  */
-public record ImportInitResponse(String importId, String message, String statusUrl) {
+public record ImportInitResponse(
+    String importId,
+    String message,
+    String statusUrl,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String uploadUrl) {
+
   public static ImportInitResponse of(String importId, String statusUrl) {
     return new ImportInitResponse(
-        importId, "CSV import started. Check status using the provided URL.", statusUrl);
+        importId, "CSV import started. Check status using the provided URL.", statusUrl, null);
+  }
+
+  public static ImportInitResponse ofStream(String importId, String statusUrl, String uploadUrl) {
+    return new ImportInitResponse(
+        importId,
+        "CSV import opened. Send the CSV content to the upload URL with PUT.",
+        statusUrl,
+        uploadUrl);
   }
 }
@@ -0,0 +1,23 @@
+package com.io.tedtalks.dto;
+
+/**
+ * Represents the hand-off metrics of the parser/writer pipeline of an import operation.
+ *
+ * @param queueCapacity The maximum number of batches waiting for a writer.
+ * @param writers The number of writers persisting batches concurrently.
+ * @param queueDepth The number of batches currently waiting for a writer.
+ * @param maxQueueDepth The highest number of batches that waited for a writer at once.
+ * @param batchesWritten The number of batches persisted so far.
+ * @param producerStallMillis Time the parser spent blocked on a full queue; high values mean the
+ *     import is bound by database writes.
+ * @param writerIdleMillis Time the writers spent waiting on an empty queue, summed over writers;
+ *     high values mean the import is bound by parsing.
+ */
+public record ImportPipelineMetrics(
+    int queueCapacity,
+    int writers,
+    int queueDepth,
+    int maxQueueDepth,
+    long batchesWritten,
+    long producerStallMillis,
+    long writerIdleMillis) {}
@@ -0,0 +1,13 @@
+package com.io.tedtalks.dto;
+
+/**
+ * Represents the row and byte counters of an import operation.
+ *
+ * @param rowsRead The number of data rows read so far, valid or not.
+ * @param rowsPersisted The number of rows written to the database so far.
+ * @param rowsSkipped The number of rows skipped because they were invalid.
+ * @param bytesProcessed The number of bytes of CSV content consumed by the parser.
+ * @param rowsPerSecond The average number of rows persisted per second since the import started.
+ */
+public record ImportProgress(
+    long rowsRead, long rowsPersisted, long rowsSkipped, long bytesProcessed, long rowsPerSecond) {}
@@ -1,5 +1,7 @@
 package com.io.tedtalks.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.io.tedtalks.config.TedTalksConfig;
 import com.io.tedtalks.entity.ImportStatusEntity;
 import java.time.Instant;
 
@@ -8,11 +10,25 @@ import java.time.Instant;
  *
  * @param importId The unique identifier of the import operation.
  * @param status The current status of the import operation.
+ * @param writeMode The way imported rows are written.
  * @param startedAt The timestamp when the import operation was initiated.
  * @param completedAt The timestamp when the import operation was completed, if applicable.
+ * @param progress The row and byte counters: live while the import is processing, final once it
+ *     has finished.
+ * @param delta The unchanged, changed and new row counts of a delta import: live while the import
+ *     is processing, final once it has finished.
+ * @param pipeline The parser/writer pipeline metrics: live while the import is processing, final
+ *     once it has finished.
  */
 public record ImportStatusResponse(
-    String importId, ImportStatus status, Instant startedAt, Instant completedAt) {
+    String importId,
+    ImportStatus status,
+    TedTalksConfig.Csv.WriteMode writeMode,
+    Instant startedAt,
+    Instant completedAt,
+    ImportProgress progress,
+    @JsonInclude(JsonInclude.Include.NON_NULL) ImportDelta delta,
+    @JsonInclude(JsonInclude.Include.NON_NULL) ImportPipelineMetrics pipeline) {
 
   /**
    * Converts an {@code ImportStatusEntity} to an {@code ImportStatusResponse}.
@@ -21,11 +37,35 @@ public record ImportStatusResponse(
    * @return a new instance of {@code ImportStatusResponse} constructed from the given entity
    */
   public static ImportStatusResponse fromEntity(ImportStatusEntity entity) {
+    return fromEntity(
+        entity, entity.getProgress(), entity.getDelta(), entity.getPipelineMetrics());
+  }
+
+  /**
+   * Converts an {@code ImportStatusEntity} to an {@code ImportStatusResponse} carrying the given
+   * progress, delta counts and pipeline metrics, typically the live values of an import still in
+   * progress.
+   *
+   * @param entity the {@code ImportStatusEntity} instance to be converted
+   * @param progress the progress counters to report
+   * @param delta the delta counts to report, or {@code null}
+   * @param pipeline the pipeline metrics to report, or {@code null}
+   * @return a new instance of {@code ImportStatusResponse} constructed from the given entity
+   */
+  public static ImportStatusResponse fromEntity(
+      ImportStatusEntity entity,
+      ImportProgress progress,
+      ImportDelta delta,
+      ImportPipelineMetrics pipeline) {
     return new ImportStatusResponse(
         entity.getImportId(),
         ImportStatus.valueOf(entity.getStatus().name()),
+        entity.getWriteMode(),
         entity.getStartedAt(),
-        entity.getCompletedAt());
+        entity.getCompletedAt(),
+        progress,
+        delta,
+        pipeline);
   }
 
   /** Represents the status of an import process. */
@@ -0,0 +1,26 @@
+package com.io.tedtalks.dto;
+
+import com.io.tedtalks.entity.InfluenceWeights;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Represents a request to change the default influence weights.
+ *
+ * @param viewsWeight the weight attributed to the number of views (0.0 to 1.0 inclusive)
+ * @param likesWeight the weight attributed to the number of likes (0.0 to 1.0 inclusive)
+ */
+public record InfluenceWeightsRequest(
+    @NotNull @DecimalMin("0.0") @DecimalMax("1.0") Double viewsWeight,
+    @NotNull @DecimalMin("0.0") @DecimalMax("1.0") Double likesWeight) {
+
+  /**
+   * Converts the request into influence weights.
+   *
+   * @return the requested weights
+   */
+  public InfluenceWeights toWeights() {
+    return new InfluenceWeights(viewsWeight, likesWeight);
+  }
+}
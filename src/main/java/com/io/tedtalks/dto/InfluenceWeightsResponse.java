@@ -0,0 +1,28 @@
+package com.io.tedtalks.dto;
+
+import com.io.tedtalks.entity.InfluenceWeights;
+
+/**
+ * Represents the default influence weights.
+ *
+ * @param viewsWeight the weight attributed to the number of views
+ * @param likesWeight the weight attributed to the number of likes
+ * @param scoresCurrent whether every stored influence score has been computed under these weights;
+ *     false while they are being recomputed after a change
+ */
+public record InfluenceWeightsResponse(
+    double viewsWeight, double likesWeight, boolean scoresCurrent) {
+
+  /**
+   * Creates a response from the weights in use.
+   *
+   * @param weights the weights in use
+   * @param scoresCurrent whether the stored scores have been computed under them
+   * @return the response
+   */
+  public static InfluenceWeightsResponse fromWeights(
+      InfluenceWeights weights, boolean scoresCurrent) {
+    return new InfluenceWeightsResponse(
+        weights.viewsWeight(), weights.likesWeight(), scoresCurrent);
+  }
+}
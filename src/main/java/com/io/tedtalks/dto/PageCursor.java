@@ -0,0 +1,95 @@
+package com.io.tedtalks.dto;
+
+import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of the last row of a page in a keyset-paginated listing: the sort field and direction,
+ * the sort value of the row and its id, which breaks ties between rows with equal sort values.
+ * Clients receive it as an opaque token and send it back to fetch the following page.
+ *
+ * @param sortBy The field the listing is sorted by.
+ * @param direction The direction of the sort.
+ * @param value The sort value of the last row, as text.
+ * @param id The id of the last row.
+ */
+public record PageCursor(String sortBy, Sort.Direction direction, String value, long id) {
+
+  private static final Set<String> NUMERIC_FIELDS = Set.of("id", "year", "views", "likes");
+  private static final String SEPARATOR = ":";
+  private static final int PARTS = 4;
+
+  /**
+   * Creates the cursor pointing after the given row.
+   *
+   * @param last the last row of the page
+   * @param sortBy the field the listing is sorted by
+   * @param direction the direction of the sort
+   * @return a cursor positioned on the given row
+   */
+  public static PageCursor after(TedTalkEntity last, String sortBy, Sort.Direction direction) {
+    String value =
+        switch (sortBy) {
+          case "title" -> last.getTitle();
+          case "author" -> last.getAuthor();
+          case "year" -> String.valueOf(last.getYear());
+          case "views" -> String.valueOf(last.getViews());
+          case "likes" -> String.valueOf(last.getLikes());
+          default -> String.valueOf(last.getId());
+        };
+    return new PageCursor(sortBy, direction, value, last.getId());
+  }
+
+  /**
+   * Decodes a cursor token produced by {@link #encode()}.
+   *
+   * @param token the cursor token sent by the client
+   * @return the decoded cursor
+   * @throws InvalidCursorException if the token is not a valid cursor
+   */
+  public static PageCursor decode(String token) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = decoded.split(SEPARATOR, PARTS);
+      if (parts.length != PARTS || !PaginationParams.isSortField(parts[0])) {
+        throw new InvalidCursorException("Invalid cursor: " + token);
+      }
+      PageCursor cursor =
+          new PageCursor(
+              parts[0], Sort.Direction.valueOf(parts[1]), parts[3], Long.parseLong(parts[2]));
+      cursor.sortValue();
+      return cursor;
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException("Invalid cursor: " + token);
+    }
+  }
+
+  /**
+   * Encodes this cursor as an opaque, URL-safe token.
+   *
+   * @return the cursor token to hand to the client
+   */
+  public String encode() {
+    String raw = String.join(SEPARATOR, sortBy, direction.name(), String.valueOf(id), value);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the sort value of the last row, typed like the column it is compared with.
+   *
+   * @return a {@code Float} score for relevance, a {@code Long} for numeric sort fields, the text
+   *     value otherwise
+   */
+  public Object sortValue() {
+    if (PaginationParams.RELEVANCE.equals(sortBy)) {
+      return Float.valueOf(value);
+    }
+    return NUMERIC_FIELDS.contains(sortBy) ? Long.valueOf(value) : value;
+  }
+}
@@ -1,55 +1,122 @@
 package com.io.tedtalks.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 /**
  * Represents a paged response that contains a list of items and associated metadata about the
  * pagination state.
  *
  * @param <T> The type of elements in the paged response.
+ * @param rows The elements of the page.
+ * @param metadata The pagination state of the page.
+ * @param nextCursor The token to send back as {@code cursor} to fetch the following page, or
+ *     {@code null} on the last page.
  */
-public record PagedResponse<T>(List<T> rows, PageMetadata metadata) {
+public record PagedResponse<T>(
+    List<T> rows,
+    PageMetadata metadata,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor) {
 
   /**
    * Creates a new instance of {@code PagedResponse} containing the provided list of elements along
-   * with the metadata extracted from the given page information.
+   * with the metadata extracted from the given page information. An exact total is taken from the
+   * slice when it is a {@code Page}.
    *
    * @param <T> The type of elements in the paged response.
    * @param content The list of elements to include in the response.
-   * @param page The page information containing metadata about the pagination state.
+   * @param slice The page information containing metadata about the pagination state.
+   * @param nextCursor The cursor of the following page, or {@code null} on the last page.
    * @return A new {@code PagedResponse} instance with the specified content and metadata.
    */
-  public static <T> PagedResponse<T> of(List<T> content, Page<?> page) {
-    return new PagedResponse<>(List.copyOf(content), PageMetadata.from(page));
+  public static <T> PagedResponse<T> of(List<T> content, Slice<?> slice, String nextCursor) {
+    return slice instanceof Page<?> page
+        ? of(content, slice, TotalCount.EXACT, page.getTotalElements(), nextCursor)
+        : of(content, slice, TotalCount.NONE, null, nextCursor);
   }
 
+  /**
+   * Creates a new instance of {@code PagedResponse} containing the provided list of elements along
+   * with the metadata extracted from the given page information and the given total.
+   *
+   * @param <T> The type of elements in the paged response.
+   * @param content The list of elements to include in the response.
+   * @param slice The page information containing metadata about the pagination state.
+   * @param totalKind The kind of the total count.
+   * @param totalElements The number of matching elements, or {@code null} if not counted.
+   * @param nextCursor The cursor of the following page, or {@code null} on the last page.
+   * @return A new {@code PagedResponse} instance with the specified content and metadata.
+   */
+  public static <T> PagedResponse<T> of(
+      List<T> content,
+      Slice<?> slice,
+      TotalCount totalKind,
+      Long totalElements,
+      String nextCursor) {
+    return new PagedResponse<>(
+        List.copyOf(content),
+        new PageMetadata(
+            slice.getNumber(),
+            slice.getSize(),
+            totalElements,
+            totalPages(totalElements, slice.getSize()),
+            totalKind,
+            slice.isFirst(),
+            slice.isLast(),
+            slice.hasNext(),
+            slice.hasPrevious()),
+        nextCursor);
+  }
+
+  /**
+   * Creates a new instance of {@code PagedResponse} for a page fetched after a cursor, which has
+   * no page number.
+   *
+   * @param <T> The type of elements in the paged response.
+   * @param content The list of elements to include in the response.
+   * @param size The requested page size.
+   * @param totalKind The kind of the total count.
+   * @param totalElements The number of matching elements, or {@code null} if not counted.
+   * @param nextCursor The cursor of the following page, or {@code null} on the last page.
+   * @return A new {@code PagedResponse} instance with the specified content and metadata.
+   */
+  public static <T> PagedResponse<T> ofCursor(
+      List<T> content, int size, TotalCount totalKind, Long totalElements, String nextCursor) {
+    boolean hasNext = nextCursor != null;
+    return new PagedResponse<>(
+        List.copyOf(content),
+        new PageMetadata(
+            null,
+            size,
+            totalElements,
+            totalPages(totalElements, size),
+            totalKind,
+            false,
+            !hasNext,
+            hasNext,
+            true),
+        nextCursor);
+  }
+
+  private static Integer totalPages(Long totalElements, int size) {
+    return totalElements == null ? null : (int) Math.ceilDiv(totalElements, (long) size);
+  }
+
+  /**
+   * Pagination state of a page. The page number is left out for pages fetched after a cursor, and
+   * the totals when they were not requested; {@code totalKind} tells whether they are exact or
+   * estimated.
+   */
   record PageMetadata(
-      int page,
+      @JsonInclude(JsonInclude.Include.NON_NULL) Integer page,
       int size,
-      long totalElements,
-      int totalPages,
+      @JsonInclude(JsonInclude.Include.NON_NULL) Long totalElements,
+      @JsonInclude(JsonInclude.Include.NON_NULL) Integer totalPages,
+      TotalCount totalKind,
       boolean first,
       boolean last,
       boolean hasNext,
-      boolean hasPrevious) {
-
-    /**
-     * Creates a new instance of {@code PageMetadata} based on the given {@code Page} object.
-     *
-     * @param page the {@code Page} object containing details about the current page.
-     * @return a {@code PageMetadata} instance representing the metadata of the given page.
-     */
-    static PageMetadata from(Page<?> page) {
-      return new PageMetadata(
-          page.getNumber(),
-          page.getSize(),
-          page.getTotalElements(),
-          page.getTotalPages(),
-          page.isFirst(),
-          page.isLast(),
-          page.hasNext(),
-          page.hasPrevious());
-    }
-  }
+      boolean hasPrevious) {}
 }
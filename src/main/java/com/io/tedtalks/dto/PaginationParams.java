@@ -1,16 +1,32 @@
 package com.io.tedtalks.dto;
 
-import java.util.Set;
+import java.util.Map;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
-/** Represents the parameters used for pagination and sorting in a pageable request. */
+/**
+ * Represents the parameters used for pagination and sorting in a pageable request.
+ *
+ * <p>Besides the talk fields, results may be sorted by {@value #RELEVANCE}, the score of a
+ * full-text keyword search. Listings without a keyword have no score and fall back to the id order.
+ */
 public record PaginationParams(int page, int size, String sortBy, Sort.Direction sortDirection) {
 
+  /** Sort field ranking keyword search results by their full-text score. */
+  public static final String RELEVANCE = "relevance";
+
   private static final int MAX_SIZE = 100;
-  private static final Set<String> ALLOWED_SORT_FIELDS =
-      Set.of("id", "title", "author", "year", "views", "likes");
+  private static final String ID = "id";
+  private static final Map<String, String> SORT_COLUMNS =
+      Map.of(
+          ID, "id",
+          "title", "title",
+          "author", "author",
+          "year", "year_value",
+          "views", "views",
+          "likes", "likes",
+          RELEVANCE, "id");
 
   /**
    * Creates a new instance of {@code PaginationParams} with sanitized and validated pagination and
@@ -32,7 +48,7 @@ public record PaginationParams(int page, int size, String sortBy, Sort.Direction
     int safePage = Math.max(page, 0);
     int safeSize = Math.max(1, Math.min(size, MAX_SIZE));
 
-    String safeSortBy = (sortBy != null && ALLOWED_SORT_FIELDS.contains(sortBy)) ? sortBy : "id";
+    String safeSortBy = isSortField(sortBy) ? sortBy : ID;
 
     Sort.Direction safeDirection = sortDirection != null ? sortDirection : Sort.Direction.ASC;
 
@@ -40,12 +56,48 @@ public record PaginationParams(int page, int size, String sortBy, Sort.Direction
   }
 
   /**
-   * Converts the current pagination and sorting parameters into a {@code Pageable} object.
+   * Returns whether the given field is one the results may be sorted by.
+   *
+   * @param sortBy the sort field to check
+   * @return {@code true} if the field is an allowed sort field
+   */
+  public static boolean isSortField(String sortBy) {
+    return sortBy != null && SORT_COLUMNS.containsKey(sortBy);
+  }
+
+  /**
+   * Returns whether the given {@code ted_talks} column backs one of the allowed sort fields.
+   *
+   * @param column the column name to check
+   * @return {@code true} if results may be sorted by the column
+   */
+  public static boolean isSortColumn(String column) {
+    return SORT_COLUMNS.containsValue(column);
+  }
+
+  /**
+   * Returns the {@code ted_talks} column backing an allowed sort field.
+   *
+   * @param sortBy an allowed sort field
+   * @return the name of the column holding the field
+   */
+  public static String sortColumn(String sortBy) {
+    return SORT_COLUMNS.get(sortBy);
+  }
+
+  /**
+   * Converts the current pagination and sorting parameters into a {@code Pageable} object. The sort
+   * refers to database columns, as expected by native queries, and is completed with the id so
+   * that rows with equal sort values keep a stable order across pages.
    *
    * @return a {@code Pageable} instance representing the page number, size, and sorting criteria
    *     specified within this object.
    */
   public Pageable toPageable() {
-    return PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+    Sort sort = Sort.by(sortDirection, sortColumn(sortBy));
+    if (!ID.equals(sortColumn(sortBy))) {
+      sort = sort.and(Sort.by(sortDirection, ID));
+    }
+    return PageRequest.of(page, size, sort);
   }
 }
@@ -0,0 +1,21 @@
+package com.io.tedtalks.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Represents one operation of a batch of TED Talk writes.
+ *
+ * @param op the kind of write
+ * @param id the identifier of the talk to update or delete; required by updates and deletes
+ * @param talk the details of the talk to create or update; required by creates and updates
+ */
+public record TalkBatchOperation(@NotNull Type op, Long id, @Valid TedTalkRequest talk) {
+
+  /** The kinds of write a batch operation performs. */
+  public enum Type {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+}
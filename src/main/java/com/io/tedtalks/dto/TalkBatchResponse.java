@@ -0,0 +1,29 @@
+package com.io.tedtalks.dto;
+
+import java.util.List;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Represents the outcome of a batch of TED Talk writes.
+ *
+ * @param succeeded the number of operations that succeeded
+ * @param failed the number of operations that failed
+ * @param results the outcome of every operation, in batch order
+ */
+public record TalkBatchResponse(int succeeded, int failed, List<TalkBatchResult> results) {
+
+  /**
+   * Creates a response summarizing the given results.
+   *
+   * @param results the outcome of every operation, in batch order
+   * @return a response with the success and failure counts of the results
+   */
+  public static TalkBatchResponse fromResults(List<TalkBatchResult> results) {
+    int succeeded =
+        (int)
+            results.stream()
+                .filter(result -> HttpStatus.valueOf(result.status()).is2xxSuccessful())
+                .count();
+    return new TalkBatchResponse(succeeded, results.size() - succeeded, results);
+  }
+}
@@ -0,0 +1,55 @@
+package com.io.tedtalks.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Represents the outcome of one operation of a batch of TED Talk writes.
+ *
+ * @param index the position of the operation in the batch, starting at 0
+ * @param op the kind of write, or null if the operation could not be read
+ * @param status the HTTP status the operation would have been answered with on its own
+ * @param id the identifier of the created, updated or deleted talk, if known
+ * @param error the reason the operation failed, or null if it succeeded
+ */
+public record TalkBatchResult(
+    int index,
+    TalkBatchOperation.Type op,
+    int status,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long id,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String error) {
+
+  /**
+   * Creates the result of a successful operation.
+   *
+   * @param index the position of the operation in the batch
+   * @param op the kind of write
+   * @param id the identifier of the written talk
+   * @return a result with the status matching the kind of write
+   */
+  public static TalkBatchResult succeeded(int index, TalkBatchOperation.Type op, long id) {
+    HttpStatus status =
+        switch (op) {
+          case CREATE -> HttpStatus.CREATED;
+          case UPDATE -> HttpStatus.OK;
+          case DELETE -> HttpStatus.NO_CONTENT;
+        };
+    return new TalkBatchResult(index, op, status.value(), id, null);
+  }
+
+  /**
+   * Creates the result of a failed operation.
+   *
+   * @param index the position of the operation in the batch
+   * @param operation the operation, or null if it could not be read
+   * @param status the status describing the failure
+   * @param error the reason of the failure
+   * @return a result carrying the status and reason
+   */
+  public static TalkBatchResult failed(
+      int index, TalkBatchOperation operation, HttpStatus status, String error) {
+    return operation == null
+        ? new TalkBatchResult(index, null, status.value(), null, error)
+        : new TalkBatchResult(index, operation.op(), status.value(), operation.id(), error);
+  }
+}
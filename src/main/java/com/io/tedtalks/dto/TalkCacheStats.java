@@ -0,0 +1,14 @@
+package com.io.tedtalks.dto;
+
+/**
+ * Represents the statistics of the cache of single-talk lookups since the application started.
+ *
+ * @param size The number of talks currently cached.
+ * @param maxSize The maximum number of talks kept in the cache.
+ * @param hits The number of lookups served from the cache.
+ * @param misses The number of lookups read from the database.
+ * @param evictions The number of talks dropped because the cache was full or they expired.
+ * @param invalidations The number of talks dropped because they were written or deleted.
+ */
+public record TalkCacheStats(
+    int size, int maxSize, long hits, long misses, long evictions, long invalidations) {}
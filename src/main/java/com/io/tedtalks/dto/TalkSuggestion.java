@@ -0,0 +1,10 @@
+package com.io.tedtalks.dto;
+
+/**
+ * Represents a TED Talk suggested while the user types.
+ *
+ * @param id the identifier of the talk
+ * @param title the title of the talk
+ * @param author the author of the talk
+ */
+public record TalkSuggestion(long id, String title, String author) {}
@@ -0,0 +1,43 @@
+package com.io.tedtalks.dto;
+
+import java.util.Locale;
+
+/**
+ * Kinds of total counts a listing page can carry.
+ *
+ * <ul>
+ *   <li>NONE - No count is computed; the totals are left out of the page metadata.
+ *   <li>EXACT - Matching rows are counted with a {@code COUNT} query.
+ *   <li>ESTIMATE - The total comes from cached match counts or table statistics and may lag
+ *       behind recent writes.
+ * </ul>
+ */
+public enum TotalCount {
+  NONE,
+  EXACT,
+  ESTIMATE;
+
+  /** Values accepted by the {@code includeTotal} request parameter, ignoring case. */
+  public static final String PARAMETER_PATTERN = "(?i)false|true|exact|estimate";
+
+  /**
+   * Parses the {@code includeTotal} request parameter. {@code true} is kept as an alias of {@code
+   * exact}.
+   *
+   * @param includeTotal the parameter value, matching {@link #PARAMETER_PATTERN}, or {@code null}
+   * @param absent the kind to use when the parameter is not present
+   * @return the requested kind of total count
+   * @throws IllegalArgumentException if the value is not a valid parameter value
+   */
+  public static TotalCount fromParameter(String includeTotal, TotalCount absent) {
+    if (includeTotal == null) {
+      return absent;
+    }
+    return switch (includeTotal.toLowerCase(Locale.ROOT)) {
+      case "false" -> NONE;
+      case "true", "exact" -> EXACT;
+      case "estimate" -> ESTIMATE;
+      default -> throw new IllegalArgumentException("Invalid includeTotal: " + includeTotal);
+    };
+  }
+}
@@ -1,5 +1,9 @@
 package com.io.tedtalks.entity;
 
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.ImportDelta;
+import com.io.tedtalks.dto.ImportPipelineMetrics;
+import com.io.tedtalks.dto.ImportProgress;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -7,6 +11,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.InstantSource;
 import lombok.AccessLevel;
@@ -26,16 +31,58 @@ public class ImportStatusEntity {
   @Column(nullable = false)
   private ImportStatus status;
 
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, updatable = false)
+  private TedTalksConfig.Csv.WriteMode writeMode;
+
   @Column(nullable = false, updatable = false)
   private Instant startedAt;
 
   private Instant completedAt;
 
+  private long rowsRead;
+
+  private long rowsPersisted;
+
+  private long rowsSkipped;
+
+  private long bytesProcessed;
+
+  private long rowsPerSecond;
+
+  private long rowsUnchanged;
+
+  private long rowsChanged;
+
+  private long rowsNew;
+
+  private String spoolFile;
+
+  private long checkpointOffset;
+
+  private long checkpointRows;
+
+  private long checkpointPersisted;
+
+  private Integer queueCapacity;
+
+  private Integer writers;
+
+  private Integer maxQueueDepth;
+
+  private Long batchesWritten;
+
+  private Long producerStallMillis;
+
+  private Long writerIdleMillis;
+
   @Version private long version;
 
-  private ImportStatusEntity(String importId, Instant startedAt) {
+  private ImportStatusEntity(
+      String importId, TedTalksConfig.Csv.WriteMode writeMode, Instant startedAt) {
     this.importId = importId;
     this.status = ImportStatus.PROCESSING;
+    this.writeMode = writeMode;
     this.startedAt = startedAt;
   }
 
@@ -48,7 +95,40 @@ public class ImportStatusEntity {
    * @return a new instance of {@code ImportStatusEntity}
    */
   public static ImportStatusEntity start(String importId, InstantSource clock) {
-    return new ImportStatusEntity(importId, clock.instant());
+    return start(importId, TedTalksConfig.Csv.WriteMode.INSERT, clock);
+  }
+
+  /**
+   * Creates and returns a new {@code ImportStatusEntity} instance with the given import ID and
+   * write mode, and the current time as the start time.
+   *
+   * @param importId the unique identifier for the import process
+   * @param writeMode the way imported rows are written
+   * @param clock the source of the current time used to record the start time
+   * @return a new instance of {@code ImportStatusEntity}
+   */
+  public static ImportStatusEntity start(
+      String importId, TedTalksConfig.Csv.WriteMode writeMode, InstantSource clock) {
+    return new ImportStatusEntity(importId, writeMode, clock.instant());
+  }
+
+  /**
+   * Records the spool file holding the uploaded content, so that the import can be resumed from
+   * its last checkpoint if the application stops before it finishes.
+   *
+   * @param spoolFile the spooled CSV file
+   */
+  public void attachSpoolFile(Path spoolFile) {
+    this.spoolFile = spoolFile.toString();
+  }
+
+  /**
+   * Returns whether the import was interrupted and can be resumed from its spool file.
+   *
+   * @return {@code true} if the import is processing and has a spool file
+   */
+  public boolean isResumable() {
+    return status == ImportStatus.PROCESSING && spoolFile != null;
   }
 
   /**
@@ -71,6 +151,83 @@ public class ImportStatusEntity {
     this.completedAt = clock.instant();
   }
 
+  /**
+   * Records the progress counters of this import.
+   *
+   * @param progress the progress counters to record
+   */
+  public void recordProgress(ImportProgress progress) {
+    this.rowsRead = progress.rowsRead();
+    this.rowsPersisted = progress.rowsPersisted();
+    this.rowsSkipped = progress.rowsSkipped();
+    this.bytesProcessed = progress.bytesProcessed();
+    this.rowsPerSecond = progress.rowsPerSecond();
+  }
+
+  /**
+   * Returns the progress counters as last recorded.
+   *
+   * @return the recorded progress
+   */
+  public ImportProgress getProgress() {
+    return new ImportProgress(rowsRead, rowsPersisted, rowsSkipped, bytesProcessed, rowsPerSecond);
+  }
+
+  /**
+   * Records how the rows of a delta import compared to the stored talks.
+   *
+   * @param delta the delta counts
+   */
+  public void recordDelta(ImportDelta delta) {
+    this.rowsUnchanged = delta.rowsUnchanged();
+    this.rowsChanged = delta.rowsChanged();
+    this.rowsNew = delta.rowsNew();
+  }
+
+  /**
+   * Returns the delta counts as last recorded, if this is a delta import.
+   *
+   * @return the delta counts, or {@code null} if the import does not run in delta mode
+   */
+  public ImportDelta getDelta() {
+    return writeMode == TedTalksConfig.Csv.WriteMode.DELTA
+        ? new ImportDelta(rowsUnchanged, rowsChanged, rowsNew)
+        : null;
+  }
+
+  /**
+   * Records the final metrics of the parser/writer pipeline that processed this import.
+   *
+   * @param metrics the pipeline metrics at the end of the import
+   */
+  public void recordPipelineMetrics(ImportPipelineMetrics metrics) {
+    this.queueCapacity = metrics.queueCapacity();
+    this.writers = metrics.writers();
+    this.maxQueueDepth = metrics.maxQueueDepth();
+    this.batchesWritten = metrics.batchesWritten();
+    this.producerStallMillis = metrics.producerStallMillis();
+    this.writerIdleMillis = metrics.writerIdleMillis();
+  }
+
+  /**
+   * Returns the recorded pipeline metrics, if the import has finished.
+   *
+   * @return the pipeline metrics, or {@code null} if none were recorded
+   */
+  public ImportPipelineMetrics getPipelineMetrics() {
+    if (maxQueueDepth == null) {
+      return null;
+    }
+    return new ImportPipelineMetrics(
+        queueCapacity,
+        writers,
+        0,
+        maxQueueDepth,
+        batchesWritten,
+        producerStallMillis,
+        writerIdleMillis);
+  }
+
   /**
    * Represents the various states of an import process within the system.
    *
@@ -0,0 +1,39 @@
+package com.io.tedtalks.entity;
+
+/**
+ * The weights of views and likes in the influence score of a TED Talk.
+ *
+ * <p>The weights in use are owned by the influence service, which passes them to every write that
+ * stores a score, through the entity or the JDBC bulk-load path.
+ *
+ * @param viewsWeight the weight attributed to the number of views
+ * @param likesWeight the weight attributed to the number of likes
+ */
+public record InfluenceWeights(double viewsWeight, double likesWeight) {
+
+  /**
+   * Returns these weights with either weight replaced, such as by a per-request override.
+   *
+   * @param viewsWeight the weight of views to use instead, or {@code null} to keep this one
+   * @param likesWeight the weight of likes to use instead, or {@code null} to keep this one
+   * @return the resulting weights
+   */
+  public InfluenceWeights withOverrides(Double viewsWeight, Double likesWeight) {
+    return new InfluenceWeights(
+        viewsWeight == null ? this.viewsWeight : viewsWeight,
+        likesWeight == null ? this.likesWeight : likesWeight);
+  }
+
+  /**
+   * Computes the influence score of a talk. The arithmetic matches the SQL expression {@code
+   * CAST(views AS DOUBLE) * viewsWeight + CAST(likes AS DOUBLE) * likesWeight}, so that scores
+   * computed here and in the database are equal.
+   *
+   * @param views the number of views
+   * @param likes the number of likes
+   * @return the influence score
+   */
+  public double score(long views, long likes) {
+    return (double) views * viewsWeight + (double) likes * likesWeight;
+  }
+}
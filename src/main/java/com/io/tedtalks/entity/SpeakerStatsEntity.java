@@ -0,0 +1,38 @@
+package com.io.tedtalks.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the aggregated talks of a speaker: one row per distinct author, holding the totals
+ * the influence analysis ranks speakers by. Rows are never written through JPA; they are kept up
+ * to date by {@code SpeakerStatsRepository}, which applies the deltas of every talk write.
+ */
+@Entity
+@Table(
+    name = "speaker_stats",
+    indexes = @Index(name = "idx_speaker_stats_author_lc", columnList = "author_lc"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SpeakerStatsEntity {
+
+  @Id private String author;
+
+  @Column(name = "author_lc", nullable = false)
+  private String authorLc;
+
+  @Column(nullable = false)
+  private long totalViews;
+
+  @Column(nullable = false)
+  private long totalLikes;
+
+  @Column(nullable = false)
+  private long talkCount;
+}
@@ -9,28 +9,62 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.YearMonth;
+import java.util.Locale;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
-/** Represents a TED Talk entity in the system. */
+/**
+ * Represents a TED Talk entity in the system. A talk is identified naturally by its link, which is
+ * unique, and carries a hash of its content so that re-imports can tell changed rows from
+ * unchanged ones without comparing every column. Its author and title are also stored lower-case,
+ * in indexed columns that serve the case-insensitive prefix filters of the listing. Its influence
+ * score, under the weights given when it is created or updated, is stored in an indexed column as
+ * well, so that the most influential talks are read from the top of the index.
+ */
 @Entity
 @Table(
     name = "ted_talks",
     indexes = {
       @Index(name = "idx_author", columnList = "author"),
+      @Index(name = "idx_author_lc", columnList = "author_lc"),
+      @Index(name = "idx_title_lc", columnList = "title_lc"),
       @Index(name = "idx_year", columnList = "year_value"),
       @Index(name = "idx_views", columnList = "views"),
-      @Index(name = "idx_likes", columnList = "likes")
-    })
+      @Index(name = "idx_likes", columnList = "likes"),
+      @Index(name = "idx_influence", columnList = "influence DESC, id")
+    },
+    uniqueConstraints =
+        @UniqueConstraint(name = TedTalkEntity.LINK_CONSTRAINT, columnNames = "link"))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class TedTalkEntity {
 
+  /** Name of the unique constraint on {@link #link}, the natural key of a talk. */
+  public static final String LINK_CONSTRAINT = "uk_ted_talks_link";
+
+  /** Name of the database sequence backing {@link #id}. */
+  public static final String ID_SEQUENCE = "ted_talks_seq";
+
+  /**
+   * Number of identifiers reserved per sequence call. Hibernate hands them out from memory using
+   * the pooled-lo optimizer, so a batch of this size costs a single sequence round-trip.
+   */
+  public static final int ID_ALLOCATION_SIZE = 500;
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+  @SequenceGenerator(
+      name = ID_SEQUENCE,
+      sequenceName = ID_SEQUENCE,
+      allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
   @Column(nullable = false)
@@ -39,6 +73,12 @@ public class TedTalkEntity {
   @Column(nullable = false)
   private String author;
 
+  @Column(name = "title_lc", nullable = false)
+  private String titleLc;
+
+  @Column(name = "author_lc", nullable = false)
+  private String authorLc;
+
   @Column(name = "year_value", nullable = false)
   private int year;
 
@@ -54,22 +94,30 @@ public class TedTalkEntity {
   @Column(nullable = false)
   private String link;
 
+  @Column(nullable = false)
+  private long contentHash;
+
+  @Column(nullable = false)
+  private double influence;
+
   /**
    * Creates a new instance of {@code TedTalkEntity} based on the properties of the provided {@code
    * TedTalkRequest}.
    *
    * @param request the {@code TedTalkRequest} containing the data required to create the entity
+   * @param weights the weights to store the influence score under
    * @return a newly created {@code TedTalkEntity} populated with the values from the provided
    *     request
    */
-  public static TedTalkEntity of(TedTalkRequest request) {
+  public static TedTalkEntity of(TedTalkRequest request, InfluenceWeights weights) {
     return of(
         request.title(),
         request.author(),
         request.date(),
         request.views(),
         request.likes(),
-        request.link());
+        request.link(),
+        weights);
   }
 
   /**
@@ -81,10 +129,17 @@ public class TedTalkEntity {
    * @param views the number of views the TED Talk has received; must be non-negative
    * @param likes the number of likes the TED Talk has received; must be non-negative
    * @param link the link to the TED Talk; must not be null or blank
+   * @param weights the weights to store the influence score under
    * @return a new {@code TedTalkEntity} instance populated with the specified properties
    */
   public static TedTalkEntity of(
-      String title, String author, YearMonth yearMonth, long views, long likes, String link) {
+      String title,
+      String author,
+      YearMonth yearMonth,
+      long views,
+      long likes,
+      String link,
+      InfluenceWeights weights) {
 
     TedTalkEntity entity = new TedTalkEntity();
     entity.title = title.trim();
@@ -94,6 +149,7 @@ public class TedTalkEntity {
     entity.views = Math.max(0, views);
     entity.likes = Math.max(0, likes);
     entity.link = link.trim();
+    entity.influence = weights.score(entity.views, entity.likes);
 
     return entity;
   }
@@ -137,9 +193,10 @@ public class TedTalkEntity {
    *
    * @param request the {@code TedTalkRequest} containing the updated data for the TED Talk entity;
    *     must not be null
+   * @param weights the weights to store the influence score under
    * @throws IllegalArgumentException if the provided request is null
    */
-  public void updateFrom(TedTalkRequest request) {
+  public void updateFrom(TedTalkRequest request, InfluenceWeights weights) {
     if (request == null) {
       throw new IllegalArgumentException("Request must not be null");
     }
@@ -150,11 +207,34 @@ public class TedTalkEntity {
     this.views = request.views();
     this.likes = request.likes();
     this.link = request.link().trim();
+    this.titleLc = searchKey(title);
+    this.authorLc = searchKey(author);
+    this.influence = weights.score(Math.max(0, views), Math.max(0, likes));
   }
 
-  @PrePersist
-  @PreUpdate
-  private void validate() {
+  /**
+   * Returns the lower-case form of a title or author under which it is stored in the search
+   * columns and matched by the listing filters. Shared by the JPA lifecycle callback and the JDBC
+   * bulk-load path.
+   *
+   * @param value the title or author
+   * @return the trimmed, lower-case value
+   */
+  public static String searchKey(String value) {
+    return value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Checks the invariants every persisted TED Talk must satisfy. Shared by the JPA lifecycle
+   * callback and the JDBC bulk-load path, which does not go through it.
+   *
+   * @param title the title of the TED Talk
+   * @param author the author of the TED Talk
+   * @param month the month of the TED Talk, from 1 to 12
+   * @param link the link to the TED Talk
+   * @throws IllegalStateException if a required value is missing or the month is out of range
+   */
+  public static void checkInvariants(String title, String author, int month, String link) {
     if (title == null || title.isBlank()) {
       throw new IllegalStateException("Title is required");
     }
@@ -167,11 +247,97 @@ public class TedTalkEntity {
     if (month < 1 || month > 12) {
       throw new IllegalStateException("Invalid month: " + month);
     }
+  }
+
+  /**
+   * Computes the 64-bit content hash of a TED Talk over its normalized values, the way they are
+   * stored: strings trimmed, counters clamped at zero. Two talks with the same stored values have
+   * the same hash. Shared by the JPA lifecycle callback and the JDBC bulk-load path.
+   *
+   * @param title the title of the TED Talk
+   * @param author the author of the TED Talk
+   * @param year the year of the TED Talk
+   * @param month the month of the TED Talk
+   * @param views the number of views
+   * @param likes the number of likes
+   * @param link the link to the TED Talk
+   * @return the content hash
+   */
+  public static long contentHash(
+      String title, String author, int year, int month, long views, long likes, String link) {
+    long hash = FNV_OFFSET_BASIS;
+    hash = hash(hash, title.trim());
+    hash = hash(hash, author.trim());
+    hash = hash(hash, ((long) year << 4) | month);
+    hash = hash(hash, Math.max(0, views));
+    hash = hash(hash, Math.max(0, likes));
+    hash = hash(hash, link.trim());
+    return finish(hash);
+  }
+
+  /**
+   * Returns whether a failed write was rejected by the unique constraint on the link, as opposed
+   * to any other constraint. Databases name the violated constraint or its backing index in the
+   * error message, so the cause chain is searched for {@link #LINK_CONSTRAINT}.
+   *
+   * @param failure the exception thrown by the write
+   * @return {@code true} if the write conflicts with a stored link
+   */
+  public static boolean violatesLinkConstraint(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      String message = cause.getMessage();
+      if (message != null && message.toLowerCase(Locale.ROOT).contains(LINK_CONSTRAINT)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Computes the 64-bit hash of a trimmed link, used to key talks by their natural key in memory.
+   *
+   * @param link the link to the TED Talk
+   * @return the link hash
+   */
+  public static long linkHash(String link) {
+    return finish(hash(FNV_OFFSET_BASIS, link.trim()));
+  }
+
+  /** Folds the characters of a string and a terminator into an FNV-1a hash. */
+  private static long hash(long hash, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+    }
+    return (hash ^ 0xFFFF) * FNV_PRIME;
+  }
+
+  /** Folds the bytes of a number into an FNV-1a hash. */
+  private static long hash(long hash, long value) {
+    for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+      hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  /** Spreads the bits of an FNV-1a hash with the MurmurHash3 finalizer. */
+  private static long finish(long hash) {
+    hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+    hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return hash ^ (hash >>> 33);
+  }
+
+  @PrePersist
+  @PreUpdate
+  private void validate() {
+    checkInvariants(title, author, month, link);
 
     title = title.trim();
     author = author.trim();
     link = link.trim();
     views = Math.max(0, views);
     likes = Math.max(0, likes);
+    titleLc = searchKey(title);
+    authorLc = searchKey(author);
+    contentHash = contentHash(title, author, year, month, views, likes, link);
   }
 }
@@ -0,0 +1,11 @@
+package com.io.tedtalks.event;
+
+import com.io.tedtalks.entity.InfluenceWeights;
+
+/**
+ * Published when the default influence weights are changed at runtime. Listeners receive it
+ * synchronously, once later writes already store their scores under the new weights.
+ *
+ * @param weights the new default weights
+ */
+public record InfluenceWeightsChangedEvent(InfluenceWeights weights) {}
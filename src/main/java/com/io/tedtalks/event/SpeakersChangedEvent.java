@@ -0,0 +1,11 @@
+package com.io.tedtalks.event;
+
+import java.util.Collection;
+
+/**
+ * Published when the totals of speakers change, because talks of theirs were created, updated or
+ * deleted. Listeners receive it once the transaction that changed the totals has committed.
+ *
+ * @param authors the names of the speakers whose totals changed
+ */
+public record SpeakersChangedEvent(Collection<String> authors) {}
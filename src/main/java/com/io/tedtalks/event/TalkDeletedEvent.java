@@ -0,0 +1,9 @@
+package com.io.tedtalks.event;
+
+/**
+ * Published when a TED Talk is deleted. Listeners receive it once the transaction that deleted the
+ * talk has committed.
+ *
+ * @param id the identifier of the deleted talk
+ */
+public record TalkDeletedEvent(long id) {}
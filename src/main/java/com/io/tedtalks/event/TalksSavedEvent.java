@@ -0,0 +1,12 @@
+package com.io.tedtalks.event;
+
+import java.util.Collection;
+
+/**
+ * Published when TED Talks are created or updated, by the API or by an import. Listeners receive
+ * it once the transaction that wrote the talks has committed.
+ *
+ * @param links the links, natural keys of the saved talks; an update that changed the link of a
+ *     talk lists its previous link as well
+ */
+public record TalksSavedEvent(Collection<String> links) {}
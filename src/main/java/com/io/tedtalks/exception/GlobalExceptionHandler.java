@@ -1,10 +1,12 @@
 package com.io.tedtalks.exception;
 
+import com.io.tedtalks.entity.TedTalkEntity;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import java.net.URI;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -76,6 +78,29 @@ public final class GlobalExceptionHandler extends ResponseEntityExceptionHandler
     return problemDetail;
   }
 
+  /**
+   * Handles {@link InvalidCursorException} when a pagination cursor sent by the client cannot be
+   * decoded.
+   *
+   * @param ex the exception thrown when the cursor is invalid
+   * @param request the HTTP request that triggered the exception
+   * @return a {@link ProblemDetail} with 400 status and error details
+   */
+  @ExceptionHandler(InvalidCursorException.class)
+  public ProblemDetail handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+
+    log.warn("Invalid cursor: {}", ex.getMessage());
+
+    ProblemDetail problemDetail =
+        ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "The cursor is not valid");
+
+    problemDetail.setType(ProblemType.INVALID_CURSOR.toUri());
+    problemDetail.setTitle("Invalid Cursor");
+    problemDetail.setInstance(URI.create(request.getRequestURI()));
+
+    return problemDetail;
+  }
+
   /**
    * Handles {@link TooManyImportsException} when the system has reached its concurrent import
    * capacity limit. Returns a 503 Service Unavailable status with retry guidance.
@@ -104,6 +129,36 @@ public final class GlobalExceptionHandler extends ResponseEntityExceptionHandler
         .body(problemDetail);
   }
 
+  /**
+   * Handles {@link DataIntegrityViolationException} when a write conflicts with the unique link
+   * of a stored TED Talk. Violations of any other constraint are not caused by the request
+   * conflicting with existing data, so they are handled as unexpected errors.
+   *
+   * @param ex the exception thrown when the write violates a constraint
+   * @param request the HTTP request that triggered the exception
+   * @return a {@link ProblemDetail} with 409 status for a duplicate link, or 500 otherwise
+   */
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ProblemDetail handleDataIntegrityViolation(
+      DataIntegrityViolationException ex, HttpServletRequest request) {
+
+    if (!TedTalkEntity.violatesLinkConstraint(ex)) {
+      return handleGlobalException(ex, request);
+    }
+
+    log.warn("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+
+    ProblemDetail problemDetail =
+        ProblemDetail.forStatusAndDetail(
+            HttpStatus.CONFLICT, "The request conflicts with an existing TED Talk");
+
+    problemDetail.setType(ProblemType.DUPLICATE_RESOURCE.toUri());
+    problemDetail.setTitle("Duplicate Resource");
+    problemDetail.setInstance(URI.create(request.getRequestURI()));
+
+    return problemDetail;
+  }
+
   /**
    * Handles {@link ConstraintViolationException} when bean validation constraints are violated,
    * typically from path variables or request parameters annotated with validation constraints.
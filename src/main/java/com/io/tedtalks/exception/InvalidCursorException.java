@@ -0,0 +1,11 @@
+package com.io.tedtalks.exception;
+
+/**
+ * Exception thrown when a pagination cursor sent by a client cannot be decoded, typically because
+ * it was altered or does not come from this API.
+ */
+public final class InvalidCursorException extends RuntimeException {
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
@@ -10,6 +10,8 @@ public enum ProblemType {
   RESOURCE_NOT_FOUND("resource-not-found"),
   CSV_IMPORT_ERROR("csv-import-error"),
   TOO_MANY_IMPORTS("too-many-imports"),
+  DUPLICATE_RESOURCE("duplicate-resource"),
+  INVALID_CURSOR("invalid-cursor"),
   VALIDATION_ERROR("validation-error"),
   CONSTRAINT_VIOLATION("constraint-violation"),
   INTERNAL_ERROR("internal-error");
@@ -1,17 +1,23 @@
 package com.io.tedtalks.jobs;
 
 import com.io.tedtalks.entity.ImportStatusEntity;
+import com.io.tedtalks.exception.CsvImportException;
+import com.io.tedtalks.exception.TooManyImportsException;
 import com.io.tedtalks.repository.ImportStatusRepository;
+import com.io.tedtalks.service.CsvImportService;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.InstantSource;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,12 +27,15 @@ import org.springframework.transaction.annotation.Transactional;
 public class ImportStartupListener {
 
   private final ImportStatusRepository importStatusRepository;
+  private final CsvImportService csvImportService;
 
   /**
-   * Cleanup stuck imports after application restart. Marks PROCESSING imports as FAILED if they
-   * were started long ago.
+   * Cleanup stuck imports after application restart. Imports with a spool file are resumed from
+   * their last checkpoint; if that is not possible, they are marked as FAILED. Other PROCESSING
+   * imports are marked as FAILED if they were started long ago.
    */
   @EventListener(ApplicationReadyEvent.class)
+  @Order(0)
   @Transactional
   public void cleanupDbStuckImports() {
 
@@ -35,7 +44,7 @@ public class ImportStartupListener {
     List<ImportStatusEntity> stuckImports =
         importStatusRepository.findAll().stream()
             .filter(i -> i.getStatus() == ImportStatusEntity.ImportStatus.PROCESSING)
-            .filter(i -> i.getStartedAt().isBefore(threshold))
+            .filter(i -> i.isResumable() ? !resume(i) : i.getStartedAt().isBefore(threshold))
             .toList();
 
     if (stuckImports.isEmpty()) {
@@ -49,6 +58,16 @@ public class ImportStartupListener {
     log.warn("Marked {} stuck imports as FAILED on startup", stuckImports.size());
   }
 
+  private boolean resume(ImportStatusEntity importStatus) {
+    try {
+      csvImportService.resumeImport(importStatus.getImportId());
+      return true;
+    } catch (CsvImportException | TooManyImportsException e) {
+      log.error("Failed to resume import {}: {}", importStatus.getImportId(), e.getMessage());
+      return false;
+    }
+  }
+
   /**
    * Deletes temporary files matching a specific naming pattern from the system's temporary
    * directory on application startup.
@@ -58,17 +77,29 @@ public class ImportStartupListener {
    * with "csv-import-", attempts to delete them, and logs the outcome of each deletion. If an error
    * occurs during the processing of a file or during directory scanning, the error is logged.
    *
+   * <p>Spool files of imports being resumed are kept. This listener runs after {@link
+   * #cleanupDbStuckImports()}, so imports that could not be resumed no longer hold on to their
+   * files.
+   *
    * <p>Logging allows visibility into successful or unsuccessful cleanup operations, ensuring that
    * cleanup behavior can be monitored effectively.
    */
   @EventListener(ApplicationReadyEvent.class)
+  @Order(1)
   public void cleanupTempFiles() {
 
     Path tempDir = Path.of(System.getProperty("java.io.tmpdir"));
 
+    Set<Path> resumedFiles =
+        importStatusRepository.findAll().stream()
+            .filter(ImportStatusEntity::isResumable)
+            .map(i -> Path.of(i.getSpoolFile()))
+            .collect(Collectors.toSet());
+
     try (var files = Files.list(tempDir)) {
       files
           .filter(p -> p.getFileName().toString().startsWith("csv-import-"))
+          .filter(p -> !resumedFiles.contains(p))
           .forEach(
               p -> {
                 try {
@@ -2,7 +2,11 @@ package com.io.tedtalks.repository;
 
 import com.io.tedtalks.entity.ImportStatusEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for managing {@link ImportStatusEntity} entities.
@@ -12,4 +16,65 @@ import org.springframework.stereotype.Repository;
  * processes.
  */
 @Repository
-public interface ImportStatusRepository extends JpaRepository<ImportStatusEntity, String> {}
+public interface ImportStatusRepository extends JpaRepository<ImportStatusEntity, String> {
+
+  /**
+   * Writes the progress counters of an import still in progress. The update bypasses the version
+   * check, so it never conflicts with the status change that finishes the import.
+   *
+   * @param importId the unique identifier of the import
+   * @param rowsRead the number of data rows read
+   * @param rowsPersisted the number of rows written to the database
+   * @param rowsSkipped the number of invalid rows skipped
+   * @param bytesProcessed the number of bytes consumed by the parser
+   * @param rowsPerSecond the average number of rows persisted per second
+   * @return the number of updated rows; zero if the import is no longer processing
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      """
+      UPDATE ImportStatusEntity s
+      SET s.rowsRead = :rowsRead,
+          s.rowsPersisted = :rowsPersisted,
+          s.rowsSkipped = :rowsSkipped,
+          s.bytesProcessed = :bytesProcessed,
+          s.rowsPerSecond = :rowsPerSecond
+      WHERE s.importId = :importId
+        AND s.status = com.io.tedtalks.entity.ImportStatusEntity.ImportStatus.PROCESSING
+      """)
+  int updateProgress(
+      @Param("importId") String importId,
+      @Param("rowsRead") long rowsRead,
+      @Param("rowsPersisted") long rowsPersisted,
+      @Param("rowsSkipped") long rowsSkipped,
+      @Param("bytesProcessed") long bytesProcessed,
+      @Param("rowsPerSecond") long rowsPerSecond);
+
+  /**
+   * Writes the checkpoint of an import. Called in the transaction of the batch it covers, so the
+   * checkpoint commits together with the rows.
+   *
+   * @param importId the unique identifier of the import
+   * @param offset the byte offset of the spool file following the last committed record, or zero
+   *     if the parser does not track offsets
+   * @param rows the number of data records read up to the last committed record, valid or not
+   * @param persisted the number of rows committed so far
+   * @return the number of updated rows
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      """
+      UPDATE ImportStatusEntity s
+      SET s.checkpointOffset = :offset,
+          s.checkpointRows = :rows,
+          s.checkpointPersisted = :persisted
+      WHERE s.importId = :importId
+      """)
+  int updateCheckpoint(
+      @Param("importId") String importId,
+      @Param("offset") long offset,
+      @Param("rows") long rows,
+      @Param("persisted") long persisted);
+}
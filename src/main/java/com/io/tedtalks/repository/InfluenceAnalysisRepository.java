@@ -3,6 +3,7 @@ package com.io.tedtalks.repository;
 import com.io.tedtalks.dto.InfluentialTalkDto;
 import com.io.tedtalks.dto.SpeakerInfluenceDto;
 import com.io.tedtalks.entity.TedTalkEntity;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.Query;
@@ -48,12 +49,41 @@ public interface InfluenceAnalysisRepository extends Repository<TedTalkEntity, L
       @Param("likesWeight") double likesWeight,
       @Param("limit") int limit);
 
+  /**
+   * Retrieves the most influential TED Talks by their stored influence score. The talks are read
+   * from the top of the descending influence index, so the cost depends on the limit rather than
+   * on the number of talks; the stored scores must have been computed under the weights in use.
+   *
+   * @param limit the maximum number of results to retrieve
+   * @return a list of {@code InfluentialTalkDto} objects representing the most influential TED
+   *     Talks, in descending order of influence
+   */
+  @Query(
+      value =
+          """
+          SELECT
+            id,
+            title,
+            author,
+            year_value  AS yearValue,
+            month_value AS monthValue,
+            views,
+            likes,
+            link,
+            influence
+          FROM ted_talks
+          ORDER BY influence DESC, id
+          LIMIT :limit
+          """,
+      nativeQuery = true)
+  List<InfluentialTalkDto> findMostInfluentialTalksByScore(@Param("limit") int limit);
+
   /**
    * Retrieves a list of the most influential speakers based on the weighted influence.
    *
-   * <p>The method executes a query to aggregate and sort TED Talk data by speaker influence,
-   * summing views and likes weighted by the specified coefficients, and limits the results to the
-   * specified number of top speakers.
+   * <p>Speakers are read from the {@code speaker_stats} table, which holds the views, likes and
+   * talk count of every speaker, so that no request aggregates all talks. Influence being linear,
+   * the weighted sum of the totals equals the sum of the talk influences.
    *
    * @param viewsWeight the weight applied to the number of views when calculating influence
    * @param likesWeight the weight applied to the number of likes when calculating influence
@@ -63,24 +93,15 @@ public interface InfluenceAnalysisRepository extends Repository<TedTalkEntity, L
   @Query(
       value =
           """
-                SELECT
-                  author,
-                  totalViews,
-                  totalLikes,
-                  totalInfluence,
-                  talkCount
-                FROM (
-                  SELECT
-                    author,
-                    SUM(views) AS totalViews,
-                    SUM(likes) AS totalLikes,
-                    SUM(CAST(views AS DOUBLE) * :viewsWeight + CAST(likes AS DOUBLE) * :likesWeight) AS totalInfluence,
-                    COUNT(*) AS talkCount
-                  FROM ted_talks
-                  GROUP BY author
-                )
-                ORDER BY totalInfluence DESC
-                LIMIT :limit
+          SELECT
+            author,
+            total_views AS totalViews,
+            total_likes AS totalLikes,
+            CAST(total_views AS DOUBLE) * :viewsWeight + CAST(total_likes AS DOUBLE) * :likesWeight AS totalInfluence,
+            talk_count AS talkCount
+          FROM speaker_stats
+          ORDER BY totalInfluence DESC
+          LIMIT :limit
           """,
       nativeQuery = true)
   List<SpeakerInfluenceDto> findMostInfluentialSpeakers(
@@ -89,9 +110,9 @@ public interface InfluenceAnalysisRepository extends Repository<TedTalkEntity, L
       @Param("limit") int limit);
 
   /**
-   * Retrieves the influence metrics of a speaker based on TED talk data. The method calculates
-   * total views, total likes, total influence, and the count of talks given by the specified
-   * speaker, considering the provided weights for views and likes.
+   * Retrieves the influence metrics of a speaker based on TED talk data. The method reads the
+   * total views, total likes and count of talks of the specified speaker from the {@code
+   * speaker_stats} table, and weighs the totals with the provided weights for views and likes.
    *
    * @param author the name of the speaker whose influence data is to be retrieved; case-insensitive
    * @param viewsWeight the weight applied to the number of views for influence calculation
@@ -104,13 +125,12 @@ public interface InfluenceAnalysisRepository extends Repository<TedTalkEntity, L
           """
           SELECT
             author,
-            SUM(views) AS totalViews,
-            SUM(likes) AS totalLikes,
-            SUM(CAST(views AS DOUBLE) * :viewsWeight + CAST(likes AS DOUBLE) * :likesWeight) AS totalInfluence,
-            COUNT(*) AS talkCount
-          FROM ted_talks
-          WHERE LOWER(author) = LOWER(:author)
-          GROUP BY author
+            total_views AS totalViews,
+            total_likes AS totalLikes,
+            CAST(total_views AS DOUBLE) * :viewsWeight + CAST(total_likes AS DOUBLE) * :likesWeight AS totalInfluence,
+            talk_count AS talkCount
+          FROM speaker_stats
+          WHERE author_lc = LOWER(TRIM(:author))
           """,
       nativeQuery = true)
   Optional<SpeakerInfluenceDto> findSpeakerInfluence(
@@ -118,6 +138,33 @@ public interface InfluenceAnalysisRepository extends Repository<TedTalkEntity, L
       @Param("viewsWeight") double viewsWeight,
       @Param("likesWeight") double likesWeight);
 
+  /**
+   * Retrieves the influence metrics of the given speakers from the {@code speaker_stats} table.
+   * Speakers without any talk have no row and are left out of the result.
+   *
+   * @param authors the exact names of the speakers
+   * @param viewsWeight the weight applied to the number of views for influence calculation
+   * @param likesWeight the weight applied to the number of likes for influence calculation
+   * @return the influence data of the speakers that have talks, in no particular order
+   */
+  @Query(
+      value =
+          """
+          SELECT
+            author,
+            total_views AS totalViews,
+            total_likes AS totalLikes,
+            CAST(total_views AS DOUBLE) * :viewsWeight + CAST(total_likes AS DOUBLE) * :likesWeight AS totalInfluence,
+            talk_count AS talkCount
+          FROM speaker_stats
+          WHERE author IN (:authors)
+          """,
+      nativeQuery = true)
+  List<SpeakerInfluenceDto> findSpeakersByAuthorIn(
+      @Param("authors") Collection<String> authors,
+      @Param("viewsWeight") double viewsWeight,
+      @Param("likesWeight") double likesWeight);
+
   /**
    * Finds the most influential TED Talks for each year based on a weighted combination of the
    * number of views and likes.
@@ -153,7 +200,7 @@ public interface InfluenceAnalysisRepository extends Repository<TedTalkEntity, L
                 (CAST(views AS DOUBLE) * :viewsWeight + CAST(likes AS DOUBLE) * :likesWeight) AS influence,
                 ROW_NUMBER() OVER (
                   PARTITION BY year_value
-                  ORDER BY (CAST(views AS DOUBLE) * :viewsWeight + CAST(likes AS DOUBLE) * :likesWeight) DESC
+                  ORDER BY (CAST(views AS DOUBLE) * :viewsWeight + CAST(likes AS DOUBLE) * :likesWeight) DESC, id
                 ) AS rn
               FROM ted_talks
             )
@@ -163,4 +210,38 @@ public interface InfluenceAnalysisRepository extends Repository<TedTalkEntity, L
       nativeQuery = true)
   List<InfluentialTalkDto> findMostInfluentialTalkPerYear(
       @Param("viewsWeight") double viewsWeight, @Param("likesWeight") double likesWeight);
+
+  /**
+   * Retrieves the most influential TED Talk of a single year, reading only the talks of that year
+   * through the year index.
+   *
+   * @param year the year of the talks to rank
+   * @param viewsWeight the weight applied to the number of views in the influence calculation
+   * @param likesWeight the weight applied to the number of likes in the influence calculation
+   * @return the most influential talk of the year, or an empty {@code Optional} if the year has no
+   *     talks
+   */
+  @Query(
+      value =
+          """
+          SELECT
+            id,
+            title,
+            author,
+            year_value  AS yearValue,
+            month_value AS monthValue,
+            views,
+            likes,
+            link,
+            (CAST(views AS DOUBLE) * :viewsWeight + CAST(likes AS DOUBLE) * :likesWeight) AS influence
+          FROM ted_talks
+          WHERE year_value = :year
+          ORDER BY (CAST(views AS DOUBLE) * :viewsWeight + CAST(likes AS DOUBLE) * :likesWeight) DESC, id
+          LIMIT 1
+          """,
+      nativeQuery = true)
+  Optional<InfluentialTalkDto> findMostInfluentialTalkOfYear(
+      @Param("year") int year,
+      @Param("viewsWeight") double viewsWeight,
+      @Param("likesWeight") double likesWeight);
 }
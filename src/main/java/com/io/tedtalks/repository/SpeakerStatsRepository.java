@@ -0,0 +1,223 @@
+package com.io.tedtalks.repository;
+
+import com.io.tedtalks.dto.TedTalkRequest;
+import com.io.tedtalks.entity.TedTalkEntity;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JDBC repository maintaining the {@code speaker_stats} table incrementally.
+ *
+ * <p>Every talk write is described by {@link Delta} values, added to the rows of their speakers
+ * with a single {@code MERGE}: a talk insert adds one talk, a delete removes it, and an update adds
+ * the difference, so only the rows of the affected speakers are touched. A row whose talk count
+ * drops to zero is deleted.
+ *
+ * <p>Every writer touches the rows of popular speakers, so deltas are applied when the transaction
+ * commits rather than where the talks are written: the rows stay locked only while the transaction
+ * commits, and a writer waiting for its turn to commit, such as an import batch, holds none of
+ * them. They are merged in author order, so that concurrent writers lock speaker rows in the same
+ * order. Two writers may still insert the first row of a speaker at the same time; the losing
+ * {@code MERGE} fails on the primary key and is retried, matching the now committed row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SpeakerStatsRepository {
+
+  private static final String APPLY_SQL =
+      """
+      MERGE INTO speaker_stats s
+      USING (VALUES %s) AS d (author, author_lc, views, likes, talks)
+      ON s.author = d.author
+      WHEN MATCHED AND s.talk_count + d.talks = 0 THEN DELETE
+      WHEN MATCHED THEN UPDATE SET
+        total_views = s.total_views + d.views,
+        total_likes = s.total_likes + d.likes,
+        talk_count = s.talk_count + d.talks
+      WHEN NOT MATCHED THEN
+        INSERT (author, author_lc, total_views, total_likes, talk_count)
+        VALUES (d.author, d.author_lc, d.views, d.likes, d.talks)
+      """;
+
+  private static final String DELTA_ROW =
+      "(?, ?, CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))";
+
+  private static final int COLUMNS = 5;
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  private static final String STORED_TALKS_SQL =
+      """
+      SELECT author, SUM(views), SUM(likes), COUNT(*)
+      FROM ted_talks
+      WHERE link IN (%s)
+      GROUP BY author
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * A change of the totals of a speaker.
+   *
+   * @param author the speaker
+   * @param views the number of views to add
+   * @param likes the number of likes to add
+   * @param talks the number of talks to add
+   */
+  public record Delta(String author, long views, long likes, long talks) {
+
+    /**
+     * Returns the delta adding a stored talk to its speaker.
+     *
+     * @param talk the talk
+     * @return the delta of the talk's speaker
+     */
+    public static Delta added(TedTalkEntity talk) {
+      return new Delta(talk.getAuthor(), talk.getViews(), talk.getLikes(), 1);
+    }
+
+    /**
+     * Returns the delta adding a talk to its speaker, normalized as it is stored.
+     *
+     * @param request the talk
+     * @return the delta of the talk's speaker
+     */
+    public static Delta added(TedTalkRequest request) {
+      return new Delta(
+          request.author().trim(), Math.max(0, request.views()), Math.max(0, request.likes()), 1);
+    }
+
+    /**
+     * Returns the delta removing a stored talk from its speaker.
+     *
+     * @param talk the talk, with the values it is stored with
+     * @return the delta of the talk's speaker
+     */
+    public static Delta removed(TedTalkEntity talk) {
+      return new Delta(talk.getAuthor(), -talk.getViews(), -talk.getLikes(), -1);
+    }
+
+    /**
+     * Returns the delta removing a stored talk, read without its entity, from its speaker.
+     *
+     * @param talk the talk
+     * @return the delta of the talk's speaker
+     */
+    public static Delta removed(TedTalkJdbcRepository.StoredTalk talk) {
+      return new Delta(talk.author(), -talk.views(), -talk.likes(), -1);
+    }
+
+    private Delta plus(Delta other) {
+      return new Delta(author, views + other.views, likes + other.likes, talks + other.talks);
+    }
+
+    private boolean isEmpty() {
+      return views == 0 && likes == 0 && talks == 0;
+    }
+  }
+
+  /**
+   * Applies the deltas right before the current transaction commits, together with the other
+   * deltas of the transaction. Without a transaction, they are applied right away.
+   *
+   * @param deltas the deltas to apply
+   */
+  public void applyOnCommit(Collection<Delta> deltas) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      apply(deltas);
+      return;
+    }
+    PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      pending = new PendingDeltas();
+      TransactionSynchronizationManager.bindResource(this, pending);
+      TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+    pending.deltas.addAll(deltas);
+  }
+
+  /**
+   * Applies the deltas to the speaker rows, summing the deltas of the same speaker first.
+   *
+   * @param deltas the deltas to apply
+   */
+  public void apply(Collection<Delta> deltas) {
+    Map<String, Delta> byAuthor = new TreeMap<>();
+    deltas.forEach(delta -> byAuthor.merge(delta.author(), delta, Delta::plus));
+    List<Delta> rows = byAuthor.values().stream().filter(delta -> !delta.isEmpty()).toList();
+    if (rows.isEmpty()) {
+      return;
+    }
+
+    String sql =
+        APPLY_SQL.formatted(String.join(", ", Collections.nCopies(rows.size(), DELTA_ROW)));
+    for (int attempt = 1; ; attempt++) {
+      try {
+        jdbcTemplate.update(
+            sql,
+            ps -> {
+              for (int i = 0; i < rows.size(); i++) {
+                Delta delta = rows.get(i);
+                int offset = i * COLUMNS;
+                ps.setString(offset + 1, delta.author());
+                ps.setString(offset + 2, TedTalkEntity.searchKey(delta.author()));
+                ps.setLong(offset + 3, delta.views());
+                ps.setLong(offset + 4, delta.likes());
+                ps.setLong(offset + 5, delta.talks());
+              }
+            });
+        return;
+      } catch (DuplicateKeyException e) {
+        if (attempt == MAX_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the deltas removing the stored talks with the given links from their speakers, to be
+   * applied when those talks are overwritten.
+   *
+   * @param links the links of the talks
+   * @return one delta per speaker of the stored talks
+   */
+  public List<Delta> removalsOf(Collection<String> links) {
+    if (links.isEmpty()) {
+      return List.of();
+    }
+    String sql =
+        STORED_TALKS_SQL.formatted(String.join(", ", Collections.nCopies(links.size(), "?")));
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) ->
+            new Delta(rs.getString(1), -rs.getLong(2), -rs.getLong(3), -rs.getLong(4)),
+        links.toArray());
+  }
+
+  /** The deltas of a transaction, applied once it is about to commit. */
+  private final class PendingDeltas implements TransactionSynchronization {
+
+    private final List<Delta> deltas = new ArrayList<>();
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      apply(deltas);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResource(SpeakerStatsRepository.this);
+    }
+  }
+}
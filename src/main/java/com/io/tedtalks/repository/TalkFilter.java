@@ -0,0 +1,113 @@
+package com.io.tedtalks.repository;
+
+import com.io.tedtalks.entity.TedTalkEntity;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listing filters turned into native SQL over {@code ted_talks t} that only contains the
+ * predicates in use, so that each one can be served by an index: the author and keyword prefixes
+ * match the lower-case {@code author_lc} and {@code title_lc} columns, and the year matches {@code
+ * year_value}.
+ *
+ * <p>A keyword matches the title or the author. Since a disjunction over two columns cannot use
+ * either index, it is split into two disjoint branches joined with {@code UNION ALL}: talks whose
+ * title matches, and talks whose author matches but whose title does not.
+ *
+ * @param authorPattern the {@code LIKE} pattern of the author prefix, or {@code null}
+ * @param year the year, or {@code null}
+ * @param keywordPattern the {@code LIKE} pattern of the keyword prefix, or {@code null}
+ */
+record TalkFilter(String authorPattern, Integer year, String keywordPattern) {
+
+  private static final String TITLE_MATCH = "t.title_lc LIKE :keyword";
+  private static final String AUTHOR_ONLY_MATCH =
+      "t.author_lc LIKE :keyword AND t.title_lc NOT LIKE :keyword";
+
+  /**
+   * Creates the filter of a listing request.
+   *
+   * @param author the author prefix, matched case-insensitively, or {@code null}
+   * @param year the year, or {@code null}
+   * @param keyword the title or author prefix, matched case-insensitively, or {@code null}
+   * @return the filter
+   */
+  static TalkFilter of(String author, Integer year, String keyword) {
+    return new TalkFilter(prefixPattern(author), year, prefixPattern(keyword));
+  }
+
+  /**
+   * Returns the query selecting the matching talks in the given order, one window at a time. It
+   * binds {@code :limit} and {@code :offset} besides the filter parameters.
+   *
+   * @param seek an additional predicate on {@code t}, or {@code null}
+   * @param orderBy the {@code ORDER BY} list, over unqualified column names
+   * @return the native SQL query
+   */
+  String selectSql(String seek, String orderBy) {
+    String select = branch("t.*", seek, keywordPattern == null ? null : TITLE_MATCH);
+    if (keywordPattern != null) {
+      select += " UNION ALL " + branch("t.*", seek, AUTHOR_ONLY_MATCH);
+    }
+    return select + " ORDER BY " + orderBy + " LIMIT :limit OFFSET :offset";
+  }
+
+  /**
+   * Returns the query counting the matching talks.
+   *
+   * @return the native SQL query
+   */
+  String countSql() {
+    if (keywordPattern == null) {
+      return branch("COUNT(*)", null, null);
+    }
+    return "SELECT ("
+        + branch("COUNT(*)", null, TITLE_MATCH)
+        + ") + ("
+        + branch("COUNT(*)", null, AUTHOR_ONLY_MATCH)
+        + ")";
+  }
+
+  /**
+   * Returns the values of the filter parameters used by the queries.
+   *
+   * @return the parameter values by name
+   */
+  Map<String, Object> parameters() {
+    Map<String, Object> parameters = new LinkedHashMap<>();
+    if (authorPattern != null) {
+      parameters.put("author", authorPattern);
+    }
+    if (year != null) {
+      parameters.put("year", year);
+    }
+    if (keywordPattern != null) {
+      parameters.put("keyword", keywordPattern);
+    }
+    return parameters;
+  }
+
+  private String branch(String columns, String seek, String keywordMatch) {
+    List<String> predicates = new ArrayList<>();
+    if (authorPattern != null) {
+      predicates.add("t.author_lc LIKE :author");
+    }
+    if (year != null) {
+      predicates.add("t.year_value = :year");
+    }
+    if (keywordMatch != null) {
+      predicates.add(keywordMatch);
+    }
+    if (seek != null) {
+      predicates.add(seek);
+    }
+    String from = "SELECT " + columns + " FROM ted_talks t";
+    return predicates.isEmpty() ? from : from + " WHERE " + String.join(" AND ", predicates);
+  }
+
+  private static String prefixPattern(String prefix) {
+    return prefix == null ? null : TedTalkEntity.searchKey(prefix) + "%";
+  }
+}
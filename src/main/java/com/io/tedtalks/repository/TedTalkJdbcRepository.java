@@ -0,0 +1,407 @@
+package com.io.tedtalks.repository;
+
+import com.io.tedtalks.dto.TedTalkRequest;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.entity.TedTalkEntity;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC repository for bulk-loading {@code TedTalkEntity} rows without going through the JPA
+ * persistence context.
+ *
+ * <p>Rows are written with a single batched {@code INSERT}. Identifiers are reserved from the same
+ * sequence Hibernate uses: with the pooled-lo optimizer every sequence value is the low end of a
+ * block of {@link TedTalkEntity#ID_ALLOCATION_SIZE} identifiers, so both paths can share it without
+ * collisions.
+ *
+ * <p>Rows can also be merged on their link, the natural key of a talk, with one set-based {@code
+ * MERGE} statement per batch, or updated and deleted by identifier with batched statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TedTalkJdbcRepository {
+
+  private static final String NEXT_ID_BLOCK_SQL =
+      "SELECT NEXT VALUE FOR " + TedTalkEntity.ID_SEQUENCE;
+
+  private static final String INSERT_SQL =
+      """
+      INSERT INTO ted_talks
+        (id, title, author, year_value, month_value, views, likes, link, content_hash, title_lc,
+          author_lc, influence)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private static final String MERGE_SQL =
+      """
+      MERGE INTO ted_talks t
+      USING (VALUES %s)
+        AS s (id, title, author, year_value, month_value, views, likes, link, content_hash,
+          title_lc, author_lc, influence)
+      ON t.link = s.link
+      WHEN MATCHED THEN UPDATE SET
+        title = s.title,
+        author = s.author,
+        year_value = s.year_value,
+        month_value = s.month_value,
+        views = s.views,
+        likes = s.likes,
+        content_hash = s.content_hash,
+        title_lc = s.title_lc,
+        author_lc = s.author_lc,
+        influence = s.influence
+      WHEN NOT MATCHED THEN
+        INSERT (id, title, author, year_value, month_value, views, likes, link, content_hash,
+          title_lc, author_lc, influence)
+        VALUES (s.id, s.title, s.author, s.year_value, s.month_value, s.views, s.likes, s.link,
+          s.content_hash, s.title_lc, s.author_lc, s.influence)
+      """;
+
+  private static final String UPDATE_SQL =
+      """
+      UPDATE ted_talks
+      SET title = ?, author = ?, year_value = ?, month_value = ?, views = ?, likes = ?, link = ?,
+        content_hash = ?, title_lc = ?, author_lc = ?, influence = ?
+      WHERE id = ?
+      """;
+
+  private static final String DELETE_SQL = "DELETE FROM ted_talks WHERE id = ?";
+
+  private static final String MERGE_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final int COLUMNS = 12;
+
+  private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM ted_talks";
+
+  private static final String RECOMPUTE_INFLUENCE_SQL =
+      """
+      UPDATE ted_talks
+      SET influence = CAST(views AS DOUBLE) * ? + CAST(likes AS DOUBLE) * ?
+      WHERE id > ? AND id <= ?
+        AND influence <> CAST(views AS DOUBLE) * ? + CAST(likes AS DOUBLE) * ?
+      """;
+
+  private static final String CONTENT_HASHES_SQL = "SELECT link, content_hash FROM ted_talks";
+
+  private static final String STORED_LINKS_SQL = "SELECT link FROM ted_talks WHERE link IN (%s)";
+
+  private static final String STORED_TALKS_SQL =
+      "SELECT id, author, views, likes, link FROM ted_talks WHERE id IN (%s)";
+
+  private static final String ROW_COUNT_ESTIMATE_SQL =
+      """
+      SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES
+      WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'TED_TALKS'
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Inserts the given TED Talks as one JDBC batch. Must be called within a transaction for the
+   * batch to be written atomically.
+   *
+   * @param requests the TED Talks to insert
+   * @param weights the weights to store the influence scores under
+   * @return the identifiers of the inserted rows, in request order
+   * @throws IllegalStateException if a request violates the {@code TedTalkEntity} invariants
+   */
+  public long[] insertAll(List<TedTalkRequest> requests, InfluenceWeights weights) {
+    if (requests.isEmpty()) {
+      return new long[0];
+    }
+
+    checkInvariants(requests);
+    long[] ids = reserveIds(requests.size());
+
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            bind(ps, 0, ids[i], requests.get(i), weights);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return requests.size();
+          }
+        });
+
+    return ids;
+  }
+
+  /**
+   * Updates the TED Talks with the given identifiers as one JDBC batch, in order. Must be called
+   * within a transaction for the batch to be written atomically.
+   *
+   * @param ids the identifiers of the talks to update
+   * @param requests the new details of the talks, one per identifier
+   * @param weights the weights to store the influence scores under
+   * @return the number of rows updated for each identifier: 0 if the talk is not stored
+   * @throws IllegalStateException if a request violates the {@code TedTalkEntity} invariants
+   */
+  public int[] updateAll(
+      List<Long> ids, List<TedTalkRequest> requests, InfluenceWeights weights) {
+    if (ids.isEmpty()) {
+      return new int[0];
+    }
+
+    checkInvariants(requests);
+    return jdbcTemplate.batchUpdate(
+        UPDATE_SQL,
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            bindColumns(ps, 0, requests.get(i), weights);
+            ps.setLong(COLUMNS, ids.get(i));
+          }
+
+          @Override
+          public int getBatchSize() {
+            return ids.size();
+          }
+        });
+  }
+
+  /**
+   * Deletes the TED Talks with the given identifiers as one JDBC batch. Must be called within a
+   * transaction for the batch to be written atomically.
+   *
+   * @param ids the identifiers of the talks to delete
+   * @return the number of rows deleted for each identifier: 0 if the talk is not stored
+   */
+  public int[] deleteAll(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return new int[0];
+    }
+
+    return jdbcTemplate.batchUpdate(
+        DELETE_SQL,
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setLong(1, ids.get(i));
+          }
+
+          @Override
+          public int getBatchSize() {
+            return ids.size();
+          }
+        });
+  }
+
+  /**
+   * Merges the given TED Talks on their link with a single {@code MERGE} statement: talks whose
+   * link is already stored are updated in place and keep their identifier, the others are
+   * inserted. Must be called within a transaction for the batch to be written atomically.
+   *
+   * <p>Identifiers are reserved for every row, so merging a row that matches an existing talk
+   * leaves a gap in the sequence.
+   *
+   * @param requests the TED Talks to merge; their links must be distinct
+   * @param weights the weights to store the influence scores under
+   * @return the number of inserted or updated rows
+   * @throws IllegalStateException if a request violates the {@code TedTalkEntity} invariants
+   */
+  public int mergeAll(List<TedTalkRequest> requests, InfluenceWeights weights) {
+    if (requests.isEmpty()) {
+      return 0;
+    }
+
+    checkInvariants(requests);
+    long[] ids = reserveIds(requests.size());
+    String rows = String.join(", ", Collections.nCopies(requests.size(), MERGE_ROW));
+
+    return jdbcTemplate.update(
+        MERGE_SQL.formatted(rows),
+        ps -> {
+          for (int i = 0; i < requests.size(); i++) {
+            bind(ps, i * COLUMNS, ids[i], requests.get(i), weights);
+          }
+        });
+  }
+
+  /**
+   * Streams the link and content hash of every stored talk to the given action, without loading
+   * the talks themselves.
+   *
+   * @param action receives the link and content hash of each talk
+   */
+  public void forEachContentHash(ObjLongConsumer<String> action) {
+    RowCallbackHandler handler = rs -> action.accept(rs.getString(1), rs.getLong(2));
+    jdbcTemplate.query(CONTENT_HASHES_SQL, handler);
+  }
+
+  /**
+   * Returns which of the given links are already stored, with one query and without loading the
+   * talks.
+   *
+   * @param links the trimmed links to look up
+   * @return the stored links among them
+   */
+  public Set<String> findStoredLinks(Collection<String> links) {
+    if (links.isEmpty()) {
+      return Set.of();
+    }
+
+    String placeholders = String.join(", ", Collections.nCopies(links.size(), "?"));
+    return new HashSet<>(
+        jdbcTemplate.queryForList(
+            STORED_LINKS_SQL.formatted(placeholders), String.class, links.toArray()));
+  }
+
+  /**
+   * Returns the stored talks with the given identifiers, reduced to the columns that batch writes
+   * check and adjust the speaker totals with. They are read with one query and are not loaded into
+   * the persistence context, which would otherwise serve them unchanged to the listeners reading
+   * the talks back after the batch's JDBC writes have committed.
+   *
+   * @param ids the identifiers to look up
+   * @return the stored talks among them, by identifier
+   */
+  public Map<Long, StoredTalk> findStoredTalks(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+
+    String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+    Map<Long, StoredTalk> talks = new HashMap<>();
+    RowCallbackHandler handler =
+        rs ->
+            talks.put(
+                rs.getLong(1),
+                new StoredTalk(
+                    rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4), rs.getString(5)));
+    jdbcTemplate.query(STORED_TALKS_SQL.formatted(placeholders), handler, ids.toArray());
+    return talks;
+  }
+
+  /**
+   * Returns the highest identifier of the stored talks.
+   *
+   * @return the highest identifier, or 0 if no talk is stored
+   */
+  public long maxId() {
+    Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+    return maxId == null ? 0 : maxId;
+  }
+
+  /**
+   * Recomputes the stored influence score of the talks in an identifier range under the given
+   * weights. Only rows whose score differs are written.
+   *
+   * @param weights the weights to score the talks with
+   * @param afterId the identifier preceding the range, exclusive
+   * @param toId the last identifier of the range, inclusive
+   * @return the number of updated rows
+   */
+  public int recomputeInfluence(InfluenceWeights weights, long afterId, long toId) {
+    return jdbcTemplate.update(
+        RECOMPUTE_INFLUENCE_SQL,
+        weights.viewsWeight(),
+        weights.likesWeight(),
+        afterId,
+        toId,
+        weights.viewsWeight(),
+        weights.likesWeight());
+  }
+
+  /**
+   * Returns the number of talks according to the table statistics kept by the database, without
+   * scanning the table.
+   *
+   * @return the estimated number of stored talks
+   */
+  public long estimateRowCount() {
+    Long estimate = jdbcTemplate.queryForObject(ROW_COUNT_ESTIMATE_SQL, Long.class);
+    return estimate == null ? 0 : estimate;
+  }
+
+  /**
+   * Reserves {@code count} identifiers from the talk sequence, one sequence call per block.
+   *
+   * @param count the number of identifiers to reserve
+   * @return the reserved identifiers
+   */
+  long[] reserveIds(int count) {
+    long[] ids = new long[count];
+    int blockSize = TedTalkEntity.ID_ALLOCATION_SIZE;
+
+    for (int i = 0; i < count; i += blockSize) {
+      Long low = jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class);
+      if (low == null) {
+        throw new IllegalStateException("Sequence returned no value: " + TedTalkEntity.ID_SEQUENCE);
+      }
+      for (int j = i; j < Math.min(count, i + blockSize); j++) {
+        ids[j] = low + (j - i);
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * A stored talk reduced to the columns batch writes check and adjust the speaker totals with.
+   *
+   * @param id the identifier of the talk
+   * @param author the author of the talk
+   * @param views the number of views
+   * @param likes the number of likes
+   * @param link the link to the talk
+   */
+  public record StoredTalk(long id, String author, long views, long likes, String link) {}
+
+  private static void checkInvariants(List<TedTalkRequest> requests) {
+    requests.forEach(
+        r ->
+            TedTalkEntity.checkInvariants(
+                r.title(), r.author(), r.date().getMonthValue(), r.link()));
+  }
+
+  /** Binds the identifier and normalized columns of a talk after {@code offset}. */
+  private static void bind(
+      PreparedStatement ps, int offset, long id, TedTalkRequest request, InfluenceWeights weights)
+      throws SQLException {
+    ps.setLong(offset + 1, id);
+    bindColumns(ps, offset + 1, request, weights);
+  }
+
+  /** Binds the normalized columns of a talk, without its identifier, after {@code offset}. */
+  private static void bindColumns(
+      PreparedStatement ps, int offset, TedTalkRequest request, InfluenceWeights weights)
+      throws SQLException {
+    String title = request.title().trim();
+    String author = request.author().trim();
+    int year = request.date().getYear();
+    int month = request.date().getMonthValue();
+    long views = Math.max(0, request.views());
+    long likes = Math.max(0, request.likes());
+    String link = request.link().trim();
+
+    ps.setString(offset + 1, title);
+    ps.setString(offset + 2, author);
+    ps.setInt(offset + 3, year);
+    ps.setInt(offset + 4, month);
+    ps.setLong(offset + 5, views);
+    ps.setLong(offset + 6, likes);
+    ps.setString(offset + 7, link);
+    ps.setLong(
+        offset + 8, TedTalkEntity.contentHash(title, author, year, month, views, likes, link));
+    ps.setString(offset + 9, TedTalkEntity.searchKey(title));
+    ps.setString(offset + 10, TedTalkEntity.searchKey(author));
+    ps.setDouble(offset + 11, weights.score(views, likes));
+  }
+}
@@ -0,0 +1,78 @@
+package com.io.tedtalks.repository;
+
+import com.io.tedtalks.dto.PageCursor;
+import com.io.tedtalks.entity.TedTalkEntity;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Custom queries of {@link TedTalkRepository}. The listing filters are matched against indexed
+ * columns, and only the filters in use are part of the query, so that a filtered listing reads
+ * an index range instead of scanning the table.
+ */
+public interface TedTalkRepositoryCustom {
+
+  /**
+   * Retrieves a paginated list of TED Talk entities.
+   *
+   * @param author the name of the author to filter by; supports prefix matches with
+   *     case-insensitive comparison. If null, the filter is not applied.
+   * @param year the year of the TED Talk to filter by. If null, the filter is not applied.
+   * @param keyword a keyword to filter by, which matches the start of the title or author
+   *     case-insensitively. If null, the filter is not applied.
+   * @param pageable the pagination information, sorted by {@code ted_talks} columns.
+   * @return a paginated list of {@code TedTalkEntity} objects that match the applied filters.
+   */
+  Page<TedTalkEntity> findByFilters(
+      String author, Integer year, String keyword, Pageable pageable);
+
+  /**
+   * Retrieves a page of TED Talk entities without counting all matches: one row beyond the page is
+   * read to tell whether a next page exists.
+   *
+   * @param author the name of the author to filter by. If null, the filter is not applied.
+   * @param year the year of the TED Talk to filter by. If null, the filter is not applied.
+   * @param keyword a keyword to filter by. If null, the filter is not applied.
+   * @param pageable the pagination information, sorted by {@code ted_talks} columns.
+   * @return a slice of {@code TedTalkEntity} objects that match the applied filters.
+   */
+  Slice<TedTalkEntity> findSliceByFilters(
+      String author, Integer year, String keyword, Pageable pageable);
+
+  /**
+   * Counts the TED Talk entities matching the filters.
+   *
+   * @param author the name of the author to filter by. If null, the filter is not applied.
+   * @param year the year of the TED Talk to filter by. If null, the filter is not applied.
+   * @param keyword a keyword to filter by. If null, the filter is not applied.
+   * @return the number of TED Talks that match the applied filters.
+   */
+  long countByFilters(String author, Integer year, String keyword);
+
+  /**
+   * Retrieves the TED Talk entities matching the filters that come after the cursor position in
+   * the cursor's sort order. The position is found through the sort and id columns, so the cost
+   * does not grow with the number of rows before it.
+   *
+   * @param author the name of the author to filter by. If null, the filter is not applied.
+   * @param year the year of the TED Talk to filter by. If null, the filter is not applied.
+   * @param keyword a keyword to filter by. If null, the filter is not applied.
+   * @param cursor the position of the last row already returned
+   * @param limit the maximum number of rows to return
+   * @return the matching TED Talks following the cursor, in sort order
+   */
+  List<TedTalkEntity> findByFiltersAfter(
+      String author, Integer year, String keyword, PageCursor cursor, int limit);
+
+  /**
+   * Passes every stored TED Talk to the action, in batches read in id order so that the whole
+   * table is never loaded at once.
+   *
+   * @param batchSize the maximum number of talks per batch
+   * @param action receives each batch of talks
+   */
+  void forEachBatch(int batchSize, Consumer<List<TedTalkEntity>> action);
+}
@@ -0,0 +1,152 @@
+package com.io.tedtalks.repository;
+
+import com.io.tedtalks.dto.PageCursor;
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.entity.TedTalkEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Native implementation of {@link TedTalkRepositoryCustom}. Queries are built by {@link
+ * TalkFilter} from the filters in use, and cursor pages use a seek predicate on the {@code (sort
+ * column, id)} pair instead of an offset.
+ */
+class TedTalkRepositoryCustomImpl implements TedTalkRepositoryCustom {
+
+  private static final String SEEK = "(t.%1$s %2$s :value OR (t.%1$s = :value AND t.id %2$s :id))";
+  private static final String SEEK_BY_ID = "t.id %s :id";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public Page<TedTalkEntity> findByFilters(
+      String author, Integer year, String keyword, Pageable pageable) {
+
+    TalkFilter filter = TalkFilter.of(author, year, keyword);
+    List<TedTalkEntity> content =
+        select(
+            filter,
+            null,
+            orderBy(pageable.getSort()),
+            Map.of(),
+            pageable.getPageSize(),
+            pageable.getOffset());
+    return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+  }
+
+  @Override
+  public Slice<TedTalkEntity> findSliceByFilters(
+      String author, Integer year, String keyword, Pageable pageable) {
+
+    int size = pageable.getPageSize();
+    List<TedTalkEntity> content =
+        select(
+            TalkFilter.of(author, year, keyword),
+            null,
+            orderBy(pageable.getSort()),
+            Map.of(),
+            size + 1,
+            pageable.getOffset());
+    boolean hasNext = content.size() > size;
+    return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+  }
+
+  @Override
+  public long countByFilters(String author, Integer year, String keyword) {
+    return count(TalkFilter.of(author, year, keyword));
+  }
+
+  @Override
+  public List<TedTalkEntity> findByFiltersAfter(
+      String author, Integer year, String keyword, PageCursor cursor, int limit) {
+
+    String column = PaginationParams.sortColumn(cursor.sortBy());
+    String operator = cursor.direction() == Sort.Direction.ASC ? ">" : "<";
+    String direction = cursor.direction().name();
+    TalkFilter filter = TalkFilter.of(author, year, keyword);
+
+    if ("id".equals(column)) {
+      return select(
+          filter,
+          SEEK_BY_ID.formatted(operator),
+          "id " + direction,
+          Map.of("id", cursor.id()),
+          limit,
+          0);
+    }
+    return select(
+        filter,
+        SEEK.formatted(column, operator),
+        column + " " + direction + ", id " + direction,
+        Map.of("value", cursor.sortValue(), "id", cursor.id()),
+        limit,
+        0);
+  }
+
+  @Override
+  public void forEachBatch(int batchSize, Consumer<List<TedTalkEntity>> action) {
+    PageCursor cursor = new PageCursor("id", Sort.Direction.ASC, "0", 0);
+    List<TedTalkEntity> batch;
+    do {
+      batch = findByFiltersAfter(null, null, null, cursor, batchSize);
+      if (!batch.isEmpty()) {
+        action.accept(batch);
+        cursor = PageCursor.after(batch.getLast(), "id", Sort.Direction.ASC);
+      }
+    } while (batch.size() == batchSize);
+  }
+
+  private List<TedTalkEntity> select(
+      TalkFilter filter,
+      String seek,
+      String orderBy,
+      Map<String, Object> seekParameters,
+      int limit,
+      long offset) {
+
+    Query query =
+        entityManager
+            .createNativeQuery(filter.selectSql(seek, orderBy), TedTalkEntity.class)
+            .setParameter("limit", limit)
+            .setParameter("offset", offset);
+    filter.parameters().forEach(query::setParameter);
+    seekParameters.forEach(query::setParameter);
+
+    @SuppressWarnings("unchecked")
+    List<TedTalkEntity> rows = query.getResultList();
+    return rows;
+  }
+
+  private long count(TalkFilter filter) {
+    Query query = entityManager.createNativeQuery(filter.countSql(), Long.class);
+    filter.parameters().forEach(query::setParameter);
+    return ((Number) query.getSingleResult()).longValue();
+  }
+
+  /** Turns a sort over {@code ted_talks} columns into an {@code ORDER BY} list. */
+  private static String orderBy(Sort sort) {
+    if (sort.isUnsorted()) {
+      return "id";
+    }
+    return sort.stream()
+        .map(
+            order -> {
+              if (!PaginationParams.isSortColumn(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported sort column: " + order);
+              }
+              return order.getProperty() + " " + order.getDirection().name();
+            })
+        .collect(Collectors.joining(", "));
+  }
+}
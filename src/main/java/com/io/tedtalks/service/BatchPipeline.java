@@ -0,0 +1,337 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.dto.ImportPipelineMetrics;
+import com.io.tedtalks.dto.TedTalkRequest;
+import com.io.tedtalks.exception.CsvImportException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Producer/consumer hand-off between the parser stage and the writer stage of a CSV import.
+ *
+ * <p>Producers fill batches and hand them to a bounded queue; a fixed number of writers take
+ * batches off the queue and persist them, so parsing and database writes overlap. When the queue
+ * is full, producers block until a writer catches up; when it is empty, writers wait for the next
+ * batch. Both waits are measured: a high producer stall means the import is bound by the database
+ * (add writers), a high writer idle time means it is bound by parsing (larger batches or more parse
+ * workers).
+ *
+ * <p>Batches are numbered in the order their producer filled them and carry the input position
+ * following their last row, so writers can checkpoint the import as they commit.
+ *
+ * <p>Before writing a batch, a writer acquires one of the writer permits shared by all pipelines,
+ * so the number of concurrent database writes stays capped however many imports run. Writers take
+ * a batch and its permit one at a time, in queue order, so every batch waiting for a permit follows
+ * all batches of its pipeline already being written. A writer waiting on the commit sequencer
+ * therefore never holds up the permit of an earlier batch.
+ *
+ * <p>The first writer failure stops the pipeline; producers see it on their next hand-off.
+ */
+final class BatchPipeline {
+
+  private static final Batch END = new Batch(-1, List.of(), 0, 0);
+  private static final long POLL_MILLIS = 100;
+
+  private final int capacity;
+  private final BlockingQueue<Batch> queue;
+  private final Consumer<Batch> writer;
+  private final List<Future<?>> writers;
+  private final CommitSequencer sequencer;
+  private final Semaphore writerPermits;
+  private final Lock takeLock = new ReentrantLock();
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+  private final LongAdder batchesWritten = new LongAdder();
+  private final LongAdder producerStallNanos = new LongAdder();
+  private final LongAdder writerIdleNanos = new LongAdder();
+
+  /**
+   * Creates a pipeline and starts its writers.
+   *
+   * @param capacity the maximum number of batches waiting for a writer
+   * @param writerCount the number of writers persisting batches concurrently
+   * @param executor the executor running the writers
+   * @param writer the action persisting one batch
+   */
+  BatchPipeline(int capacity, int writerCount, ExecutorService executor, Consumer<Batch> writer) {
+    this(capacity, writerCount, executor, null, writer);
+  }
+
+  /**
+   * Creates a pipeline whose writers order their commits through the given sequencer, and starts
+   * its writers. The pipeline is not limited by permits shared with other pipelines.
+   *
+   * @param capacity the maximum number of batches waiting for a writer
+   * @param writerCount the number of writers persisting batches concurrently
+   * @param executor the executor running the writers
+   * @param sequencer the sequencer used by the writer, or {@code null}
+   * @param writer the action persisting one batch
+   */
+  BatchPipeline(
+      int capacity,
+      int writerCount,
+      ExecutorService executor,
+      CommitSequencer sequencer,
+      Consumer<Batch> writer) {
+    this(capacity, writerCount, executor, new Semaphore(writerCount), sequencer, writer);
+  }
+
+  /**
+   * Creates a pipeline whose writers acquire the given shared permits and order their commits
+   * through the given sequencer, and starts its writers. The sequencer is failed as soon as the
+   * pipeline stops, so that no writer waits for a batch that will never commit.
+   *
+   * @param capacity the maximum number of batches waiting for a writer
+   * @param writerCount the number of writers persisting batches concurrently
+   * @param executor the executor running the writers
+   * @param writerPermits the permits shared by the writers of all pipelines
+   * @param sequencer the sequencer used by the writer, or {@code null}
+   * @param writer the action persisting one batch
+   */
+  BatchPipeline(
+      int capacity,
+      int writerCount,
+      ExecutorService executor,
+      Semaphore writerPermits,
+      CommitSequencer sequencer,
+      Consumer<Batch> writer) {
+    this.sequencer = sequencer;
+    this.writerPermits = writerPermits;
+    this.capacity = capacity;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.writer = writer;
+    this.writers = new ArrayList<>(writerCount);
+    for (int i = 0; i < writerCount; i++) {
+      writers.add(executor.submit(this::drain));
+    }
+  }
+
+  /**
+   * Creates a producer that groups requests into batches of the given size. Each parsing thread
+   * needs its own producer.
+   *
+   * @param batchSize the number of requests per batch
+   * @return a new producer
+   */
+  Producer newProducer(int batchSize) {
+    return new Producer(batchSize);
+  }
+
+  /**
+   * Hands a batch over to the writers, blocking while the queue is full.
+   *
+   * @param batch the batch to write
+   * @throws RuntimeException the writer failure, if the pipeline has stopped
+   */
+  void submit(Batch batch) {
+    offer(batch);
+    maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+  }
+
+  /**
+   * Waits until every submitted batch has been written and the writers have stopped.
+   *
+   * @throws RuntimeException the writer failure, if a batch could not be written
+   */
+  void finish() {
+    for (int i = 0; i < writers.size(); i++) {
+      offer(END);
+    }
+    awaitWriters();
+    throwIfFailed();
+  }
+
+  /**
+   * Stops the writers after their current batch, discarding queued batches, and waits for them.
+   */
+  void abort() {
+    fail(new CsvImportException("Import aborted"));
+    queue.clear();
+    awaitWriters();
+  }
+
+  /**
+   * Returns a snapshot of the pipeline metrics.
+   *
+   * @return the current metrics
+   */
+  ImportPipelineMetrics metrics() {
+    return new ImportPipelineMetrics(
+        capacity,
+        writers.size(),
+        queue.size(),
+        maxQueueDepth.get(),
+        batchesWritten.sum(),
+        TimeUnit.NANOSECONDS.toMillis(producerStallNanos.sum()),
+        TimeUnit.NANOSECONDS.toMillis(writerIdleNanos.sum()));
+  }
+
+  private void offer(Batch batch) {
+    throwIfFailed();
+    if (queue.offer(batch)) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    try {
+      while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+        throwIfFailed();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CsvImportException("Interrupted while waiting for a database writer", e);
+    } finally {
+      producerStallNanos.add(System.nanoTime() - start);
+    }
+  }
+
+  private void drain() {
+    try {
+      while (failure.get() == null) {
+        Batch batch = take();
+        if (batch == END) {
+          return;
+        }
+        if (batch != null) {
+          try {
+            writer.accept(batch);
+          } finally {
+            writerPermits.release();
+          }
+          batchesWritten.increment();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail(new CsvImportException("Writer interrupted", e));
+    } catch (RuntimeException e) {
+      fail(e);
+    }
+  }
+
+  /**
+   * Takes the next batch off the queue together with a writer permit. Waiting for the batch counts
+   * as writer idle time, waiting for the permit does not.
+   *
+   * @return the batch, {@link #END}, or {@code null} if no batch arrived within the poll interval
+   *     or the pipeline stopped while waiting for a permit
+   */
+  private Batch take() throws InterruptedException {
+    long start = System.nanoTime();
+    takeLock.lockInterruptibly();
+    try {
+      Batch batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      writerIdleNanos.add(System.nanoTime() - start);
+      if (batch == null || batch == END) {
+        return batch;
+      }
+
+      while (!writerPermits.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (failure.get() != null) {
+          return null;
+        }
+      }
+      return batch;
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  private void fail(RuntimeException e) {
+    failure.compareAndSet(null, e);
+    if (sequencer != null) {
+      sequencer.fail();
+    }
+  }
+
+  private void awaitWriters() {
+    for (Future<?> future : writers) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail(new CsvImportException("Interrupted while awaiting writers", e));
+        writers.forEach(w -> w.cancel(true));
+        return;
+      } catch (ExecutionException e) {
+        fail(new CsvImportException("Writer failed", e.getCause()));
+      }
+    }
+  }
+
+  private void throwIfFailed() {
+    RuntimeException e = failure.get();
+    if (e != null) {
+      throw e;
+    }
+  }
+
+  /**
+   * A batch of parsed requests.
+   *
+   * @param sequence the position of the batch among the batches of its producer, from zero
+   * @param talks the parsed requests
+   * @param endOffset the input byte offset following the last record of the batch, or zero if the
+   *     producer does not track positions
+   * @param endRecord the number of data records read up to the last record of the batch, valid or
+   *     not
+   */
+  record Batch(long sequence, List<TedTalkRequest> talks, long endOffset, long endRecord) {}
+
+  /** Groups the requests of one parsing thread into batches and submits them to the pipeline. */
+  final class Producer implements Consumer<TedTalkRequest> {
+
+    private final int batchSize;
+    private List<TedTalkRequest> batch;
+    private long sequence;
+    private long offset;
+    private long records;
+
+    private Producer(int batchSize) {
+      this.batchSize = batchSize;
+      this.batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Records the input position following the record read last. Must be called before the
+     * record's request, if any, is accepted.
+     *
+     * @param offset the input byte offset following the record, or zero if unknown
+     * @param records the number of data records read so far, valid or not
+     */
+    void mark(long offset, long records) {
+      this.offset = offset;
+      this.records = records;
+    }
+
+    @Override
+    public void accept(TedTalkRequest request) {
+      batch.add(request);
+      if (batch.size() == batchSize) {
+        flush();
+      }
+    }
+
+    /** Submits the pending partial batch, if any. */
+    void flush() {
+      if (!batch.isEmpty()) {
+        submit(new Batch(sequence++, batch, offset, records));
+        batch = new ArrayList<>(batchSize);
+      }
+    }
+  }
+}
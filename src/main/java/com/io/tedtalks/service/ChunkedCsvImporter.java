@@ -0,0 +1,291 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.TedTalkRequest;
+import com.io.tedtalks.exception.CsvImportException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parses a spooled CSV file in newline-aligned chunks, in parallel.
+ *
+ * <p>The file is memory-mapped and split into chunks whose boundaries fall on line breaks outside
+ * quoted fields. Each chunk is decoded and parsed by {@link TedTalkCsvParser} on the parse
+ * executor, so parse throughput scales with the number of parse workers. Every chunk feeds its own
+ * producer of the import's {@link BatchPipeline}, whose writers and shared writer permits bound the
+ * number of concurrent database writes independently of the parse parallelism.
+ *
+ * <p>Batches from different chunks commit in no particular order, so talk identifiers do not
+ * follow the order of the file.
+ */
+@Component
+@Slf4j
+class ChunkedCsvImporter {
+
+  private static final long MIN_CHUNK_BYTES = 1L << 20;
+  private static final long MAX_CHUNK_BYTES = 256L << 20;
+  private static final int CHUNKS_PER_WORKER = 4;
+  private static final int DECODE_BUFFER_CHARS = 64 * 1024;
+
+  private final TedTalksConfig config;
+  private final ExecutorService csvParseExecutor;
+
+  ChunkedCsvImporter(
+      TedTalksConfig config, @Qualifier("csvParseExecutor") ExecutorService csvParseExecutor) {
+    this.config = config;
+    this.csvParseExecutor = csvParseExecutor;
+  }
+
+  /**
+   * Parses the given CSV file into the pipeline, returning once every chunk has been handed off.
+   *
+   * @param csvFile the spooled CSV file, including its header row
+   * @param pipeline the pipeline receiving the parsed batches
+   * @param progress the counters of rows and bytes read
+   * @param rowFilter accepts the rows to write and counts the ones it rejects
+   * @throws IOException if the file cannot be mapped
+   * @throws CsvImportException if a chunk fails; the pipeline is aborted so that the remaining
+   *     chunks stop at their next batch
+   */
+  void importFile(
+      Path csvFile,
+      BatchPipeline pipeline,
+      ImportProgressCounters progress,
+      Predicate<TedTalkRequest> rowFilter)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size == 0) {
+        return;
+      }
+
+      long dataStart = headerEnd(channel, size);
+      int[] layout = readLayout(channel, dataStart, progress);
+      List<long[]> chunks = split(channel, dataStart, size);
+
+      log.info("Importing {} in {} chunks", csvFile, chunks.size());
+
+      List<CompletableFuture<Void>> tasks = new ArrayList<>(chunks.size());
+      for (long[] chunk : chunks) {
+        tasks.add(
+            CompletableFuture.runAsync(
+                () ->
+                    importChunk(
+                        channel, chunk[0], chunk[1], layout, pipeline, progress, rowFilter),
+                csvParseExecutor));
+      }
+
+      try {
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+      } catch (CompletionException e) {
+        throw new CsvImportException("Chunk import failed", e.getCause());
+      }
+    }
+  }
+
+  private void importChunk(
+      FileChannel channel,
+      long start,
+      long end,
+      int[] layout,
+      BatchPipeline pipeline,
+      ImportProgressCounters progress,
+      Predicate<TedTalkRequest> rowFilter) {
+
+    BatchPipeline.Producer producer = pipeline.newProducer(config.csv().batchSize());
+
+    TedTalkCsvParser parser =
+        TedTalkCsvParser.withColumnLayout(
+            new TedTalkCsvParser.RowHandler() {
+              @Override
+              public void onRow(
+                  String title,
+                  String author,
+                  int year,
+                  int month,
+                  long views,
+                  long likes,
+                  String link) {
+                YearMonth date = YearMonth.of(year, month);
+                TedTalkRequest request =
+                    new TedTalkRequest(title, author, date, views, likes, link);
+                progress.rowRead();
+                if (rowFilter.test(request)) {
+                  producer.accept(request);
+                }
+              }
+
+              @Override
+              public void onInvalidRow(long recordNumber) {
+                log.warn("Invalid record skipped [chunk {}, record {}]", start, recordNumber);
+                progress.rowSkipped();
+              }
+            },
+            layout);
+
+    try {
+      decodeInto(
+          parser, channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), progress);
+      parser.finish();
+      producer.flush();
+    } catch (IOException e) {
+      pipeline.abort();
+      throw new CsvImportException("Failed to read chunk at byte " + start, e);
+    } catch (RuntimeException e) {
+      pipeline.abort();
+      throw e;
+    }
+  }
+
+  private static void decodeInto(
+      TedTalkCsvParser parser, ByteBuffer bytes, ImportProgressCounters progress) {
+    CharsetDecoder decoder =
+        StandardCharsets.UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    CharBuffer chars = CharBuffer.allocate(DECODE_BUFFER_CHARS);
+
+    CoderResult result;
+    do {
+      int position = bytes.position();
+      result = decoder.decode(bytes, chars, true);
+      progress.bytesProcessed(bytes.position() - position);
+      chars.flip();
+      parser.feed(chars);
+      chars.clear();
+    } while (result.isOverflow());
+
+    decoder.flush(chars);
+    chars.flip();
+    parser.feed(chars);
+  }
+
+  private int[] readLayout(FileChannel channel, long dataStart, ImportProgressCounters progress)
+      throws IOException {
+    TedTalkCsvParser headerParser =
+        TedTalkCsvParser.withHeader(
+            new TedTalkCsvParser.RowHandler() {
+              @Override
+              public void onRow(
+                  String title,
+                  String author,
+                  int year,
+                  int month,
+                  long views,
+                  long likes,
+                  String link) {}
+
+              @Override
+              public void onInvalidRow(long recordNumber) {}
+            });
+    decodeInto(
+        headerParser, channel.map(FileChannel.MapMode.READ_ONLY, 0, dataStart), progress);
+    headerParser.finish();
+
+    int[] layout = headerParser.columnLayout();
+    if (layout == null) {
+      throw new CsvImportException("CSV header is missing");
+    }
+    return layout;
+  }
+
+  /**
+   * Returns the byte offset following the header row, or the file size if the file has no line
+   * break outside quoted fields.
+   */
+  static long headerEnd(FileChannel channel, long size) throws IOException {
+    long[] end = {size};
+    scan(
+        channel,
+        0,
+        size,
+        MIN_CHUNK_BYTES,
+        lineEnd -> {
+          end[0] = lineEnd;
+          return false;
+        });
+    return end[0];
+  }
+
+  /**
+   * Splits {@code [dataStart, size)} into chunks that start and end on a line break outside quoted
+   * fields. Quote state is tracked in a single sequential pass over the mapped bytes; the UTF-8
+   * encodings of {@code "} and {@code \n} never occur inside multi-byte sequences.
+   */
+  private List<long[]> split(FileChannel channel, long dataStart, long size) throws IOException {
+    long chunkSize = chunkSize(size - dataStart);
+    List<long[]> chunks = new ArrayList<>();
+    long[] chunkStart = {dataStart};
+
+    scan(
+        channel,
+        dataStart,
+        size,
+        MAX_CHUNK_BYTES,
+        lineEnd -> {
+          if (lineEnd - chunkStart[0] >= chunkSize) {
+            chunks.add(new long[] {chunkStart[0], lineEnd});
+            chunkStart[0] = lineEnd;
+          }
+          return true;
+        });
+
+    if (chunkStart[0] < size) {
+      chunks.add(new long[] {chunkStart[0], size});
+    }
+    return chunks;
+  }
+
+  private long chunkSize(long dataSize) {
+    long perChunk = dataSize / ((long) config.csv().parseWorkers() * CHUNKS_PER_WORKER);
+    return Math.clamp(perChunk, MIN_CHUNK_BYTES, MAX_CHUNK_BYTES);
+  }
+
+  /**
+   * Calls {@code onLineEnd} with the offset following every line break outside quoted fields in
+   * {@code [from, to)}, until it returns {@code false}.
+   */
+  private static void scan(
+      FileChannel channel, long from, long to, long window, LineEndListener onLineEnd)
+      throws IOException {
+
+    boolean quoted = false;
+    for (long base = from; base < to; base += window) {
+      MappedByteBuffer bytes =
+          channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(window, to - base));
+      for (int i = 0, limit = bytes.limit(); i < limit; i++) {
+        byte b = bytes.get(i);
+        if (b == '"') {
+          quoted = !quoted;
+        } else if (b == '\n' && !quoted && !onLineEnd.onLineEnd(base + i + 1)) {
+          return;
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface LineEndListener {
+    boolean onLineEnd(long offset);
+  }
+}
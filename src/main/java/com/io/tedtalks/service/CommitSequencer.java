@@ -0,0 +1,76 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.exception.CsvImportException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders the commits of concurrent writers by batch sequence.
+ *
+ * <p>Writers insert their batches in parallel and call {@link #awaitTurn} right before committing,
+ * so transactions commit in the order the batches were read and a checkpoint written with a batch
+ * covers every earlier batch as well. Once {@link #fail()} is called, waiting writers give up so
+ * that their transactions roll back.
+ */
+final class CommitSequencer {
+
+  private static final long POLL_MILLIS = 100;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition turnChanged = lock.newCondition();
+  private long nextSequence;
+  private boolean failed;
+
+  /**
+   * Blocks until every batch before the given one has committed.
+   *
+   * @param sequence the sequence of the batch about to commit
+   * @throws CsvImportException if the sequencer has failed or the thread is interrupted
+   */
+  void awaitTurn(long sequence) {
+    lock.lock();
+    try {
+      while (nextSequence != sequence) {
+        if (failed) {
+          throw new CsvImportException("Earlier batch was not committed");
+        }
+        turnChanged.await(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      }
+      if (failed) {
+        throw new CsvImportException("Earlier batch was not committed");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CsvImportException("Interrupted while waiting to commit", e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records that the batch whose turn it was has committed, letting the next one proceed.
+   *
+   * @param sequence the sequence of the committed batch
+   */
+  void committed(long sequence) {
+    lock.lock();
+    try {
+      nextSequence = sequence + 1;
+      turnChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Releases all waiting writers with a failure; no further batch may commit. */
+  void fail() {
+    lock.lock();
+    try {
+      failed = true;
+      turnChanged.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
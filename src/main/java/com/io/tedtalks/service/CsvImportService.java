@@ -1,6 +1,8 @@
 package com.io.tedtalks.service;
 
+import com.io.tedtalks.config.TedTalksConfig;
 import com.io.tedtalks.dto.ImportStatusResponse;
+import java.io.InputStream;
 import org.springframework.web.multipart.MultipartFile;
 
 /** Service interface for importing data from CSV files into the system. */
@@ -10,9 +12,42 @@ public interface CsvImportService {
    * Initiates the process of importing data from the provided CSV file.
    *
    * @param file the MultipartFile representing the CSV file to be imported
+   * @param writeMode the way rows are written, or {@code null} for the configured default
    * @return a String representing the unique identifier for the initiated import process
    */
-  String startImport(MultipartFile file);
+  String startImport(MultipartFile file, TedTalksConfig.Csv.WriteMode writeMode);
+
+  /**
+   * Opens a streaming import session whose CSV content is supplied later through {@link
+   * #streamImport(String, InputStream)}. Nothing is written to disk for such an import.
+   *
+   * @param writeMode the way rows are written, or {@code null} for the configured default
+   * @return a String representing the unique identifier for the opened import process
+   */
+  String startStreamingImport(TedTalksConfig.Csv.WriteMode writeMode);
+
+  /**
+   * Parses and persists CSV content for an import opened with {@link #startStreamingImport}.
+   * Content is consumed only as fast as batches are persisted, so a slow database throttles the
+   * sender instead of buffering the upload.
+   *
+   * @param importId the unique identifier of the streaming import
+   * @param content the CSV content; closed once the import finishes
+   * @return an {@code ImportStatusResponse} describing the finished import
+   * @throws com.io.tedtalks.exception.CsvImportException if the import is not a streaming import
+   *     still waiting for its content, or if it fails; it is then marked failed
+   */
+  ImportStatusResponse streamImport(String importId, InputStream content);
+
+  /**
+   * Resumes an import interrupted by a shutdown from the last checkpoint committed with its spool
+   * file. Rows committed before the checkpoint are not read again.
+   *
+   * @param importId the unique identifier of the interrupted import
+   * @throws com.io.tedtalks.exception.CsvImportException if the import cannot be resumed
+   * @throws com.io.tedtalks.exception.TooManyImportsException if the import queue is full
+   */
+  void resumeImport(String importId);
 
   /**
    * Retrieves the current status of an import operation based on its unique identifier.
@@ -1,10 +1,14 @@
 package com.io.tedtalks.service;
 
 import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.ImportDelta;
+import com.io.tedtalks.dto.ImportPipelineMetrics;
+import com.io.tedtalks.dto.ImportProgress;
 import com.io.tedtalks.dto.ImportStatusResponse;
 import com.io.tedtalks.dto.TedTalkCsvRecord;
 import com.io.tedtalks.dto.TedTalkRequest;
 import com.io.tedtalks.entity.ImportStatusEntity;
+import com.io.tedtalks.entity.TedTalkEntity;
 import com.io.tedtalks.exception.CsvImportException;
 import com.io.tedtalks.exception.ResourceNotFoundException;
 import com.io.tedtalks.exception.TooManyImportsException;
@@ -12,25 +16,51 @@ import com.io.tedtalks.repository.ImportStatusRepository;
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
 import com.opencsv.bean.HeaderColumnNameMappingStrategy;
+import jakarta.annotation.PreDestroy;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.InstantSource;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -39,6 +69,26 @@ import org.springframework.web.multipart.MultipartFile;
  * <p>This implementation is designed to process large CSV files asynchronously using an executor
  * for background processing. Import capacity is limited through the executor's bounded queue to
  * prevent database overload.
+ *
+ * <p>Uploaded files are spooled to a temporary file before processing. Streaming imports skip the
+ * spool file and parse the request body directly on an import thread. A streaming import that
+ * receives no content within the configured session TTL is marked failed by the scheduled progress
+ * flush. With more than one parse worker configured, spooled files are parsed in parallel chunks
+ * by {@link ChunkedCsvImporter}.
+ *
+ * <p>Every import runs as a {@link BatchPipeline}: the parser fills batches while writer threads
+ * persist earlier ones. Writers of all imports share one set of writer permits, which caps the
+ * number of concurrent database writes. Progress counters and pipeline metrics are kept in memory
+ * and reported live in the import status. Progress is written to the database on a fixed schedule
+ * rather than per batch, and both are recorded when the import finishes.
+ *
+ * <p>A concurrent hash set of the links seen so far drops repeated rows of the same file before
+ * they reach the database; a resumed import seeds it with the links read before its checkpoint.
+ * In {@link TedTalksConfig.Csv.WriteMode#INSERT INSERT} mode, rows whose link is already stored
+ * are skipped by the insert. In {@link TedTalksConfig.Csv.WriteMode#UPSERT UPSERT} mode, batches
+ * are merged on the talk link instead of inserted. In {@link TedTalksConfig.Csv.WriteMode#DELTA
+ * DELTA} mode, the content hashes of the stored talks are loaded into a {@link LongLongHashMap}
+ * keyed by link hash first, and rows whose hash matches are not written at all.
  */
 @Service
 @Slf4j
@@ -50,14 +100,25 @@ public final class CsvImportServiceImpl implements CsvImportService {
     DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH)
   };
 
+  private static final int STORED_HASHES_EXPECTED = 8192;
+  private static final int SEED_BUFFER_CHARS = 64 * 1024;
+
   private final TedTalksConfig config;
   private final TedTalkService tedTalkService;
   private final ImportStatusRepository importStatusRepository;
   private final ExecutorService csvImportExecutor;
   private final InstantSource instantSource;
+  private final ChunkedCsvImporter chunkedCsvImporter;
+  private final ExecutorService csvWriteExecutor;
+  private final TransactionOperations transactionOperations;
+  private final Semaphore csvWriterPermits;
+  private final Set<String> activeStreams = ConcurrentHashMap.newKeySet();
+  private final Map<String, Instant> idleStreams = new ConcurrentHashMap<>();
+  private final Map<String, RunningImport> runningImports = new ConcurrentHashMap<>();
+  private volatile boolean shuttingDown;
 
   @Override
-  public String startImport(MultipartFile file) {
+  public String startImport(MultipartFile file, TedTalksConfig.Csv.WriteMode writeMode) {
     if (file.isEmpty()) {
       throw new CsvImportException("File is empty");
     }
@@ -65,17 +126,15 @@ public final class CsvImportServiceImpl implements CsvImportService {
     String importId = UUID.randomUUID().toString();
     Path tempFile = createTempFile(file);
 
-    importStatusRepository.save(ImportStatusEntity.start(importId, instantSource));
+    ImportStatusEntity status =
+        ImportStatusEntity.start(importId, writeModeOrDefault(writeMode), instantSource);
+    if (config.csv().parseWorkers() == 1) {
+      status.attachSpoolFile(tempFile);
+    }
+    importStatusRepository.save(status);
 
     try {
-      csvImportExecutor.execute(
-          () -> {
-            try {
-              processImport(importId, tempFile);
-            } finally {
-              deleteTempFile(tempFile);
-            }
-          });
+      csvImportExecutor.execute(() -> processImport(importId, tempFile));
     } catch (RejectedExecutionException e) {
       log.warn("Import {} rejected - too many concurrent imports", importId);
 
@@ -90,6 +149,54 @@ public final class CsvImportServiceImpl implements CsvImportService {
     return importId;
   }
 
+  @Override
+  public String startStreamingImport(TedTalksConfig.Csv.WriteMode writeMode) {
+    String importId = UUID.randomUUID().toString();
+    importStatusRepository.save(
+        ImportStatusEntity.start(importId, writeModeOrDefault(writeMode), instantSource));
+    idleStreams.put(importId, streamSessionDeadline());
+    return importId;
+  }
+
+  @Override
+  public ImportStatusResponse streamImport(String importId, InputStream content) {
+    if (!activeStreams.add(importId)) {
+      throw new CsvImportException("Import is already receiving content: " + importId);
+    }
+
+    try {
+      // Waits for an expiry of the session in progress, so that the status read below is final.
+      boolean waiting = idleStreams.remove(importId) != null;
+      ImportStatusEntity status = findStatus(importId);
+      if (status.getStatus() != ImportStatusEntity.ImportStatus.PROCESSING) {
+        throw new CsvImportException("Import is already finished: " + importId);
+      }
+      // Uploaded imports and streaming imports that already received content have no session.
+      if (!waiting) {
+        throw new CsvImportException("Import is not waiting for content: " + importId);
+      }
+
+      Future<?> task = csvImportExecutor.submit(() -> processImport(importId, content));
+      task.get();
+    } catch (RejectedExecutionException e) {
+      log.warn("Streaming import {} rejected - too many concurrent imports", importId);
+      idleStreams.put(importId, streamSessionDeadline());
+      throw new TooManyImportsException(
+          "System is currently processing the maximum number of imports. "
+              + "Please try again in a few minutes.");
+    } catch (ExecutionException e) {
+      log.error("Streaming import {} failed", importId, e.getCause());
+      throw new CsvImportException("Streaming import failed: " + importId, e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CsvImportException("Interrupted while streaming import " + importId, e);
+    } finally {
+      activeStreams.remove(importId);
+    }
+
+    return getImportStatus(importId);
+  }
+
   @Override
   public ImportStatusResponse getImportStatus(String importId) {
     ImportStatusEntity entity =
@@ -98,57 +205,547 @@ public final class CsvImportServiceImpl implements CsvImportService {
             .orElseThrow(
                 () -> new ResourceNotFoundException("Import not found with id: " + importId));
 
-    return ImportStatusResponse.fromEntity(entity);
+    RunningImport running = runningImports.get(importId);
+    if (running == null) {
+      return ImportStatusResponse.fromEntity(entity);
+    }
+    return ImportStatusResponse.fromEntity(
+        entity,
+        running.progress().snapshot(),
+        entity.getWriteMode() == TedTalksConfig.Csv.WriteMode.DELTA
+            ? running.progress().delta()
+            : null,
+        running.pipeline().metrics());
+  }
+
+  /**
+   * Writes the progress counters of all running imports to the import status table. Runs on a
+   * fixed schedule so that counter updates never cost a database write on the import hot path.
+   *
+   * <p>Streaming imports that were opened but did not receive their content within the session
+   * TTL are marked failed on the same schedule.
+   */
+  @Scheduled(fixedDelayString = "${ted-talks.csv.progress-flush-interval:2s}")
+  public void flushProgress() {
+    expireIdleStreams();
+    runningImports.forEach(
+        (importId, running) -> {
+          ImportProgress progress = running.progress().snapshot();
+          try {
+            importStatusRepository.updateProgress(
+                importId,
+                progress.rowsRead(),
+                progress.rowsPersisted(),
+                progress.rowsSkipped(),
+                progress.bytesProcessed(),
+                progress.rowsPerSecond());
+          } catch (RuntimeException e) {
+            log.warn("Failed to flush progress of import {}: {}", importId, e.getMessage());
+          }
+        });
+  }
+
+  /**
+   * Marks streaming imports failed whose session TTL passed without content. The expiry runs while
+   * holding the session's map entry, so a stream arriving at the same time either prevents it or
+   * sees the failed status afterward.
+   */
+  private void expireIdleStreams() {
+    Instant now = instantSource.instant();
+    idleStreams.forEach(
+        (importId, deadline) ->
+            idleStreams.computeIfPresent(
+                importId,
+                (id, current) -> {
+                  if (current.isAfter(now) || activeStreams.contains(id)) {
+                    return current;
+                  }
+                  try {
+                    importStatusRepository
+                        .findById(id)
+                        .filter(s -> s.getStatus() == ImportStatusEntity.ImportStatus.PROCESSING)
+                        .ifPresent(
+                            status -> {
+                              status.markFailed(instantSource);
+                              importStatusRepository.save(status);
+                              log.warn("Streaming import {} received no content, failed", id);
+                            });
+                    return null;
+                  } catch (RuntimeException e) {
+                    log.warn("Failed to expire streaming import {}: {}", id, e.getMessage());
+                    return current;
+                  }
+                }));
+  }
+
+  private Instant streamSessionDeadline() {
+    return instantSource.instant().plus(config.csv().streamSessionTtl());
   }
 
   /**
    * Processes the CSV import in a background thread. Reads records in batches and persists them to
    * the database. Updates import status upon completion or failure.
    *
+   * <p>The spool file is deleted once the import has finished. An import suspended by a shutdown
+   * keeps it, so that it can be resumed on the next startup.
+   *
    * @param importId the unique identifier for this import operation
    * @param csvFile the path to the temporary CSV file to process
    */
   public void processImport(String importId, Path csvFile) {
+    processSpooledImport(importId, csvFile, ResumePoint.START);
+  }
 
-    int batchSize = config.csv().batchSize();
-    List<TedTalkRequest> batch = new ArrayList<>(batchSize);
+  @Override
+  public void resumeImport(String importId) {
+    ImportStatusEntity status = findStatus(importId);
+    Path spoolFile = status.isResumable() ? Path.of(status.getSpoolFile()) : null;
+    if (spoolFile == null || !Files.isReadable(spoolFile)) {
+      throw new CsvImportException("Import cannot be resumed: " + importId);
+    }
 
-    try (BufferedReader reader =
-        new BufferedReader(new InputStreamReader(Files.newInputStream(csvFile)))) {
-
-      CsvToBean<TedTalkCsvRecord> csv =
-          new CsvToBeanBuilder<TedTalkCsvRecord>(reader)
-              .withMappingStrategy(mappingStrategy())
-              .withIgnoreEmptyLine(true)
-              .withIgnoreLeadingWhiteSpace(true)
-              .withThrowExceptions(false)
-              .build();
-
-      for (TedTalkCsvRecord record : csv) {
-        try {
-          batch.add(toRequest(record));
-        } catch (Exception e) {
-          log.warn("Invalid record skipped [{}]", record);
-          continue;
-        }
-
-        if (batch.size() == batchSize) {
-          tedTalkService.createTalksBatch(batch);
-          batch.clear();
-        }
-      }
+    ResumePoint resumePoint =
+        new ResumePoint(
+            status.getCheckpointOffset(),
+            status.getCheckpointRows(),
+            status.getCheckpointPersisted());
+    try {
+      csvImportExecutor.execute(() -> processSpooledImport(importId, spoolFile, resumePoint));
+    } catch (RejectedExecutionException e) {
+      throw new TooManyImportsException("Import queue is full, cannot resume " + importId);
+    }
+    log.info("Resuming import {} after {} persisted rows", importId, resumePoint.persistedRows());
+  }
+
+  /**
+   * Processes CSV content read from the given stream. Reads records in batches and persists them
+   * to the database. Updates import status upon completion or failure.
+   *
+   * @param importId the unique identifier for this import operation
+   * @param content the CSV content to process; closed when processing ends
+   */
+  void processImport(String importId, InputStream content) {
+    TedTalksConfig.Csv.WriteMode writeMode = findStatus(importId).getWriteMode();
+    runPipeline(
+        importId,
+        new ImportProgressCounters(),
+        null,
+        batch -> writeBatch(writeMode, batch.talks()),
+        (pipeline, progress) ->
+            parse(
+                content,
+                pipeline,
+                progress,
+                rowFilter(writeMode, progress, ConcurrentHashMap.newKeySet()),
+                ResumePoint.START,
+                0));
+  }
 
-      if (!batch.isEmpty()) {
-        tedTalkService.createTalksBatch(batch);
+  /**
+   * Stops running imports at their next batch boundary when the application shuts down. Imports
+   * are left in progress rather than failed, so that spooled ones resume on the next startup.
+   */
+  @PreDestroy
+  public void suspendImports() {
+    shuttingDown = true;
+    runningImports.values().forEach(running -> running.pipeline().abort());
+  }
+
+  private void processSpooledImport(String importId, Path csvFile, ResumePoint resumePoint) {
+    boolean suspended = false;
+    try {
+      TedTalksConfig.Csv.WriteMode writeMode = findStatus(importId).getWriteMode();
+      suspended =
+          config.csv().parseWorkers() > 1 && resumePoint == ResumePoint.START
+              ? !runPipeline(
+                  importId,
+                  new ImportProgressCounters(),
+                  null,
+                  batch -> writeBatch(writeMode, batch.talks()),
+                  (pipeline, progress) ->
+                      chunkedCsvImporter.importFile(
+                          csvFile,
+                          pipeline,
+                          progress,
+                          rowFilter(writeMode, progress, ConcurrentHashMap.newKeySet())))
+              : !runCheckpointedPipeline(importId, csvFile, writeMode, resumePoint);
+    } finally {
+      if (!suspended) {
+        deleteTempFile(csvFile);
       }
+    }
+  }
 
-      markCompleted(importId);
+  /**
+   * Runs a sequential import of a spool file that checkpoints its position with every batch. Each
+   * checkpoint is written in the transaction of its batch, and batches commit in file order, so
+   * the checkpoint always matches the committed rows exactly.
+   */
+  private boolean runCheckpointedPipeline(
+      String importId,
+      Path csvFile,
+      TedTalksConfig.Csv.WriteMode writeMode,
+      ResumePoint resumePoint) {
+    long offsetShift = resumePoint.offset() == 0 ? 0 : resumePoint.offset() - headerEnd(csvFile);
+    ImportProgressCounters progress =
+        new ImportProgressCounters(
+            resumePoint.rows(), resumePoint.persistedRows(), Math.max(0, offsetShift));
+    CommitSequencer sequencer = new CommitSequencer();
+    AtomicLong persistedRows = new AtomicLong(resumePoint.persistedRows());
 
+    return runPipeline(
+        importId,
+        progress,
+        sequencer,
+        batch -> {
+          int written =
+              transactionOperations.execute(
+                  tx -> {
+                    int rows = writeBatch(writeMode, batch.talks());
+                    sequencer.awaitTurn(batch.sequence());
+                    importStatusRepository.updateCheckpoint(
+                        importId,
+                        batch.endOffset(),
+                        batch.endRecord(),
+                        persistedRows.addAndGet(rows));
+                    return rows;
+                  });
+          sequencer.committed(batch.sequence());
+          return written;
+        },
+        (pipeline, counters) ->
+            parse(
+                openAt(csvFile, resumePoint.offset()),
+                pipeline,
+                counters,
+                rowFilter(writeMode, counters, linksBefore(csvFile, resumePoint)),
+                resumePoint,
+                offsetShift));
+  }
+
+  /**
+   * Runs an import through a batch pipeline and records its outcome.
+   *
+   * @return {@code true} if the import finished, {@code false} if it was suspended by a shutdown
+   */
+  private boolean runPipeline(
+      String importId,
+      ImportProgressCounters progress,
+      CommitSequencer sequencer,
+      ToIntFunction<BatchPipeline.Batch> writer,
+      ParseStage parseStage) {
+    BatchPipeline pipeline =
+        new BatchPipeline(
+            config.csv().pipelineCapacity(),
+            config.csv().writerThreads(),
+            csvWriteExecutor,
+            csvWriterPermits,
+            sequencer,
+            batch -> {
+              int written = writer.applyAsInt(batch);
+              progress.rowsPersisted(written);
+              progress.storedSkipped(batch.talks().size() - written);
+            });
+    runningImports.put(importId, new RunningImport(pipeline, progress));
+
+    try {
+      parseStage.parseInto(pipeline, progress);
+      pipeline.finish();
+      markCompleted(importId, progress.snapshot(), progress.delta(), pipeline.metrics());
+      return true;
     } catch (Exception e) {
+      pipeline.abort();
+      if (shuttingDown) {
+        log.warn("CSV import suspended by shutdown [{}]", importId);
+        return false;
+      }
       log.error("CSV import failed [{}]", importId, e);
-      markFailed(importId);
+      markFailed(importId, progress.snapshot(), progress.delta(), pipeline.metrics());
       throw new CsvImportException("Import failed", e);
+    } finally {
+      runningImports.remove(importId);
+    }
+  }
+
+  private void parse(
+      InputStream content,
+      BatchPipeline pipeline,
+      ImportProgressCounters progress,
+      Predicate<TedTalkRequest> rowFilter,
+      ResumePoint resumePoint,
+      long offsetShift)
+      throws IOException {
+    BatchPipeline.Producer producer = pipeline.newProducer(config.csv().batchSize());
+    RecordPositions positions = new RecordPositions(producer, resumePoint, offsetShift);
+    Consumer<TedTalkRequest> sink =
+        request -> {
+          if (rowFilter.test(request)) {
+            producer.accept(request);
+          }
+        };
+
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(new CountingInputStream(content, progress), strictUtf8()))) {
+      if (config.csv().parser() == TedTalksConfig.Csv.Parser.FAST) {
+        readFast(reader, sink, progress, positions);
+      } else {
+        readOpenCsv(reader, sink, progress, positions);
+      }
+    }
+    producer.flush();
+  }
+
+  private void readOpenCsv(
+      Reader reader,
+      Consumer<TedTalkRequest> sink,
+      ImportProgressCounters progress,
+      RecordPositions positions) {
+    CsvToBean<TedTalkCsvRecord> csv =
+        new CsvToBeanBuilder<TedTalkCsvRecord>(reader)
+            .withMappingStrategy(mappingStrategy())
+            .withIgnoreEmptyLine(true)
+            .withIgnoreLeadingWhiteSpace(true)
+            .withThrowExceptions(false)
+            .build();
+
+    for (TedTalkCsvRecord record : csv) {
+      if (!positions.recordEnded(0)) {
+        continue;
+      }
+      TedTalkRequest request;
+      try {
+        request = toRequest(record);
+      } catch (Exception e) {
+        log.warn("Invalid record skipped [{}]", record);
+        progress.rowSkipped();
+        continue;
+      }
+      progress.rowRead();
+      sink.accept(request);
+    }
+    csv.getCapturedExceptions().forEach(e -> progress.rowSkipped());
+  }
+
+  private void readFast(
+      Reader reader,
+      Consumer<TedTalkRequest> sink,
+      ImportProgressCounters progress,
+      RecordPositions positions)
+      throws IOException {
+    TedTalkCsvParser parser =
+        TedTalkCsvParser.withHeader(
+            new TedTalkCsvParser.RowHandler() {
+              private boolean skipped;
+
+              @Override
+              public void onRecordEnd(long byteOffset) {
+                skipped = !positions.recordEnded(byteOffset);
+              }
+
+              @Override
+              public void onRow(
+                  String title,
+                  String author,
+                  int year,
+                  int month,
+                  long views,
+                  long likes,
+                  String link) {
+                if (skipped) {
+                  return;
+                }
+                YearMonth date = YearMonth.of(year, month);
+                progress.rowRead();
+                sink.accept(new TedTalkRequest(title, author, date, views, likes, link));
+              }
+
+              @Override
+              public void onInvalidRow(long recordNumber) {
+                if (skipped) {
+                  return;
+                }
+                log.warn("Invalid record skipped [record {}]", recordNumber);
+                progress.rowSkipped();
+              }
+            });
+    parser.parse(reader);
+  }
+
+  /**
+   * Returns a UTF-8 decoder that fails on malformed or unmappable input instead of replacing it.
+   * The fast parser derives its byte offsets from the decoded characters, which only matches the
+   * spool file while every character stands for exactly the bytes it was decoded from.
+   */
+  private static CharsetDecoder strictUtf8() {
+    return StandardCharsets.UTF_8
+        .newDecoder()
+        .onMalformedInput(CodingErrorAction.REPORT)
+        .onUnmappableCharacter(CodingErrorAction.REPORT);
+  }
+
+  /**
+   * Opens a spool file at the given checkpoint offset. The header row is replayed first so that
+   * the parser can map the columns.
+   */
+  private static InputStream openAt(Path csvFile, long offset) throws IOException {
+    if (offset == 0) {
+      return Files.newInputStream(csvFile);
+    }
+
+    FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(Math.toIntExact(headerEnd(channel)));
+      while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {}
+      channel.position(offset);
+      return new SequenceInputStream(
+          new ByteArrayInputStream(header.array()), Channels.newInputStream(channel));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static long headerEnd(Path csvFile) {
+    try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+      return headerEnd(channel);
+    } catch (IOException e) {
+      throw new CsvImportException("Failed to read spool file header", e);
+    }
+  }
+
+  private static long headerEnd(FileChannel channel) throws IOException {
+    return ChunkedCsvImporter.headerEnd(channel, channel.size());
+  }
+
+  private TedTalksConfig.Csv.WriteMode writeModeOrDefault(TedTalksConfig.Csv.WriteMode writeMode) {
+    return writeMode == null ? config.csv().writeMode() : writeMode;
+  }
+
+  /**
+   * Writes a batch in the given mode.
+   *
+   * @return the number of written rows; inserts skip the rows whose link is already stored
+   */
+  private int writeBatch(TedTalksConfig.Csv.WriteMode writeMode, List<TedTalkRequest> talks) {
+    if (writeMode == TedTalksConfig.Csv.WriteMode.INSERT) {
+      return tedTalkService.createTalksBatch(talks);
     }
+    tedTalkService.upsertTalksBatch(talks);
+    return talks.size();
+  }
+
+  /**
+   * Returns the filter deciding which parsed rows are written; it counts the rows it rejects. Only
+   * the first row of every link passes, so that neither an insert nor a merge sees the same link
+   * twice. In delta mode rows identical to their stored talk are rejected as well.
+   *
+   * @param links the links seen so far; grows as rows pass the filter
+   */
+  private Predicate<TedTalkRequest> rowFilter(
+      TedTalksConfig.Csv.WriteMode writeMode,
+      ImportProgressCounters progress,
+      Set<String> links) {
+    Predicate<TedTalkRequest> firstOccurrence =
+        request -> {
+          if (links.add(request.link().trim())) {
+            return true;
+          }
+          progress.duplicateSkipped();
+          return false;
+        };
+    return writeMode == TedTalksConfig.Csv.WriteMode.DELTA
+        ? firstOccurrence.and(changedRows(progress))
+        : firstOccurrence;
+  }
+
+  /**
+   * Collects the links of the records read before a checkpoint, so that a resumed import still
+   * skips later rows repeating them. The records are read again with the fast parser, up to the
+   * number of records the checkpoint covers.
+   *
+   * @return a concurrent set of the links committed before the checkpoint
+   */
+  private static Set<String> linksBefore(Path csvFile, ResumePoint resumePoint)
+      throws IOException {
+    Set<String> links = ConcurrentHashMap.newKeySet();
+    if (resumePoint.rows() == 0) {
+      return links;
+    }
+
+    TedTalkCsvParser parser =
+        TedTalkCsvParser.withHeader(
+            new TedTalkCsvParser.RowHandler() {
+              private long records;
+
+              @Override
+              public void onRecordEnd(long byteOffset) {
+                records++;
+              }
+
+              @Override
+              public void onRow(
+                  String title,
+                  String author,
+                  int year,
+                  int month,
+                  long views,
+                  long likes,
+                  String link) {
+                if (records <= resumePoint.rows()) {
+                  links.add(link.trim());
+                }
+              }
+
+              @Override
+              public void onInvalidRow(long recordNumber) {}
+            });
+    try (Reader reader =
+        new BufferedReader(new InputStreamReader(Files.newInputStream(csvFile), strictUtf8()))) {
+      CharBuffer chars = CharBuffer.allocate(SEED_BUFFER_CHARS);
+      while (parser.records() < resumePoint.rows() && reader.read(chars) != -1) {
+        chars.flip();
+        parser.feed(chars);
+        chars.clear();
+      }
+    }
+    return links;
+  }
+
+  /**
+   * Loads the content hashes of the stored talks, keyed by link hash, and returns a filter passing
+   * only rows that are new or differ from their stored talk. A link hash collision can only make
+   * a row look changed, never unchanged, since the merge itself matches on the full link.
+   */
+  private Predicate<TedTalkRequest> changedRows(ImportProgressCounters progress) {
+    LongLongHashMap storedHashes = new LongLongHashMap(STORED_HASHES_EXPECTED);
+    tedTalkService.forEachContentHash(
+        (link, contentHash) -> storedHashes.put(TedTalkEntity.linkHash(link), contentHash));
+    log.info("Loaded content hashes of {} stored talks", storedHashes.size());
+
+    return request -> {
+      long linkHash = TedTalkEntity.linkHash(request.link());
+      if (!storedHashes.containsKey(linkHash)) {
+        progress.rowNew();
+        return true;
+      }
+
+      long contentHash =
+          TedTalkEntity.contentHash(
+              request.title(),
+              request.author(),
+              request.date().getYear(),
+              request.date().getMonthValue(),
+              request.views(),
+              request.likes(),
+              request.link());
+      if (storedHashes.getOrDefault(linkHash, ~contentHash) == contentHash) {
+        progress.rowUnchanged();
+        return false;
+      }
+      progress.rowChanged();
+      return true;
+    };
   }
 
   private Path createTempFile(MultipartFile file) {
@@ -169,24 +766,35 @@ public final class CsvImportServiceImpl implements CsvImportService {
     }
   }
 
-  private void markCompleted(String importId) {
-    ImportStatusEntity status =
-        importStatusRepository
-            .findById(importId)
-            .orElseThrow(
-                () ->
-                    new ResourceNotFoundException("Import status not found with id: " + importId));
+  private ImportStatusEntity findStatus(String importId) {
+    return importStatusRepository
+        .findById(importId)
+        .orElseThrow(
+            () -> new ResourceNotFoundException("Import status not found with id: " + importId));
+  }
+
+  private void markCompleted(
+      String importId,
+      ImportProgress progress,
+      ImportDelta delta,
+      ImportPipelineMetrics metrics) {
+    ImportStatusEntity status = findStatus(importId);
+    status.recordProgress(progress);
+    status.recordDelta(delta);
+    status.recordPipelineMetrics(metrics);
     status.markCompleted(instantSource);
     importStatusRepository.save(status);
   }
 
-  private void markFailed(String importId) {
-    ImportStatusEntity status =
-        importStatusRepository
-            .findById(importId)
-            .orElseThrow(
-                () ->
-                    new ResourceNotFoundException("Import status not found with id: " + importId));
+  private void markFailed(
+      String importId,
+      ImportProgress progress,
+      ImportDelta delta,
+      ImportPipelineMetrics metrics) {
+    ImportStatusEntity status = findStatus(importId);
+    status.recordProgress(progress);
+    status.recordDelta(delta);
+    status.recordPipelineMetrics(metrics);
     status.markFailed(instantSource);
     importStatusRepository.save(status);
   }
@@ -221,12 +829,101 @@ public final class CsvImportServiceImpl implements CsvImportService {
   }
 
   private TedTalkRequest toRequest(TedTalkCsvRecord r) {
+    YearMonth date = parseDate(r.getDate());
+    TedTalkEntity.checkInvariants(r.getTitle(), r.getAuthor(), date.getMonthValue(), r.getLink());
+
     return new TedTalkRequest(
         r.getTitle(),
         r.getAuthor(),
-        parseDate(r.getDate()),
+        date,
         parseLong(r.getViews()),
         parseLong(r.getLikes()),
         r.getLink());
   }
+
+  /** The parser stage of an import, feeding parsed batches into the pipeline. */
+  @FunctionalInterface
+  private interface ParseStage {
+    void parseInto(BatchPipeline pipeline, ImportProgressCounters progress) throws Exception;
+  }
+
+  /** The in-memory state of an import being processed. */
+  private record RunningImport(BatchPipeline pipeline, ImportProgressCounters progress) {}
+
+  /**
+   * The checkpoint an import starts from.
+   *
+   * @param offset the spool file byte offset following the last committed record, or zero to
+   *     read from the beginning
+   * @param rows the number of data records read up to the last committed record
+   * @param persistedRows the number of rows committed before the checkpoint
+   */
+  private record ResumePoint(long offset, long rows, long persistedRows) {
+
+    static final ResumePoint START = new ResumePoint(0, 0, 0);
+  }
+
+  /**
+   * Tracks the position following every data record read and marks it on the producer. When a
+   * checkpoint has no byte offset, the records it covers are read again and skipped.
+   */
+  private static final class RecordPositions {
+
+    private final BatchPipeline.Producer producer;
+    private final long offsetShift;
+    private final long recordsToSkip;
+    private long records;
+
+    RecordPositions(BatchPipeline.Producer producer, ResumePoint resumePoint, long offsetShift) {
+      this.producer = producer;
+      this.offsetShift = offsetShift;
+      boolean seeked = resumePoint.offset() > 0;
+      this.records = seeked ? resumePoint.rows() : 0;
+      this.recordsToSkip = seeked ? 0 : resumePoint.rows();
+    }
+
+    /**
+     * Records the end of a data record.
+     *
+     * @param byteOffset the parser's byte offset following the record, or zero if unknown
+     * @return {@code false} if the record was committed before the checkpoint and must be skipped
+     */
+    boolean recordEnded(long byteOffset) {
+      records++;
+      if (records <= recordsToSkip) {
+        return false;
+      }
+      producer.mark(byteOffset == 0 ? 0 : byteOffset + offsetShift, records);
+      return true;
+    }
+  }
+
+  /** Counts the bytes read from the CSV content. */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private final ImportProgressCounters progress;
+
+    CountingInputStream(InputStream in, ImportProgressCounters progress) {
+      super(in);
+      this.progress = progress;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        progress.bytesProcessed(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read > 0) {
+        progress.bytesProcessed(read);
+      }
+      return read;
+    }
+  }
 }
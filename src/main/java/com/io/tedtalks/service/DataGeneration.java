@@ -0,0 +1,105 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counts the committed writes of talks, so that results derived from the data can be versioned by
+ * the generation they were read at.
+ *
+ * <p>Every write path, whether it creates, updates or deletes talks through the API or imports
+ * them in batches, publishes a {@link TalksSavedEvent} or {@link TalkDeletedEvent}. The generation
+ * is advanced once its transaction has completed, after the listeners that apply the write to the
+ * in-memory indexes, leaderboards and caches on commit, and before the write returns to its caller.
+ * A result read at generation {@code g} is therefore current only while the generation is still
+ * {@code g}.
+ *
+ * <p>Spring runs the commit and completion listeners of a transaction from the same callback,
+ * sorted by their order alone, so the listeners applying a write are ordered {@link
+ * #APPLY_WRITE_ORDER} and the generation is advanced at {@link #ADVANCE_ORDER}, after them.
+ *
+ * <p>A thread can also watch its reads, such as while serving an HTTP request, to learn whether
+ * it was served a result of an older generation, which caches may do while they refresh it.
+ */
+@Component
+public class DataGeneration {
+
+  /** The order of the commit listeners that apply a write to the in-memory data. */
+  static final int APPLY_WRITE_ORDER = 0;
+
+  /** The order of the listeners advancing the generation, after {@link #APPLY_WRITE_ORDER}. */
+  static final int ADVANCE_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+  private final AtomicLong generation = new AtomicLong();
+  private final ThreadLocal<long[]> oldestRead = new ThreadLocal<>();
+
+  /**
+   * Returns the current generation. Callers read it before reading the data it versions.
+   *
+   * @return the number of writes committed so far
+   */
+  public long current() {
+    return generation.get();
+  }
+
+  /**
+   * Advances the generation once saved talks have been written.
+   *
+   * @param event the links of the saved talks
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+  @Order(ADVANCE_ORDER)
+  public void onTalksSaved(TalksSavedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  /**
+   * Advances the generation once a deleted talk has been written.
+   *
+   * @param event the identifier of the deleted talk
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+  @Order(ADVANCE_ORDER)
+  public void onTalkDeleted(TalkDeletedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  /** Starts watching the reads of the current thread for results of older generations. */
+  public void watchReads() {
+    oldestRead.set(new long[] {Long.MAX_VALUE});
+  }
+
+  /**
+   * Returns the generation of the data read by the current thread since it started watching.
+   *
+   * @param generation the generation read before the data
+   * @return the given generation, or the older generation of a result served in its place
+   */
+  public long readGeneration(long generation) {
+    long[] oldest = oldestRead.get();
+    return oldest == null ? generation : Math.min(generation, oldest[0]);
+  }
+
+  /** Stops watching the reads of the current thread. */
+  public void unwatchReads() {
+    oldestRead.remove();
+  }
+
+  /**
+   * Records that the current thread was served a result of an older generation.
+   *
+   * @param generation the generation the result was read at
+   */
+  void recordStaleRead(long generation) {
+    long[] oldest = oldestRead.get();
+    if (oldest != null) {
+      oldest[0] = Math.min(oldest[0], generation);
+    }
+  }
+}
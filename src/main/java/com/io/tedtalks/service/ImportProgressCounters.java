@@ -0,0 +1,135 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.dto.ImportDelta;
+import com.io.tedtalks.dto.ImportProgress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory progress counters of a running import. Parser and writer threads update them without
+ * contention; snapshots are taken by status requests and by the periodic flush to the import
+ * status table.
+ */
+final class ImportProgressCounters {
+
+  private final long startNanos = System.nanoTime();
+  private final long initialRowsPersisted;
+  private final LongAdder rowsRead = new LongAdder();
+  private final LongAdder rowsPersisted = new LongAdder();
+  private final LongAdder rowsSkipped = new LongAdder();
+  private final LongAdder bytesProcessed = new LongAdder();
+  private final LongAdder rowsUnchanged = new LongAdder();
+  private final LongAdder rowsChanged = new LongAdder();
+  private final LongAdder rowsNew = new LongAdder();
+
+  /** Creates counters for an import starting from the beginning of its content. */
+  ImportProgressCounters() {
+    this(0, 0, 0);
+  }
+
+  /**
+   * Creates counters for an import resuming from a checkpoint. The rate only accounts for rows
+   * persisted since the counters were created.
+   *
+   * @param rowsRead the number of data records read before the checkpoint
+   * @param rowsPersisted the number of rows committed before the checkpoint
+   * @param bytesProcessed the number of bytes consumed before the checkpoint
+   */
+  ImportProgressCounters(long rowsRead, long rowsPersisted, long bytesProcessed) {
+    this.initialRowsPersisted = rowsPersisted;
+    this.rowsRead.add(rowsRead);
+    this.rowsPersisted.add(rowsPersisted);
+    this.rowsSkipped.add(rowsRead - rowsPersisted);
+    this.bytesProcessed.add(bytesProcessed);
+  }
+
+  /** Counts a valid data row read by the parser. */
+  void rowRead() {
+    rowsRead.increment();
+  }
+
+  /** Counts an invalid data row read and skipped by the parser. */
+  void rowSkipped() {
+    rowsRead.increment();
+    rowsSkipped.increment();
+  }
+
+  /**
+   * Counts a valid data row, already counted as read, that is skipped because its link occurred
+   * earlier in the import.
+   */
+  void duplicateSkipped() {
+    rowsSkipped.increment();
+  }
+
+  /**
+   * Counts valid data rows, already counted as read, that are skipped by an insert because their
+   * link is already stored.
+   *
+   * @param count the number of skipped rows
+   */
+  void storedSkipped(int count) {
+    rowsSkipped.add(count);
+  }
+
+  /**
+   * Counts a valid data row, already counted as read, that matches its stored talk and is not
+   * written.
+   */
+  void rowUnchanged() {
+    rowsUnchanged.increment();
+  }
+
+  /** Counts a valid data row that differs from the stored talk with the same link. */
+  void rowChanged() {
+    rowsChanged.increment();
+  }
+
+  /** Counts a valid data row whose link is not stored yet. */
+  void rowNew() {
+    rowsNew.increment();
+  }
+
+  /**
+   * Counts rows committed to the database.
+   *
+   * @param count the number of rows in the committed batch
+   */
+  void rowsPersisted(int count) {
+    rowsPersisted.add(count);
+  }
+
+  /**
+   * Counts bytes of CSV content consumed by the parser.
+   *
+   * @param count the number of bytes
+   */
+  void bytesProcessed(long count) {
+    bytesProcessed.add(count);
+  }
+
+  /**
+   * Returns a snapshot of the delta counters.
+   *
+   * @return the current delta counts
+   */
+  ImportDelta delta() {
+    return new ImportDelta(rowsUnchanged.sum(), rowsChanged.sum(), rowsNew.sum());
+  }
+
+  /**
+   * Returns a snapshot of the counters.
+   *
+   * @return the current progress
+   */
+  ImportProgress snapshot() {
+    long persisted = rowsPersisted.sum();
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    return new ImportProgress(
+        rowsRead.sum(),
+        persisted,
+        rowsSkipped.sum(),
+        bytesProcessed.sum(),
+        elapsedMillis == 0 ? 0 : (persisted - initialRowsPersisted) * 1000 / elapsedMillis);
+  }
+}
@@ -1,8 +1,11 @@
 package com.io.tedtalks.service;
 
+import com.io.tedtalks.dto.InfluenceWeightsRequest;
+import com.io.tedtalks.dto.InfluenceWeightsResponse;
 import com.io.tedtalks.dto.SpeakerInfluenceResponse;
 import com.io.tedtalks.dto.TedTalkResponse;
 import com.io.tedtalks.dto.YearlyInfluenceResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,16 @@ public interface InfluenceAnalysisService {
    */
   List<SpeakerInfluenceResponse> getMostInfluentialSpeakers(int topN);
 
+  /**
+   * Retrieves a list of the most influential TED speakers, with influence computed under the given
+   * weights.
+   *
+   * @param topN the maximum number of top influential speakers to retrieve
+   * @param weights the weights of views and likes in the influence score
+   * @return a list of {@code SpeakerInfluenceResponse} representing the most influential speakers
+   */
+  List<SpeakerInfluenceResponse> getMostInfluentialSpeakers(int topN, InfluenceWeights weights);
+
   /**
    * Retrieves a list of the most influential TED Talks based on calculated influence metrics.
    *
@@ -26,6 +39,16 @@ public interface InfluenceAnalysisService {
    */
   List<TedTalkResponse> getMostInfluentialTalks(int topN);
 
+  /**
+   * Retrieves a list of the most influential TED Talks, with influence computed under the given
+   * weights.
+   *
+   * @param topN the maximum number of top influential TED Talks to retrieve
+   * @param weights the weights of views and likes in the influence score
+   * @return a list of {@code TedTalkResponse} objects representing the most influential TED Talks
+   */
+  List<TedTalkResponse> getMostInfluentialTalks(int topN, InfluenceWeights weights);
+
   /**
    * Retrieves a list of the most influential TED Talks by year based on influence metrics. Each
    * response item contains the year and the TED Talk with the highest influence score for that
@@ -36,6 +59,16 @@ public interface InfluenceAnalysisService {
    */
   List<YearlyInfluenceResponse> getMostInfluentialTalkByYear();
 
+  /**
+   * Retrieves the most influential TED Talk of each year, with influence computed under the given
+   * weights.
+   *
+   * @param weights the weights of views and likes in the influence score
+   * @return a list of {@code YearlyInfluenceResponse} objects, where each represents the most
+   *     influential TED Talk for a specific year
+   */
+  List<YearlyInfluenceResponse> getMostInfluentialTalkByYear(InfluenceWeights weights);
+
   /**
    * Retrieves the aggregated influence metrics of a specific TED speaker.
    *
@@ -45,4 +78,41 @@ public interface InfluenceAnalysisService {
    *     or has no associated TED Talks
    */
   Optional<SpeakerInfluenceResponse> getSpeakerInfluence(String author);
+
+  /**
+   * Retrieves the aggregated influence metrics of a specific TED speaker, with influence computed
+   * under the given weights.
+   *
+   * @param author the name of the speaker whose influence metrics are to be retrieved
+   * @param weights the weights of views and likes in the influence score
+   * @return an {@code Optional} containing the {@code SpeakerInfluenceResponse}, or an empty
+   *     {@code Optional} if the speaker is not found
+   */
+  Optional<SpeakerInfluenceResponse> getSpeakerInfluence(String author, InfluenceWeights weights);
+
+  /**
+   * Resolves the weights of a request that overrides some of the default weights.
+   *
+   * @param viewsWeight the requested weight of views, or {@code null} for the default one
+   * @param likesWeight the requested weight of likes, or {@code null} for the default one
+   * @return the default weights with the requested ones replaced
+   */
+  InfluenceWeights resolveWeights(Double viewsWeight, Double likesWeight);
+
+  /**
+   * Retrieves the default weights influence is computed with.
+   *
+   * @return the default weights and whether the stored scores have been computed under them
+   */
+  InfluenceWeightsResponse getDefaultWeights();
+
+  /**
+   * Changes the default weights at runtime. The stored scores and the in-memory rankings are
+   * recomputed under the new weights in the background, and rankings are computed from the views
+   * and likes of the talks until they are.
+   *
+   * @param request the new default weights
+   * @return the new default weights and whether the stored scores have been computed under them
+   */
+  InfluenceWeightsResponse changeDefaultWeights(InfluenceWeightsRequest request);
 }
@@ -1,9 +1,13 @@
 package com.io.tedtalks.service;
 
 import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.InfluenceWeightsRequest;
+import com.io.tedtalks.dto.InfluenceWeightsResponse;
+import com.io.tedtalks.dto.InfluentialTalkDto;
 import com.io.tedtalks.dto.SpeakerInfluenceResponse;
 import com.io.tedtalks.dto.TedTalkResponse;
 import com.io.tedtalks.dto.YearlyInfluenceResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
 import com.io.tedtalks.repository.InfluenceAnalysisRepository;
 import java.util.List;
 import java.util.Optional;
@@ -14,20 +18,34 @@ import org.springframework.stereotype.Service;
  * of TED speakers and talks using predefined weights for views and likes.
  *
  * <p>This service fetches influence data from the {@link InfluenceAnalysisRepository} and uses
- * configurations provided by {@link TedTalksConfig} to calculate influence scores.
+ * the default weights held by {@link InfluenceScores}, initially the ones of {@link
+ * TedTalksConfig}, to calculate influence scores. Rankings up to {@link
+ * InfluenceLeaderboard#MAX_TOP_N} entries and the most influential talk of each year are served by
+ * the in-memory {@link InfluenceLeaderboard}; longer rankings, or rankings requested while the
+ * leaderboard is being loaded, are read from the database, the most influential talks by their
+ * stored score unless it is being recomputed after a change of weights.
+ *
+ * <p>Every result read from the database, including every result under weights other than the
+ * default ones, goes through the {@link InfluenceResultCache}, which keeps it until the next write
+ * of talks and runs a single computation for concurrent identical requests.
  */
 @Service
 public final class InfluenceAnalysisServiceImpl implements InfluenceAnalysisService {
 
   private final InfluenceAnalysisRepository analyticsRepository;
-  private final double viewsWeight;
-  private final double likesWeight;
+  private final InfluenceScores influenceScores;
+  private final InfluenceLeaderboard leaderboard;
+  private final InfluenceResultCache resultCache;
 
-  public InfluenceAnalysisServiceImpl(
-      InfluenceAnalysisRepository analyticsRepository, TedTalksConfig config) {
+  InfluenceAnalysisServiceImpl(
+      InfluenceAnalysisRepository analyticsRepository,
+      InfluenceScores influenceScores,
+      InfluenceLeaderboard leaderboard,
+      InfluenceResultCache resultCache) {
     this.analyticsRepository = analyticsRepository;
-    this.viewsWeight = config.influence().viewsWeight();
-    this.likesWeight = config.influence().likesWeight();
+    this.influenceScores = influenceScores;
+    this.leaderboard = leaderboard;
+    this.resultCache = resultCache;
   }
 
   @Override
@@ -36,9 +54,22 @@ public final class InfluenceAnalysisServiceImpl implements InfluenceAnalysisServ
       return List.of();
     }
 
-    return analyticsRepository.findMostInfluentialSpeakers(viewsWeight, likesWeight, topN).stream()
-        .map(SpeakerInfluenceResponse::fromDto)
-        .toList();
+    return leaderboard
+        .topSpeakers(topN)
+        .orElseGet(() -> cachedMostInfluentialSpeakers(topN, influenceScores.weights()));
+  }
+
+  @Override
+  public List<SpeakerInfluenceResponse> getMostInfluentialSpeakers(
+      int topN, InfluenceWeights weights) {
+    if (isDefault(weights)) {
+      return getMostInfluentialSpeakers(topN);
+    }
+    if (topN <= 0) {
+      return List.of();
+    }
+
+    return cachedMostInfluentialSpeakers(topN, weights);
   }
 
   @Override
@@ -47,22 +78,121 @@ public final class InfluenceAnalysisServiceImpl implements InfluenceAnalysisServ
       return List.of();
     }
 
-    return analyticsRepository.findMostInfluentialTalks(viewsWeight, likesWeight, topN).stream()
-        .map(TedTalkResponse::fromDto)
-        .toList();
+    return leaderboard
+        .topTalks(topN)
+        .orElseGet(() -> cachedMostInfluentialTalks(topN, influenceScores.weights()));
+  }
+
+  @Override
+  public List<TedTalkResponse> getMostInfluentialTalks(int topN, InfluenceWeights weights) {
+    if (isDefault(weights)) {
+      return getMostInfluentialTalks(topN);
+    }
+    if (topN <= 0) {
+      return List.of();
+    }
+
+    return cachedMostInfluentialTalks(topN, weights);
   }
 
   @Override
   public List<YearlyInfluenceResponse> getMostInfluentialTalkByYear() {
-    return analyticsRepository.findMostInfluentialTalkPerYear(viewsWeight, likesWeight).stream()
-        .map(dto -> new YearlyInfluenceResponse(dto.getYearValue(), TedTalkResponse.fromDto(dto)))
-        .toList();
+    return leaderboard
+        .championsByYear()
+        .orElseGet(() -> cachedMostInfluentialTalkByYear(influenceScores.weights()));
+  }
+
+  @Override
+  public List<YearlyInfluenceResponse> getMostInfluentialTalkByYear(InfluenceWeights weights) {
+    if (isDefault(weights)) {
+      return getMostInfluentialTalkByYear();
+    }
+
+    return cachedMostInfluentialTalkByYear(weights);
   }
 
   @Override
   public Optional<SpeakerInfluenceResponse> getSpeakerInfluence(String author) {
+    return cachedSpeakerInfluence(author, influenceScores.weights());
+  }
+
+  @Override
+  public Optional<SpeakerInfluenceResponse> getSpeakerInfluence(
+      String author, InfluenceWeights weights) {
+    return cachedSpeakerInfluence(author, weights);
+  }
+
+  @Override
+  public InfluenceWeights resolveWeights(Double viewsWeight, Double likesWeight) {
+    return influenceScores.weights().withOverrides(viewsWeight, likesWeight);
+  }
+
+  @Override
+  public InfluenceWeightsResponse getDefaultWeights() {
+    return InfluenceWeightsResponse.fromWeights(
+        influenceScores.weights(), influenceScores.isCurrent());
+  }
+
+  @Override
+  public InfluenceWeightsResponse changeDefaultWeights(InfluenceWeightsRequest request) {
+    influenceScores.changeWeights(request.toWeights());
+    return getDefaultWeights();
+  }
+
+  private boolean isDefault(InfluenceWeights weights) {
+    return weights.equals(influenceScores.weights());
+  }
+
+  private List<SpeakerInfluenceResponse> cachedMostInfluentialSpeakers(
+      int topN, InfluenceWeights weights) {
+    return resultCache.get(
+        "speakers", topN, weights, () -> readMostInfluentialSpeakers(topN, weights));
+  }
+
+  private List<TedTalkResponse> cachedMostInfluentialTalks(int topN, InfluenceWeights weights) {
+    return resultCache.get("talks", topN, weights, () -> readMostInfluentialTalks(topN, weights));
+  }
+
+  private List<YearlyInfluenceResponse> cachedMostInfluentialTalkByYear(InfluenceWeights weights) {
+    return resultCache.get(
+        "talks-by-year", null, weights, () -> readMostInfluentialTalkByYear(weights));
+  }
+
+  private Optional<SpeakerInfluenceResponse> cachedSpeakerInfluence(
+      String author, InfluenceWeights weights) {
+    return resultCache.get("speaker", author, weights, () -> readSpeakerInfluence(author, weights));
+  }
+
+  private List<SpeakerInfluenceResponse> readMostInfluentialSpeakers(
+      int topN, InfluenceWeights weights) {
+    return analyticsRepository
+        .findMostInfluentialSpeakers(weights.viewsWeight(), weights.likesWeight(), topN)
+        .stream()
+        .map(SpeakerInfluenceResponse::fromDto)
+        .toList();
+  }
+
+  private List<TedTalkResponse> readMostInfluentialTalks(int topN, InfluenceWeights weights) {
+    List<InfluentialTalkDto> talks =
+        influenceScores.isCurrent() && isDefault(weights)
+            ? analyticsRepository.findMostInfluentialTalksByScore(topN)
+            : analyticsRepository.findMostInfluentialTalks(
+                weights.viewsWeight(), weights.likesWeight(), topN);
+    return talks.stream().map(TedTalkResponse::fromDto).toList();
+  }
+
+  private List<YearlyInfluenceResponse> readMostInfluentialTalkByYear(InfluenceWeights weights) {
+    return analyticsRepository
+        .findMostInfluentialTalkPerYear(weights.viewsWeight(), weights.likesWeight())
+        .stream()
+        .map(dto -> new YearlyInfluenceResponse(dto.getYearValue(), TedTalkResponse.fromDto(dto)))
+        .toList();
+  }
+
+  private Optional<SpeakerInfluenceResponse> readSpeakerInfluence(
+      String author, InfluenceWeights weights) {
     return analyticsRepository
-        .findSpeakerInfluence(author, viewsWeight, likesWeight)
+        .findSpeakerInfluence(author, weights.viewsWeight(), weights.likesWeight())
         .map(SpeakerInfluenceResponse::fromDto);
   }
 }
@@ -0,0 +1,480 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.dto.InfluentialTalkDto;
+import com.io.tedtalks.dto.SpeakerInfluenceResponse;
+import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.dto.YearlyInfluenceResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.InfluenceWeightsChangedEvent;
+import com.io.tedtalks.event.SpeakersChangedEvent;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import com.io.tedtalks.repository.InfluenceAnalysisRepository;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory leaderboards of the most influential talks and speakers, and of the most influential
+ * talk of each year, serving the influence rankings without touching the database.
+ *
+ * <p>Each leaderboard is a {@link Board}: a ranked set holding the top {@value #CAPACITY} entries,
+ * twice the largest ranking served, so that entries can leave it without leaving a gap. Its
+ * invariant is that every entry outside it ranks after all of its members, so the head of the set
+ * is the exact ranking. Writes update it through the {@link TalksSavedEvent}, {@link
+ * TalkDeletedEvent} and {@link SpeakersChangedEvent} events published once talks are written,
+ * which re-read the changed talks and speakers and move them in the set in {@code O(log K)}.
+ *
+ * <p>A member that is deleted or falls below the last member shrinks the set, since the entry
+ * taking its place is unknown. The set is reloaded from the database only once it holds fewer
+ * than {@value #MAX_TOP_N} entries and does not already hold every talk or speaker. Both boards
+ * are reloaded in the background when the weights change, after the stored scores have been
+ * recomputed, and rankings are served from the database until they are.
+ *
+ * <p>The most influential talk of each year, its champion, is kept in {@link YearChampions}. A
+ * saved talk replaces the champion of its year if it ranks before it; the year of a champion is
+ * read again from the database only when the champion is deleted, moved to another year or
+ * downgraded.
+ */
+@Component
+@Slf4j
+class InfluenceLeaderboard {
+
+  /** The largest ranking served from the leaderboards. */
+  static final int MAX_TOP_N = 100;
+
+  private static final int CAPACITY = 2 * MAX_TOP_N;
+
+  private static final Comparator<TedTalkResponse> TALK_RANKING =
+      Comparator.comparingDouble(TedTalkResponse::influenceScore)
+          .reversed()
+          .thenComparing(TedTalkResponse::id);
+
+  private final TedTalkRepository talkRepository;
+  private final InfluenceAnalysisRepository analyticsRepository;
+  private final InfluenceScores influenceScores;
+  private final Executor executor;
+  private final Board<Long, TedTalkResponse> talks =
+      new Board<>(TedTalkResponse::id, TedTalkResponse::influenceScore);
+  private final Board<String, SpeakerInfluenceResponse> speakers =
+      new Board<>(SpeakerInfluenceResponse::author, SpeakerInfluenceResponse::totalInfluence);
+  private final YearChampions champions = new YearChampions();
+
+  /** The weights the boards are ranked by, or null until they are loaded. */
+  private InfluenceWeights weights;
+
+  InfluenceLeaderboard(
+      TedTalkRepository talkRepository,
+      InfluenceAnalysisRepository analyticsRepository,
+      InfluenceScores influenceScores,
+      @Qualifier("influenceExecutor") Executor executor) {
+    this.talkRepository = talkRepository;
+    this.analyticsRepository = analyticsRepository;
+    this.influenceScores = influenceScores;
+    this.executor = executor;
+  }
+
+  /** Loads both boards under the weights in use. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public synchronized void rebuild() {
+    weights = influenceScores.weights();
+    reloadTalks();
+    reloadSpeakers();
+    champions.reset(
+        analyticsRepository
+            .findMostInfluentialTalkPerYear(weights.viewsWeight(), weights.likesWeight())
+            .stream()
+            .map(TedTalkResponse::fromDto)
+            .toList());
+    log.info(
+        "Loaded influence leaderboards of {} talks, {} speakers and {} years",
+        talks.size(),
+        speakers.size(),
+        champions.size());
+  }
+
+  /**
+   * Reloads both boards under the new weights on the influence executor, which runs the recompute
+   * of the stored scores first, so that the talks are read through the score index.
+   *
+   * @param event the new weights
+   */
+  @EventListener
+  public void onWeightsChanged(InfluenceWeightsChangedEvent event) {
+    executor.execute(this::refresh);
+  }
+
+  /** Reloads both boards if they are not ranked by the weights in use. */
+  synchronized void refresh() {
+    checkWeights();
+  }
+
+  /**
+   * Returns the most influential talks, if the leaderboard can serve the ranking.
+   *
+   * @param topN the number of talks to return
+   * @return the talks in descending order of influence, or empty if the ranking must be read from
+   *     the database
+   */
+  synchronized Optional<List<TedTalkResponse>> topTalks(int topN) {
+    return isServing(topN) ? Optional.of(talks.top(topN)) : Optional.empty();
+  }
+
+  /**
+   * Returns the most influential speakers, if the leaderboard can serve the ranking.
+   *
+   * @param topN the number of speakers to return
+   * @return the speakers in descending order of influence, or empty if the ranking must be read
+   *     from the database
+   */
+  synchronized Optional<List<SpeakerInfluenceResponse>> topSpeakers(int topN) {
+    return isServing(topN) ? Optional.of(speakers.top(topN)) : Optional.empty();
+  }
+
+  /**
+   * Returns the most influential talk of each year, if the leaderboard can serve it.
+   *
+   * @return the champion of every year with talks, in ascending year order, or empty if they must
+   *     be read from the database
+   */
+  synchronized Optional<List<YearlyInfluenceResponse>> championsByYear() {
+    return isLoaded() ? Optional.of(champions.all()) : Optional.empty();
+  }
+
+  /**
+   * Re-ranks the saved talks once their transaction has committed.
+   *
+   * @param event the links of the saved talks
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public synchronized void onTalksSaved(TalksSavedEvent event) {
+    if (event.links().isEmpty() || !checkWeights()) {
+      return;
+    }
+    try {
+      Set<Integer> staleYears = new HashSet<>();
+      for (TedTalkEntity talk : talkRepository.findAllByLinkIn(event.links())) {
+        TedTalkResponse response =
+            TedTalkResponse.fromEntity(talk, weights.viewsWeight(), weights.likesWeight());
+        talks.put(response);
+        crown(response, staleYears);
+      }
+      staleYears.forEach(this::reloadYear);
+      if (talks.needsReload()) {
+        reloadTalks();
+      }
+    } catch (RuntimeException e) {
+      weights = null;
+      log.error("Failed to rank {} saved TED Talks", event.links().size(), e);
+    }
+  }
+
+  /**
+   * Removes the deleted talk once its transaction has committed.
+   *
+   * @param event the identifier of the deleted talk
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public synchronized void onTalkDeleted(TalkDeletedEvent event) {
+    if (!checkWeights()) {
+      return;
+    }
+    try {
+      talks.remove(event.id());
+      Integer year = champions.yearOf(event.id());
+      if (year != null) {
+        reloadYear(year);
+      }
+      if (talks.needsReload()) {
+        reloadTalks();
+      }
+    } catch (RuntimeException e) {
+      weights = null;
+      log.error("Failed to reload talk leaderboard after deleting TED Talk {}", event.id(), e);
+    }
+  }
+
+  /**
+   * Re-ranks the changed speakers once their transaction has committed. Speakers left without
+   * talks are removed.
+   *
+   * @param event the names of the changed speakers
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public synchronized void onSpeakersChanged(SpeakersChangedEvent event) {
+    if (event.authors().isEmpty() || !checkWeights()) {
+      return;
+    }
+    try {
+      Set<String> removed = new HashSet<>(event.authors());
+      analyticsRepository
+          .findSpeakersByAuthorIn(event.authors(), weights.viewsWeight(), weights.likesWeight())
+          .forEach(
+              dto -> {
+                removed.remove(dto.getAuthor());
+                speakers.put(SpeakerInfluenceResponse.fromDto(dto));
+              });
+      removed.forEach(speakers::remove);
+      if (speakers.needsReload()) {
+        reloadSpeakers();
+      }
+    } catch (RuntimeException e) {
+      weights = null;
+      log.error("Failed to rank {} changed speakers", event.authors().size(), e);
+    }
+  }
+
+  private boolean isServing(int topN) {
+    return topN <= MAX_TOP_N && isLoaded();
+  }
+
+  private boolean isLoaded() {
+    return influenceScores.weights().equals(weights);
+  }
+
+  /**
+   * Reloads both boards if the weights changed since they were loaded.
+   *
+   * @return whether the boards are ranked by the weights in use
+   */
+  private boolean checkWeights() {
+    if (isLoaded()) {
+      return true;
+    }
+    try {
+      rebuild();
+      return true;
+    } catch (RuntimeException e) {
+      weights = null;
+      log.error("Failed to load influence leaderboards", e);
+      return false;
+    }
+  }
+
+  /**
+   * Makes a saved talk the champion of its year if it ranks before the current one. A champion
+   * that moved to another year or ranks lower than before is removed, and its year marked stale.
+   */
+  private void crown(TedTalkResponse talk, Set<Integer> staleYears) {
+    int year = talk.date().getYear();
+    Integer previousYear = champions.yearOf(talk.id());
+    if (previousYear != null) {
+      TedTalkResponse previous = champions.get(previousYear);
+      if (previousYear == year && TALK_RANKING.compare(talk, previous) <= 0) {
+        champions.set(year, talk);
+        return;
+      }
+      champions.set(previousYear, null);
+      staleYears.add(previousYear);
+    }
+    TedTalkResponse champion = champions.get(year);
+    if (!staleYears.contains(year)
+        && (champion == null || TALK_RANKING.compare(talk, champion) < 0)) {
+      champions.set(year, talk);
+    }
+  }
+
+  private void reloadYear(int year) {
+    champions.set(
+        year,
+        analyticsRepository
+            .findMostInfluentialTalkOfYear(year, weights.viewsWeight(), weights.likesWeight())
+            .map(TedTalkResponse::fromDto)
+            .orElse(null));
+  }
+
+  private void reloadTalks() {
+    List<InfluentialTalkDto> top =
+        influenceScores.isCurrent() && influenceScores.weights().equals(weights)
+            ? analyticsRepository.findMostInfluentialTalksByScore(CAPACITY)
+            : analyticsRepository.findMostInfluentialTalks(
+                weights.viewsWeight(), weights.likesWeight(), CAPACITY);
+    talks.reset(top.stream().map(TedTalkResponse::fromDto).toList());
+  }
+
+  private void reloadSpeakers() {
+    speakers.reset(
+        analyticsRepository
+            .findMostInfluentialSpeakers(weights.viewsWeight(), weights.likesWeight(), CAPACITY)
+            .stream()
+            .map(SpeakerInfluenceResponse::fromDto)
+            .toList());
+  }
+
+  /**
+   * A ranked set of at most {@value #CAPACITY} entries, by descending score and then ascending
+   * key, holding the head of the full ranking.
+   *
+   * @param <K> the type of the key identifying an entry
+   * @param <V> the type of the entries
+   */
+  private static final class Board<K extends Comparable<K>, V> {
+
+    private final Function<V, K> key;
+    private final TreeSet<V> ranked;
+    private final Map<K, V> members = new HashMap<>();
+
+    /** Whether the set holds every entry of the full ranking. */
+    private boolean complete;
+
+    Board(Function<V, K> key, ToDoubleFunction<V> score) {
+      this.key = key;
+      this.ranked =
+          new TreeSet<>(Comparator.comparingDouble(score).reversed().thenComparing(key));
+    }
+
+    int size() {
+      return ranked.size();
+    }
+
+    /** Replaces the entries with the head of the full ranking, read from the database. */
+    void reset(Collection<V> top) {
+      ranked.clear();
+      members.clear();
+      top.forEach(this::add);
+      complete = top.size() < CAPACITY;
+    }
+
+    /** Adds or re-ranks an entry, keeping it only if it still ranks within the set. */
+    void put(V value) {
+      remove(key.apply(value));
+      if (complete || (!ranked.isEmpty() && ranksBefore(value, ranked.last()))) {
+        add(value);
+        if (ranked.size() > CAPACITY) {
+          members.remove(key.apply(ranked.pollLast()));
+          complete = false;
+        }
+      }
+    }
+
+    void remove(K id) {
+      V previous = members.remove(id);
+      if (previous != null) {
+        ranked.remove(previous);
+      }
+    }
+
+    /** Returns whether the set became too small to serve every ranking. */
+    boolean needsReload() {
+      return !complete && ranked.size() < MAX_TOP_N;
+    }
+
+    List<V> top(int n) {
+      List<V> top = new ArrayList<>(Math.min(n, ranked.size()));
+      Iterator<V> iterator = ranked.iterator();
+      while (top.size() < n && iterator.hasNext()) {
+        top.add(iterator.next());
+      }
+      return top;
+    }
+
+    private boolean ranksBefore(V value, V other) {
+      return ranked.comparator().compare(value, other) < 0;
+    }
+
+    private void add(V value) {
+      members.put(key.apply(value), value);
+      ranked.add(value);
+    }
+  }
+
+  /**
+   * The champion of each year. Years from {@value #FIRST_YEAR} to {@value #LAST_YEAR} are kept in
+   * an array indexed by year, and the rare talks dated outside that range in a sorted map.
+   */
+  private static final class YearChampions {
+
+    private static final int FIRST_YEAR = 1500;
+    private static final int LAST_YEAR = 2100;
+
+    private final TedTalkResponse[] inRange = new TedTalkResponse[LAST_YEAR - FIRST_YEAR + 1];
+    private final NavigableMap<Integer, TedTalkResponse> outOfRange = new TreeMap<>();
+    private final Map<Long, Integer> yearsById = new HashMap<>();
+
+    void reset(Collection<TedTalkResponse> yearChampions) {
+      Arrays.fill(inRange, null);
+      outOfRange.clear();
+      yearsById.clear();
+      yearChampions.forEach(champion -> set(champion.date().getYear(), champion));
+    }
+
+    int size() {
+      return yearsById.size();
+    }
+
+    /** Returns the year the talk is the champion of, or null if it is none. */
+    Integer yearOf(long id) {
+      return yearsById.get(id);
+    }
+
+    TedTalkResponse get(int year) {
+      return isInRange(year) ? inRange[year - FIRST_YEAR] : outOfRange.get(year);
+    }
+
+    /** Sets the champion of the year, or clears it if the year has no talks. */
+    void set(int year, TedTalkResponse champion) {
+      TedTalkResponse previous = get(year);
+      if (previous != null) {
+        yearsById.remove(previous.id());
+      }
+      if (isInRange(year)) {
+        inRange[year - FIRST_YEAR] = champion;
+      } else if (champion != null) {
+        outOfRange.put(year, champion);
+      } else {
+        outOfRange.remove(year);
+      }
+      if (champion != null) {
+        yearsById.put(champion.id(), year);
+      }
+    }
+
+    List<YearlyInfluenceResponse> all() {
+      List<YearlyInfluenceResponse> all = new ArrayList<>(size());
+      outOfRange
+          .headMap(FIRST_YEAR)
+          .forEach((year, talk) -> all.add(new YearlyInfluenceResponse(year, talk)));
+      for (int i = 0; i < inRange.length; i++) {
+        if (inRange[i] != null) {
+          all.add(new YearlyInfluenceResponse(FIRST_YEAR + i, inRange[i]));
+        }
+      }
+      outOfRange
+          .tailMap(LAST_YEAR, false)
+          .forEach((year, talk) -> all.add(new YearlyInfluenceResponse(year, talk)));
+      return all;
+    }
+
+    private static boolean isInRange(int year) {
+      return year >= FIRST_YEAR && year <= LAST_YEAR;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.entity.InfluenceWeights;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches influence results keyed by the ranking, its argument and the weight pair, each result
+ * tagged with the {@link DataGeneration} it was read at.
+ *
+ * <p>The generation is read before the result is computed, so a result is current only while no
+ * write has been committed since; a result computed while talks are being written is tagged with
+ * the generation preceding the write. At most {@code ted-talks.influence.result-cache-size}
+ * results are cached, the least recently used evicted first.
+ *
+ * <p>Concurrent requests for a result that is not cached share a single computation: the first
+ * one computes it and the others wait for it, as long as it was started at the current generation.
+ * A result of a previous generation computed less than {@code
+ * ted-talks.influence.stale-while-revalidate} ago is still served while one computation refreshes
+ * it in the background, so a burst of requests after a write neither waits nor runs the same
+ * query in parallel. Older results are computed again before they are served.
+ */
+@Component
+@Slf4j
+class InfluenceResultCache {
+
+  private final DataGeneration dataGeneration;
+  private final InstantSource clock;
+  private final Executor refreshExecutor;
+  private final Duration staleWhileRevalidate;
+  private final Map<Key, CachedResult> results;
+  private final Map<Key, Computation> computations = new HashMap<>();
+
+  InfluenceResultCache(
+      TedTalksConfig config,
+      DataGeneration dataGeneration,
+      InstantSource clock,
+      @Qualifier("influenceRefreshExecutor") Executor refreshExecutor) {
+    this.dataGeneration = dataGeneration;
+    this.clock = clock;
+    this.refreshExecutor = refreshExecutor;
+    this.staleWhileRevalidate = config.influence().staleWhileRevalidate();
+    int capacity = config.influence().resultCacheSize();
+    this.results =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /**
+   * Returns the result of a ranking at the current generation, computing it once for all
+   * concurrent callers if it is not cached, or a recent result of a previous generation while it
+   * is refreshed in the background.
+   *
+   * @param ranking the name of the ranking
+   * @param argument the argument of the ranking, such as the number of entries
+   * @param weights the weights the result is computed under
+   * @param loader computes the result
+   * @param <T> the type of the result
+   * @return the result of the ranking
+   */
+  @SuppressWarnings("unchecked")
+  <T> T get(String ranking, Object argument, InfluenceWeights weights, Supplier<T> loader) {
+    Key key = new Key(ranking, argument, weights);
+    long generation = dataGeneration.current();
+    Instant now = clock.instant();
+    Computation computation;
+    boolean computes = false;
+    synchronized (this) {
+      CachedResult cached = results.get(key);
+      if (cached != null && cached.generation() == generation) {
+        return (T) cached.result();
+      }
+      computation = computations.get(key);
+      boolean joinable = computation != null && computation.generation() == generation;
+      if (cached != null && now.isBefore(cached.computedAt().plus(staleWhileRevalidate))) {
+        if (!joinable) {
+          Computation refresh = start(key, generation);
+          refreshExecutor.execute(() -> refresh(key, refresh, now, loader));
+        }
+        dataGeneration.recordStaleRead(cached.generation());
+        return (T) cached.result();
+      }
+      if (!joinable) {
+        computation = start(key, generation);
+        computes = true;
+      }
+    }
+    if (computes) {
+      return (T) compute(key, computation, now, loader);
+    }
+    return (T) await(computation);
+  }
+
+  private Computation start(Key key, long generation) {
+    Computation computation = new Computation(generation, new CompletableFuture<>());
+    computations.put(key, computation);
+    return computation;
+  }
+
+  private Object compute(Key key, Computation computation, Instant startedAt, Supplier<?> loader) {
+    Object result;
+    try {
+      result = loader.get();
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        computations.remove(key, computation);
+      }
+      computation.result().completeExceptionally(e);
+      throw e;
+    }
+    synchronized (this) {
+      computations.remove(key, computation);
+      CachedResult cached = results.get(key);
+      if (cached == null || cached.generation() <= computation.generation()) {
+        results.put(key, new CachedResult(result, computation.generation(), startedAt));
+      }
+    }
+    computation.result().complete(result);
+    return result;
+  }
+
+  private void refresh(Key key, Computation computation, Instant startedAt, Supplier<?> loader) {
+    try {
+      compute(key, computation, startedAt, loader);
+    } catch (RuntimeException e) {
+      log.error("Failed to refresh influence result {}", key, e);
+    }
+  }
+
+  private static Object await(Computation computation) {
+    try {
+      return computation.result().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record Key(String ranking, Object argument, InfluenceWeights weights) {}
+
+  private record CachedResult(Object result, long generation, Instant computedAt) {}
+
+  /** A computation of a result in progress, started at a data generation. */
+  private record Computation(long generation, CompletableFuture<Object> result) {}
+}
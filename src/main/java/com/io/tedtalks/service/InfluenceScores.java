@@ -0,0 +1,205 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.event.InfluenceWeightsChangedEvent;
+import com.io.tedtalks.repository.TedTalkJdbcRepository;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the influence scores stored with every talk consistent with the weights in use.
+ *
+ * <p>It is the single owner of the weights in use: writes store the score under {@link #weights()},
+ * which they pass to the entity or the JDBC bulk-load path. When the weights change, new writes
+ * use the new weights at once and the stored talks are recomputed in the background, in identifier
+ * ranges of {@value #RECOMPUTE_BATCH_SIZE} committed one by one, so that no transaction locks the
+ * whole table. Until a recompute has finished, {@link #isCurrent()} is false and rankings must
+ * compute the score from the views and likes instead of reading the stored one.
+ *
+ * <p>Writes take the weights with {@link #weightsForWrite()}, which holds them until the
+ * transaction ends. A recompute first waits for the transactions holding previous weights to end,
+ * so that no score under them can commit after its last pass. A range pass skips rows already
+ * scored under the new weights, and passes are repeated until one finds no row left to update.
+ *
+ * <p>A change of weights is announced with an {@link InfluenceWeightsChangedEvent}, so that data
+ * precomputed under the previous weights, such as the {@link InfluenceLeaderboard}, is rebuilt.
+ */
+@Component
+@Slf4j
+class InfluenceScores {
+
+  private static final int RECOMPUTE_BATCH_SIZE = 1000;
+
+  private final TedTalkJdbcRepository jdbcRepository;
+  private final Executor executor;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<InfluenceWeights, Integer> writers = new HashMap<>();
+  private volatile InfluenceWeights weights;
+  private volatile boolean current;
+
+  InfluenceScores(
+      TedTalkJdbcRepository jdbcRepository,
+      TedTalksConfig config,
+      @Qualifier("influenceExecutor") Executor executor,
+      ApplicationEventPublisher eventPublisher) {
+    this.jdbcRepository = jdbcRepository;
+    this.executor = executor;
+    this.eventPublisher = eventPublisher;
+    this.weights =
+        new InfluenceWeights(config.influence().viewsWeight(), config.influence().likesWeight());
+  }
+
+  /**
+   * Recomputes the stored scores computed under other weights, such as by a previous run with
+   * another configuration, and marks the scores current once none is left.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void reconcile() {
+    InfluenceWeights reconciled = weights;
+    executor.execute(() -> recompute(reconciled));
+  }
+
+  /**
+   * Returns the weights influence is computed with.
+   *
+   * @return the weights in use
+   */
+  InfluenceWeights weights() {
+    return weights;
+  }
+
+  /**
+   * Returns the weights a write stores scores under, and holds them until its transaction ends:
+   * a recompute under later weights waits for it, so that the write cannot commit a score under
+   * these weights after the recompute is done. Every call within a transaction returns the same
+   * weights.
+   *
+   * @return the weights to store scores under
+   */
+  InfluenceWeights weightsForWrite() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return weights;
+    }
+    Writer writer = (Writer) TransactionSynchronizationManager.getResource(this);
+    if (writer == null) {
+      synchronized (this) {
+        writer = new Writer(weights);
+        writers.merge(writer.weights, 1, Integer::sum);
+      }
+      TransactionSynchronizationManager.bindResource(this, writer);
+      TransactionSynchronizationManager.registerSynchronization(writer);
+    }
+    return writer.weights;
+  }
+
+  /**
+   * Returns whether every stored score was computed under the weights in use.
+   *
+   * @return true if the stored scores can be read in place of computed ones
+   */
+  boolean isCurrent() {
+    return current;
+  }
+
+  /**
+   * Switches to new weights: later writes store scores under them, the stored talks are
+   * recomputed in the background, and the change is announced to the listeners.
+   *
+   * @param weights the new weights
+   */
+  void changeWeights(InfluenceWeights weights) {
+    synchronized (this) {
+      if (weights.equals(this.weights)) {
+        return;
+      }
+      current = false;
+      this.weights = weights;
+      notifyAll();
+      executor.execute(() -> recompute(weights));
+    }
+    log.info("Changed influence weights to {}", weights);
+    eventPublisher.publishEvent(new InfluenceWeightsChangedEvent(weights));
+  }
+
+  private void recompute(InfluenceWeights weights) {
+    try {
+      if (!awaitWriters(weights)) {
+        return;
+      }
+      long updated = 0;
+      int passUpdated;
+      do {
+        passUpdated = 0;
+        long maxId = jdbcRepository.maxId();
+        for (long afterId = 0; afterId < maxId; afterId += RECOMPUTE_BATCH_SIZE) {
+          if (!weights.equals(this.weights)) {
+            return;
+          }
+          passUpdated +=
+              jdbcRepository.recomputeInfluence(weights, afterId, afterId + RECOMPUTE_BATCH_SIZE);
+        }
+        updated += passUpdated;
+      } while (passUpdated > 0);
+      markCurrent(weights);
+      log.info("Recomputed influence of {} TED Talks under {}", updated, weights);
+    } catch (RuntimeException e) {
+      log.error("Failed to recompute influence scores under {}", weights, e);
+    }
+  }
+
+  /**
+   * Waits until no transaction holds weights other than the given ones.
+   *
+   * @return false if the weights were changed again or the thread was interrupted meanwhile
+   */
+  private synchronized boolean awaitWriters(InfluenceWeights weights) {
+    try {
+      while (weights.equals(this.weights)
+          && writers.keySet().stream().anyMatch(held -> !held.equals(weights))) {
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    return weights.equals(this.weights);
+  }
+
+  private synchronized void release(InfluenceWeights weights) {
+    writers.computeIfPresent(weights, (held, count) -> count == 1 ? null : count - 1);
+    notifyAll();
+  }
+
+  private synchronized void markCurrent(InfluenceWeights weights) {
+    current = weights.equals(this.weights);
+  }
+
+  /** The weights held by the writes of one transaction, released when it ends. */
+  private final class Writer implements TransactionSynchronization {
+
+    private final InfluenceWeights weights;
+
+    private Writer(InfluenceWeights weights) {
+      this.weights = weights;
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResource(InfluenceScores.this);
+      release(weights);
+    }
+  }
+}
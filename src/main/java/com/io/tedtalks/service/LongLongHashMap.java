@@ -0,0 +1,134 @@
+package com.io.tedtalks.service;
+
+/**
+ * Open-addressing hash map from {@code long} keys to {@code long} values, without boxing.
+ *
+ * <p>Keys and values live in two parallel arrays probed linearly, so an entry costs 16 bytes at
+ * full load instead of the ~80 bytes of a {@code HashMap<Long, Long>} entry. Zero marks an empty
+ * slot; the zero key is kept aside. Entries cannot be removed.
+ *
+ * <p>Not thread-safe for writes. Once filled, the map may be read by any number of threads.
+ */
+final class LongLongHashMap {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private long[] values;
+  private int mask;
+  private int size;
+  private boolean hasZeroKey;
+  private long zeroValue;
+
+  /**
+   * Creates a map sized to hold the given number of entries without resizing.
+   *
+   * @param expectedSize the expected number of entries
+   */
+  LongLongHashMap(int expectedSize) {
+    allocate(capacityFor(expectedSize));
+  }
+
+  /**
+   * Associates a value with a key, replacing any previous value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  void put(long key, long value) {
+    if (key == 0) {
+      size += hasZeroKey ? 0 : 1;
+      hasZeroKey = true;
+      zeroValue = value;
+      return;
+    }
+
+    int slot = slot(key);
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > keys.length / 2) {
+      rehash();
+    }
+  }
+
+  /**
+   * Returns whether the map holds a value for the given key.
+   *
+   * @param key the key
+   * @return {@code true} if the key is present
+   */
+  boolean containsKey(long key) {
+    if (key == 0) {
+      return hasZeroKey;
+    }
+    for (int slot = slot(key); keys[slot] != 0; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the value associated with a key.
+   *
+   * @param key the key
+   * @param defaultValue the value returned if the key is absent
+   * @return the value of the key, or {@code defaultValue}
+   */
+  long getOrDefault(long key, long defaultValue) {
+    if (key == 0) {
+      return hasZeroKey ? zeroValue : defaultValue;
+    }
+    for (int slot = slot(key); keys[slot] != 0; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the number of keys in the map
+   */
+  int size() {
+    return size;
+  }
+
+  private int slot(long key) {
+    long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32)) & mask;
+  }
+
+  private void rehash() {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    allocate(oldKeys.length * 2);
+    size = hasZeroKey ? 1 : 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int minCapacity = Math.max(MIN_CAPACITY, expectedSize * 2);
+    return Integer.highestOneBit(minCapacity - 1) << 1;
+  }
+}
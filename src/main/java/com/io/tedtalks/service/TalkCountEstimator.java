@@ -0,0 +1,87 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.repository.TedTalkJdbcRepository;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates the number of talks matching listing filters without counting them on every request.
+ *
+ * <p>The unfiltered total is read from the table statistics. Filtered totals are counted once per
+ * filter combination and cached; a cached count is scaled by how much the table has grown or shrunk
+ * since it was taken, and counted again once it has expired.
+ */
+@Component
+@RequiredArgsConstructor
+class TalkCountEstimator {
+
+  private final TedTalkRepository repository;
+  private final TedTalkJdbcRepository jdbcRepository;
+  private final TedTalksConfig config;
+  private final InstantSource clock;
+  private final Map<Filters, CachedCount> counts = new ConcurrentHashMap<>();
+
+  /**
+   * Estimates the number of talks matching the filters.
+   *
+   * @param author the author prefix filter, or {@code null}
+   * @param year the year filter, or {@code null}
+   * @param keyword the keyword prefix filter, or {@code null}
+   * @return the estimated number of matching talks
+   */
+  long estimate(String author, Integer year, String keyword) {
+    long tableRows = jdbcRepository.estimateRowCount();
+    if (author == null && year == null && keyword == null) {
+      return tableRows;
+    }
+
+    Filters filters = new Filters(normalize(author), year, normalize(keyword));
+    Instant now = clock.instant();
+    CachedCount cached = counts.get(filters);
+    if (cached == null || !now.isBefore(cached.expiresAt())) {
+      cached =
+          new CachedCount(
+              repository.countByFilters(author, year, keyword),
+              tableRows,
+              now.plus(config.listing().countCacheTtl()));
+      store(filters, cached);
+      return cached.count();
+    }
+    return cached.scaledTo(tableRows);
+  }
+
+  private void store(Filters filters, CachedCount count) {
+    if (counts.size() >= config.listing().countCacheSize() && !counts.containsKey(filters)) {
+      Iterator<Filters> victim = counts.keySet().iterator();
+      if (victim.hasNext()) {
+        victim.next();
+        victim.remove();
+      }
+    }
+    counts.put(filters, count);
+  }
+
+  private static String normalize(String filter) {
+    return filter == null ? null : filter.toLowerCase(Locale.ROOT);
+  }
+
+  private record Filters(String author, Integer year, String keyword) {}
+
+  private record CachedCount(long count, long tableRows, Instant expiresAt) {
+
+    long scaledTo(long currentTableRows) {
+      if (tableRows == 0 || currentTableRows == tableRows) {
+        return count;
+      }
+      return Math.min(currentTableRows, Math.round((double) count * currentTableRows / tableRows));
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.TalkCacheStats;
+import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through cache of the responses of single-talk lookups, keyed by talk id.
+ *
+ * <p>At most {@code ted-talks.talk-cache.max-size} talks are kept, the least recently read one
+ * being evicted first, and a talk is read again once it is older than {@code
+ * ted-talks.talk-cache.ttl}. A cached response also records the influence weights its score was
+ * computed under, and is read again once they have changed.
+ *
+ * <p>Writes invalidate exactly the talks they touched, once committed: saved talks through their
+ * links, which the cache indexes, and deleted talks through their id. A lookup that started
+ * before an invalidation does not cache what it read, since it may predate the write.
+ */
+@Component
+class TalkResponseCache {
+
+  private final InstantSource clock;
+  private final Duration ttl;
+  private final int maxSize;
+  private final Map<Long, CachedTalk> talks;
+  private final Map<String, Long> idsByLink = new HashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  /** The number of invalidations so far, guarded by this cache. */
+  private long generation;
+
+  TalkResponseCache(TedTalksConfig config, InstantSource clock) {
+    this.clock = clock;
+    this.ttl = config.talkCache().ttl();
+    this.maxSize = config.talkCache().maxSize();
+    this.talks =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long, CachedTalk> eldest) {
+            if (size() <= maxSize) {
+              return false;
+            }
+            idsByLink.remove(eldest.getValue().talk().link(), eldest.getKey());
+            evictions.increment();
+            return true;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached response of a talk, reading and caching it if it is missing, expired or
+   * scored under other weights.
+   *
+   * @param id the identifier of the talk
+   * @param weights the influence weights the response must be scored under
+   * @param loader reads the response from the database
+   * @return the response of the talk
+   */
+  TedTalkResponse get(long id, InfluenceWeights weights, Supplier<TedTalkResponse> loader) {
+    Instant now = clock.instant();
+    long readGeneration;
+    synchronized (this) {
+      CachedTalk cached = talks.get(id);
+      if (cached != null) {
+        if (now.isBefore(cached.expiresAt()) && cached.weights().equals(weights)) {
+          hits.increment();
+          return cached.talk();
+        }
+        remove(id);
+        evictions.increment();
+      }
+      readGeneration = generation;
+    }
+    misses.increment();
+    TedTalkResponse talk = loader.get();
+    synchronized (this) {
+      if (readGeneration == generation) {
+        remove(id);
+        talks.put(id, new CachedTalk(talk, weights, now.plus(ttl)));
+        idsByLink.put(talk.link(), id);
+      }
+    }
+    return talk;
+  }
+
+  /**
+   * Invalidates the saved talks once their transaction has committed.
+   *
+   * @param event the links of the saved talks
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public synchronized void onTalksSaved(TalksSavedEvent event) {
+    generation++;
+    for (String link : event.links()) {
+      Long id = idsByLink.get(link);
+      if (id != null && remove(id)) {
+        invalidations.increment();
+      }
+    }
+  }
+
+  /**
+   * Invalidates the deleted talk once its transaction has committed.
+   *
+   * @param event the identifier of the deleted talk
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public synchronized void onTalkDeleted(TalkDeletedEvent event) {
+    generation++;
+    if (remove(event.id())) {
+      invalidations.increment();
+    }
+  }
+
+  /**
+   * Returns the statistics of the cache.
+   *
+   * @return the current size and the hit, miss, eviction and invalidation counts
+   */
+  TalkCacheStats stats() {
+    int size;
+    synchronized (this) {
+      size = talks.size();
+    }
+    return new TalkCacheStats(
+        size, maxSize, hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+  }
+
+  private boolean remove(long id) {
+    CachedTalk removed = talks.remove(id);
+    if (removed == null) {
+      return false;
+    }
+    idsByLink.remove(removed.talk().link(), id);
+    return true;
+  }
+
+  private record CachedTalk(TedTalkResponse talk, InfluenceWeights weights, Instant expiresAt) {}
+}
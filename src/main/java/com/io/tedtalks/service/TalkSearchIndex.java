@@ -0,0 +1,423 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.PageCursor;
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory Lucene index over the title and author of every stored talk, serving keyword searches
+ * of the listing when {@link TedTalksConfig.Listing.KeywordSearch#FULL_TEXT} is configured.
+ *
+ * <p>Keywords are split into words by the standard analyzer; every word must match a word of the
+ * title or author, the last one as a prefix so that partially typed words still match. Results are
+ * ranked by BM25, title matches weighing more than author matches, or sorted on the same fields as
+ * the database listing through doc values.
+ *
+ * <p>The index is rebuilt from the database when the application starts, before imports are
+ * resumed, and is kept in sync by the {@link TalksSavedEvent} and {@link TalkDeletedEvent} events
+ * published once talks are written. An update that fails leaves the index stale: it is rebuilt
+ * right away, and again on the next write while rebuilding fails, keyword searches being served by
+ * the database until then.
+ */
+@Component
+@Slf4j
+class TalkSearchIndex implements DisposableBean {
+
+  private static final String KEY = "key";
+  private static final String TITLE_TEXT = "title_text";
+  private static final String AUTHOR_TEXT = "author_text";
+  private static final String AUTHOR_KEY = "author_key";
+  private static final String YEAR_POINT = "year_point";
+  private static final String ID = "id";
+  private static final String TITLE = "title";
+  private static final String AUTHOR = "author";
+  private static final String YEAR = "year";
+  private static final String VIEWS = "views";
+  private static final String LIKES = "likes";
+
+  private static final float TITLE_BOOST = 2f;
+  private static final int REBUILD_BATCH_SIZE = 1000;
+
+  private final TedTalkRepository repository;
+  private final TedTalksConfig config;
+  private final Analyzer analyzer = new StandardAnalyzer();
+  private final IndexWriter writer;
+  private final SearcherManager searcherManager;
+
+  /** Whether an update failed since the index was last rebuilt, leaving it out of sync. */
+  private volatile boolean stale;
+
+  TalkSearchIndex(TedTalkRepository repository, TedTalksConfig config) throws IOException {
+    this.repository = repository;
+    this.config = config;
+    this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+    this.searcherManager = new SearcherManager(writer, null);
+  }
+
+  /**
+   * A talk matching a search.
+   *
+   * @param id the identifier of the talk
+   * @param sortValue the value the talk was sorted on, in the {@code PageCursor} text form
+   */
+  record Hit(long id, String sortValue) {}
+
+  /**
+   * A page of search results.
+   *
+   * @param hits the matching talks of the page, in sort order
+   * @param totalHits the number of matching talks, counted at most up to a threshold unless exact
+   * @param exact whether {@code totalHits} is the exact number of matching talks
+   */
+  record Result(List<Hit> hits, long totalHits, boolean exact) {}
+
+  /**
+   * Returns whether keyword searches of the listing are served by this index.
+   *
+   * @return true if full-text keyword search is configured and the index is not stale
+   */
+  boolean isEnabled() {
+    return isConfigured() && !stale;
+  }
+
+  /** Indexes every stored talk, in batches read in identifier order. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public synchronized void rebuild() {
+    if (!isConfigured()) {
+      return;
+    }
+    try {
+      writer.deleteAll();
+      repository.forEachBatch(REBUILD_BATCH_SIZE, this::addAll);
+      writer.commit();
+      searcherManager.maybeRefreshBlocking();
+      stale = false;
+      log.info("Indexed {} TED Talks for full-text search", writer.getDocStats().numDocs);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Indexes the saved talks once their transaction has committed, replacing their previous
+   * documents.
+   *
+   * @param event the links of the saved talks
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public synchronized void onTalksSaved(TalksSavedEvent event) {
+    if (!isConfigured() || event.links().isEmpty()) {
+      return;
+    }
+    if (stale) {
+      repair();
+      return;
+    }
+    try {
+      for (TedTalkEntity talk : repository.findAllByLinkIn(event.links())) {
+        writer.updateDocument(new Term(KEY, Long.toString(talk.getId())), document(talk));
+      }
+      searcherManager.maybeRefreshBlocking();
+    } catch (IOException | RuntimeException e) {
+      stale = true;
+      log.error("Failed to index {} saved TED Talks", event.links().size(), e);
+      repair();
+    }
+  }
+
+  /**
+   * Removes the deleted talk from the index once its transaction has committed.
+   *
+   * @param event the identifier of the deleted talk
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public synchronized void onTalkDeleted(TalkDeletedEvent event) {
+    if (!isConfigured()) {
+      return;
+    }
+    if (stale) {
+      repair();
+      return;
+    }
+    try {
+      writer.deleteDocuments(new Term(KEY, Long.toString(event.id())));
+      searcherManager.maybeRefreshBlocking();
+    } catch (IOException | RuntimeException e) {
+      stale = true;
+      log.error("Failed to remove TED Talk {} from the index", event.id(), e);
+      repair();
+    }
+  }
+
+  /**
+   * Searches the talks matching all the given filters.
+   *
+   * @param author optional author prefix, matched case-insensitively
+   * @param year optional year
+   * @param keyword words to match in the title or author
+   * @param sortBy a sort field of {@code PaginationParams}, including relevance
+   * @param direction the sort direction; descending relevance ranks the best matches first
+   * @param after optional cursor whose following hits are returned, in which case {@code offset}
+   *     is ignored
+   * @param offset the number of hits to skip
+   * @param limit the maximum number of hits to return
+   * @return the hits and the number of matching talks
+   */
+  Result search(
+      String author,
+      Integer year,
+      String keyword,
+      String sortBy,
+      Direction direction,
+      PageCursor after,
+      int offset,
+      int limit) {
+
+    Query query = query(author, year, keyword);
+    Sort sort = sort(sortBy, direction);
+    IndexSearcher searcher = acquire();
+    try {
+      TopFieldDocs docs;
+      if (after == null) {
+        docs = searcher.search(query, offset + limit, sort, true);
+      } else {
+        docs = searcher.searchAfter(fieldDoc(after, searcher), query, limit, sort, true);
+      }
+      ScoreDoc[] scoreDocs = docs.scoreDocs;
+      int from = after == null ? Math.min(offset, scoreDocs.length) : 0;
+      List<Hit> hits = new ArrayList<>(scoreDocs.length - from);
+      for (int i = from; i < scoreDocs.length; i++) {
+        Object[] fields = ((FieldDoc) scoreDocs[i]).fields;
+        hits.add(new Hit((Long) fields[fields.length - 1], sortValue(fields[0])));
+      }
+      TotalHits total = docs.totalHits;
+      return new Result(hits, total.value(), total.relation() == TotalHits.Relation.EQUAL_TO);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      release(searcher);
+    }
+  }
+
+  /**
+   * Counts the talks matching all the given filters.
+   *
+   * @param author optional author prefix, matched case-insensitively
+   * @param year optional year
+   * @param keyword words to match in the title or author
+   * @return the exact number of matching talks
+   */
+  long count(String author, Integer year, String keyword) {
+    IndexSearcher searcher = acquire();
+    try {
+      return searcher.count(query(author, year, keyword));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      release(searcher);
+    }
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    searcherManager.close();
+    writer.close();
+    analyzer.close();
+  }
+
+  private boolean isConfigured() {
+    return config.listing().keywordSearch() == TedTalksConfig.Listing.KeywordSearch.FULL_TEXT;
+  }
+
+  /** Rebuilds the stale index, which stays stale if rebuilding fails too. */
+  private void repair() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      log.error("Failed to rebuild the full-text index, searching the database instead", e);
+    }
+  }
+
+  private Query query(String author, Integer year, String keyword) {
+    BooleanQuery.Builder builder = new BooleanQuery.Builder();
+    if (keyword != null) {
+      List<String> words = words(keyword);
+      if (words.isEmpty()) {
+        return new MatchNoDocsQuery("keyword without words");
+      }
+      for (int i = 0; i < words.size(); i++) {
+        boolean last = i == words.size() - 1;
+        Query inTitle = new BoostQuery(wordQuery(TITLE_TEXT, words.get(i), last), TITLE_BOOST);
+        Query inAuthor = wordQuery(AUTHOR_TEXT, words.get(i), last);
+        builder.add(
+            new BooleanQuery.Builder()
+                .add(inTitle, BooleanClause.Occur.SHOULD)
+                .add(inAuthor, BooleanClause.Occur.SHOULD)
+                .build(),
+            BooleanClause.Occur.MUST);
+      }
+    }
+    if (author != null) {
+      Term prefix = new Term(AUTHOR_KEY, TedTalkEntity.searchKey(author));
+      builder.add(new PrefixQuery(prefix), BooleanClause.Occur.FILTER);
+    }
+    if (year != null) {
+      builder.add(IntPoint.newExactQuery(YEAR_POINT, year), BooleanClause.Occur.FILTER);
+    }
+    BooleanQuery query = builder.build();
+    return query.clauses().isEmpty() ? new MatchAllDocsQuery() : query;
+  }
+
+  /** Matches a word exactly, or as a prefix too for the last word, ranking exact matches higher. */
+  private static Query wordQuery(String field, String word, boolean last) {
+    Query exact = new TermQuery(new Term(field, word));
+    if (!last) {
+      return exact;
+    }
+    return new BooleanQuery.Builder()
+        .add(exact, BooleanClause.Occur.SHOULD)
+        .add(new PrefixQuery(new Term(field, word)), BooleanClause.Occur.SHOULD)
+        .build();
+  }
+
+  private List<String> words(String keyword) {
+    List<String> words = new ArrayList<>();
+    try (TokenStream stream = analyzer.tokenStream(TITLE_TEXT, keyword)) {
+      CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+      stream.reset();
+      while (stream.incrementToken()) {
+        words.add(term.toString());
+      }
+      stream.end();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return words;
+  }
+
+  /** Sorts on the given field, then on the identifier in the same direction to break ties. */
+  private static Sort sort(String sortBy, Direction direction) {
+    boolean reverse = direction == Direction.DESC;
+    SortField id = new SortField(ID, SortField.Type.LONG, reverse);
+    return switch (sortBy) {
+      case ID -> new Sort(id);
+      case TITLE, AUTHOR -> new Sort(new SortField(sortBy, SortField.Type.STRING, reverse), id);
+      case YEAR, VIEWS, LIKES -> new Sort(new SortField(sortBy, SortField.Type.LONG, reverse), id);
+      case PaginationParams.RELEVANCE ->
+          new Sort(new SortField(null, SortField.Type.SCORE, !reverse), id);
+      default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+    };
+  }
+
+  /**
+   * Positions a search after the talk a cursor points to. The identifier tie-break makes the sort
+   * values unique, so the document number only has to be a valid one: the last.
+   */
+  private static FieldDoc fieldDoc(PageCursor cursor, IndexSearcher searcher) {
+    Object value = cursor.sortValue();
+    if (value instanceof String text) {
+      value = new BytesRef(text);
+    }
+    Object[] fields =
+        ID.equals(cursor.sortBy()) ? new Object[] {cursor.id()} : new Object[] {value, cursor.id()};
+    float score = value instanceof Float relevance ? relevance : Float.NaN;
+    return new FieldDoc(searcher.getIndexReader().maxDoc() - 1, score, fields);
+  }
+
+  private static String sortValue(Object value) {
+    return value instanceof BytesRef bytes ? bytes.utf8ToString() : String.valueOf(value);
+  }
+
+  private void addAll(List<TedTalkEntity> talks) {
+    try {
+      writer.addDocuments(talks.stream().map(TalkSearchIndex::document).toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Document document(TedTalkEntity talk) {
+    Document document = new Document();
+    document.add(new StringField(KEY, Long.toString(talk.getId()), Field.Store.NO));
+    document.add(new TextField(TITLE_TEXT, talk.getTitle(), Field.Store.NO));
+    document.add(new TextField(AUTHOR_TEXT, talk.getAuthor(), Field.Store.NO));
+    String authorKey = TedTalkEntity.searchKey(talk.getAuthor());
+    document.add(new StringField(AUTHOR_KEY, authorKey, Field.Store.NO));
+    document.add(new IntPoint(YEAR_POINT, talk.getYear()));
+    document.add(new NumericDocValuesField(ID, talk.getId()));
+    document.add(new SortedDocValuesField(TITLE, new BytesRef(talk.getTitle())));
+    document.add(new SortedDocValuesField(AUTHOR, new BytesRef(talk.getAuthor())));
+    document.add(new NumericDocValuesField(YEAR, talk.getYear()));
+    document.add(new NumericDocValuesField(VIEWS, talk.getViews()));
+    document.add(new NumericDocValuesField(LIKES, talk.getLikes()));
+    return document;
+  }
+
+  private IndexSearcher acquire() {
+    try {
+      return searcherManager.acquire();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void release(IndexSearcher searcher) {
+    try {
+      searcherManager.release(searcher);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,442 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.dto.TalkSuggestion;
+import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory prefix index over the words of every talk title and author, answering typeahead
+ * queries without touching the database.
+ *
+ * <p>Queries read an immutable {@link Snapshot}: the sorted array of distinct lower-case words,
+ * each mapped to an {@code int[]} posting list of talk ordinals. Ordinals are assigned in
+ * descending view order, so a posting list is sorted by popularity as well and a query stops as
+ * soon as it has found the requested number of talks. Every prefix of up to {@value
+ * #SHORT_PREFIX_LENGTH} characters has a posting list of its own, merged from those of its words
+ * when the snapshot is built, since such a prefix starts too many words to merge them per query. A
+ * longer prefix merges the postings of at most {@value #MAX_MERGED_POSTINGS} words, and otherwise
+ * filters the list of its first characters.
+ *
+ * <p>Writes are applied on top of the snapshot as soon as they are committed, through the {@link
+ * TalksSavedEvent} and {@link TalkDeletedEvent} events: saved talks are matched by a scan of their
+ * own and hide their previous version in the snapshot, as deleted talks do. Once more than {@value
+ * #MAX_PENDING_WRITES} talks are pending, the next refresh, run every {@code
+ * ted-talks.listing.suggest-refresh-interval}, merges them into a new snapshot. The talks of the
+ * snapshot are already in view order and split into words, so the merge neither sorts nor splits
+ * them again.
+ */
+@Component
+@Slf4j
+class TalkSuggestIndex {
+
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int REBUILD_BATCH_SIZE = 1000;
+  private static final int SHORT_PREFIX_LENGTH = 3;
+  private static final int MAX_MERGED_POSTINGS = 16;
+  private static final int MAX_PENDING_WRITES = 1024;
+  private static final int[] NO_POSTINGS = new int[0];
+
+  /** Orders talks by descending views, then by identifier. */
+  private static final Comparator<Talk> RANK =
+      Comparator.comparingLong(Talk::views).reversed().thenComparingLong(Talk::id);
+
+  private final TedTalkRepository repository;
+  private final Object writeLock = new Object();
+  private volatile Index index = new Index(Snapshot.of(List.of()), Map.of(), Set.of());
+
+  TalkSuggestIndex(TedTalkRepository repository) {
+    this.repository = repository;
+  }
+
+  /** A talk of the index, with the view count that ranks it and its sorted distinct words. */
+  private record Talk(TalkSuggestion suggestion, long views, String[] words) {
+
+    static Talk of(TedTalkEntity talk) {
+      return new Talk(
+          new TalkSuggestion(talk.getId(), talk.getTitle(), talk.getAuthor()),
+          talk.getViews(),
+          TalkSuggestIndex.words(talk.getTitle() + " " + talk.getAuthor()));
+    }
+
+    long id() {
+      return suggestion.id();
+    }
+  }
+
+  /**
+   * A snapshot with the writes committed since it was built. Neither collection is modified once
+   * published.
+   *
+   * @param snapshot the talks at the time the snapshot was built
+   * @param saved the talks saved since, by identifier, replacing their version in the snapshot
+   * @param deleted the identifiers of the talks deleted since
+   */
+  private record Index(Snapshot snapshot, Map<Long, Talk> saved, Set<Long> deleted) {
+
+    int pending() {
+      return saved.size() + deleted.size();
+    }
+
+    /** Returns whether the version of a talk in the snapshot was replaced or deleted since. */
+    boolean hides(long id) {
+      return saved.containsKey(id) || deleted.contains(id);
+    }
+  }
+
+  /** Loads every stored talk and builds the first snapshot. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public synchronized void rebuild() {
+    synchronized (writeLock) {
+      List<Talk> loaded = new ArrayList<>();
+      repository.forEachBatch(
+          REBUILD_BATCH_SIZE, batch -> batch.forEach(talk -> loaded.add(Talk.of(talk))));
+      loaded.sort(RANK);
+      index = new Index(Snapshot.of(loaded), Map.of(), Set.of());
+    }
+    log.info("Indexed {} TED Talks for suggestions", index.snapshot().size());
+  }
+
+  /**
+   * Applies the saved talks once their transaction has committed.
+   *
+   * @param event the links of the saved talks
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public void onTalksSaved(TalksSavedEvent event) {
+    if (event.links().isEmpty()) {
+      return;
+    }
+    try {
+      List<TedTalkEntity> saved = repository.findAllByLinkIn(event.links());
+      synchronized (writeLock) {
+        Map<Long, Talk> talks = new HashMap<>(index.saved());
+        Set<Long> deleted = new HashSet<>(index.deleted());
+        for (TedTalkEntity talk : saved) {
+          talks.put(talk.getId(), Talk.of(talk));
+          deleted.remove(talk.getId());
+        }
+        index = new Index(index.snapshot(), talks, deleted);
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to update suggestions of {} saved TED Talks", event.links().size(), e);
+    }
+  }
+
+  /**
+   * Removes the deleted talk once its transaction has committed.
+   *
+   * @param event the identifier of the deleted talk
+   */
+  @TransactionalEventListener
+  @Order(DataGeneration.APPLY_WRITE_ORDER)
+  public void onTalkDeleted(TalkDeletedEvent event) {
+    synchronized (writeLock) {
+      Map<Long, Talk> talks = new HashMap<>(index.saved());
+      talks.remove(event.id());
+      Set<Long> deleted = new HashSet<>(index.deleted());
+      deleted.add(event.id());
+      index = new Index(index.snapshot(), talks, deleted);
+    }
+  }
+
+  /**
+   * Merges the pending writes into a new snapshot once there are too many to scan per query.
+   * Writes committed while it is built stay pending.
+   */
+  @Scheduled(fixedDelayString = "${ted-talks.listing.suggest-refresh-interval:1s}")
+  public synchronized void refresh() {
+    Index merged = index;
+    if (merged.pending() <= MAX_PENDING_WRITES) {
+      return;
+    }
+    Snapshot snapshot = merged.snapshot().merge(merged);
+    synchronized (writeLock) {
+      Map<Long, Talk> talks = new HashMap<>(index.saved());
+      talks.entrySet().removeIf(talk -> merged.saved().get(talk.getKey()) == talk.getValue());
+      Set<Long> deleted = new HashSet<>(index.deleted());
+      deleted.removeAll(merged.deleted());
+      index = new Index(snapshot, talks, deleted);
+    }
+  }
+
+  /**
+   * Suggests the most viewed talks matching every word of the query: each word must start a word
+   * of the title or author, case-insensitively.
+   *
+   * @param query the typed text
+   * @param limit the maximum number of suggestions
+   * @return the matching talks, most viewed first
+   */
+  List<TalkSuggestion> suggest(String query, int limit) {
+    String[] prefixes = words(query);
+    if (prefixes.length == 0) {
+      return List.of();
+    }
+    Index current = index;
+    Stream<Talk> saved =
+        current.saved().values().stream().filter(talk -> matchesAll(talk.words(), prefixes, -1));
+    return Stream.concat(current.snapshot().suggest(prefixes, limit, current).stream(), saved)
+        .sorted(RANK)
+        .limit(limit)
+        .map(Talk::suggestion)
+        .toList();
+  }
+
+  /** Splits text into its distinct lower-case words, in sorted order. */
+  private static String[] words(String text) {
+    TreeSet<String> words = new TreeSet<>();
+    for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return words.toArray(String[]::new);
+  }
+
+  private static boolean matchesAll(String[] talkWords, String[] prefixes, int skipped) {
+    for (int i = 0; i < prefixes.length; i++) {
+      if (i != skipped && !startsAny(talkWords, prefixes[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns whether a word of the sorted array starts with the prefix. */
+  private static boolean startsAny(String[] sortedWords, String prefix) {
+    int position = Arrays.binarySearch(sortedWords, prefix);
+    int index = position >= 0 ? position : -position - 1;
+    return index < sortedWords.length && sortedWords[index].startsWith(prefix);
+  }
+
+  /** Returns the prefixes of up to {@value #SHORT_PREFIX_LENGTH} characters of a word. */
+  private static String[] shortPrefixes(String word) {
+    String[] prefixes = new String[Math.min(word.length(), SHORT_PREFIX_LENGTH)];
+    for (int length = 1; length <= prefixes.length; length++) {
+      prefixes[length - 1] = word.substring(0, length);
+    }
+    return prefixes;
+  }
+
+  /** Immutable index of the talks at the time it was built. */
+  private static final class Snapshot {
+
+    /** The talks, by ordinal. */
+    private final Talk[] talks;
+
+    /** The distinct words of all talks, sorted. */
+    private final String[] words;
+
+    /** The ascending ordinals of the talks containing each word of {@link #words}. */
+    private final int[][] postings;
+
+    /** The ascending ordinals of the talks with a word starting with each short prefix. */
+    private final Map<String, int[]> prefixPostings;
+
+    private Snapshot(
+        Talk[] talks, String[] words, int[][] postings, Map<String, int[]> prefixPostings) {
+      this.talks = talks;
+      this.words = words;
+      this.postings = postings;
+      this.prefixPostings = prefixPostings;
+    }
+
+    /**
+     * Builds the snapshot of talks given in view order.
+     *
+     * @param ranked the talks, by descending views and then identifier
+     * @return the snapshot
+     */
+    static Snapshot of(List<Talk> ranked) {
+      Talk[] talks = ranked.toArray(Talk[]::new);
+
+      // Counts the postings of each word and short prefix, each prefix counting a talk once.
+      Map<String, int[]> counts = new HashMap<>();
+      Map<String, int[]> prefixCounts = new HashMap<>();
+      for (int ordinal = 0; ordinal < talks.length; ordinal++) {
+        for (String word : talks[ordinal].words()) {
+          counts.computeIfAbsent(word, key -> new int[1])[0]++;
+          for (String prefix : shortPrefixes(word)) {
+            int[] count = prefixCounts.computeIfAbsent(prefix, key -> new int[] {0, -1});
+            if (count[1] != ordinal) {
+              count[0]++;
+              count[1] = ordinal;
+            }
+          }
+        }
+      }
+
+      String[] words = counts.keySet().toArray(String[]::new);
+      Arrays.sort(words);
+      int[][] postings = new int[words.length][];
+      for (int i = 0; i < words.length; i++) {
+        postings[i] = new int[counts.get(words[i])[0]];
+      }
+      Map<String, int[]> prefixPostings = new HashMap<>();
+      prefixCounts.forEach(
+          (prefix, count) -> {
+            prefixPostings.put(prefix, new int[count[0]]);
+            count[0] = 0;
+            count[1] = -1;
+          });
+
+      int[] filled = new int[words.length];
+      for (int ordinal = 0; ordinal < talks.length; ordinal++) {
+        for (String word : talks[ordinal].words()) {
+          int position = Arrays.binarySearch(words, word);
+          postings[position][filled[position]++] = ordinal;
+          for (String prefix : shortPrefixes(word)) {
+            int[] count = prefixCounts.get(prefix);
+            if (count[1] != ordinal) {
+              prefixPostings.get(prefix)[count[0]++] = ordinal;
+              count[1] = ordinal;
+            }
+          }
+        }
+      }
+      return new Snapshot(talks, words, postings, prefixPostings);
+    }
+
+    int size() {
+      return talks.length;
+    }
+
+    /**
+     * Returns a snapshot with the pending writes of an index applied, merging its talks, already
+     * in view order, with the saved ones.
+     */
+    Snapshot merge(Index index) {
+      List<Talk> saved = new ArrayList<>(index.saved().values());
+      saved.sort(RANK);
+      List<Talk> merged = new ArrayList<>(talks.length + saved.size());
+      int next = 0;
+      for (Talk talk : talks) {
+        if (index.hides(talk.id())) {
+          continue;
+        }
+        while (next < saved.size() && RANK.compare(saved.get(next), talk) < 0) {
+          merged.add(saved.get(next++));
+        }
+        merged.add(talk);
+      }
+      merged.addAll(saved.subList(next, saved.size()));
+      return of(merged);
+    }
+
+    /**
+     * Walks the postings of the most selective prefix in ordinal order, keeping the talks whose
+     * words also start with every other prefix and that the index does not hide.
+     */
+    List<Talk> suggest(String[] prefixes, int limit, Index index) {
+      int driver = 0;
+      long driverSize = Long.MAX_VALUE;
+      for (int i = 0; i < prefixes.length; i++) {
+        long size = size(prefixes[i]);
+        if (size < driverSize) {
+          driver = i;
+          driverSize = size;
+        }
+      }
+
+      String prefix = prefixes[driver];
+      List<Talk> suggestions = new ArrayList<>(limit);
+      if (mergesPostings(prefix)) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Comparator.comparingInt(head -> head[0]));
+        for (int w = from(prefix); w < to(prefix); w++) {
+          heads.add(new int[] {postings[w][0], w, 0});
+        }
+        int previous = -1;
+        while (!heads.isEmpty() && suggestions.size() < limit) {
+          int[] head = heads.poll();
+          int ordinal = head[0];
+          int[] posting = postings[head[1]];
+          if (++head[2] < posting.length) {
+            head[0] = posting[head[2]];
+            heads.add(head);
+          }
+          if (ordinal != previous) {
+            collect(suggestions, ordinal, prefixes, driver, index);
+          }
+          previous = ordinal;
+        }
+      } else {
+        // The list of a longer prefix holds the talks of its first characters, so it is filtered.
+        int skipped = prefix.length() <= SHORT_PREFIX_LENGTH ? driver : -1;
+        int[] posting = shortPostings(prefix);
+        for (int i = 0; i < posting.length && suggestions.size() < limit; i++) {
+          collect(suggestions, posting[i], prefixes, skipped, index);
+        }
+      }
+      return suggestions;
+    }
+
+    private void collect(
+        List<Talk> suggestions, int ordinal, String[] prefixes, int skipped, Index index) {
+      Talk talk = talks[ordinal];
+      if (!index.hides(talk.id()) && matchesAll(talk.words(), prefixes, skipped)) {
+        suggestions.add(talk);
+      }
+    }
+
+    /** Returns the number of postings a query driven by the prefix would walk at most. */
+    private long size(String prefix) {
+      if (!mergesPostings(prefix)) {
+        return shortPostings(prefix).length;
+      }
+      long size = 0;
+      for (int w = from(prefix); w < to(prefix); w++) {
+        size += postings[w].length;
+      }
+      return size;
+    }
+
+    /** Returns whether the prefix is long enough, and starts few enough words, to merge them. */
+    private boolean mergesPostings(String prefix) {
+      return prefix.length() > SHORT_PREFIX_LENGTH
+          && to(prefix) - from(prefix) <= MAX_MERGED_POSTINGS;
+    }
+
+    /** Returns the postings of the short prefix a prefix starts with, or is. */
+    private int[] shortPostings(String prefix) {
+      return prefixPostings.getOrDefault(
+          prefix.substring(0, Math.min(prefix.length(), SHORT_PREFIX_LENGTH)), NO_POSTINGS);
+    }
+
+    /** Returns the position of the first word starting with the prefix, or following it. */
+    private int from(String prefix) {
+      int position = Arrays.binarySearch(words, prefix);
+      return position >= 0 ? position : -position - 1;
+    }
+
+    /** Returns the position following the last word starting with the prefix. */
+    private int to(String prefix) {
+      int position = Arrays.binarySearch(words, prefix + Character.MAX_VALUE);
+      return position >= 0 ? position : -position - 1;
+    }
+  }
+}
@@ -0,0 +1,448 @@
+package com.io.tedtalks.service;
+
+import com.io.tedtalks.exception.CsvImportException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Zero-reflection parser for the TED Talks CSV schema ({@code title,author,date,views,likes,link}).
+ *
+ * <p>Values are decoded while the input is scanned: views and likes are accumulated straight into
+ * {@code long}s and the date into month and year {@code int}s, so the only strings allocated per
+ * row are the title, author and link. Columns are located through the header row, matched
+ * case-insensitively; unknown columns are ignored.
+ *
+ * <p>The parser is a push-style state machine, so input can be fed in arbitrary slices (a {@link
+ * Reader} buffer, a decoded memory-mapped range) and records may span slice boundaries. Quoted
+ * fields follow RFC 4180, including embedded separators, line breaks and doubled quotes. Values are
+ * interpreted like the OpenCSV path: blank required fields invalidate the row, unparsable counts
+ * become zero, and dates must match {@code MMMM yyyy} or {@code MMM yyyy}.
+ *
+ * <p>The parser tracks the UTF-8 byte offset of its input, so callers can checkpoint the position
+ * following any record and later resume from it. The offset is derived from the characters fed, so
+ * it is exact only for input decoded from well-formed UTF-8 without replacement.
+ *
+ * <p>Instances are not thread-safe.
+ */
+final class TedTalkCsvParser {
+
+  static final int TITLE = 0;
+  static final int AUTHOR = 1;
+  static final int DATE = 2;
+  static final int VIEWS = 3;
+  static final int LIKES = 4;
+  static final int LINK = 5;
+  static final int IGNORED = -1;
+
+  private static final String[] FIELD_NAMES = {"title", "author", "date", "views", "likes", "link"};
+  private static final boolean[] REQUIRED = {true, true, true, false, false, true};
+
+  private static final String[] MONTHS = {
+    "January", "February", "March", "April", "May", "June",
+    "July", "August", "September", "October", "November", "December"
+  };
+  private static final int MAX_WORD_LENGTH = 9;
+  private static final int MAX_YEAR_DIGITS = 9;
+
+  private static final int DATE_LEADING = 0;
+  private static final int DATE_MONTH = 1;
+  private static final int DATE_SEPARATOR = 2;
+  private static final int DATE_YEAR = 3;
+  private static final int DATE_TRAILING = 4;
+  private static final int DATE_INVALID = 5;
+
+  private final RowHandler handler;
+  private int[] fieldByColumn;
+  private List<String> headerNames;
+
+  private boolean inQuotes;
+  private boolean quotePending;
+  private boolean fieldStarted;
+  private boolean recordHasContent;
+  private int column;
+  private long records;
+  private long offset;
+
+  private final StringBuilder text = new StringBuilder(128);
+  private long number;
+  private boolean numberValid = true;
+  private boolean numberHasDigits;
+  private boolean numberEnded;
+  private final char[] word = new char[MAX_WORD_LENGTH];
+  private int wordLength;
+  private int yearValue;
+  private int yearDigits;
+  private int datePhase;
+
+  private String title;
+  private String author;
+  private String link;
+  private int year;
+  private int month;
+  private long views;
+  private long likes;
+  private boolean rowValid = true;
+
+  private TedTalkCsvParser(RowHandler handler, int[] fieldByColumn) {
+    this.handler = handler;
+    this.fieldByColumn = fieldByColumn;
+    this.headerNames = fieldByColumn == null ? new ArrayList<>() : null;
+  }
+
+  /**
+   * Creates a parser that reads the column layout from the first record of its input.
+   *
+   * @param handler the receiver of parsed rows
+   * @return a new parser
+   */
+  static TedTalkCsvParser withHeader(RowHandler handler) {
+    return new TedTalkCsvParser(handler, null);
+  }
+
+  /**
+   * Creates a parser for headerless input using a layout obtained from {@link #columnLayout()}.
+   *
+   * @param handler the receiver of parsed rows
+   * @param columnLayout the field index of every column
+   * @return a new parser
+   */
+  static TedTalkCsvParser withColumnLayout(RowHandler handler, int[] columnLayout) {
+    return new TedTalkCsvParser(handler, columnLayout.clone());
+  }
+
+  /**
+   * Parses the whole content of the given reader, including the final unterminated record.
+   *
+   * @param reader the CSV content
+   * @throws IOException if the reader fails
+   */
+  void parse(Reader reader) throws IOException {
+    char[] buffer = new char[8192];
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      feed(buffer, 0, read);
+    }
+    finish();
+  }
+
+  /**
+   * Feeds the remaining characters of the buffer to the parser.
+   *
+   * @param chars the characters to parse
+   */
+  void feed(CharBuffer chars) {
+    if (chars.hasArray()) {
+      feed(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+      chars.position(chars.limit());
+    } else {
+      while (chars.hasRemaining()) {
+        accept(chars.get());
+      }
+    }
+  }
+
+  /**
+   * Feeds a slice of characters to the parser.
+   *
+   * @param chars the character array
+   * @param offset the index of the first character to parse
+   * @param length the number of characters to parse
+   */
+  void feed(char[] chars, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      accept(chars[i]);
+    }
+  }
+
+  /** Completes the record in progress, if any. Must be called once the input is exhausted. */
+  void finish() {
+    quotePending = false;
+    inQuotes = false;
+    if (recordHasContent || column > 0) {
+      endField();
+      endRecord();
+    }
+  }
+
+  /**
+   * Returns the column layout read from the header, for parsing headerless slices of the same
+   * input.
+   *
+   * @return the field index of every column, or {@code null} if the header has not been read
+   */
+  int[] columnLayout() {
+    return fieldByColumn == null ? null : fieldByColumn.clone();
+  }
+
+  /**
+   * Returns the number of data records seen so far, valid or not.
+   *
+   * @return the number of data records
+   */
+  long records() {
+    return records;
+  }
+
+  private void accept(char c) {
+    offset += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+
+    if (inQuotes) {
+      if (quotePending) {
+        quotePending = false;
+        if (c == '"') {
+          append(c);
+          return;
+        }
+        inQuotes = false;
+      } else if (c == '"') {
+        quotePending = true;
+        return;
+      } else {
+        append(c);
+        return;
+      }
+    }
+
+    switch (c) {
+      case ',' -> {
+        recordHasContent = true;
+        endField();
+      }
+      case '\n' -> {
+        if (recordHasContent || column > 0) {
+          endField();
+          endRecord();
+        }
+      }
+      case '\r' -> {}
+      case '"' -> {
+        recordHasContent = true;
+        if (fieldStarted) {
+          append(c);
+        } else {
+          fieldStarted = true;
+          inQuotes = true;
+        }
+      }
+      default -> {
+        recordHasContent = true;
+        if (fieldStarted || c > ' ') {
+          fieldStarted = true;
+          append(c);
+        }
+      }
+    }
+  }
+
+  private void append(char c) {
+    if (fieldByColumn == null) {
+      text.append(c);
+      return;
+    }
+    switch (currentField()) {
+      case TITLE, AUTHOR, LINK -> text.append(c);
+      case VIEWS, LIKES -> appendDigit(c);
+      case DATE -> appendDateChar(c);
+      default -> {}
+    }
+  }
+
+  private int currentField() {
+    return column < fieldByColumn.length ? fieldByColumn[column] : IGNORED;
+  }
+
+  private void appendDigit(char c) {
+    if (c >= '0' && c <= '9') {
+      int digit = c - '0';
+      if (numberEnded || number > (Long.MAX_VALUE - digit) / 10) {
+        numberValid = false;
+      } else {
+        number = number * 10 + digit;
+        numberHasDigits = true;
+      }
+    } else if (c <= ' ') {
+      numberEnded = numberHasDigits;
+    } else {
+      numberValid = false;
+    }
+  }
+
+  private void appendDateChar(char c) {
+    if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+      if ((datePhase == DATE_LEADING || datePhase == DATE_MONTH) && wordLength < MAX_WORD_LENGTH) {
+        word[wordLength++] = c;
+        datePhase = DATE_MONTH;
+      } else {
+        datePhase = DATE_INVALID;
+      }
+    } else if (c >= '0' && c <= '9') {
+      if ((datePhase == DATE_SEPARATOR || datePhase == DATE_YEAR) && yearDigits < MAX_YEAR_DIGITS) {
+        yearValue = yearValue * 10 + (c - '0');
+        yearDigits++;
+        datePhase = DATE_YEAR;
+      } else {
+        datePhase = DATE_INVALID;
+      }
+    } else if (c == ' ' && datePhase == DATE_MONTH) {
+      datePhase = DATE_SEPARATOR;
+    } else if (c <= ' ' && (datePhase == DATE_YEAR || datePhase == DATE_TRAILING)) {
+      datePhase = DATE_TRAILING;
+    } else if (!(c <= ' ' && datePhase == DATE_LEADING)) {
+      datePhase = DATE_INVALID;
+    }
+  }
+
+  private void endField() {
+    if (fieldByColumn == null) {
+      headerNames.add(text.toString().trim().toLowerCase(Locale.ROOT));
+    } else if (column >= fieldByColumn.length) {
+      rowValid = false;
+    } else {
+      switch (fieldByColumn[column]) {
+        case TITLE -> title = textValue();
+        case AUTHOR -> author = textValue();
+        case LINK -> link = textValue();
+        case VIEWS -> views = numberValid ? number : 0;
+        case LIKES -> likes = numberValid ? number : 0;
+        case DATE -> readDate();
+        default -> {}
+      }
+    }
+
+    column++;
+    fieldStarted = false;
+    text.setLength(0);
+    number = 0;
+    numberValid = true;
+    numberHasDigits = false;
+    numberEnded = false;
+    wordLength = 0;
+    yearValue = 0;
+    yearDigits = 0;
+    datePhase = DATE_LEADING;
+  }
+
+  private String textValue() {
+    String value = text.toString().trim();
+    return value.isEmpty() ? null : value;
+  }
+
+  private void readDate() {
+    boolean complete = datePhase == DATE_YEAR || datePhase == DATE_TRAILING;
+    month = complete && yearDigits >= 4 ? monthOf() : 0;
+    year = yearValue;
+  }
+
+  private int monthOf() {
+    for (int i = 0; i < MONTHS.length; i++) {
+      String name = MONTHS[i];
+      if ((wordLength == name.length() || wordLength == 3) && startsWithWord(name)) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+
+  private boolean startsWithWord(String name) {
+    for (int i = 0; i < wordLength; i++) {
+      if (word[i] != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void endRecord() {
+    if (fieldByColumn == null) {
+      fieldByColumn = layoutOf(headerNames);
+      headerNames = null;
+    } else {
+      records++;
+      handler.onRecordEnd(offset);
+      boolean complete =
+          rowValid
+              && column == fieldByColumn.length
+              && title != null
+              && author != null
+              && link != null
+              && month != 0;
+      if (complete) {
+        handler.onRow(title, author, year, month, views, likes, link);
+      } else {
+        handler.onInvalidRow(records);
+      }
+    }
+
+    column = 0;
+    recordHasContent = false;
+    rowValid = true;
+    title = null;
+    author = null;
+    link = null;
+    year = 0;
+    month = 0;
+    views = 0;
+    likes = 0;
+  }
+
+  private static int[] layoutOf(List<String> names) {
+    int[] layout = new int[names.size()];
+    Arrays.fill(layout, IGNORED);
+    boolean[] present = new boolean[FIELD_NAMES.length];
+
+    for (int i = 0; i < names.size(); i++) {
+      for (int field = 0; field < FIELD_NAMES.length; field++) {
+        if (FIELD_NAMES[field].equals(names.get(i)) && !present[field]) {
+          layout[i] = field;
+          present[field] = true;
+        }
+      }
+    }
+
+    for (int field = 0; field < FIELD_NAMES.length; field++) {
+      if (REQUIRED[field] && !present[field]) {
+        throw new CsvImportException("Missing required CSV column: " + FIELD_NAMES[field]);
+      }
+    }
+    return layout;
+  }
+
+  /** Receives the rows decoded by a {@link TedTalkCsvParser}. */
+  interface RowHandler {
+
+    /**
+     * Called for every valid data row.
+     *
+     * @param title the trimmed title
+     * @param author the trimmed author
+     * @param year the year of the talk
+     * @param month the month of the talk, from 1 to 12
+     * @param views the number of views, zero if missing or unparsable
+     * @param likes the number of likes, zero if missing or unparsable
+     * @param link the trimmed link
+     */
+    void onRow(
+        String title, String author, int year, int month, long views, long likes, String link);
+
+    /**
+     * Called when a data record ends, before {@link #onRow} or {@link #onInvalidRow} is called for
+     * it.
+     *
+     * @param byteOffset the UTF-8 byte offset of the input following the record's line break, or
+     *     the end of the input for the final unterminated record
+     */
+    default void onRecordEnd(long byteOffset) {}
+
+    /**
+     * Called for every data row that is skipped because a required value is missing or invalid.
+     *
+     * @param recordNumber the one-based number of the data record, header excluded
+     */
+    void onInvalidRow(long recordNumber);
+  }
+}
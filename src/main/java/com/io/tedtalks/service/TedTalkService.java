@@ -1,10 +1,18 @@
 package com.io.tedtalks.service;
 
+import com.io.tedtalks.dto.PageCursor;
 import com.io.tedtalks.dto.PagedResponse;
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.dto.TalkBatchOperation;
+import com.io.tedtalks.dto.TalkBatchResponse;
+import com.io.tedtalks.dto.TalkCacheStats;
+import com.io.tedtalks.dto.TalkSuggestion;
 import com.io.tedtalks.dto.TedTalkRequest;
 import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.dto.TotalCount;
+import java.util.Iterator;
 import java.util.List;
-import org.springframework.data.domain.Pageable;
+import java.util.function.ObjLongConsumer;
 
 /** Service interface defining the operations related to TED Talks management. */
 public interface TedTalkService {
@@ -44,6 +52,23 @@ public interface TedTalkService {
    */
   TedTalkResponse getTalkById(Long id);
 
+  /**
+   * Retrieves the statistics of the cache serving {@link #getTalkById(Long)}.
+   *
+   * @return a {@code TalkCacheStats} with the size and the hit, miss, eviction and invalidation
+   *     counts of the cache
+   */
+  TalkCacheStats getCacheStats();
+
+  /**
+   * Suggests TED Talks while the user types, from an in-memory index of title and author words.
+   *
+   * @param query the typed text; every word must start a word of the title or author
+   * @param limit the maximum number of suggestions
+   * @return the matching talks, most viewed first
+   */
+  List<TalkSuggestion> suggest(String query, int limit);
+
   /**
    * Retrieves a paginated list of TED Talks based on the provided filter criteria.
    *
@@ -52,18 +77,78 @@ public interface TedTalkService {
    * @param year the year to filter talks by; if null, no filtering by year is applied
    * @param keyword a keyword to filter talks by matching titles or descriptions; if null, no
    *     filtering by keyword is applied
-   * @param pageable a {@code Pageable} object specifying pagination information; cannot be null
+   * @param params the page number, size and sort order; cannot be null
+   * @param totalCount how to count all matching talks; with {@code NONE}, no count query runs and
+   *     the totals are left out of the metadata
    * @return a {@code PagedResponse<TedTalkResponse>} containing the list of TED Talks matching the
-   *     filter criteria along with pagination metadata
+   *     filter criteria along with pagination metadata and the cursor of the following page
    */
   PagedResponse<TedTalkResponse> getTalks(
-      String author, Integer year, String keyword, Pageable pageable);
+      String author, Integer year, String keyword, PaginationParams params, TotalCount totalCount);
+
+  /**
+   * Retrieves the page of TED Talks following a cursor, based on the provided filter criteria. The
+   * sort order is the one the cursor was created with.
+   *
+   * @param author the name of the author to filter talks by; if null, no filtering by author is
+   *     applied
+   * @param year the year to filter talks by; if null, no filtering by year is applied
+   * @param keyword a keyword to filter talks by matching titles or descriptions; if null, no
+   *     filtering by keyword is applied
+   * @param cursor the position of the last talk of the previous page; cannot be null
+   * @param size the maximum number of talks to return
+   * @param totalCount how to count all matching talks; with {@code NONE}, no count query runs
+   * @return a {@code PagedResponse<TedTalkResponse>} containing the TED Talks following the cursor
+   *     along with the cursor of the following page
+   */
+  PagedResponse<TedTalkResponse> getTalksAfter(
+      String author,
+      Integer year,
+      String keyword,
+      PageCursor cursor,
+      int size,
+      TotalCount totalCount);
+
+  /**
+   * Creates multiple TED Talk entries in a batch operation for efficient bulk imports. Talks whose
+   * link is already stored are skipped rather than failing the batch.
+   *
+   * @param requests a list of {@code TedTalkRequest} objects with distinct links containing the
+   *     details of the TED Talks to be created
+   * @return the number of created talks
+   */
+  int createTalksBatch(List<TedTalkRequest> requests);
+
+  /**
+   * Merges multiple TED Talk entries on their link in a batch operation: talks whose link is
+   * already stored are updated, the others are created.
+   *
+   * @param requests a list of {@code TedTalkRequest} objects with distinct links containing the
+   *     details of the TED Talks to be created or updated
+   */
+  void upsertTalksBatch(List<TedTalkRequest> requests);
+
+  /**
+   * Applies a batch of create, update and delete operations in batch order. The operations are
+   * written in chunks of up to {@code ted-talks.csv.batch-size}, each in its own transaction with
+   * batched JDBC statements; a chunk also ends before an operation on a talk it already writes.
+   *
+   * <p>An operation that is invalid, refers to a missing talk or takes the link of another talk
+   * fails on its own. A chunk rolled back by a constraint is retried one operation per
+   * transaction, so that only the offending operations fail; a chunk whose transaction fails
+   * otherwise is rolled back, and all its writes fail. Reading stops at the first operation that
+   * cannot be read, which fails as well.
+   *
+   * @param operations the operations, read one at a time
+   * @return a {@code TalkBatchResponse} with the outcome of every operation read, in batch order
+   */
+  TalkBatchResponse applyBatch(Iterator<TalkBatchOperation> operations);
 
   /**
-   * Creates multiple TED Talk entries in a batch operation for efficient bulk imports.
+   * Streams the link and content hash of every stored TED Talk, so that imports can detect changed
+   * rows without loading the talks.
    *
-   * @param requests a list of {@code TedTalkRequest} objects containing the details of the TED
-   *     Talks to be created
+   * @param action receives the link and content hash of each TED Talk
    */
-  void createTalksBatch(List<TedTalkRequest> requests);
+  void forEachContentHash(ObjLongConsumer<String> action);
 }
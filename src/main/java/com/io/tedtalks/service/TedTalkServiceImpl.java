@@ -1,19 +1,52 @@
 package com.io.tedtalks.service;
 
 import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.PageCursor;
 import com.io.tedtalks.dto.PagedResponse;
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.dto.TalkBatchOperation;
+import com.io.tedtalks.dto.TalkBatchResponse;
+import com.io.tedtalks.dto.TalkBatchResult;
+import com.io.tedtalks.dto.TalkCacheStats;
+import com.io.tedtalks.dto.TalkSuggestion;
 import com.io.tedtalks.dto.TedTalkRequest;
 import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.dto.TotalCount;
+import com.io.tedtalks.entity.InfluenceWeights;
 import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.SpeakersChangedEvent;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
 import com.io.tedtalks.exception.ResourceNotFoundException;
+import com.io.tedtalks.repository.SpeakerStatsRepository;
+import com.io.tedtalks.repository.TedTalkJdbcRepository;
 import com.io.tedtalks.repository.TedTalkRepository;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Implementation of the {@code TedTalkService} interface providing the concrete business logic to
@@ -25,16 +58,28 @@ import org.springframework.transaction.annotation.Transactional;
 public class TedTalkServiceImpl implements TedTalkService {
 
   private final TedTalkRepository repository;
+  private final TedTalkJdbcRepository jdbcRepository;
+  private final SpeakerStatsRepository speakerStatsRepository;
   private final TedTalksConfig config;
+  private final TalkCountEstimator countEstimator;
+  private final TalkSearchIndex searchIndex;
+  private final TalkSuggestIndex suggestIndex;
+  private final InfluenceScores influenceScores;
+  private final TalkResponseCache responseCache;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   @Transactional
   public TedTalkResponse createTalk(TedTalkRequest request) {
-    TedTalkEntity saved = repository.save(TedTalkEntity.of(request));
+    TedTalkEntity saved =
+        repository.save(TedTalkEntity.of(request, influenceScores.weightsForWrite()));
+    applySpeakerDeltas(List.of(SpeakerStatsRepository.Delta.added(saved)));
+    eventPublisher.publishEvent(new TalksSavedEvent(List.of(saved.getLink())));
     log.info("Created TED Talk: {}", saved.getTitle());
 
-    return TedTalkResponse.fromEntity(
-        saved, config.influence().viewsWeight(), config.influence().likesWeight());
+    return toResponse(saved);
   }
 
   @Override
@@ -42,51 +87,486 @@ public class TedTalkServiceImpl implements TedTalkService {
   public TedTalkResponse updateTalk(Long id, TedTalkRequest request) {
     TedTalkEntity entity = findEntityById(id);
 
-    entity.updateFrom(request);
+    SpeakerStatsRepository.Delta before = SpeakerStatsRepository.Delta.removed(entity);
+    String previousLink = entity.getLink();
+    entity.updateFrom(request, influenceScores.weightsForWrite());
+    applySpeakerDeltas(List.of(before, SpeakerStatsRepository.Delta.added(entity)));
+    eventPublisher.publishEvent(
+        new TalksSavedEvent(
+            previousLink.equals(entity.getLink())
+                ? List.of(entity.getLink())
+                : List.of(entity.getLink(), previousLink)));
     log.info("Updated TED Talk: {}", entity.getId());
-    return TedTalkResponse.fromEntity(
-        entity, config.influence().viewsWeight(), config.influence().likesWeight());
+    return toResponse(entity);
   }
 
   @Override
   @Transactional
   public void deleteTalk(Long id) {
-    if (!repository.existsById(id)) {
-      throw new ResourceNotFoundException("TED Talk not found with id: " + id);
-    }
-    repository.deleteById(id);
+    TedTalkEntity entity = findEntityById(id);
+    repository.delete(entity);
+    applySpeakerDeltas(List.of(SpeakerStatsRepository.Delta.removed(entity)));
+    eventPublisher.publishEvent(new TalkDeletedEvent(id));
     log.info("Deleted TED Talk: {}", id);
   }
 
   @Override
   public TedTalkResponse getTalkById(Long id) {
-    TedTalkEntity entity = findEntityById(id);
+    InfluenceWeights weights = influenceScores.weights();
+    return responseCache.get(id, weights, () -> toResponse(findEntityById(id), weights));
+  }
 
-    return TedTalkResponse.fromEntity(
-        entity, config.influence().viewsWeight(), config.influence().likesWeight());
+  @Override
+  public TalkCacheStats getCacheStats() {
+    return responseCache.stats();
+  }
+
+  @Override
+  public List<TalkSuggestion> suggest(String query, int limit) {
+    return suggestIndex.suggest(query, limit);
   }
 
   @Override
   public PagedResponse<TedTalkResponse> getTalks(
-      String author, Integer year, String keyword, Pageable pageable) {
+      String author, Integer year, String keyword, PaginationParams params, TotalCount totalCount) {
 
-    Page<TedTalkEntity> page = repository.findByFilters(author, year, keyword, pageable);
+    Pageable pageable = params.toPageable();
+    if (keyword != null && searchIndex.isEnabled()) {
+      return searchTalks(
+          author,
+          year,
+          keyword,
+          params.sortBy(),
+          params.sortDirection(),
+          null,
+          pageable,
+          totalCount);
+    }
+    Slice<TedTalkEntity> slice =
+        totalCount == TotalCount.EXACT
+            ? repository.findByFilters(author, year, keyword, pageable)
+            : repository.findSliceByFilters(author, year, keyword, pageable);
 
-    return PagedResponse.of(
-        page.map(
-                entity ->
-                    TedTalkResponse.fromEntity(
-                        entity, config.influence().viewsWeight(), config.influence().likesWeight()))
-            .getContent(),
-        page);
+    String nextCursor = null;
+    if (slice.hasNext()) {
+      TedTalkEntity last = slice.getContent().getLast();
+      nextCursor = PageCursor.after(last, params.sortBy(), params.sortDirection()).encode();
+    }
+    List<TedTalkResponse> rows = toResponses(slice.getContent());
+    if (totalCount == TotalCount.ESTIMATE) {
+      long estimate = countEstimator.estimate(author, year, keyword);
+      return PagedResponse.of(rows, slice, totalCount, estimate, nextCursor);
+    }
+    return PagedResponse.of(rows, slice, nextCursor);
+  }
+
+  @Override
+  public PagedResponse<TedTalkResponse> getTalksAfter(
+      String author,
+      Integer year,
+      String keyword,
+      PageCursor cursor,
+      int size,
+      TotalCount totalCount) {
+
+    if (keyword != null && searchIndex.isEnabled()) {
+      return searchTalks(
+          author,
+          year,
+          keyword,
+          cursor.sortBy(),
+          cursor.direction(),
+          cursor,
+          PageRequest.ofSize(size),
+          totalCount);
+    }
+    List<TedTalkEntity> rows =
+        repository.findByFiltersAfter(author, year, keyword, cursor, size + 1);
+    String nextCursor = null;
+    if (rows.size() > size) {
+      rows = rows.subList(0, size);
+      nextCursor = PageCursor.after(rows.getLast(), cursor.sortBy(), cursor.direction()).encode();
+    }
+    Long total =
+        switch (totalCount) {
+          case NONE -> null;
+          case EXACT -> repository.countByFilters(author, year, keyword);
+          case ESTIMATE -> countEstimator.estimate(author, year, keyword);
+        };
+    return PagedResponse.ofCursor(toResponses(rows), size, totalCount, total, nextCursor);
+  }
+
+  @Override
+  @Transactional
+  public int createTalksBatch(List<TedTalkRequest> requests) {
+    Set<String> stored =
+        jdbcRepository.findStoredLinks(
+            requests.stream().map(request -> request.link().trim()).toList());
+    List<TedTalkRequest> created =
+        stored.isEmpty()
+            ? requests
+            : requests.stream()
+                .filter(request -> !stored.contains(request.link().trim()))
+                .toList();
+    if (!stored.isEmpty()) {
+      log.info("Batch skipped {} TED Talks with stored links", stored.size());
+    }
+    if (created.isEmpty()) {
+      return 0;
+    }
+
+    InfluenceWeights weights = influenceScores.weightsForWrite();
+    List<SpeakerStatsRepository.Delta> deltas;
+    if (config.csv().engine() == TedTalksConfig.Csv.Engine.JDBC) {
+      jdbcRepository.insertAll(created, weights);
+      deltas = created.stream().map(SpeakerStatsRepository.Delta::added).toList();
+    } else {
+      List<TedTalkEntity> saved =
+          repository.saveAll(
+              created.stream().map(request -> TedTalkEntity.of(request, weights)).toList());
+      deltas = saved.stream().map(SpeakerStatsRepository.Delta::added).toList();
+    }
+    applySpeakerDeltas(deltas);
+    publishSaved(created);
+    log.info("Batch created {} TED Talks", created.size());
+    return created.size();
   }
 
   @Override
   @Transactional
-  public void createTalksBatch(List<TedTalkRequest> requests) {
-    List<TedTalkEntity> entities = requests.stream().map(TedTalkEntity::of).toList();
-    repository.saveAll(entities);
-    log.info("Batch created {} TED Talks", entities.size());
+  public void upsertTalksBatch(List<TedTalkRequest> requests) {
+    List<String> links = requests.stream().map(request -> request.link().trim()).toList();
+    List<SpeakerStatsRepository.Delta> deltas =
+        new ArrayList<>(speakerStatsRepository.removalsOf(links));
+    jdbcRepository.mergeAll(requests, influenceScores.weightsForWrite());
+    requests.forEach(request -> deltas.add(SpeakerStatsRepository.Delta.added(request)));
+    applySpeakerDeltas(deltas);
+    eventPublisher.publishEvent(new TalksSavedEvent(links));
+    log.info("Batch merged {} TED Talks", requests.size());
+  }
+
+  @Override
+  public TalkBatchResponse applyBatch(Iterator<TalkBatchOperation> operations) {
+    int chunkSize = config.csv().batchSize();
+    List<TalkBatchResult> results = new ArrayList<>();
+    List<BatchItem> chunk = new ArrayList<>();
+    Set<Long> chunkIds = new HashSet<>();
+
+    for (int index = 0; ; index++) {
+      TalkBatchOperation operation;
+      try {
+        if (!operations.hasNext()) {
+          break;
+        }
+        operation = operations.next();
+      } catch (RuntimeException e) {
+        log.warn("Stopped batch at unreadable operation {}: {}", index, e.getMessage());
+        results.add(
+            TalkBatchResult.failed(index, null, HttpStatus.BAD_REQUEST, "Unreadable operation"));
+        break;
+      }
+
+      String violations = violationsOf(operation);
+      if (violations != null) {
+        results.add(TalkBatchResult.failed(index, operation, HttpStatus.BAD_REQUEST, violations));
+        continue;
+      }
+      boolean byId = operation.op() != TalkBatchOperation.Type.CREATE;
+      if (chunk.size() == chunkSize || (byId && chunkIds.contains(operation.id()))) {
+        results.addAll(writeChunk(chunk));
+        chunk.clear();
+        chunkIds.clear();
+      }
+      chunk.add(new BatchItem(index, operation));
+      if (byId) {
+        chunkIds.add(operation.id());
+      }
+    }
+    results.addAll(writeChunk(chunk));
+
+    results.sort(Comparator.comparingInt(TalkBatchResult::index));
+    TalkBatchResponse response = TalkBatchResponse.fromResults(results);
+    log.info(
+        "Batch applied {} TED Talk operations: {} succeeded, {} failed",
+        results.size(),
+        response.succeeded(),
+        response.failed());
+    return response;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void forEachContentHash(ObjLongConsumer<String> action) {
+    jdbcRepository.forEachContentHash(action);
+  }
+
+  /**
+   * Serves a keyword listing from the full-text index: the index ranks and pages the matching
+   * talks, which are then loaded by identifier. Talks deleted since the search are skipped.
+   */
+  private PagedResponse<TedTalkResponse> searchTalks(
+      String author,
+      Integer year,
+      String keyword,
+      String sortBy,
+      Sort.Direction direction,
+      PageCursor cursor,
+      Pageable pageable,
+      TotalCount totalCount) {
+
+    int size = pageable.getPageSize();
+    TalkSearchIndex.Result result =
+        searchIndex.search(
+            author, year, keyword, sortBy, direction, cursor, (int) pageable.getOffset(), size + 1);
+    List<TalkSearchIndex.Hit> hits = result.hits();
+    boolean hasNext = hits.size() > size;
+    if (hasNext) {
+      hits = hits.subList(0, size);
+    }
+
+    List<Long> ids = hits.stream().map(TalkSearchIndex.Hit::id).toList();
+    Map<Long, TedTalkEntity> talksById =
+        repository.findAllById(ids).stream()
+            .collect(Collectors.toMap(TedTalkEntity::getId, Function.identity()));
+    List<TedTalkEntity> talks =
+        ids.stream().map(talksById::get).filter(Objects::nonNull).toList();
+
+    String nextCursor = null;
+    if (hasNext) {
+      TalkSearchIndex.Hit last = hits.getLast();
+      nextCursor = new PageCursor(sortBy, direction, last.sortValue(), last.id()).encode();
+    }
+    Long total =
+        switch (totalCount) {
+          case NONE -> null;
+          case EXACT ->
+              result.exact() ? result.totalHits() : searchIndex.count(author, year, keyword);
+          case ESTIMATE -> result.totalHits();
+        };
+    List<TedTalkResponse> rows = toResponses(talks);
+    if (cursor != null) {
+      return PagedResponse.ofCursor(rows, size, totalCount, total, nextCursor);
+    }
+    return PagedResponse.of(
+        rows, new SliceImpl<>(rows, pageable, hasNext), totalCount, total, nextCursor);
+  }
+
+  /** Returns the constraint violations of a batch operation, or null if it is valid. */
+  private String violationsOf(TalkBatchOperation operation) {
+    if (operation == null) {
+      return "operation: must not be null";
+    }
+    List<String> errors = new ArrayList<>();
+    validator
+        .validate(operation)
+        .forEach(
+            violation -> errors.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+    if (operation.op() != null
+        && operation.op() != TalkBatchOperation.Type.CREATE
+        && operation.id() == null) {
+      errors.add("id: must not be null");
+    }
+    if (operation.op() != null
+        && operation.op() != TalkBatchOperation.Type.DELETE
+        && operation.talk() == null) {
+      errors.add("talk: must not be null");
+    }
+    return errors.isEmpty() ? null : errors.stream().sorted().collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Writes a chunk of valid batch operations in one transaction. A chunk rolled back by a
+   * constraint, such as a link taken concurrently, is retried one operation per transaction, so
+   * that only the offending operations fail: with {@code 409 Conflict} if their link is taken.
+   */
+  private List<TalkBatchResult> writeChunk(List<BatchItem> chunk) {
+    if (chunk.isEmpty()) {
+      return List.of();
+    }
+    try {
+      return transactionTemplate.execute(status -> writeChunkInTransaction(chunk));
+    } catch (DataIntegrityViolationException e) {
+      if (chunk.size() > 1) {
+        log.warn(
+            "Rolled back batch chunk, retrying its {} operations one by one: {}",
+            chunk.size(),
+            e.getMostSpecificCause().getMessage());
+        List<TalkBatchResult> results = new ArrayList<>();
+        chunk.forEach(item -> results.addAll(writeChunk(List.of(item))));
+        return results;
+      }
+      BatchItem item = chunk.getFirst();
+      if (TedTalkEntity.violatesLinkConstraint(e)) {
+        String link = item.operation().talk().link().trim();
+        log.warn("Rolled back batch operation {}: link already stored: {}", item.index(), link);
+        return failAll(chunk, HttpStatus.CONFLICT, "Link already stored: " + link);
+      }
+      log.error("Rolled back batch operation {}", item.index(), e);
+      return failAll(chunk, HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+    } catch (RuntimeException e) {
+      log.error("Rolled back batch chunk of {} operations", chunk.size(), e);
+      return failAll(chunk, HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+    }
+  }
+
+  /**
+   * Writes a chunk of batch operations with one batched statement per kind of write: deletes,
+   * then updates, then creates. Operations are first checked in batch order against the talks
+   * and links stored before the chunk and taken or freed by the operations before them, so the
+   * statements never violate the link constraint. The stored talks are read through JDBC, so that
+   * no entity of the persistence context outlives the writes in its stored state.
+   */
+  private List<TalkBatchResult> writeChunkInTransaction(List<BatchItem> chunk) {
+    List<Long> ids =
+        chunk.stream()
+            .map(BatchItem::operation)
+            .filter(operation -> operation.op() != TalkBatchOperation.Type.CREATE)
+            .map(TalkBatchOperation::id)
+            .toList();
+    List<String> links =
+        chunk.stream()
+            .map(BatchItem::operation)
+            .filter(operation -> operation.op() != TalkBatchOperation.Type.DELETE)
+            .map(operation -> operation.talk().link().trim())
+            .toList();
+    Map<Long, TedTalkJdbcRepository.StoredTalk> stored = jdbcRepository.findStoredTalks(ids);
+    Set<String> takenLinks = new HashSet<>(jdbcRepository.findStoredLinks(links));
+    stored.values().forEach(talk -> takenLinks.add(talk.link()));
+
+    List<TalkBatchResult> results = new ArrayList<>();
+    Map<TalkBatchOperation.Type, List<BatchItem>> writes =
+        new EnumMap<>(TalkBatchOperation.Type.class);
+    for (BatchItem item : chunk) {
+      TalkBatchOperation operation = item.operation();
+      TedTalkJdbcRepository.StoredTalk talk =
+          operation.op() == TalkBatchOperation.Type.CREATE ? null : stored.get(operation.id());
+      String link = operation.talk() == null ? null : operation.talk().link().trim();
+      if (operation.op() != TalkBatchOperation.Type.CREATE && talk == null) {
+        results.add(notFound(item));
+      } else if (operation.op() != TalkBatchOperation.Type.DELETE
+          && takenLinks.contains(link)
+          && (talk == null || !link.equals(talk.link()))) {
+        results.add(
+            TalkBatchResult.failed(
+                item.index(), operation, HttpStatus.CONFLICT, "Link already stored: " + link));
+      } else {
+        if (talk != null) {
+          takenLinks.remove(talk.link());
+        }
+        if (operation.op() != TalkBatchOperation.Type.DELETE) {
+          takenLinks.add(link);
+        }
+        writes.computeIfAbsent(operation.op(), op -> new ArrayList<>()).add(item);
+      }
+    }
+
+    InfluenceWeights weights = influenceScores.weightsForWrite();
+    List<SpeakerStatsRepository.Delta> deltas = new ArrayList<>();
+    List<String> savedLinks = new ArrayList<>();
+
+    List<BatchItem> deletes = writes.getOrDefault(TalkBatchOperation.Type.DELETE, List.of());
+    int[] deleted = jdbcRepository.deleteAll(idsOf(deletes));
+    for (int i = 0; i < deletes.size(); i++) {
+      BatchItem item = deletes.get(i);
+      TedTalkJdbcRepository.StoredTalk talk = stored.get(item.operation().id());
+      if (deleted[i] == 0) {
+        results.add(notFound(item));
+        continue;
+      }
+      deltas.add(SpeakerStatsRepository.Delta.removed(talk));
+      eventPublisher.publishEvent(new TalkDeletedEvent(talk.id()));
+      results.add(TalkBatchResult.succeeded(item.index(), item.operation().op(), talk.id()));
+    }
+
+    List<BatchItem> updates = writes.getOrDefault(TalkBatchOperation.Type.UPDATE, List.of());
+    int[] updated = jdbcRepository.updateAll(idsOf(updates), talksOf(updates), weights);
+    for (int i = 0; i < updates.size(); i++) {
+      BatchItem item = updates.get(i);
+      TedTalkJdbcRepository.StoredTalk talk = stored.get(item.operation().id());
+      if (updated[i] == 0) {
+        results.add(notFound(item));
+        continue;
+      }
+      TedTalkRequest request = item.operation().talk();
+      deltas.add(SpeakerStatsRepository.Delta.removed(talk));
+      deltas.add(SpeakerStatsRepository.Delta.added(request));
+      savedLinks.add(request.link().trim());
+      if (!talk.link().equals(request.link().trim())) {
+        savedLinks.add(talk.link());
+      }
+      results.add(TalkBatchResult.succeeded(item.index(), item.operation().op(), talk.id()));
+    }
+
+    List<BatchItem> creates = writes.getOrDefault(TalkBatchOperation.Type.CREATE, List.of());
+    long[] created = jdbcRepository.insertAll(talksOf(creates), weights);
+    for (int i = 0; i < creates.size(); i++) {
+      BatchItem item = creates.get(i);
+      TedTalkRequest request = item.operation().talk();
+      deltas.add(SpeakerStatsRepository.Delta.added(request));
+      savedLinks.add(request.link().trim());
+      results.add(TalkBatchResult.succeeded(item.index(), item.operation().op(), created[i]));
+    }
+
+    if (!deltas.isEmpty()) {
+      applySpeakerDeltas(deltas);
+    }
+    if (!savedLinks.isEmpty()) {
+      eventPublisher.publishEvent(new TalksSavedEvent(savedLinks));
+    }
+    return results;
+  }
+
+  private static List<Long> idsOf(List<BatchItem> items) {
+    return items.stream().map(item -> item.operation().id()).toList();
+  }
+
+  private static List<TedTalkRequest> talksOf(List<BatchItem> items) {
+    return items.stream().map(item -> item.operation().talk()).toList();
+  }
+
+  private static TalkBatchResult notFound(BatchItem item) {
+    return TalkBatchResult.failed(
+        item.index(),
+        item.operation(),
+        HttpStatus.NOT_FOUND,
+        "TED Talk not found with id: " + item.operation().id());
+  }
+
+  private static List<TalkBatchResult> failAll(
+      List<BatchItem> chunk, HttpStatus status, String error) {
+    return chunk.stream()
+        .map(item -> TalkBatchResult.failed(item.index(), item.operation(), status, error))
+        .toList();
+  }
+
+  /** Applies the deltas to the speaker totals on commit and announces the changed speakers. */
+  private void applySpeakerDeltas(List<SpeakerStatsRepository.Delta> deltas) {
+    speakerStatsRepository.applyOnCommit(deltas);
+    List<String> authors =
+        deltas.stream().map(SpeakerStatsRepository.Delta::author).distinct().toList();
+    eventPublisher.publishEvent(new SpeakersChangedEvent(authors));
+  }
+
+  private void publishSaved(List<TedTalkRequest> requests) {
+    List<String> links = requests.stream().map(request -> request.link().trim()).toList();
+    eventPublisher.publishEvent(new TalksSavedEvent(links));
+  }
+
+  private TedTalkResponse toResponse(TedTalkEntity entity) {
+    return toResponse(entity, influenceScores.weights());
+  }
+
+  private TedTalkResponse toResponse(TedTalkEntity entity, InfluenceWeights weights) {
+    return TedTalkResponse.fromEntity(entity, weights.viewsWeight(), weights.likesWeight());
+  }
+
+  private List<TedTalkResponse> toResponses(List<TedTalkEntity> entities) {
+    InfluenceWeights weights = influenceScores.weights();
+    return entities.stream()
+        .map(
+            entity ->
+                TedTalkResponse.fromEntity(entity, weights.viewsWeight(), weights.likesWeight()))
+        .toList();
   }
 
   private TedTalkEntity findEntityById(Long id) {
@@ -94,4 +574,7 @@ public class TedTalkServiceImpl implements TedTalkService {
         .findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("TED Talk not found with id: " + id));
   }
+
+  /** A batch operation with its position in the batch. */
+  private record BatchItem(int index, TalkBatchOperation operation) {}
 }
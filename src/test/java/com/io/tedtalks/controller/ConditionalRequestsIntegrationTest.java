@@ -0,0 +1,89 @@
+package com.io.tedtalks.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.io.tedtalks.dto.TedTalkRequest;
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+final class ConditionalRequestsIntegrationTest {
+
+  private static final String BASE_URL = "/api/v1/talks";
+  private static final String LINK = "http://ted.com/conditional-requests";
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Test
+  void getTalkById_shouldServeWriteToRequestsHoldingThePreviousTag() throws Exception {
+    long id =
+        objectMapper
+            .readTree(
+                mockMvc
+                    .perform(
+                        post(BASE_URL)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json("Quiet Tides", 10)))
+                    .andExpect(status().isCreated())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString())
+            .get("id")
+            .asLong();
+    String etag =
+        mockMvc
+            .perform(get(BASE_URL + "/{id}", id))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    mockMvc
+        .perform(get(BASE_URL + "/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    mockMvc
+        .perform(
+            put(BASE_URL + "/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json("Loud Tides", 20)))
+        .andExpect(status().isOk());
+
+    String changed =
+        mockMvc
+            .perform(get(BASE_URL + "/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Loud Tides"))
+            .andExpect(jsonPath("$.views").value(20))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    assertNotEquals(etag, changed);
+    mockMvc
+        .perform(get(BASE_URL + "/{id}", id).header(HttpHeaders.IF_NONE_MATCH, changed))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, changed));
+  }
+
+  private String json(String title, long views) throws Exception {
+    return objectMapper.writeValueAsString(
+        new TedTalkRequest(title, "Jane Doe", YearMonth.of(2022, 3), views, 1, LINK));
+  }
+}
@@ -1,18 +1,29 @@
 package com.io.tedtalks.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.ImportDelta;
+import com.io.tedtalks.dto.ImportPipelineMetrics;
+import com.io.tedtalks.dto.ImportProgress;
 import com.io.tedtalks.dto.ImportStatusResponse;
 import com.io.tedtalks.service.CsvImportService;
 import java.time.Instant;
+import com.io.tedtalks.service.DataGeneration;
+import com.io.tedtalks.service.InfluenceAnalysisService;
 import java.time.InstantSource;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
@@ -20,6 +31,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(CsvImportController.class)
+@EnableConfigurationProperties(TedTalksConfig.class)
 final class CsvImportControllerTest {
 
   private static final String BASE_URL = "/api/v1/import";
@@ -30,11 +42,15 @@ final class CsvImportControllerTest {
 
   @MockitoBean private InstantSource instantSource;
 
+  @MockitoBean private DataGeneration dataGeneration;
+
+  @MockitoBean private InfluenceAnalysisService influenceAnalysisService;
+
   @Test
   void importCsv_shouldReturnAccepted() throws Exception {
     String importId = "test-import-id";
 
-    when(csvImportService.startImport(any())).thenReturn(importId);
+    when(csvImportService.startImport(any(), isNull())).thenReturn(importId);
 
     MockMultipartFile file =
         new MockMultipartFile(
@@ -47,13 +63,36 @@ final class CsvImportControllerTest {
         .andExpect(jsonPath("$.statusUrl").isNotEmpty());
   }
 
+  @Test
+  void importCsv_shouldPassRequestedWriteMode() throws Exception {
+    when(csvImportService.startImport(any(), eq(TedTalksConfig.Csv.WriteMode.UPSERT)))
+        .thenReturn("upsert-id");
+
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "test.csv", MediaType.TEXT_PLAIN_VALUE, "test content".getBytes());
+
+    mockMvc
+        .perform(multipart(BASE_URL + "/csv").file(file).param("mode", "UPSERT"))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.importId").value("upsert-id"));
+  }
+
   @Test
   void getImportStatus_shouldReturnStatus() throws Exception {
     String importId = "test-import-id";
     Instant now = Instant.parse("2024-01-01T10:00:00Z");
 
     ImportStatusResponse response =
-        new ImportStatusResponse(importId, ImportStatusResponse.ImportStatus.COMPLETED, now, now);
+        new ImportStatusResponse(
+            importId,
+            ImportStatusResponse.ImportStatus.COMPLETED,
+            TedTalksConfig.Csv.WriteMode.INSERT,
+            now,
+            now,
+            new ImportProgress(5000, 4990, 10, 420_000, 2500),
+            null,
+            new ImportPipelineMetrics(4, 2, 0, 3, 10, 120, 45));
 
     when(csvImportService.getImportStatus(importId)).thenReturn(response);
 
@@ -61,6 +100,54 @@ final class CsvImportControllerTest {
         .perform(get(BASE_URL + "/status/{importId}", importId))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.importId").value(importId))
-        .andExpect(jsonPath("$.status").value("COMPLETED"));
+        .andExpect(jsonPath("$.status").value("COMPLETED"))
+        .andExpect(jsonPath("$.progress.rowsPersisted").value(4990))
+        .andExpect(jsonPath("$.progress.rowsPerSecond").value(2500))
+        .andExpect(jsonPath("$.delta").doesNotExist())
+        .andExpect(jsonPath("$.pipeline.maxQueueDepth").value(3))
+        .andExpect(jsonPath("$.pipeline.producerStallMillis").value(120));
+  }
+
+  @Test
+  void openStreamingImport_shouldReturnUploadUrl() throws Exception {
+    String importId = "test-import-id";
+
+    when(csvImportService.startStreamingImport(isNull())).thenReturn(importId);
+
+    mockMvc
+        .perform(post(BASE_URL + "/stream"))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.importId").value(importId))
+        .andExpect(
+            jsonPath("$.uploadUrl").value("http://localhost/api/v1/import/stream/" + importId));
+  }
+
+  @Test
+  void streamCsv_shouldReturnFinalStatus() throws Exception {
+    String importId = "test-import-id";
+    Instant now = Instant.parse("2024-01-01T10:00:00Z");
+
+    when(csvImportService.streamImport(eq(importId), any()))
+        .thenReturn(
+            new ImportStatusResponse(
+                importId,
+                ImportStatusResponse.ImportStatus.COMPLETED,
+                TedTalksConfig.Csv.WriteMode.DELTA,
+                now,
+                now,
+                new ImportProgress(0, 0, 0, 35, 0),
+                new ImportDelta(0, 0, 0),
+                null));
+
+    mockMvc
+        .perform(
+            put(BASE_URL + "/stream/{importId}", importId)
+                .contentType("text/csv")
+                .content("title,author,date,views,likes,link\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("COMPLETED"))
+        .andExpect(jsonPath("$.writeMode").value("DELTA"))
+        .andExpect(jsonPath("$.delta.rowsUnchanged").value(0))
+        .andExpect(jsonPath("$.pipeline").doesNotExist());
   }
 }
@@ -1,25 +1,44 @@
 package com.io.tedtalks.controller;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.InfluenceWeightsRequest;
+import com.io.tedtalks.dto.InfluenceWeightsResponse;
 import com.io.tedtalks.dto.SpeakerInfluenceResponse;
 import com.io.tedtalks.dto.TedTalkResponse;
 import com.io.tedtalks.dto.YearlyInfluenceResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
 import com.io.tedtalks.service.InfluenceAnalysisService;
+import com.io.tedtalks.service.DataGeneration;
 import java.time.InstantSource;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(InfluenceAnalysisController.class)
+@EnableConfigurationProperties(TedTalksConfig.class)
 final class InfluenceAnalysisControllerTest {
 
   private static final String BASE_URL = "/api/v1/influence";
@@ -30,6 +49,8 @@ final class InfluenceAnalysisControllerTest {
 
   @MockitoBean private InstantSource instantSource;
 
+  @MockitoBean private DataGeneration dataGeneration;
+
   private static SpeakerInfluenceResponse speakerResponse() {
     return new SpeakerInfluenceResponse("John Doe", 1000.0, 5000, 500, 3, List.of());
   }
@@ -85,6 +106,41 @@ final class InfluenceAnalysisControllerTest {
         .andExpect(jsonPath("$[0].author").value("John Doe"));
   }
 
+  @Test
+  void getMostInfluentialTalks_shouldTagResponseWithGenerationOfStaleResult() throws Exception {
+    when(dataGeneration.current()).thenReturn(7L);
+    when(dataGeneration.readGeneration(7L)).thenReturn(6L);
+    when(influenceAnalysisService.getMostInfluentialTalks(5)).thenReturn(List.of(talkResponse()));
+
+    mockMvc
+        .perform(get(BASE_URL + "/talks").param("topN", "5"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"6-")))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=5"));
+  }
+
+  @Test
+  void getMostInfluentialTalks_shouldAnswerNotModifiedWithoutQuerying() throws Exception {
+    String etag =
+        mockMvc
+            .perform(get(BASE_URL + "/talks").param("topN", "5"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(
+            get(BASE_URL + "/talks").param("topN", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+    mockMvc
+        .perform(
+            get(BASE_URL + "/talks").param("topN", "6").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk());
+
+    verify(influenceAnalysisService, times(1)).getMostInfluentialTalks(5);
+    verify(influenceAnalysisService, times(1)).getMostInfluentialTalks(6);
+  }
+
   @Test
   void getMostInfluentialTalkByYear_shouldReturnList() throws Exception {
     YearlyInfluenceResponse response = new YearlyInfluenceResponse(2020, talkResponse());
@@ -97,4 +153,54 @@ final class InfluenceAnalysisControllerTest {
         .andExpect(jsonPath("$[0].year").value(2020))
         .andExpect(jsonPath("$[0].mostInfluentialTalk.title").value("Test Talk"));
   }
+
+  @Test
+  void getMostInfluentialTalks_shouldApplyWeightOverrides() throws Exception {
+    InfluenceWeights weights = new InfluenceWeights(0.5, 0.3);
+    when(influenceAnalysisService.resolveWeights(0.5, null)).thenReturn(weights);
+    when(influenceAnalysisService.getMostInfluentialTalks(5, weights))
+        .thenReturn(List.of(talkResponse()));
+
+    mockMvc
+        .perform(get(BASE_URL + "/talks").param("topN", "5").param("viewsWeight", "0.5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].title").value("Test Talk"));
+  }
+
+  @Test
+  void getMostInfluentialSpeakers_shouldReturn400_whenWeightOutOfRange() throws Exception {
+    mockMvc
+        .perform(get(BASE_URL + "/speakers").param("likesWeight", "1.5"))
+        .andExpect(status().isBadRequest());
+
+    verify(influenceAnalysisService, never()).getMostInfluentialSpeakers(anyInt(), any());
+    verify(influenceAnalysisService, never()).resolveWeights(any(), eq(1.5));
+  }
+
+  @Test
+  void changeDefaultWeights_shouldReturnNewWeights() throws Exception {
+    when(influenceAnalysisService.changeDefaultWeights(new InfluenceWeightsRequest(0.5, 0.5)))
+        .thenReturn(new InfluenceWeightsResponse(0.5, 0.5, false));
+
+    mockMvc
+        .perform(
+            put(BASE_URL + "/weights")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"viewsWeight\": 0.5, \"likesWeight\": 0.5}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.viewsWeight").value(0.5))
+        .andExpect(jsonPath("$.scoresCurrent").value(false));
+  }
+
+  @Test
+  void changeDefaultWeights_shouldReturn400_whenWeightMissing() throws Exception {
+    mockMvc
+        .perform(
+            put(BASE_URL + "/weights")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"viewsWeight\": 0.5}"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(influenceAnalysisService);
+  }
 }
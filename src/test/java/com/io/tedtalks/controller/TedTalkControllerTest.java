@@ -1,33 +1,61 @@
 package com.io.tedtalks.controller;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.PageCursor;
 import com.io.tedtalks.dto.PagedResponse;
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.dto.TalkBatchOperation;
+import com.io.tedtalks.dto.TalkBatchResponse;
+import com.io.tedtalks.dto.TalkBatchResult;
+import com.io.tedtalks.dto.TalkCacheStats;
+import com.io.tedtalks.dto.TalkSuggestion;
 import com.io.tedtalks.dto.TedTalkRequest;
 import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.dto.TotalCount;
 import com.io.tedtalks.service.TedTalkService;
+import com.io.tedtalks.service.DataGeneration;
+import com.io.tedtalks.service.InfluenceAnalysisService;
 import java.time.InstantSource;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(TedTalkController.class)
+@EnableConfigurationProperties(TedTalksConfig.class)
 final class TedTalkControllerTest {
 
   private static final String BASE_URL = "/api/v1/talks";
@@ -40,6 +68,10 @@ final class TedTalkControllerTest {
 
   @MockitoBean private InstantSource instantSource;
 
+  @MockitoBean private DataGeneration dataGeneration;
+
+  @MockitoBean private InfluenceAnalysisService influenceAnalysisService;
+
   private static TedTalkRequest createRequest() {
     return new TedTalkRequest(
         "Test Talk", "John Doe", YearMonth.of(2020, 1), 1000, 100, "http://test.com");
@@ -68,14 +100,43 @@ final class TedTalkControllerTest {
         .andExpect(jsonPath("$.author").value("John Doe"));
   }
 
+  @Test
+  void createTalk_shouldReturnConflictForStoredLink() throws Exception {
+    when(tedTalkService.createTalk(any(TedTalkRequest.class)))
+        .thenThrow(new DataIntegrityViolationException("uk_ted_talks_link"));
+
+    mockMvc
+        .perform(
+            post(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest())))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.type").value("urn:ted-talks:duplicate-resource"));
+  }
+
+  @Test
+  void createTalk_shouldReturnInternalErrorForOtherConstraints() throws Exception {
+    when(tedTalkService.createTalk(any(TedTalkRequest.class)))
+        .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"TITLE\""));
+
+    mockMvc
+        .perform(
+            post(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest())))
+        .andExpect(status().isInternalServerError())
+        .andExpect(jsonPath("$.type").value("urn:ted-talks:internal-error"));
+  }
+
   @Test
   void getTalks_shouldReturnPagedResponse() throws Exception {
     TedTalkResponse response = createResponse();
 
     PagedResponse<TedTalkResponse> pagedResponse =
-        PagedResponse.of(List.of(response), new PageImpl<>(List.of(response)));
+        PagedResponse.of(List.of(response), new PageImpl<>(List.of(response)), null);
 
-    when(tedTalkService.getTalks(any(), any(), any(), any(Pageable.class)))
+    when(tedTalkService.getTalks(
+            any(), any(), any(), any(PaginationParams.class), eq(TotalCount.EXACT)))
         .thenReturn(pagedResponse);
 
     mockMvc
@@ -83,7 +144,101 @@ final class TedTalkControllerTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.rows").isArray())
         .andExpect(jsonPath("$.rows.length()").value(1))
-        .andExpect(jsonPath("$.rows[0].title").value("Test Talk"));
+        .andExpect(jsonPath("$.rows[0].title").value("Test Talk"))
+        .andExpect(jsonPath("$.metadata.totalElements").value(1))
+        .andExpect(jsonPath("$.metadata.totalKind").value("EXACT"))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  void getTalks_shouldFollowCursorWithoutTotalsByDefault() throws Exception {
+    PageCursor cursor = new PageCursor("year", Sort.Direction.DESC, "2020", 5L);
+    PagedResponse<TedTalkResponse> pagedResponse =
+        PagedResponse.ofCursor(List.of(createResponse()), 1, TotalCount.NONE, null, "next");
+
+    when(tedTalkService.getTalksAfter(null, null, null, cursor, 1, TotalCount.NONE))
+        .thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(get(BASE_URL).param("cursor", cursor.encode()).param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.rows.length()").value(1))
+        .andExpect(jsonPath("$.metadata.totalElements").doesNotExist())
+        .andExpect(jsonPath("$.metadata.hasNext").value(true))
+        .andExpect(jsonPath("$.nextCursor").value("next"));
+  }
+
+  @Test
+  void getTalks_shouldReportEstimatedTotal() throws Exception {
+    PagedResponse<TedTalkResponse> pagedResponse =
+        PagedResponse.of(
+            List.of(createResponse()),
+            new SliceImpl<>(List.of(createResponse()), PageRequest.of(0, 1), true),
+            TotalCount.ESTIMATE,
+            40L,
+            "next");
+
+    when(tedTalkService.getTalks(
+            any(), any(), any(), any(PaginationParams.class), eq(TotalCount.ESTIMATE)))
+        .thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(get(BASE_URL).param("size", "1").param("includeTotal", "estimate"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.metadata.totalElements").value(40))
+        .andExpect(jsonPath("$.metadata.totalPages").value(40))
+        .andExpect(jsonPath("$.metadata.totalKind").value("ESTIMATE"));
+  }
+
+  @Test
+  void getTalks_shouldAcceptRelevanceSort() throws Exception {
+    PaginationParams params = PaginationParams.of(0, 10, "relevance", Sort.Direction.DESC);
+    when(tedTalkService.getTalks(null, null, "ai", params, TotalCount.EXACT))
+        .thenReturn(
+            PagedResponse.of(
+                List.of(createResponse()), new PageImpl<>(List.of(createResponse())), null));
+
+    mockMvc
+        .perform(
+            get(BASE_URL)
+                .param("keyword", "ai")
+                .param("size", "10")
+                .param("sortBy", "relevance")
+                .param("sortDirection", "DESC"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.rows.length()").value(1));
+  }
+
+  @Test
+  void getTalks_shouldRejectInvalidTotalCount() throws Exception {
+    mockMvc
+        .perform(get(BASE_URL).param("includeTotal", "approximately"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getTalks_shouldRejectInvalidCursor() throws Exception {
+    mockMvc
+        .perform(get(BASE_URL).param("cursor", "bm90LWEtY3Vyc29y"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.type").value("urn:ted-talks:invalid-cursor"));
+  }
+
+  @Test
+  void suggest_shouldReturnSuggestions() throws Exception {
+    when(tedTalkService.suggest("art int", 5))
+        .thenReturn(List.of(new TalkSuggestion(3L, "Artificial intelligence", "Jane Doe")));
+
+    mockMvc
+        .perform(get(BASE_URL + "/suggest").param("q", "art int").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(3L))
+        .andExpect(jsonPath("$[0].title").value("Artificial intelligence"));
+  }
+
+  @Test
+  void suggest_shouldRejectBlankQuery() throws Exception {
+    mockMvc.perform(get(BASE_URL + "/suggest").param("q", " ")).andExpect(status().isBadRequest());
   }
 
   @Test
@@ -97,6 +252,53 @@ final class TedTalkControllerTest {
         .andExpect(jsonPath("$.title").value("Test Talk"));
   }
 
+  @Test
+  void getTalkById_shouldTagResponseWithDataGeneration() throws Exception {
+    when(dataGeneration.current()).thenReturn(7L);
+    when(dataGeneration.readGeneration(7L)).thenReturn(7L);
+    when(tedTalkService.getTalkById(1L)).thenReturn(createResponse());
+
+    mockMvc
+        .perform(get(BASE_URL + "/{id}", 1L))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"7-")))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+  }
+
+  @Test
+  void getTalkById_shouldAnswerNotModifiedWithoutQuerying() throws Exception {
+    when(dataGeneration.current()).thenReturn(7L);
+    when(dataGeneration.readGeneration(7L)).thenReturn(7L);
+    when(tedTalkService.getTalkById(1L)).thenReturn(createResponse());
+    String etag =
+        mockMvc
+            .perform(get(BASE_URL + "/{id}", 1L))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get(BASE_URL + "/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().string(""));
+
+    verify(tedTalkService, times(1)).getTalkById(1L);
+  }
+
+  @Test
+  void getCacheStats_shouldReturnStats() throws Exception {
+    when(tedTalkService.getCacheStats()).thenReturn(new TalkCacheStats(3, 10000, 7, 3, 0, 1));
+
+    mockMvc
+        .perform(get(BASE_URL + "/cache/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.hits").value(7))
+        .andExpect(jsonPath("$.invalidations").value(1))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+
   @Test
   void updateTalk_shouldReturnUpdatedTalk() throws Exception {
     TedTalkRequest request =
@@ -126,6 +328,82 @@ final class TedTalkControllerTest {
         .andExpect(jsonPath("$.author").value("Jane Doe"));
   }
 
+  @Test
+  void applyBatch_shouldReadJsonArrayOfOperations() throws Exception {
+    List<TalkBatchOperation> operations =
+        List.of(
+            new TalkBatchOperation(TalkBatchOperation.Type.CREATE, null, createRequest()),
+            new TalkBatchOperation(TalkBatchOperation.Type.DELETE, 7L, null));
+    List<TalkBatchOperation> read = new ArrayList<>();
+    when(tedTalkService.applyBatch(any()))
+        .thenAnswer(
+            invocation -> {
+              Iterator<TalkBatchOperation> iterator = invocation.getArgument(0);
+              iterator.forEachRemaining(read::add);
+              return TalkBatchResponse.fromResults(
+                  List.of(
+                      TalkBatchResult.succeeded(0, TalkBatchOperation.Type.CREATE, 1L),
+                      TalkBatchResult.failed(
+                          1, read.get(1), HttpStatus.NOT_FOUND, "TED Talk not found with id: 7")));
+            });
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(operations)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.succeeded").value(1))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.results[0].status").value(201))
+        .andExpect(jsonPath("$.results[0].id").value(1L))
+        .andExpect(jsonPath("$.results[0].error").doesNotExist())
+        .andExpect(jsonPath("$.results[1].op").value("DELETE"))
+        .andExpect(jsonPath("$.results[1].status").value(404));
+
+    assertEquals(operations, read);
+  }
+
+  @Test
+  void applyBatch_shouldReadNewlineDelimitedOperations() throws Exception {
+    List<TalkBatchOperation> operations =
+        List.of(
+            new TalkBatchOperation(TalkBatchOperation.Type.UPDATE, 1L, createRequest()),
+            new TalkBatchOperation(TalkBatchOperation.Type.DELETE, 2L, null));
+    List<TalkBatchOperation> read = new ArrayList<>();
+    when(tedTalkService.applyBatch(any()))
+        .thenAnswer(
+            invocation -> {
+              Iterator<TalkBatchOperation> iterator = invocation.getArgument(0);
+              iterator.forEachRemaining(read::add);
+              return TalkBatchResponse.fromResults(List.of());
+            });
+    String content =
+        objectMapper.writeValueAsString(operations.get(0))
+            + "\n"
+            + objectMapper.writeValueAsString(operations.get(1))
+            + "\n";
+
+    mockMvc
+        .perform(
+            post(BASE_URL + "/batch").contentType(MediaType.APPLICATION_NDJSON).content(content))
+        .andExpect(status().isOk());
+
+    assertEquals(operations, read);
+  }
+
+  @Test
+  void applyBatch_shouldReportUnreadableBody() throws Exception {
+    mockMvc
+        .perform(post(BASE_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content("}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.results[0].status").value(400))
+        .andExpect(jsonPath("$.results[0].error").value("Unreadable operation"));
+
+    verifyNoInteractions(tedTalkService);
+  }
+
   @Test
   void deleteTalk_shouldReturnNoContent() throws Exception {
     doNothing().when(tedTalkService).deleteTalk(1L);
@@ -0,0 +1,65 @@
+package com.io.tedtalks.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.io.tedtalks.dto.ImportProgress;
+import com.io.tedtalks.entity.ImportStatusEntity;
+import jakarta.persistence.EntityManager;
+import java.nio.file.Path;
+import java.time.InstantSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+@DataJpaTest
+class ImportStatusRepositoryTest {
+
+  @Autowired private ImportStatusRepository repository;
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  void updateProgress_shouldWriteCountersWithoutBumpingVersion() {
+    ImportStatusEntity status =
+        repository.saveAndFlush(ImportStatusEntity.start("running", InstantSource.system()));
+    long version = status.getVersion();
+    entityManager.clear();
+
+    int updated = repository.updateProgress("running", 100, 90, 5, 4096, 45);
+    ImportStatusEntity reloaded = repository.findById("running").orElseThrow();
+
+    assertEquals(1, updated);
+    assertEquals(new ImportProgress(100, 90, 5, 4096, 45), reloaded.getProgress());
+    assertEquals(version, reloaded.getVersion());
+  }
+
+  @Test
+  void updateProgress_shouldIgnoreFinishedImports() {
+    ImportStatusEntity status = ImportStatusEntity.start("finished", InstantSource.system());
+    status.markCompleted(InstantSource.system());
+    repository.saveAndFlush(status);
+    entityManager.clear();
+
+    int updated = repository.updateProgress("finished", 100, 90, 5, 4096, 45);
+
+    assertEquals(0, updated);
+    assertEquals(0, repository.findById("finished").orElseThrow().getProgress().rowsRead());
+  }
+
+  @Test
+  void updateCheckpoint_shouldKeepImportResumable() {
+    ImportStatusEntity status = ImportStatusEntity.start("spooled", InstantSource.system());
+    status.attachSpoolFile(Path.of("/tmp/csv-import-spooled.csv"));
+    repository.saveAndFlush(status);
+    entityManager.clear();
+
+    int updated = repository.updateCheckpoint("spooled", 4096, 40, 38);
+    ImportStatusEntity reloaded = repository.findById("spooled").orElseThrow();
+
+    assertEquals(1, updated);
+    assertTrue(reloaded.isResumable());
+    assertEquals(4096, reloaded.getCheckpointOffset());
+    assertEquals(40, reloaded.getCheckpointRows());
+    assertEquals(38, reloaded.getCheckpointPersisted());
+  }
+}
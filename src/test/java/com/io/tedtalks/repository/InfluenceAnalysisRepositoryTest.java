@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.io.tedtalks.dto.InfluentialTalkDto;
 import com.io.tedtalks.dto.SpeakerInfluenceDto;
+import com.io.tedtalks.entity.InfluenceWeights;
 import com.io.tedtalks.entity.TedTalkEntity;
 import java.time.YearMonth;
 import java.util.List;
@@ -12,17 +13,22 @@ import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
 @DataJpaTest
+@Import(SpeakerStatsRepository.class)
 class InfluenceAnalysisRepositoryTest {
 
   private static final double VIEW_WEIGHT = 0.7;
   private static final double LIKE_WEIGHT = 0.3;
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(VIEW_WEIGHT, LIKE_WEIGHT);
 
   @Autowired private InfluenceAnalysisRepository repository;
 
   @Autowired private TedTalkRepository tedTalkRepository;
 
+  @Autowired private SpeakerStatsRepository speakerStatsRepository;
+
   private static TedTalkEntity talk(
       String title, String author, int year, int month, int views, int likes) {
 
@@ -32,13 +38,19 @@ class InfluenceAnalysisRepositoryTest {
         YearMonth.of(year, month),
         views,
         likes,
-        "http://test.com/" + title.replace(" ", "-"));
+        "http://test.com/" + title.replace(" ", "-"),
+        WEIGHTS);
+  }
+
+  private void save(TedTalkEntity talk) {
+    tedTalkRepository.save(talk);
+    speakerStatsRepository.apply(List.of(SpeakerStatsRepository.Delta.added(talk)));
   }
 
   @Test
   void findMostInfluentialTalks_shouldReturnOrderedByInfluence() {
-    tedTalkRepository.save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
-    tedTalkRepository.save(talk("Talk 2", "Jane Smith", 2020, 1, 5000, 500));
+    save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
+    save(talk("Talk 2", "Jane Smith", 2020, 1, 5000, 500));
 
     List<InfluentialTalkDto> result =
         repository.findMostInfluentialTalks(VIEW_WEIGHT, LIKE_WEIGHT, 10);
@@ -48,11 +60,28 @@ class InfluenceAnalysisRepositoryTest {
     assertEquals("Talk 2", result.get(0).getTitle());
   }
 
+  @Test
+  void findMostInfluentialTalksByScore_shouldMatchComputedInfluence() {
+    save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
+    save(talk("Talk 2", "Jane Smith", 2020, 1, 5000, 500));
+    save(talk("Talk 3", "Jane Smith", 2021, 1, 3000, 9000));
+
+    List<InfluentialTalkDto> stored = repository.findMostInfluentialTalksByScore(2);
+    List<InfluentialTalkDto> computed =
+        repository.findMostInfluentialTalks(VIEW_WEIGHT, LIKE_WEIGHT, 2);
+
+    assertEquals(
+        List.of("Talk 3", "Talk 2"), stored.stream().map(InfluentialTalkDto::getTitle).toList());
+    assertEquals(
+        computed.stream().map(InfluentialTalkDto::getInfluence).toList(),
+        stored.stream().map(InfluentialTalkDto::getInfluence).toList());
+  }
+
   @Test
   void findMostInfluentialSpeakers_shouldGroupByAuthor() {
-    tedTalkRepository.save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
-    tedTalkRepository.save(talk("Talk 2", "John Doe", 2020, 2, 2000, 200));
-    tedTalkRepository.save(talk("Talk 3", "Jane Smith", 2020, 1, 3000, 300));
+    save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
+    save(talk("Talk 2", "John Doe", 2020, 2, 2000, 200));
+    save(talk("Talk 3", "Jane Smith", 2020, 1, 3000, 300));
 
     List<SpeakerInfluenceDto> result =
         repository.findMostInfluentialSpeakers(VIEW_WEIGHT, LIKE_WEIGHT, 10);
@@ -69,8 +98,8 @@ class InfluenceAnalysisRepositoryTest {
 
   @Test
   void findSpeakerInfluence_shouldReturnSpeakerData() {
-    tedTalkRepository.save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
-    tedTalkRepository.save(talk("Talk 2", "John Doe", 2020, 2, 2000, 200));
+    save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
+    save(talk("Talk 2", "John Doe", 2020, 2, 2000, 200));
 
     Optional<SpeakerInfluenceDto> result =
         repository.findSpeakerInfluence("John Doe", VIEW_WEIGHT, LIKE_WEIGHT);
@@ -94,7 +123,7 @@ class InfluenceAnalysisRepositoryTest {
 
   @Test
   void findSpeakerInfluence_shouldBeCaseInsensitive() {
-    tedTalkRepository.save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
+    save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
 
     Optional<SpeakerInfluenceDto> result =
         repository.findSpeakerInfluence("john doe", VIEW_WEIGHT, LIKE_WEIGHT);
@@ -105,9 +134,9 @@ class InfluenceAnalysisRepositoryTest {
 
   @Test
   void findMostInfluentialTalkPerYear_shouldReturnOnePerYear() {
-    tedTalkRepository.save(talk("Talk 2020 A", "John Doe", 2020, 1, 1000, 100));
-    tedTalkRepository.save(talk("Talk 2020 B", "Jane Smith", 2020, 2, 5000, 500));
-    tedTalkRepository.save(talk("Talk 2021", "Bob Brown", 2021, 1, 3000, 300));
+    save(talk("Talk 2020 A", "John Doe", 2020, 1, 1000, 100));
+    save(talk("Talk 2020 B", "Jane Smith", 2020, 2, 5000, 500));
+    save(talk("Talk 2021", "Bob Brown", 2021, 1, 3000, 300));
 
     List<InfluentialTalkDto> result =
         repository.findMostInfluentialTalkPerYear(VIEW_WEIGHT, LIKE_WEIGHT);
@@ -121,6 +150,19 @@ class InfluenceAnalysisRepositoryTest {
     assertEquals(2021, result.get(1).getYearValue());
   }
 
+  @Test
+  void findMostInfluentialTalkOfYear_shouldRankOnlyTalksOfYear() {
+    save(talk("Talk 1", "John Doe", 2020, 1, 1000, 100));
+    save(talk("Talk 2", "Jane Smith", 2020, 6, 3000, 300));
+    save(talk("Talk 3", "Jane Smith", 2021, 1, 9000, 900));
+
+    Optional<InfluentialTalkDto> champion =
+        repository.findMostInfluentialTalkOfYear(2020, VIEW_WEIGHT, LIKE_WEIGHT);
+
+    assertEquals("Talk 2", champion.orElseThrow().getTitle());
+    assertTrue(repository.findMostInfluentialTalkOfYear(2019, VIEW_WEIGHT, LIKE_WEIGHT).isEmpty());
+  }
+
   @Test
   void findMostInfluentialTalkPerYear_shouldReturnEmptyWhenNoTalks() {
     List<InfluentialTalkDto> result =
@@ -0,0 +1,149 @@
+package com.io.tedtalks.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.io.tedtalks.dto.SpeakerInfluenceDto;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.entity.TedTalkEntity;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+@DataJpaTest
+@Import(SpeakerStatsRepository.class)
+class SpeakerStatsRepositoryTest {
+
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(0.7, 0.3);
+
+  @Autowired private SpeakerStatsRepository speakerStatsRepository;
+
+  @Autowired private TedTalkRepository tedTalkRepository;
+
+  @Autowired private InfluenceAnalysisRepository influenceRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private static SpeakerStatsRepository.Delta delta(
+      String author, long views, long likes, long talks) {
+    return new SpeakerStatsRepository.Delta(author, views, likes, talks);
+  }
+
+  private Map<String, List<Long>> rows() {
+    return jdbcTemplate
+        .queryForList("SELECT author, total_views, total_likes, talk_count FROM speaker_stats")
+        .stream()
+        .collect(
+            Collectors.toMap(
+                row -> (String) row.get("AUTHOR"),
+                row ->
+                    List.of(
+                        (Long) row.get("TOTAL_VIEWS"),
+                        (Long) row.get("TOTAL_LIKES"),
+                        (Long) row.get("TALK_COUNT"))));
+  }
+
+  @Test
+  void apply_shouldInsertAndAccumulateSpeakerRows() {
+    speakerStatsRepository.apply(
+        List.of(delta("John Doe", 1000, 100, 1), delta("Jane Smith", 500, 50, 1)));
+    speakerStatsRepository.apply(
+        List.of(delta("John Doe", 2000, 200, 1), delta("John Doe", 10, 1, 1)));
+
+    assertEquals(
+        Map.of("John Doe", List.of(3010L, 301L, 3L), "Jane Smith", List.of(500L, 50L, 1L)),
+        rows());
+  }
+
+  @Test
+  void apply_shouldDeleteSpeakerWithoutTalks() {
+    speakerStatsRepository.apply(
+        List.of(delta("John Doe", 1000, 100, 1), delta("Jane Smith", 500, 50, 1)));
+    speakerStatsRepository.apply(List.of(delta("John Doe", -1000, -100, -1)));
+
+    assertEquals(Map.of("Jane Smith", List.of(500L, 50L, 1L)), rows());
+  }
+
+  @Test
+  void apply_shouldMoveUpdatedTalkBetweenSpeakers() {
+    TedTalkEntity talk =
+        TedTalkEntity.of(
+            "Talk",
+            "John Doe",
+            YearMonth.of(2020, 1),
+            1000,
+            100,
+            "http://t/1",
+            WEIGHTS);
+    speakerStatsRepository.apply(
+        List.of(SpeakerStatsRepository.Delta.added(talk), delta("Jane Smith", 1, 1, 1)));
+
+    speakerStatsRepository.apply(
+        List.of(SpeakerStatsRepository.Delta.removed(talk), delta("Jane Smith", 1000, 100, 1)));
+
+    assertEquals(Map.of("Jane Smith", List.of(1001L, 101L, 2L)), rows());
+    SpeakerInfluenceDto jane =
+        influenceRepository.findSpeakerInfluence(" jane smith ", 0.5, 0.5).orElseThrow();
+    assertEquals(551.0, jane.getTotalInfluence());
+  }
+
+  @Test
+  void applyOnCommit_shouldApplyDeltasOfTransactionWhenItCommits() {
+    speakerStatsRepository.applyOnCommit(List.of(delta("John Doe", 1000, 100, 1)));
+    speakerStatsRepository.applyOnCommit(List.of(delta("John Doe", 10, 1, 1)));
+    assertEquals(Map.of(), rows());
+
+    TestTransaction.flagForCommit();
+    TestTransaction.end();
+    try {
+      assertEquals(Map.of("John Doe", List.of(1010L, 101L, 2L)), rows());
+    } finally {
+      jdbcTemplate.update("DELETE FROM speaker_stats");
+    }
+  }
+
+  @Test
+  void removalsOf_shouldSumStoredTalksPerSpeaker() {
+    tedTalkRepository.save(
+        TedTalkEntity.of(
+            "Talk 1",
+            "John Doe",
+            YearMonth.of(2020, 1),
+            1000,
+            100,
+            "http://t/1",
+            WEIGHTS));
+    tedTalkRepository.save(
+        TedTalkEntity.of(
+            "Talk 2",
+            "John Doe",
+            YearMonth.of(2020, 1),
+            2000,
+            200,
+            "http://t/2",
+            WEIGHTS));
+    tedTalkRepository.save(
+        TedTalkEntity.of(
+            "Talk 3",
+            "Jane Smith",
+            YearMonth.of(2020, 1),
+            3000,
+            300,
+            "http://t/3",
+            WEIGHTS));
+    tedTalkRepository.flush();
+
+    List<SpeakerStatsRepository.Delta> removals =
+        speakerStatsRepository.removalsOf(List.of("http://t/1", "http://t/2", "http://t/9"));
+
+    assertEquals(List.of(delta("John Doe", -3000, -300, -2)), removals);
+    assertTrue(speakerStatsRepository.removalsOf(List.of()).isEmpty());
+  }
+}
@@ -0,0 +1,231 @@
+package com.io.tedtalks.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.io.tedtalks.dto.TedTalkRequest;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.entity.TedTalkEntity;
+import jakarta.persistence.EntityManager;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@DataJpaTest
+@Import(TedTalkJdbcRepository.class)
+class TedTalkJdbcRepositoryTest {
+
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(0.7, 0.3);
+
+  @Autowired private TedTalkJdbcRepository jdbcRepository;
+
+  @Autowired private TedTalkRepository repository;
+
+  @Autowired private EntityManager entityManager;
+
+  private static TedTalkRequest request(String title) {
+    return new TedTalkRequest(
+        "  " + title + "  ",
+        "John Doe",
+        YearMonth.of(2020, 1),
+        -5,
+        100,
+        "http://test.com/" + title.replace(" ", "-"));
+  }
+
+  @Test
+  void insertAll_shouldPersistNormalizedRows() {
+    long[] ids = jdbcRepository.insertAll(List.of(request("Talk 1"), request("Talk 2")), WEIGHTS);
+
+    assertEquals(2, ids.length);
+
+    List<TedTalkEntity> talks = repository.findAll();
+    assertEquals(2, talks.size());
+    assertEquals(
+        Set.of("Talk 1", "Talk 2"),
+        talks.stream().map(TedTalkEntity::getTitle).collect(Collectors.toSet()));
+    assertEquals(0, talks.getFirst().getViews());
+    assertEquals("john doe", talks.getFirst().getAuthorLc());
+    assertEquals(
+        Set.of("talk 1", "talk 2"),
+        talks.stream().map(TedTalkEntity::getTitleLc).collect(Collectors.toSet()));
+  }
+
+  @Test
+  void insertAll_shouldShareSequenceWithJpaWithoutCollisions() {
+    repository.saveAndFlush(TedTalkEntity.of(request("Jpa Talk"), WEIGHTS));
+
+    int count = TedTalkEntity.ID_ALLOCATION_SIZE + 1;
+    jdbcRepository.insertAll(
+        IntStream.range(0, count).mapToObj(i -> request("Jdbc Talk " + i)).toList(), WEIGHTS);
+
+    repository.saveAndFlush(TedTalkEntity.of(request("Another Jpa Talk"), WEIGHTS));
+
+    List<TedTalkEntity> talks = repository.findAll();
+    assertEquals(count + 2, talks.size());
+    assertEquals(
+        talks.size(), talks.stream().map(TedTalkEntity::getId).collect(Collectors.toSet()).size());
+  }
+
+  @Test
+  void insertAll_shouldRejectInvalidRows() {
+    TedTalkRequest invalid =
+        new TedTalkRequest(" ", "John Doe", YearMonth.of(2020, 1), 1, 1, "http://test.com");
+
+    assertThrows(
+        IllegalStateException.class, () -> jdbcRepository.insertAll(List.of(invalid), WEIGHTS));
+  }
+
+  @Test
+  void insertAll_shouldRejectStoredLink() {
+    jdbcRepository.insertAll(List.of(request("Talk 1")), WEIGHTS);
+
+    DataIntegrityViolationException e =
+        assertThrows(
+            DataIntegrityViolationException.class,
+            () -> jdbcRepository.insertAll(List.of(request("Talk 1")), WEIGHTS));
+    assertTrue(TedTalkEntity.violatesLinkConstraint(e));
+  }
+
+  @Test
+  void mergeAll_shouldUpdateStoredLinksAndInsertNewOnes() {
+    TedTalkEntity stored = repository.saveAndFlush(TedTalkEntity.of(request("Talk 1"), WEIGHTS));
+    TedTalkRequest changed =
+        new TedTalkRequest(
+            "Talk 1 (remastered)", "John Doe", YearMonth.of(2021, 6), 500, 50, stored.getLink());
+
+    int merged = jdbcRepository.mergeAll(List.of(changed, request("Talk 2")), WEIGHTS);
+    entityManager.clear();
+
+    assertEquals(2, merged);
+    List<TedTalkEntity> talks = repository.findAll();
+    assertEquals(2, talks.size());
+    TedTalkEntity updated = repository.findById(stored.getId()).orElseThrow();
+    assertEquals("Talk 1 (remastered)", updated.getTitle());
+    assertEquals("talk 1 (remastered)", updated.getTitleLc());
+    assertEquals(YearMonth.of(2021, 6), updated.getYearMonth());
+    assertEquals(500, updated.getViews());
+  }
+
+  @Test
+  void updateAll_shouldUpdateStoredTalksById() {
+    long[] ids = jdbcRepository.insertAll(List.of(request("Talk 1"), request("Talk 2")), WEIGHTS);
+    TedTalkRequest changed =
+        new TedTalkRequest(
+            " Talk 1 (remastered) ", "Jane Roe", YearMonth.of(2021, 6), 500, 50, "http://new");
+
+    int[] updated =
+        jdbcRepository.updateAll(List.of(ids[0], ids[1] + 1), List.of(changed, changed), WEIGHTS);
+    entityManager.clear();
+
+    assertArrayEquals(new int[] {1, 0}, updated);
+    TedTalkEntity talk = repository.findById(ids[0]).orElseThrow();
+    assertEquals("Talk 1 (remastered)", talk.getTitle());
+    assertEquals("jane roe", talk.getAuthorLc());
+    assertEquals("http://new", talk.getLink());
+    assertEquals(
+        TedTalkEntity.contentHash(
+            "Talk 1 (remastered)", "Jane Roe", 2021, 6, 500, 50, "http://new"),
+        talk.getContentHash());
+    assertEquals("Talk 2", repository.findById(ids[1]).orElseThrow().getTitle());
+  }
+
+  @Test
+  void deleteAll_shouldDeleteStoredTalksById() {
+    long[] ids = jdbcRepository.insertAll(List.of(request("Talk 1"), request("Talk 2")), WEIGHTS);
+
+    int[] deleted = jdbcRepository.deleteAll(List.of(ids[0], ids[1] + 1));
+
+    assertArrayEquals(new int[] {1, 0}, deleted);
+    assertEquals(
+        List.of("Talk 2"), repository.findAll().stream().map(TedTalkEntity::getTitle).toList());
+  }
+
+  @Test
+  void findStoredLinks_shouldReturnOnlyStoredOnes() {
+    jdbcRepository.insertAll(List.of(request("Talk 1"), request("Talk 2")), WEIGHTS);
+
+    Set<String> stored =
+        jdbcRepository.findStoredLinks(List.of("http://test.com/Talk-1", "http://test.com/Talk-3"));
+
+    assertEquals(Set.of("http://test.com/Talk-1"), stored);
+    assertEquals(Set.of(), jdbcRepository.findStoredLinks(List.of()));
+  }
+
+  @Test
+  void findStoredTalks_shouldProjectOnlyStoredOnes() {
+    long[] ids = jdbcRepository.insertAll(List.of(request("Talk 1"), request("Talk 2")), WEIGHTS);
+
+    Map<Long, TedTalkJdbcRepository.StoredTalk> stored =
+        jdbcRepository.findStoredTalks(List.of(ids[0], ids[1] + 1));
+
+    TedTalkJdbcRepository.StoredTalk talk =
+        new TedTalkJdbcRepository.StoredTalk(ids[0], "John Doe", 0, 100, "http://test.com/Talk-1");
+    assertEquals(Map.of(ids[0], talk), stored);
+    assertEquals(Map.of(), jdbcRepository.findStoredTalks(List.of()));
+  }
+
+  @Test
+  void forEachContentHash_shouldMatchHashesOfJpaAndJdbcWrites() {
+    TedTalkEntity saved = repository.saveAndFlush(TedTalkEntity.of(request("Jpa Talk"), WEIGHTS));
+    jdbcRepository.insertAll(List.of(request("Jdbc Talk")), WEIGHTS);
+    Map<String, Long> hashes = new HashMap<>();
+
+    jdbcRepository.forEachContentHash(hashes::put);
+
+    assertEquals(2, hashes.size());
+    assertEquals(saved.getContentHash(), hashes.get(saved.getLink()));
+    String link = "http://test.com/Jdbc-Talk";
+    assertEquals(
+        TedTalkEntity.contentHash("Jdbc Talk", "John Doe", 2020, 1, -5, 100, link),
+        hashes.get(link));
+    assertNotEquals(
+        TedTalkEntity.contentHash("Jdbc Talk", "John Doe", 2020, 1, 1, 100, link),
+        hashes.get(link));
+  }
+
+  @Test
+  void insertAll_shouldStoreInfluenceUnderCurrentWeights() {
+    jdbcRepository.insertAll(List.of(request("Talk 1")), WEIGHTS);
+
+    TedTalkEntity talk = repository.findAll().getFirst();
+    assertEquals(WEIGHTS.score(0, 100), talk.getInfluence());
+  }
+
+  @Test
+  void recomputeInfluence_shouldRescoreOnlyStaleRowsOfRange() {
+    jdbcRepository.insertAll(
+        List.of(request("Talk 1"), request("Talk 2"), request("Talk 3")), WEIGHTS);
+    long maxId = jdbcRepository.maxId();
+    InfluenceWeights weights = new InfluenceWeights(0.5, 0.5);
+
+    assertEquals(2, jdbcRepository.recomputeInfluence(weights, 0, maxId - 1));
+    assertEquals(1, jdbcRepository.recomputeInfluence(weights, 0, maxId));
+    assertEquals(0, jdbcRepository.recomputeInfluence(weights, 0, maxId));
+
+    entityManager.clear();
+    assertEquals(
+        List.of(50.0, 50.0, 50.0),
+        repository.findAll().stream().map(TedTalkEntity::getInfluence).toList());
+  }
+
+  @Test
+  void estimateRowCount_shouldFollowInsertedRows() {
+    jdbcRepository.insertAll(
+        List.of(request("Talk 1"), request("Talk 2"), request("Talk 3")), WEIGHTS);
+
+    assertEquals(3, jdbcRepository.estimateRowCount());
+  }
+}
@@ -1,21 +1,44 @@
 package com.io.tedtalks.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.io.tedtalks.dto.PageCursor;
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.entity.InfluenceWeights;
 import com.io.tedtalks.entity.TedTalkEntity;
+import jakarta.persistence.EntityManager;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 @DataJpaTest
 class TedTalkRepositoryTest {
 
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(0.7, 0.3);
   private static final PageRequest PAGE = PageRequest.of(0, 10);
+  private static final PageRequest PAGE_OF_ONE = PageRequest.of(0, 1);
+  private static final PageRequest SORTED_BY_TITLE = PageRequest.of(0, 10, Sort.by("title"));
   @Autowired private TedTalkRepository repository;
+  @Autowired private EntityManager entityManager;
+  @Autowired private NamedParameterJdbcTemplate jdbcTemplate;
 
   private static TedTalkEntity talk(String title, String author, int year) {
 
@@ -25,7 +48,8 @@ class TedTalkRepositoryTest {
         YearMonth.of(year, 1),
         1000,
         100,
-        "http://test.com/" + title.replace(" ", "-"));
+        "http://test.com/" + title.replace(" ", "-"),
+        WEIGHTS);
   }
 
   @Test
@@ -88,4 +112,135 @@ class TedTalkRepositoryTest {
 
     assertTrue(result.isEmpty());
   }
+
+  @Test
+  void findByFilters_shouldMatchKeywordOnTitleOrAuthorOnce() {
+    repository.save(talk("AI Revolution", "John Doe", 2020));
+    repository.save(talk("Climate Change", "Aileen Smith", 2020));
+    repository.save(talk("Airflow", "Ai Weiwei", 2020));
+    repository.save(talk("Oceans", "Jane Smith", 2020));
+
+    Page<TedTalkEntity> result = repository.findByFilters(null, null, "ai", SORTED_BY_TITLE);
+
+    assertEquals(3, result.getTotalElements());
+    assertEquals(
+        List.of("AI Revolution", "Airflow", "Climate Change"),
+        result.map(TedTalkEntity::getTitle).getContent());
+    assertEquals(3, repository.countByFilters(null, null, "AI"));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "John, , , IDX_AUTHOR_LC",
+    ", , AI, IDX_TITLE_LC",
+    ", , AI, IDX_AUTHOR_LC",
+    ", 2020, , IDX_YEAR",
+    "John, 2020, AI, IDX_YEAR"
+  })
+  void filterQueries_shouldReadIndexRangesInsteadOfScanning(
+      String author, Integer year, String keyword, String index) {
+    for (int i = 0; i < 200; i++) {
+      repository.save(talk("Talk " + i, "Speaker " + i, 1900 + i));
+    }
+    entityManager.flush();
+
+    TalkFilter filter = TalkFilter.of(author, year, keyword);
+    Map<String, Object> parameters = new HashMap<>(filter.parameters());
+    parameters.put("limit", 10);
+    parameters.put("offset", 0);
+
+    for (String sql : List.of(filter.selectSql(null, "id"), filter.countSql())) {
+      String plan =
+          jdbcTemplate.queryForObject("EXPLAIN " + sql, parameters, String.class);
+      assertTrue(plan.contains(index), plan);
+      assertFalse(plan.contains("tableScan"), plan);
+    }
+  }
+
+  @Test
+  void findSliceByFilters_shouldTellNextPageWithoutTotals() {
+    repository.save(talk("Talk 1", "John Doe", 2020));
+    repository.save(talk("Talk 2", "John Doe", 2020));
+
+    Slice<TedTalkEntity> result = repository.findSliceByFilters("John", null, null, PAGE_OF_ONE);
+
+    assertEquals(1, result.getNumberOfElements());
+    assertTrue(result.hasNext());
+    assertEquals(2, repository.countByFilters("John", null, null));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "id, ASC", "title, ASC", "title, DESC", "author, ASC", "author, DESC", "year, ASC",
+    "year, DESC", "views, ASC", "views, DESC", "likes, DESC"
+  })
+  void findByFiltersAfter_shouldWalkTheSameOrderAsOffsetPages(String sortBy, Sort.Direction dir) {
+    for (int i = 0; i < 7; i++) {
+      repository.save(
+          TedTalkEntity.of(
+              "Talk " + (i % 3),
+              "Speaker " + (i % 2),
+              YearMonth.of(2018 + i % 3, 1),
+              1000L * (i % 4),
+              i % 2,
+              "http://test.com/" + i,
+              WEIGHTS));
+    }
+    repository.save(talk("Other", "Nobody", 2020));
+    Pageable all = PaginationParams.of(0, 100, sortBy, dir).toPageable();
+    List<Long> expected =
+        repository.findByFilters(null, null, "Talk", all).map(TedTalkEntity::getId).getContent();
+
+    PaginationParams params = PaginationParams.of(0, 3, sortBy, dir);
+    List<TedTalkEntity> page =
+        repository.findSliceByFilters(null, null, "Talk", params.toPageable()).getContent();
+    List<Long> walked = new ArrayList<>();
+    while (!page.isEmpty()) {
+      page.forEach(entity -> walked.add(entity.getId()));
+      String token = PageCursor.after(page.getLast(), sortBy, dir).encode();
+      PageCursor cursor = PageCursor.decode(token);
+      page = repository.findByFiltersAfter(null, null, "Talk", cursor, params.size());
+    }
+
+    assertEquals(7, expected.size());
+    assertEquals(expected, walked);
+  }
+
+  @Test
+  void forEachBatch_shouldPassEveryTalkOnceInIdOrder() {
+    for (int i = 0; i < 5; i++) {
+      repository.save(talk("Talk " + i, "John Doe", 2020));
+    }
+    List<Integer> sizes = new ArrayList<>();
+    List<Long> ids = new ArrayList<>();
+
+    repository.forEachBatch(
+        2,
+        batch -> {
+          sizes.add(batch.size());
+          batch.forEach(entity -> ids.add(entity.getId()));
+        });
+
+    assertEquals(List.of(2, 2, 1), sizes);
+    assertEquals(ids.stream().sorted().distinct().toList(), ids);
+  }
+
+  @Test
+  void saveAll_shouldSendInsertsAsSingleJdbcBatch() {
+    int batchSize = TedTalkEntity.ID_ALLOCATION_SIZE;
+    List<TedTalkEntity> talks =
+        IntStream.range(0, batchSize).mapToObj(i -> talk("Talk " + i, "John Doe", 2020)).toList();
+
+    Statistics statistics =
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+
+    repository.saveAll(talks);
+    entityManager.flush();
+
+    assertEquals(batchSize, statistics.getEntityInsertCount());
+    // one sequence call for the id block and one prepared INSERT reused for the whole batch
+    assertTrue(statistics.getPrepareStatementCount() <= 2);
+  }
 }
@@ -0,0 +1,235 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.io.tedtalks.dto.ImportPipelineMetrics;
+import com.io.tedtalks.dto.TedTalkRequest;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+final class BatchPipelineTest {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final List<List<TedTalkRequest>> written =
+      Collections.synchronizedList(new ArrayList<>());
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void producer_shouldHandBatchesToWriters() {
+    BatchPipeline pipeline = new BatchPipeline(2, 2, executor, batch -> written.add(batch.talks()));
+    BatchPipeline.Producer producer = pipeline.newProducer(2);
+
+    for (int i = 0; i < 5; i++) {
+      producer.accept(request(i));
+    }
+    producer.flush();
+    pipeline.finish();
+
+    assertEquals(3, written.size());
+    assertEquals(5, written.stream().mapToInt(List::size).sum());
+
+    ImportPipelineMetrics metrics = pipeline.metrics();
+    assertEquals(2, metrics.queueCapacity());
+    assertEquals(2, metrics.writers());
+    assertEquals(0, metrics.queueDepth());
+    assertEquals(3, metrics.batchesWritten());
+  }
+
+  @Test
+  void submit_shouldBlockAndRecordStallWhenQueueIsFull() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    BatchPipeline pipeline =
+        new BatchPipeline(
+            1,
+            1,
+            executor,
+            batch -> {
+              awaitQuietly(release);
+              written.add(batch.talks());
+            });
+
+    Thread releaser =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  sleepQuietly(200);
+                  release.countDown();
+                });
+
+    for (int i = 0; i < 3; i++) {
+      pipeline.submit(batch(i));
+    }
+    pipeline.finish();
+    releaser.join();
+
+    ImportPipelineMetrics metrics = pipeline.metrics();
+    assertEquals(3, metrics.batchesWritten());
+    assertEquals(1, metrics.maxQueueDepth());
+    assertTrue(metrics.producerStallMillis() >= 100, "stall: " + metrics.producerStallMillis());
+  }
+
+  @Test
+  void submit_shouldRethrowWriterFailure() {
+    IllegalStateException failure = new IllegalStateException("database down");
+    BatchPipeline pipeline =
+        new BatchPipeline(
+            1,
+            1,
+            executor,
+            batch -> {
+              throw failure;
+            });
+
+    RuntimeException thrown =
+        assertThrows(
+            RuntimeException.class,
+            () -> {
+              for (int i = 0; i < 10; i++) {
+                pipeline.submit(batch(i));
+              }
+              pipeline.finish();
+            });
+
+    assertSame(failure, thrown);
+    assertEquals(0, pipeline.metrics().batchesWritten());
+  }
+
+  @Test
+  void abort_shouldDiscardQueuedBatches() throws InterruptedException {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    BatchPipeline pipeline =
+        new BatchPipeline(
+            4,
+            1,
+            executor,
+            batch -> {
+              writing.countDown();
+              awaitQuietly(release);
+              written.add(batch.talks());
+            });
+
+    pipeline.submit(batch(0));
+    awaitQuietly(writing);
+    pipeline.submit(batch(1));
+    pipeline.submit(batch(2));
+    Thread aborting = Thread.ofVirtual().start(pipeline::abort);
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          while (pipeline.metrics().queueDepth() > 0) {
+            Thread.onSpinWait();
+          }
+        });
+    release.countDown();
+    assertTrue(aborting.join(Duration.ofSeconds(5)), "abort did not return");
+
+    assertEquals(1, written.size());
+    assertThrows(RuntimeException.class, () -> pipeline.submit(batch(3)));
+  }
+
+  @Test
+  void writers_shouldShareWriterPermitsAcrossPipelines() {
+    Semaphore permits = new Semaphore(1);
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+    Consumer<BatchPipeline.Batch> writer =
+        batch -> {
+          maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+          sleepQuietly(5);
+          active.decrementAndGet();
+          written.add(batch.talks());
+        };
+    BatchPipeline first = new BatchPipeline(4, 2, executor, permits, null, writer);
+    BatchPipeline second = new BatchPipeline(4, 2, executor, permits, null, writer);
+
+    for (int i = 0; i < 6; i++) {
+      first.submit(batch(i));
+      second.submit(batch(i));
+    }
+    first.finish();
+    second.finish();
+
+    assertEquals(12, written.size());
+    assertEquals(1, maxActive.get());
+    assertEquals(1, permits.availablePermits());
+  }
+
+  @Test
+  void producer_shouldNumberBatchesAndStampMarkedPositions() {
+    List<BatchPipeline.Batch> batches = Collections.synchronizedList(new ArrayList<>());
+    BatchPipeline pipeline = new BatchPipeline(4, 1, executor, batches::add);
+    BatchPipeline.Producer producer = pipeline.newProducer(2);
+
+    for (int i = 0; i < 3; i++) {
+      producer.mark(100L * (i + 1), i + 1);
+      producer.accept(request(i));
+    }
+    producer.mark(450, 5);
+    producer.flush();
+    pipeline.finish();
+
+    assertEquals(
+        List.of(
+            new BatchPipeline.Batch(0, List.of(request(0), request(1)), 200, 2),
+            new BatchPipeline.Batch(1, List.of(request(2)), 450, 5)),
+        batches);
+  }
+
+  @Test
+  void abort_shouldFailCommitSequencer() {
+    CommitSequencer sequencer = new CommitSequencer();
+    BatchPipeline pipeline =
+        new BatchPipeline(4, 1, executor, sequencer, batch -> sequencer.awaitTurn(1));
+
+    pipeline.submit(batch(0));
+    pipeline.abort();
+
+    assertThrows(RuntimeException.class, () -> sequencer.awaitTurn(1));
+  }
+
+  private static BatchPipeline.Batch batch(int i) {
+    return new BatchPipeline.Batch(i, List.of(request(i)), 0, 0);
+  }
+
+  private static TedTalkRequest request(int i) {
+    return new TedTalkRequest(
+        "Talk " + i, "Speaker", YearMonth.of(2020, 1), i, i, "http://test.com/" + i);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleepQuietly(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.TedTalkRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class ChunkedCsvImporterTest {
+
+  private static final int WORKERS = 4;
+  private static final int WRITERS = 2;
+
+  @Mock private TedTalksConfig config;
+  @Mock private TedTalksConfig.Csv csvConfig;
+  @Mock private TedTalkService tedTalkService;
+
+  @TempDir private Path tempDir;
+
+  private ExecutorService parseExecutor;
+  private ExecutorService writeExecutor;
+  private BatchPipeline pipeline;
+  private final ImportProgressCounters progress = new ImportProgressCounters();
+  private ChunkedCsvImporter importer;
+
+  @BeforeEach
+  void setUp() {
+    parseExecutor = Executors.newFixedThreadPool(WORKERS);
+    writeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    pipeline =
+        new BatchPipeline(
+            4, WRITERS, writeExecutor, batch -> tedTalkService.createTalksBatch(batch.talks()));
+    importer = new ChunkedCsvImporter(config, parseExecutor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    parseExecutor.shutdownNow();
+    writeExecutor.shutdownNow();
+  }
+
+  @Test
+  void importFile_shouldParseQuoteAwareChunksInParallelWithCappedWriters() throws IOException {
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(500);
+    when(csvConfig.parseWorkers()).thenReturn(WORKERS);
+
+    int rows = 40_000;
+    StringBuilder csv = new StringBuilder("title,author,date,views,likes,link\n");
+    for (int i = 0; i < rows; i++) {
+      csv.append("\"Talk ")
+          .append(i)
+          .append(",\nwith \"\"quotes\"\" and a line break\",Speaker ")
+          .append(i % 100)
+          .append(",January 2020,")
+          .append(i)
+          .append(",1,http://test.com/")
+          .append(i)
+          .append("/some/longer/path/to/make/the/file/span/several/chunks\n");
+    }
+    Path file = tempDir.resolve("talks.csv");
+    Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+    List<TedTalkRequest> written = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger activeWriters = new AtomicInteger();
+    AtomicInteger maxActiveWriters = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              maxActiveWriters.accumulateAndGet(activeWriters.incrementAndGet(), Math::max);
+              written.addAll(invocation.getArgument(0));
+              Thread.sleep(1);
+              activeWriters.decrementAndGet();
+              return null;
+            })
+        .when(tedTalkService)
+        .createTalksBatch(anyList());
+
+    importer.importFile(file, pipeline, progress, request -> true);
+    pipeline.finish();
+
+    assertEquals(rows, written.size());
+    assertEquals(rows, written.stream().map(TedTalkRequest::link).distinct().count());
+    assertTrue(written.stream().allMatch(r -> r.title().contains(",\nwith \"quotes\"")));
+    assertTrue(maxActiveWriters.get() <= WRITERS);
+    assertEquals(rows, progress.snapshot().rowsRead());
+    assertEquals(Files.size(file), progress.snapshot().bytesProcessed());
+  }
+
+  @Test
+  void importFile_shouldIgnoreEmptyFile() throws IOException {
+    Path file = Files.createFile(tempDir.resolve("empty.csv"));
+
+    importer.importFile(file, pipeline, progress, request -> true);
+    pipeline.finish();
+
+    verifyNoInteractions(tedTalkService);
+  }
+}
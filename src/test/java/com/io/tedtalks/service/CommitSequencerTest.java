@@ -0,0 +1,58 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.io.tedtalks.exception.CsvImportException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+final class CommitSequencerTest {
+
+  private final CommitSequencer sequencer = new CommitSequencer();
+
+  @Test
+  void awaitTurn_shouldReleaseBatchesInSequenceOrder() throws InterruptedException {
+    List<Long> commits = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> writers = new ArrayList<>();
+    for (long sequence = 3; sequence >= 0; sequence--) {
+      long turn = sequence;
+      writers.add(
+          Thread.ofVirtual()
+              .start(
+                  () -> {
+                    sequencer.awaitTurn(turn);
+                    commits.add(turn);
+                    sequencer.committed(turn);
+                  }));
+    }
+    for (Thread writer : writers) {
+      writer.join();
+    }
+
+    assertEquals(List.of(0L, 1L, 2L, 3L), commits);
+  }
+
+  @Test
+  void fail_shouldReleaseWaitingWriters() throws InterruptedException {
+    List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+    Thread writer =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    sequencer.awaitTurn(1);
+                  } catch (CsvImportException e) {
+                    failures.add(e);
+                  }
+                });
+
+    sequencer.fail();
+    writer.join();
+
+    assertEquals(1, failures.size());
+    assertThrows(CsvImportException.class, () -> sequencer.awaitTurn(0));
+  }
+}
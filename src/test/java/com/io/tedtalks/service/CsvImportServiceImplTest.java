@@ -1,31 +1,60 @@
 package com.io.tedtalks.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.ImportDelta;
+import com.io.tedtalks.dto.ImportProgress;
 import com.io.tedtalks.dto.ImportStatusResponse;
+import com.io.tedtalks.dto.TedTalkRequest;
 import com.io.tedtalks.entity.ImportStatusEntity;
+import com.io.tedtalks.entity.TedTalkEntity;
 import com.io.tedtalks.exception.CsvImportException;
 import com.io.tedtalks.exception.ResourceNotFoundException;
 import com.io.tedtalks.repository.ImportStatusRepository;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.ObjLongConsumer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.multipart.MultipartFile;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +66,10 @@ final class CsvImportServiceImplTest {
   @Mock private ExecutorService csvImportExecutor;
   @Mock private InstantSource clock;
   @Mock private MultipartFile file;
+  @Mock private TedTalksConfig.Csv csvConfig;
+  @Mock private ChunkedCsvImporter chunkedCsvImporter;
+
+  private final ExecutorService csvWriteExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
   private CsvImportServiceImpl service;
 
@@ -44,14 +77,27 @@ final class CsvImportServiceImplTest {
   void setUp() {
     service =
         new CsvImportServiceImpl(
-            config, tedTalkService, importStatusRepository, csvImportExecutor, clock);
+            config,
+            tedTalkService,
+            importStatusRepository,
+            csvImportExecutor,
+            clock,
+            chunkedCsvImporter,
+            csvWriteExecutor,
+            TransactionOperations.withoutTransaction(),
+            new Semaphore(2));
+  }
+
+  @AfterEach
+  void tearDown() {
+    csvWriteExecutor.shutdownNow();
   }
 
   @Test
   void startImport_shouldThrowExceptionWhenFileIsEmpty() {
     when(file.isEmpty()).thenReturn(true);
 
-    assertThrows(CsvImportException.class, () -> service.startImport(file));
+    assertThrows(CsvImportException.class, () -> service.startImport(file, null));
 
     verifyNoInteractions(importStatusRepository, csvImportExecutor);
   }
@@ -63,14 +109,22 @@ final class CsvImportServiceImplTest {
     when(file.isEmpty()).thenReturn(false);
     when(file.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
     when(clock.instant()).thenReturn(now);
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.parseWorkers()).thenReturn(1);
+    when(csvConfig.writeMode()).thenReturn(TedTalksConfig.Csv.WriteMode.INSERT);
     when(importStatusRepository.save(any(ImportStatusEntity.class)))
         .thenAnswer(invocation -> invocation.getArgument(0));
     doNothing().when(csvImportExecutor).execute(any(Runnable.class));
 
-    String importId = service.startImport(file);
+    String importId = service.startImport(file, null);
 
     assertNotNull(importId);
-    verify(importStatusRepository).save(any(ImportStatusEntity.class));
+    verify(importStatusRepository)
+        .save(
+            argThat(
+                (ImportStatusEntity status) ->
+                    status.isResumable()
+                        && status.getWriteMode() == TedTalksConfig.Csv.WriteMode.INSERT));
     verify(csvImportExecutor).execute(any(Runnable.class));
   }
 
@@ -97,4 +151,551 @@ final class CsvImportServiceImplTest {
 
     assertThrows(ResourceNotFoundException.class, () -> service.getImportStatus("missing"));
   }
+
+  @ParameterizedTest
+  @EnumSource(TedTalksConfig.Csv.Parser.class)
+  void streamImport_shouldParseContentWithoutSpoolFile(TedTalksConfig.Csv.Parser parser) {
+    String csv =
+        """
+        title,author,date,views,likes,link
+        Talk 1,John Doe,January 2020,1000,100,http://test.com/1
+        Talk 2,Jane Doe,Feb 2021,2000,200,http://test.com/2
+        """;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(500);
+    when(csvConfig.parser()).thenReturn(parser);
+    when(csvConfig.writerThreads()).thenReturn(2);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    String importId = openStreamingImport();
+    when(csvImportExecutor.submit(any(Runnable.class)))
+        .thenAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return CompletableFuture.completedFuture(null);
+            });
+    createsAllTalks();
+
+    ImportStatusResponse response =
+        service.streamImport(
+            importId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+    assertEquals(ImportStatusResponse.ImportStatus.COMPLETED, response.status());
+    assertEquals(1, response.pipeline().batchesWritten());
+    assertEquals(2, response.progress().rowsRead());
+    assertEquals(2, response.progress().rowsPersisted());
+    assertEquals(csv.length(), response.progress().bytesProcessed());
+    verify(tedTalkService).createTalksBatch(argThat(batch -> batch.size() == 2));
+  }
+
+  @Test
+  void processImport_shouldMarkFailedWhenWriterFails() {
+    String importId = "failing-id";
+    String csv =
+        """
+        title,author,date,views,likes,link
+        Talk 1,John Doe,January 2020,1000,100,http://test.com/1
+        Talk 2,Jane Doe,Feb 2021,2000,200,http://test.com/2
+        Talk 3,Jane Doe,Mar 2021,3000,300,http://test.com/3
+        """;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(1);
+    when(csvConfig.parser()).thenReturn(TedTalksConfig.Csv.Parser.FAST);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(1);
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+    doThrow(new IllegalStateException("database down"))
+        .when(tedTalkService)
+        .createTalksBatch(any());
+
+    assertThrows(
+        CsvImportException.class,
+        () ->
+            service.processImport(
+                importId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+    assertEquals(ImportStatusEntity.ImportStatus.FAILED, entity.getStatus());
+    assertEquals(0, entity.getPipelineMetrics().batchesWritten());
+    assertEquals(0, entity.getProgress().rowsPersisted());
+  }
+
+  @Test
+  void processImport_shouldFailOnMalformedUtf8() {
+    String importId = "malformed-id";
+    byte[] header = "title,author,date,views,likes,link\nTalk ".getBytes(StandardCharsets.UTF_8);
+    byte[] rest =
+        " 1,John Doe,January 2020,1,1,http://test.com/1\n".getBytes(StandardCharsets.UTF_8);
+    byte[] csv = new byte[header.length + 1 + rest.length];
+    System.arraycopy(header, 0, csv, 0, header.length);
+    csv[header.length] = (byte) 0xC3;
+    System.arraycopy(rest, 0, csv, header.length + 1, rest.length);
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(500);
+    when(csvConfig.parser()).thenReturn(TedTalksConfig.Csv.Parser.FAST);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(1);
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+
+    CsvImportException e =
+        assertThrows(
+            CsvImportException.class,
+            () -> service.processImport(importId, new ByteArrayInputStream(csv)));
+
+    assertInstanceOf(MalformedInputException.class, e.getCause());
+    assertEquals(ImportStatusEntity.ImportStatus.FAILED, entity.getStatus());
+    verifyNoInteractions(tedTalkService);
+  }
+
+  @Test
+  void processImport_shouldMergeFirstOccurrenceOfEachLinkInUpsertMode() {
+    String importId = "upsert-id";
+    String csv =
+        """
+        title,author,date,views,likes,link
+        Talk 1,John Doe,January 2020,1000,100,http://test.com/1
+        Talk 2,Jane Doe,Feb 2021,2000,200,http://test.com/2
+        Talk 1 again,John Doe,January 2020,1500,150, http://test.com/1
+        """;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(500);
+    when(csvConfig.parser()).thenReturn(TedTalksConfig.Csv.Parser.FAST);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    ImportStatusEntity entity =
+        ImportStatusEntity.start(importId, TedTalksConfig.Csv.WriteMode.UPSERT, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+
+    service.processImport(importId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+    verify(tedTalkService)
+        .upsertTalksBatch(
+            argThat(
+                batch ->
+                    batch.stream()
+                        .map(TedTalkRequest::title)
+                        .toList()
+                        .equals(List.of("Talk 1", "Talk 2"))));
+    verify(tedTalkService, never()).createTalksBatch(any());
+    assertEquals(new ImportProgress(3, 2, 1, csv.length(), 0), withoutRate(entity.getProgress()));
+  }
+
+  @Test
+  void processImport_shouldSkipStoredAndRepeatedLinksInInsertMode() {
+    String importId = "insert-id";
+    String csv =
+        """
+        title,author,date,views,likes,link
+        Talk 1,John Doe,January 2020,1000,100,http://test.com/1
+        Talk 2,Jane Doe,Feb 2021,2000,200,http://test.com/2
+        Talk 1 again,John Doe,January 2020,1500,150, http://test.com/1
+        """;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(500);
+    when(csvConfig.parser()).thenReturn(TedTalksConfig.Csv.Parser.FAST);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+    when(tedTalkService.createTalksBatch(any())).thenReturn(1);
+
+    service.processImport(importId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+    verify(tedTalkService)
+        .createTalksBatch(
+            argThat(
+                batch ->
+                    batch.stream()
+                        .map(TedTalkRequest::title)
+                        .toList()
+                        .equals(List.of("Talk 1", "Talk 2"))));
+    assertEquals(ImportStatusEntity.ImportStatus.COMPLETED, entity.getStatus());
+    assertEquals(new ImportProgress(3, 1, 2, csv.length(), 0), withoutRate(entity.getProgress()));
+  }
+
+  @Test
+  void processImport_shouldWriteOnlyNewAndChangedRowsInDeltaMode() {
+    String importId = "delta-id";
+    String csv =
+        """
+        title,author,date,views,likes,link
+        Talk 1,John Doe,January 2020,1000,100,http://test.com/1
+        Talk 2,Jane Doe,Feb 2021,2500,250,http://test.com/2
+        Talk 3,Jane Doe,Mar 2021,3000,300,http://test.com/3
+        """;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(500);
+    when(csvConfig.parser()).thenReturn(TedTalksConfig.Csv.Parser.OPENCSV);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    ImportStatusEntity entity =
+        ImportStatusEntity.start(importId, TedTalksConfig.Csv.WriteMode.DELTA, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+    doAnswer(
+            invocation -> {
+              ObjLongConsumer<String> action = invocation.getArgument(0);
+              action.accept(
+                  "http://test.com/1",
+                  TedTalkEntity.contentHash(
+                      "Talk 1", "John Doe", 2020, 1, 1000, 100, "http://test.com/1"));
+              action.accept(
+                  "http://test.com/2",
+                  TedTalkEntity.contentHash(
+                      "Talk 2", "Jane Doe", 2021, 2, 2000, 200, "http://test.com/2"));
+              return null;
+            })
+        .when(tedTalkService)
+        .forEachContentHash(any());
+
+    service.processImport(importId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+    verify(tedTalkService)
+        .upsertTalksBatch(
+            argThat(
+                batch ->
+                    batch.stream()
+                        .map(TedTalkRequest::title)
+                        .toList()
+                        .equals(List.of("Talk 2", "Talk 3"))));
+    assertEquals(new ImportDelta(1, 1, 1), entity.getDelta());
+    assertEquals(3, entity.getProgress().rowsRead());
+    assertEquals(2, entity.getProgress().rowsPersisted());
+    assertEquals(0, entity.getProgress().rowsSkipped());
+  }
+
+  @Test
+  void flushProgress_shouldWriteCountersOfRunningImports() throws InterruptedException {
+    String importId = "running-id";
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    String csv =
+        """
+        title,author,date,views,likes,link
+        Talk 1,John Doe,January 2020,1000,100,http://test.com/1
+        ,Missing Title,January 2020,1,1,http://test.com/2
+        Talk 3,Jane Doe,Mar 2021,3000,300,http://test.com/3
+        """;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(1);
+    when(csvConfig.parser()).thenReturn(TedTalksConfig.Csv.Parser.FAST);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+    doAnswer(
+            invocation -> {
+              writing.countDown();
+              release.await();
+              return invocation.getArgument(0, List.class).size();
+            })
+        .when(tedTalkService)
+        .createTalksBatch(any());
+
+    Thread importThread =
+        Thread.ofVirtual()
+            .start(
+                () ->
+                    service.processImport(
+                        importId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+    writing.await();
+    while (service.getImportStatus(importId).progress().rowsRead() < 3) {
+      Thread.onSpinWait();
+    }
+
+    service.flushProgress();
+    release.countDown();
+    importThread.join();
+
+    verify(importStatusRepository).updateProgress(importId, 3, 0, 1, csv.length(), 0);
+    assertEquals(2, entity.getProgress().rowsPersisted());
+  }
+
+  @Test
+  void flushProgress_shouldFailStreamingImportsWithoutContentAfterTtl() {
+    Instant opened = Instant.parse("2024-01-01T10:00:00Z");
+    List<ImportStatusEntity> saved = new ArrayList<>();
+
+    when(clock.instant())
+        .thenReturn(opened, opened, opened.plusSeconds(300), opened.plusSeconds(601));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.writeMode()).thenReturn(TedTalksConfig.Csv.WriteMode.INSERT);
+    when(csvConfig.streamSessionTtl()).thenReturn(Duration.ofMinutes(10));
+    when(importStatusRepository.save(any(ImportStatusEntity.class)))
+        .thenAnswer(
+            invocation -> {
+              saved.add(invocation.getArgument(0));
+              return invocation.getArgument(0);
+            });
+
+    String importId = service.startStreamingImport(null);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(saved.getFirst()));
+
+    service.flushProgress();
+    assertEquals(ImportStatusEntity.ImportStatus.PROCESSING, saved.getFirst().getStatus());
+
+    service.flushProgress();
+    assertEquals(ImportStatusEntity.ImportStatus.FAILED, saved.getFirst().getStatus());
+    assertThrows(
+        CsvImportException.class,
+        () -> service.streamImport(importId, new ByteArrayInputStream(new byte[0])));
+    verifyNoInteractions(csvImportExecutor);
+  }
+
+  @Test
+  void streamImport_shouldRejectFinishedImport() {
+    String importId = "stream-id";
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    entity.markCompleted(clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+
+    assertThrows(
+        CsvImportException.class,
+        () -> service.streamImport(importId, new ByteArrayInputStream(new byte[0])));
+
+    verifyNoInteractions(csvImportExecutor);
+  }
+
+  @Test
+  void streamImport_shouldRejectUploadedImport() throws IOException {
+    when(file.isEmpty()).thenReturn(false);
+    when(file.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.parseWorkers()).thenReturn(1);
+    when(csvConfig.writeMode()).thenReturn(TedTalksConfig.Csv.WriteMode.INSERT);
+    List<ImportStatusEntity> saved = new ArrayList<>();
+    when(importStatusRepository.save(any(ImportStatusEntity.class)))
+        .thenAnswer(
+            invocation -> {
+              saved.add(invocation.getArgument(0));
+              return invocation.getArgument(0);
+            });
+    doNothing().when(csvImportExecutor).execute(any(Runnable.class));
+    String importId = service.startImport(file, null);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(saved.getFirst()));
+
+    CsvImportException e =
+        assertThrows(
+            CsvImportException.class,
+            () -> service.streamImport(importId, new ByteArrayInputStream(new byte[0])));
+
+    assertEquals("Import is not waiting for content: " + importId, e.getMessage());
+    verify(csvImportExecutor, never()).submit(any(Runnable.class));
+  }
+
+  @Test
+  void streamImport_shouldRethrowWhenImportFails() {
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    String importId = openStreamingImport();
+    when(csvImportExecutor.submit(any(Runnable.class)))
+        .thenReturn(CompletableFuture.failedFuture(new CsvImportException("Import failed")));
+
+    CsvImportException e =
+        assertThrows(
+            CsvImportException.class,
+            () -> service.streamImport(importId, new ByteArrayInputStream(new byte[0])));
+
+    assertEquals("Import failed", e.getCause().getMessage());
+  }
+
+  @Test
+  void processImport_shouldCheckpointEveryCommittedBatch() throws IOException {
+    String importId = "spooled-id";
+    String header = "title,author,date,views,likes,link\n";
+    String row1 = "Talk 1,John Doe,January 2020,1000,100,http://test.com/1\n";
+    String row2 = "Talk 2,Jane Doe,Feb 2021,2000,200,http://test.com/2\n";
+    Path csvFile = spoolFile(header + row1 + row2);
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(1);
+    when(csvConfig.parser()).thenReturn(TedTalksConfig.Csv.Parser.FAST);
+    when(csvConfig.parseWorkers()).thenReturn(1);
+    when(csvConfig.writerThreads()).thenReturn(2);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+    createsAllTalks();
+
+    service.processImport(importId, csvFile);
+
+    InOrder checkpoints = inOrder(importStatusRepository);
+    checkpoints
+        .verify(importStatusRepository)
+        .updateCheckpoint(importId, header.length() + row1.length(), 1, 1);
+    checkpoints
+        .verify(importStatusRepository)
+        .updateCheckpoint(importId, header.length() + row1.length() + row2.length(), 2, 2);
+    assertEquals(ImportStatusEntity.ImportStatus.COMPLETED, entity.getStatus());
+    assertFalse(Files.exists(csvFile));
+  }
+
+  @ParameterizedTest
+  @EnumSource(TedTalksConfig.Csv.Parser.class)
+  void resumeImport_shouldSkipRowsCommittedBeforeCheckpoint(TedTalksConfig.Csv.Parser parser)
+      throws IOException {
+    String importId = "resumed-id";
+    String header = "title,author,date,views,likes,link\n";
+    String row1 = "Talk 1,John Doe,January 2020,1000,100,http://test.com/1\n";
+    String row2 = "Talk 2,Jane Doe,Feb 2021,2000,200,http://test.com/2\n";
+    String row3 = "Talk 3,Jane Doe,Mar 2021,3000,300,http://test.com/3\n";
+    String csv = header + row1 + row2 + row3;
+    Path csvFile = spoolFile(csv);
+    long checkpointOffset =
+        parser == TedTalksConfig.Csv.Parser.FAST ? header.length() + row1.length() : 0;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(10);
+    when(csvConfig.parser()).thenReturn(parser);
+    when(csvConfig.parseWorkers()).thenReturn(1);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    entity.attachSpoolFile(csvFile);
+    ReflectionTestUtils.setField(entity, "checkpointOffset", checkpointOffset);
+    ReflectionTestUtils.setField(entity, "checkpointRows", 1L);
+    ReflectionTestUtils.setField(entity, "checkpointPersisted", 1L);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+    doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(csvImportExecutor)
+        .execute(any(Runnable.class));
+    createsAllTalks();
+
+    service.resumeImport(importId);
+
+    long finalOffset = parser == TedTalksConfig.Csv.Parser.FAST ? csv.length() : 0;
+    verify(tedTalkService)
+        .createTalksBatch(
+            argThat(
+                batch ->
+                    batch.stream()
+                        .map(TedTalkRequest::title)
+                        .toList()
+                        .equals(List.of("Talk 2", "Talk 3"))));
+    verify(importStatusRepository).updateCheckpoint(importId, finalOffset, 3, 3);
+    assertEquals(ImportStatusEntity.ImportStatus.COMPLETED, entity.getStatus());
+    assertEquals(3, entity.getProgress().rowsRead());
+    assertEquals(3, entity.getProgress().rowsPersisted());
+    assertFalse(Files.exists(csvFile));
+  }
+
+  @ParameterizedTest
+  @EnumSource(TedTalksConfig.Csv.Parser.class)
+  void resumeImport_shouldSkipLinksReadBeforeCheckpoint(TedTalksConfig.Csv.Parser parser)
+      throws IOException {
+    String importId = "resumed-upsert-id";
+    String header = "title,author,date,views,likes,link\n";
+    String row1 = "Talk 1,John Doe,January 2020,1000,100,http://test.com/1\n";
+    String row2 = "Talk 2,Jane Doe,Feb 2021,2000,200,http://test.com/2\n";
+    String row3 = "Talk 1 again,John Doe,January 2020,1500,150,http://test.com/1\n";
+    Path csvFile = spoolFile(header + row1 + row2 + row3);
+    long checkpointOffset =
+        parser == TedTalksConfig.Csv.Parser.FAST ? header.length() + row1.length() : 0;
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(10);
+    when(csvConfig.parser()).thenReturn(parser);
+    when(csvConfig.parseWorkers()).thenReturn(1);
+    when(csvConfig.writerThreads()).thenReturn(1);
+    when(csvConfig.pipelineCapacity()).thenReturn(4);
+    ImportStatusEntity entity =
+        ImportStatusEntity.start(importId, TedTalksConfig.Csv.WriteMode.UPSERT, clock);
+    entity.attachSpoolFile(csvFile);
+    ReflectionTestUtils.setField(entity, "checkpointOffset", checkpointOffset);
+    ReflectionTestUtils.setField(entity, "checkpointRows", 1L);
+    ReflectionTestUtils.setField(entity, "checkpointPersisted", 1L);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+    doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(csvImportExecutor)
+        .execute(any(Runnable.class));
+
+    service.resumeImport(importId);
+
+    verify(tedTalkService)
+        .upsertTalksBatch(
+            argThat(
+                batch ->
+                    batch.stream()
+                        .map(TedTalkRequest::title)
+                        .toList()
+                        .equals(List.of("Talk 2"))));
+    assertEquals(ImportStatusEntity.ImportStatus.COMPLETED, entity.getStatus());
+    assertEquals(2, entity.getProgress().rowsPersisted());
+    assertEquals(1, entity.getProgress().rowsSkipped());
+  }
+
+  @Test
+  void resumeImport_shouldRejectImportWithoutSpoolFile() {
+    String importId = "chunked-id";
+
+    when(clock.instant()).thenReturn(Instant.parse("2024-01-01T10:00:00Z"));
+    ImportStatusEntity entity = ImportStatusEntity.start(importId, clock);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(entity));
+
+    assertThrows(CsvImportException.class, () -> service.resumeImport(importId));
+
+    verifyNoInteractions(csvImportExecutor);
+  }
+
+  private String openStreamingImport() {
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.writeMode()).thenReturn(TedTalksConfig.Csv.WriteMode.INSERT);
+    when(csvConfig.streamSessionTtl()).thenReturn(Duration.ofMinutes(10));
+    List<ImportStatusEntity> saved = new ArrayList<>();
+    when(importStatusRepository.save(any(ImportStatusEntity.class)))
+        .thenAnswer(
+            invocation -> {
+              saved.add(invocation.getArgument(0));
+              return invocation.getArgument(0);
+            });
+    String importId = service.startStreamingImport(null);
+    when(importStatusRepository.findById(importId)).thenReturn(Optional.of(saved.getFirst()));
+    return importId;
+  }
+
+  private void createsAllTalks() {
+    when(tedTalkService.createTalksBatch(any()))
+        .thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+  }
+
+  private static ImportProgress withoutRate(ImportProgress progress) {
+    return new ImportProgress(
+        progress.rowsRead(),
+        progress.rowsPersisted(),
+        progress.rowsSkipped(),
+        progress.bytesProcessed(),
+        0);
+  }
+
+  private static Path spoolFile(String content) throws IOException {
+    Path csvFile = Files.createTempFile("csv-import-test-", ".csv");
+    Files.writeString(csvFile, content);
+    return csvFile;
+  }
 }
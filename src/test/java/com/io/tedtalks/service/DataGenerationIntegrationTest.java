@@ -0,0 +1,95 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import com.io.tedtalks.dto.TedTalkRequest;
+import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+@SpringBootTest
+final class DataGenerationIntegrationTest {
+
+  @Autowired private TedTalkService tedTalkService;
+
+  @Autowired private InfluenceLeaderboard leaderboard;
+
+  @Autowired private TalkResponseCache responseCache;
+
+  @MockitoSpyBean private DataGeneration dataGeneration;
+
+  @Test
+  void onTalksSaved_shouldAdvanceAfterLeaderboardAndCacheApplyTheWrite() {
+    String link = "http://ted.com/generation-save";
+    TedTalkResponse talk =
+        tedTalkService.createTalk(
+            new TedTalkRequest("Ordinary Rivers", "Jane Doe", YearMonth.of(2021, 1), 10, 1, link));
+    tedTalkService.getTalkById(talk.id());
+    long invalidations = responseCache.stats().invalidations();
+    List<String> ranked = new ArrayList<>();
+    List<Long> invalidated = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              ranked.add(leaderboard.topTalks(1).orElseThrow().getFirst().title());
+              invalidated.add(responseCache.stats().invalidations() - invalidations);
+              return invocation.callRealMethod();
+            })
+        .when(dataGeneration)
+        .onTalksSaved(any(TalksSavedEvent.class));
+    long before = dataGeneration.current();
+
+    tedTalkService.updateTalk(
+        talk.id(),
+        new TedTalkRequest(
+            "Generation Rivers", "Jane Doe", YearMonth.of(2021, 1), 90_000_000, 1, link));
+
+    assertEquals(List.of("Generation Rivers"), ranked);
+    assertEquals(List.of(1L), invalidated);
+    assertEquals(before + 1, dataGeneration.current());
+    assertEquals("Generation Rivers", tedTalkService.getTalkById(talk.id()).title());
+  }
+
+  @Test
+  void onTalkDeleted_shouldAdvanceAfterLeaderboardAndCacheApplyTheWrite() {
+    TedTalkResponse talk =
+        tedTalkService.createTalk(
+            new TedTalkRequest(
+                "Deleted Rivers",
+                "Jane Doe",
+                YearMonth.of(2021, 2),
+                95_000_000,
+                1,
+                "http://ted.com/generation-delete"));
+    tedTalkService.getTalkById(talk.id());
+    long invalidations = responseCache.stats().invalidations();
+    List<Boolean> ranked = new ArrayList<>();
+    List<Long> invalidated = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              ranked.add(
+                  leaderboard.topTalks(1).orElseThrow().stream()
+                      .anyMatch(response -> response.id().equals(talk.id())));
+              invalidated.add(responseCache.stats().invalidations() - invalidations);
+              return invocation.callRealMethod();
+            })
+        .when(dataGeneration)
+        .onTalkDeleted(any(TalkDeletedEvent.class));
+    long before = dataGeneration.current();
+
+    tedTalkService.deleteTalk(talk.id());
+
+    assertFalse(ranked.getFirst());
+    assertEquals(List.of(1L), invalidated);
+    assertEquals(before + 1, dataGeneration.current());
+  }
+}
@@ -2,17 +2,26 @@ package com.io.tedtalks.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.InfluenceWeightsRequest;
 import com.io.tedtalks.dto.InfluentialTalkDto;
 import com.io.tedtalks.dto.SpeakerInfluenceDto;
 import com.io.tedtalks.dto.SpeakerInfluenceResponse;
 import com.io.tedtalks.dto.TedTalkResponse;
 import com.io.tedtalks.dto.YearlyInfluenceResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.event.TalkDeletedEvent;
 import com.io.tedtalks.repository.InfluenceAnalysisRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,24 +35,39 @@ final class InfluenceAnalysisServiceImplTest {
 
   private static final double VIEWS_WEIGHT = 0.7;
   private static final double LIKES_WEIGHT = 0.3;
+  private static final InfluenceWeights OVERRIDE = new InfluenceWeights(0.5, 0.5);
 
   @Mock private InfluenceAnalysisRepository analyticsRepository;
-  @Mock private TedTalksConfig config;
-  @Mock private TedTalksConfig.Influence influenceConfig;
+  @Mock private InfluenceScores influenceScores;
+  @Mock private InfluenceLeaderboard leaderboard;
+
+  private final DataGeneration dataGeneration = new DataGeneration();
 
   private InfluenceAnalysisServiceImpl service;
 
   @BeforeEach
   void setUp() {
-    when(config.influence()).thenReturn(influenceConfig);
-    when(influenceConfig.viewsWeight()).thenReturn(VIEWS_WEIGHT);
-    when(influenceConfig.likesWeight()).thenReturn(LIKES_WEIGHT);
+    TedTalksConfig config =
+        new TedTalksConfig(
+            null,
+            new TedTalksConfig.Influence(VIEWS_WEIGHT, LIKES_WEIGHT, 256, Duration.ZERO),
+            null,
+            null);
+    InfluenceResultCache resultCache =
+        new InfluenceResultCache(
+            config, dataGeneration, InstantSource.fixed(Instant.EPOCH), Runnable::run);
+    service =
+        new InfluenceAnalysisServiceImpl(
+            analyticsRepository, influenceScores, leaderboard, resultCache);
+  }
 
-    service = new InfluenceAnalysisServiceImpl(analyticsRepository, config);
+  private void givenWeights() {
+    when(influenceScores.weights()).thenReturn(new InfluenceWeights(VIEWS_WEIGHT, LIKES_WEIGHT));
   }
 
   @Test
   void getMostInfluentialSpeakers_shouldReturnList() {
+    givenWeights();
     SpeakerInfluenceDto dto = new SpeakerInfluenceDtoStub("John Doe", 5000L, 500L, 1000.0, 3L);
 
     when(analyticsRepository.findMostInfluentialSpeakers(VIEWS_WEIGHT, LIKES_WEIGHT, 5))
@@ -60,6 +84,7 @@ final class InfluenceAnalysisServiceImplTest {
 
   @Test
   void getMostInfluentialTalks_shouldReturnList() {
+    givenWeights();
     InfluentialTalkDto dto =
         new InfluentialTalkDtoStub(
             1L, "Test Talk", "John Doe", 2020, 1, 1000L, 100L, "http://test.com", 800.0);
@@ -76,8 +101,63 @@ final class InfluenceAnalysisServiceImplTest {
     verifyNoMoreInteractions(analyticsRepository);
   }
 
+  @Test
+  void getMostInfluentialTalks_shouldReadStoredScoresWhenCurrent() {
+    givenWeights();
+    InfluentialTalkDto dto =
+        new InfluentialTalkDtoStub(
+            1L, "Test Talk", "John Doe", 2020, 1, 1000L, 100L, "http://test.com", 730.0);
+
+    when(influenceScores.isCurrent()).thenReturn(true);
+    when(analyticsRepository.findMostInfluentialTalksByScore(5)).thenReturn(List.of(dto));
+
+    List<TedTalkResponse> result = service.getMostInfluentialTalks(5);
+
+    assertEquals(List.of(1L), result.stream().map(TedTalkResponse::id).toList());
+
+    verify(analyticsRepository).findMostInfluentialTalksByScore(5);
+    verifyNoMoreInteractions(analyticsRepository);
+  }
+
+  @Test
+  void getMostInfluentialTalks_shouldServeFromLeaderboard() {
+    TedTalkResponse talk =
+        new TedTalkResponse(
+            1L, "Test Talk", "John Doe", YearMonth.of(2020, 1), 1000, 100, "http://test.com", 730);
+    when(leaderboard.topTalks(5)).thenReturn(Optional.of(List.of(talk)));
+
+    assertEquals(List.of(talk), service.getMostInfluentialTalks(5));
+
+    verifyNoInteractions(analyticsRepository);
+  }
+
+  @Test
+  void getMostInfluentialSpeakers_shouldServeFromLeaderboard() {
+    SpeakerInfluenceResponse speaker =
+        new SpeakerInfluenceResponse("John Doe", 730, 1000, 100, 1, List.of());
+    when(leaderboard.topSpeakers(5)).thenReturn(Optional.of(List.of(speaker)));
+
+    assertEquals(List.of(speaker), service.getMostInfluentialSpeakers(5));
+
+    verifyNoInteractions(analyticsRepository);
+  }
+
+  @Test
+  void getMostInfluentialTalkByYear_shouldServeFromLeaderboard() {
+    TedTalkResponse talk =
+        new TedTalkResponse(
+            1L, "Test Talk", "John Doe", YearMonth.of(2020, 1), 1000, 100, "http://test.com", 730);
+    List<YearlyInfluenceResponse> champions = List.of(new YearlyInfluenceResponse(2020, talk));
+    when(leaderboard.championsByYear()).thenReturn(Optional.of(champions));
+
+    assertEquals(champions, service.getMostInfluentialTalkByYear());
+
+    verifyNoInteractions(analyticsRepository);
+  }
+
   @Test
   void getMostInfluentialTalkByYear_shouldReturnList() {
+    givenWeights();
     InfluentialTalkDto dto =
         new InfluentialTalkDtoStub(
             1L, "Test Talk", "John Doe", 2020, 1, 1000L, 100L, "http://test.com", 800.0);
@@ -97,6 +177,7 @@ final class InfluenceAnalysisServiceImplTest {
 
   @Test
   void getSpeakerInfluence_shouldReturnEmpty() {
+    givenWeights();
     when(analyticsRepository.findSpeakerInfluence("Unknown", VIEWS_WEIGHT, LIKES_WEIGHT))
         .thenReturn(Optional.empty());
 
@@ -110,6 +191,7 @@ final class InfluenceAnalysisServiceImplTest {
 
   @Test
   void getSpeakerInfluence_shouldReturnSpeaker() {
+    givenWeights();
     SpeakerInfluenceDto dto = new SpeakerInfluenceDtoStub("John Doe", 5000L, 500L, 1000.0, 3L);
 
     when(analyticsRepository.findSpeakerInfluence("John Doe", VIEWS_WEIGHT, LIKES_WEIGHT))
@@ -124,6 +206,80 @@ final class InfluenceAnalysisServiceImplTest {
     verifyNoMoreInteractions(analyticsRepository);
   }
 
+  @Test
+  void getMostInfluentialTalks_shouldComputeOverriddenWeightsOnceAndCacheThem() {
+    givenWeights();
+    InfluentialTalkDto dto =
+        new InfluentialTalkDtoStub(
+            1L, "Test Talk", "John Doe", 2020, 1, 1000L, 100L, "http://test.com", 550.0);
+    when(analyticsRepository.findMostInfluentialTalks(0.5, 0.5, 5)).thenReturn(List.of(dto));
+
+    List<TedTalkResponse> first = service.getMostInfluentialTalks(5, OVERRIDE);
+    List<TedTalkResponse> second = service.getMostInfluentialTalks(5, OVERRIDE);
+
+    assertEquals(first, second);
+    verify(analyticsRepository).findMostInfluentialTalks(0.5, 0.5, 5);
+    verifyNoMoreInteractions(analyticsRepository);
+    verifyNoInteractions(leaderboard);
+  }
+
+  @Test
+  void getMostInfluentialTalks_shouldReadAgainAfterWrite() {
+    givenWeights();
+    when(analyticsRepository.findMostInfluentialTalks(VIEWS_WEIGHT, LIKES_WEIGHT, 500))
+        .thenReturn(List.of());
+
+    service.getMostInfluentialTalks(500);
+    service.getMostInfluentialTalks(500);
+    dataGeneration.onTalkDeleted(new TalkDeletedEvent(1));
+    service.getMostInfluentialTalks(500);
+
+    verify(analyticsRepository, times(2))
+        .findMostInfluentialTalks(VIEWS_WEIGHT, LIKES_WEIGHT, 500);
+  }
+
+  @Test
+  void getMostInfluentialSpeakers_shouldServeDefaultWeightsFromLeaderboard() {
+    givenWeights();
+    SpeakerInfluenceResponse speaker =
+        new SpeakerInfluenceResponse("John Doe", 730, 1000, 100, 1, List.of());
+    when(leaderboard.topSpeakers(5)).thenReturn(Optional.of(List.of(speaker)));
+
+    assertEquals(
+        List.of(speaker),
+        service.getMostInfluentialSpeakers(5, new InfluenceWeights(VIEWS_WEIGHT, LIKES_WEIGHT)));
+
+    verifyNoInteractions(analyticsRepository);
+  }
+
+  @Test
+  void getSpeakerInfluence_shouldComputeUnderOverriddenWeights() {
+    SpeakerInfluenceDto dto = new SpeakerInfluenceDtoStub("John Doe", 5000L, 500L, 2750.0, 3L);
+    when(analyticsRepository.findSpeakerInfluence("John Doe", 0.5, 0.5))
+        .thenReturn(Optional.of(dto));
+
+    Optional<SpeakerInfluenceResponse> result = service.getSpeakerInfluence("John Doe", OVERRIDE);
+
+    assertEquals(2750.0, result.orElseThrow().totalInfluence());
+  }
+
+  @Test
+  void resolveWeights_shouldKeepDefaultForMissingWeight() {
+    givenWeights();
+
+    assertEquals(new InfluenceWeights(0.5, LIKES_WEIGHT), service.resolveWeights(0.5, null));
+  }
+
+  @Test
+  void changeDefaultWeights_shouldSwitchInfluenceScores() {
+    when(influenceScores.weights()).thenReturn(OVERRIDE);
+
+    service.changeDefaultWeights(new InfluenceWeightsRequest(0.5, 0.5));
+
+    verify(influenceScores).changeWeights(OVERRIDE);
+    assertEquals(0.5, service.getDefaultWeights().viewsWeight());
+  }
+
   private record InfluentialTalkDtoStub(
       Long id,
       String title,
@@ -0,0 +1,329 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.io.tedtalks.dto.InfluentialTalkDto;
+import com.io.tedtalks.dto.SpeakerInfluenceDto;
+import com.io.tedtalks.dto.SpeakerInfluenceResponse;
+import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.InfluenceWeightsChangedEvent;
+import com.io.tedtalks.event.SpeakersChangedEvent;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import com.io.tedtalks.repository.InfluenceAnalysisRepository;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+final class InfluenceLeaderboardTest {
+
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(1.0, 0.0);
+
+  @Mock private TedTalkRepository talkRepository;
+  @Mock private InfluenceAnalysisRepository analyticsRepository;
+  @Mock private InfluenceScores influenceScores;
+
+  private InfluenceLeaderboard leaderboard;
+
+  private static TedTalkEntity talk(long id, long views) {
+    return talk(id, views, 2020);
+  }
+
+  private static TedTalkEntity talk(long id, long views, int year) {
+    TedTalkEntity talk =
+        TedTalkEntity.of(
+            "Talk " + id,
+            "Author " + id,
+            YearMonth.of(year, 1),
+            views,
+            0,
+            "http://ted.com/" + id,
+            WEIGHTS);
+    ReflectionTestUtils.setField(talk, "id", id);
+    return talk;
+  }
+
+  private static InfluentialTalkDto dto(long id, long views) {
+    return dto(id, views, 2020);
+  }
+
+  private static InfluentialTalkDto dto(long id, long views, int year) {
+    return new TalkDto(id, views, year);
+  }
+
+  @BeforeEach
+  void setUp() {
+    when(influenceScores.weights()).thenReturn(WEIGHTS);
+    leaderboard =
+        new InfluenceLeaderboard(
+            talkRepository, analyticsRepository, influenceScores, Runnable::run);
+  }
+
+  private void load(List<InfluentialTalkDto> talks, List<SpeakerInfluenceDto> speakers) {
+    when(analyticsRepository.findMostInfluentialTalks(1.0, 0.0, 200)).thenReturn(talks);
+    when(analyticsRepository.findMostInfluentialSpeakers(1.0, 0.0, 200)).thenReturn(speakers);
+    leaderboard.rebuild();
+  }
+
+  private List<Long> topTalkIds(int topN) {
+    return leaderboard.topTalks(topN).orElseThrow().stream().map(TedTalkResponse::id).toList();
+  }
+
+  private void loadChampions(List<InfluentialTalkDto> champions) {
+    when(analyticsRepository.findMostInfluentialTalkPerYear(1.0, 0.0)).thenReturn(champions);
+    load(List.of(), List.of());
+  }
+
+  private List<String> champions() {
+    return leaderboard.championsByYear().orElseThrow().stream()
+        .map(yearly -> yearly.year() + ":" + yearly.mostInfluentialTalk().id())
+        .toList();
+  }
+
+  private List<String> topAuthors(int topN) {
+    return leaderboard.topSpeakers(topN).orElseThrow().stream()
+        .map(SpeakerInfluenceResponse::author)
+        .toList();
+  }
+
+  @Test
+  void topTalks_shouldServeLoadedRankingUpToMaxTopN() {
+    load(List.of(dto(1, 300), dto(2, 200), dto(3, 100)), List.of());
+
+    assertEquals(List.of(1L, 2L), topTalkIds(2));
+    assertEquals(List.of(1L, 2L, 3L), topTalkIds(100));
+    assertEquals(Optional.empty(), leaderboard.topTalks(101));
+  }
+
+  @Test
+  void onTalksSaved_shouldReRankSavedTalks() {
+    load(List.of(dto(1, 300), dto(2, 200), dto(3, 100)), List.of());
+    List<String> links = List.of("http://ted.com/3", "http://ted.com/4");
+    when(talkRepository.findAllByLinkIn(links)).thenReturn(List.of(talk(3, 400), talk(4, 250)));
+
+    leaderboard.onTalksSaved(new TalksSavedEvent(links));
+
+    assertEquals(List.of(3L, 1L, 4L, 2L), topTalkIds(10));
+  }
+
+  @Test
+  void onTalksSaved_shouldKeepOnlyTalksRankingWithinFullBoard() {
+    List<InfluentialTalkDto> top =
+        LongStream.rangeClosed(1, 200).mapToObj(id -> dto(id, 1000 - id)).toList();
+    load(top, List.of());
+    List<String> links = List.of("http://ted.com/1", "http://ted.com/500");
+    when(talkRepository.findAllByLinkIn(links)).thenReturn(List.of(talk(1, 1), talk(500, 900)));
+
+    leaderboard.onTalksSaved(new TalksSavedEvent(links));
+
+    List<Long> ids = topTalkIds(100);
+    assertEquals(List.of(2L, 3L), ids.subList(0, 2));
+    assertEquals(500L, ids.get(99));
+    assertFalse(ids.contains(1L));
+  }
+
+  @Test
+  void onTalkDeleted_shouldReloadOnlyOnceFullBoardFallsBelowMaxTopN() {
+    List<InfluentialTalkDto> top =
+        LongStream.rangeClosed(1, 200).mapToObj(id -> dto(id, 1000 - id)).toList();
+    load(top, List.of());
+
+    for (long id = 1; id <= 100; id++) {
+      leaderboard.onTalkDeleted(new TalkDeletedEvent(id));
+    }
+    verify(analyticsRepository).findMostInfluentialTalks(1.0, 0.0, 200);
+    assertEquals(101L, topTalkIds(1).getFirst());
+
+    leaderboard.onTalkDeleted(new TalkDeletedEvent(101));
+
+    verify(analyticsRepository, times(2)).findMostInfluentialTalks(1.0, 0.0, 200);
+  }
+
+  @Test
+  void onSpeakersChanged_shouldReRankChangedSpeakersAndDropSpeakersWithoutTalks() {
+    load(List.of(), List.of(new SpeakerDto("Ada", 300), new SpeakerDto("Bob", 200)));
+    List<String> authors = List.of("Ada", "Cyd");
+    when(analyticsRepository.findSpeakersByAuthorIn(authors, 1.0, 0.0))
+        .thenReturn(List.of(new SpeakerDto("Cyd", 250)));
+
+    leaderboard.onSpeakersChanged(new SpeakersChangedEvent(authors));
+
+    assertEquals(List.of("Cyd", "Bob"), topAuthors(10));
+  }
+
+  @Test
+  void championsByYear_shouldListYearsInOrderIncludingYearsOutsideArray() {
+    loadChampions(List.of(dto(1, 100, 1400), dto(2, 200, 2020), dto(3, 300, 2200)));
+
+    assertEquals(List.of("1400:1", "2020:2", "2200:3"), champions());
+  }
+
+  @Test
+  void onTalksSaved_shouldCrownTalksRankingBeforeChampionWithoutReadingYear() {
+    loadChampions(List.of(dto(1, 300, 2019), dto(2, 200, 2020)));
+    List<String> links = List.of("http://ted.com/3", "http://ted.com/4", "http://ted.com/2");
+    when(talkRepository.findAllByLinkIn(links))
+        .thenReturn(List.of(talk(3, 250, 2019), talk(4, 100, 2021), talk(2, 500, 2020)));
+
+    leaderboard.onTalksSaved(new TalksSavedEvent(links));
+
+    assertEquals(List.of("2019:1", "2020:2", "2021:4"), champions());
+    verify(analyticsRepository, never())
+        .findMostInfluentialTalkOfYear(anyInt(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  void onTalksSaved_shouldReadYearAgainWhenChampionIsDowngradedOrMoved() {
+    loadChampions(List.of(dto(1, 300, 2019), dto(2, 200, 2020)));
+    List<String> links = List.of("http://ted.com/1", "http://ted.com/2");
+    when(talkRepository.findAllByLinkIn(links))
+        .thenReturn(List.of(talk(1, 10, 2019), talk(2, 200, 2021)));
+    when(analyticsRepository.findMostInfluentialTalkOfYear(2019, 1.0, 0.0))
+        .thenReturn(Optional.of(dto(5, 50, 2019)));
+    when(analyticsRepository.findMostInfluentialTalkOfYear(2020, 1.0, 0.0))
+        .thenReturn(Optional.empty());
+
+    leaderboard.onTalksSaved(new TalksSavedEvent(links));
+
+    assertEquals(List.of("2019:5", "2021:2"), champions());
+  }
+
+  @Test
+  void onTalkDeleted_shouldReadYearAgainOnlyWhenChampionIsDeleted() {
+    loadChampions(List.of(dto(1, 300, 2019)));
+    when(analyticsRepository.findMostInfluentialTalkOfYear(2019, 1.0, 0.0))
+        .thenReturn(Optional.of(dto(5, 50, 2019)));
+
+    leaderboard.onTalkDeleted(new TalkDeletedEvent(7));
+    leaderboard.onTalkDeleted(new TalkDeletedEvent(1));
+
+    assertEquals(List.of("2019:5"), champions());
+    verify(analyticsRepository).findMostInfluentialTalkOfYear(anyInt(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  void onTalksSaved_shouldReloadWhenWeightsChanged() {
+    load(List.of(dto(1, 300)), List.of());
+    InfluenceWeights changed = new InfluenceWeights(0.5, 0.5);
+    when(influenceScores.weights()).thenReturn(changed);
+    assertEquals(Optional.empty(), leaderboard.topTalks(10));
+
+    when(analyticsRepository.findMostInfluentialTalks(0.5, 0.5, 200)).thenReturn(List.of());
+    when(analyticsRepository.findMostInfluentialSpeakers(0.5, 0.5, 200))
+        .thenReturn(List.of());
+    when(talkRepository.findAllByLinkIn(List.of("http://ted.com/2")))
+        .thenReturn(List.of(talk(2, 100)));
+
+    leaderboard.onTalksSaved(new TalksSavedEvent(List.of("http://ted.com/2")));
+
+    assertEquals(List.of(2L), topTalkIds(10));
+  }
+
+  @Test
+  void onWeightsChanged_shouldReloadBoardsUnderNewWeights() {
+    load(List.of(dto(1, 300)), List.of());
+    InfluenceWeights changed = new InfluenceWeights(0.5, 0.5);
+    when(influenceScores.weights()).thenReturn(changed);
+    when(analyticsRepository.findMostInfluentialTalks(0.5, 0.5, 200))
+        .thenReturn(List.of(dto(2, 100)));
+    when(analyticsRepository.findMostInfluentialSpeakers(0.5, 0.5, 200)).thenReturn(List.of());
+
+    leaderboard.onWeightsChanged(new InfluenceWeightsChangedEvent(changed));
+
+    assertEquals(List.of(2L), topTalkIds(10));
+  }
+
+  private record TalkDto(Long id, Long views, Integer year) implements InfluentialTalkDto {
+
+    @Override
+    public Long getId() {
+      return id;
+    }
+
+    @Override
+    public String getTitle() {
+      return "Talk " + id;
+    }
+
+    @Override
+    public String getAuthor() {
+      return "Author " + id;
+    }
+
+    @Override
+    public Integer getYearValue() {
+      return year;
+    }
+
+    @Override
+    public Integer getMonthValue() {
+      return 1;
+    }
+
+    @Override
+    public Long getViews() {
+      return views;
+    }
+
+    @Override
+    public Long getLikes() {
+      return 0L;
+    }
+
+    @Override
+    public String getLink() {
+      return "http://ted.com/" + id;
+    }
+
+    @Override
+    public Double getInfluence() {
+      return WEIGHTS.score(views, 0);
+    }
+  }
+
+  private record SpeakerDto(String author, long views) implements SpeakerInfluenceDto {
+
+    @Override
+    public String getAuthor() {
+      return author;
+    }
+
+    @Override
+    public Long getTotalViews() {
+      return views;
+    }
+
+    @Override
+    public Long getTotalLikes() {
+      return 0L;
+    }
+
+    @Override
+    public Double getTotalInfluence() {
+      return WEIGHTS.score(views, 0);
+    }
+
+    @Override
+    public Long getTalkCount() {
+      return 1L;
+    }
+  }
+}
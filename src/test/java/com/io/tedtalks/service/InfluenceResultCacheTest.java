@@ -0,0 +1,180 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+final class InfluenceResultCacheTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(0.5, 0.5);
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private final AtomicReference<Instant> now = new AtomicReference<>(NOW);
+  private final List<Runnable> refreshes = new ArrayList<>();
+  private final DataGeneration dataGeneration = new DataGeneration();
+  private InfluenceResultCache cache;
+
+  @BeforeEach
+  void setUp() {
+    TedTalksConfig config =
+        new TedTalksConfig(
+            null, new TedTalksConfig.Influence(0.7, 0.3, 2, Duration.ofSeconds(5)), null, null);
+    cache = new InfluenceResultCache(config, dataGeneration, now::get, refreshes::add);
+  }
+
+  private int get(String ranking, InfluenceWeights weights) {
+    return cache.get(ranking, 5, weights, loads::incrementAndGet);
+  }
+
+  private void write() {
+    dataGeneration.onTalksSaved(new TalksSavedEvent(List.of("http://ted.com/1")));
+  }
+
+  private void runRefreshes() {
+    List<Runnable> pending = List.copyOf(refreshes);
+    refreshes.clear();
+    pending.forEach(Runnable::run);
+  }
+
+  @Test
+  void get_shouldServeResultUntilNextWrite() {
+    now.set(NOW.minusSeconds(10));
+    assertEquals(1, get("talks", WEIGHTS));
+    now.set(NOW);
+    assertEquals(1, get("talks", WEIGHTS));
+
+    write();
+    assertEquals(2, get("talks", WEIGHTS));
+
+    dataGeneration.onTalkDeleted(new TalkDeletedEvent(1));
+    now.set(NOW.plusSeconds(10));
+    assertEquals(3, get("talks", WEIGHTS));
+    assertTrue(refreshes.isEmpty());
+  }
+
+  @Test
+  void get_shouldKeyResultsByWeights() {
+    assertEquals(1, get("talks", WEIGHTS));
+    assertEquals(2, get("talks", new InfluenceWeights(0.4, 0.6)));
+    assertEquals(1, get("talks", WEIGHTS));
+  }
+
+  @Test
+  void get_shouldEvictLeastRecentlyUsedResult() {
+    get("talks", WEIGHTS);
+    get("speakers", WEIGHTS);
+    get("talks", WEIGHTS);
+    get("talks-by-year", WEIGHTS);
+
+    assertEquals(1, get("talks", WEIGHTS));
+    assertEquals(4, get("speakers", WEIGHTS));
+  }
+
+  @Test
+  void get_shouldServeRecentStaleResultWhileOneRefreshRuns() {
+    assertEquals(1, get("talks", WEIGHTS));
+    write();
+    now.set(NOW.plusSeconds(4));
+
+    assertEquals(1, get("talks", WEIGHTS));
+    assertEquals(1, get("talks", WEIGHTS));
+    assertEquals(1, refreshes.size());
+
+    runRefreshes();
+
+    assertEquals(2, get("talks", WEIGHTS));
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_shouldNotServeStaleResultComputedDuringWriteAfterIt() {
+    cache.get(
+        "talks",
+        5,
+        WEIGHTS,
+        () -> {
+          write();
+          return loads.incrementAndGet();
+        });
+    now.set(NOW.plusSeconds(5));
+
+    assertEquals(2, get("talks", WEIGHTS));
+  }
+
+  @Test
+  void get_shouldShareComputationBetweenConcurrentCallers() throws Exception {
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicReference<Object> first = new AtomicReference<>();
+    Thread leader =
+        Thread.ofVirtual()
+            .start(
+                () ->
+                    first.set(
+                        cache.get(
+                            "speakers",
+                            5,
+                            WEIGHTS,
+                            () -> {
+                              computing.countDown();
+                              awaitQuietly(release);
+                              return List.of(loads.incrementAndGet());
+                            })));
+    assertTrue(computing.await(5, TimeUnit.SECONDS));
+
+    AtomicReference<Object> second = new AtomicReference<>();
+    Thread follower =
+        Thread.ofVirtual()
+            .start(() -> second.set(cache.get("speakers", 5, WEIGHTS, () -> List.of(-1))));
+    while (follower.getState() != Thread.State.WAITING) {
+      Thread.onSpinWait();
+    }
+    release.countDown();
+    leader.join();
+    follower.join();
+
+    assertEquals(1, loads.get());
+    assertSame(first.get(), second.get());
+  }
+
+  @Test
+  void get_shouldPropagateFailureAndComputeAgainOnNextCall() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            cache.get(
+                "talks",
+                5,
+                WEIGHTS,
+                () -> {
+                  throw new IllegalStateException("Database down");
+                }));
+
+    assertEquals(1, get("talks", WEIGHTS));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
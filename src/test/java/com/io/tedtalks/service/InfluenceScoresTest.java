@@ -0,0 +1,138 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.event.InfluenceWeightsChangedEvent;
+import com.io.tedtalks.repository.TedTalkJdbcRepository;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+final class InfluenceScoresTest {
+
+  private static final InfluenceWeights CONFIGURED = new InfluenceWeights(0.6, 0.4);
+  private static final InfluenceWeights CHANGED = new InfluenceWeights(0.5, 0.5);
+
+  @Mock private TedTalkJdbcRepository jdbcRepository;
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  private TedTalksConfig config;
+  private InfluenceScores scores;
+
+  @BeforeEach
+  void setUp() {
+    config =
+        new TedTalksConfig(
+            null,
+            new TedTalksConfig.Influence(0.6, 0.4, 256, Duration.ZERO),
+            null,
+            null);
+    scores = new InfluenceScores(jdbcRepository, config, Runnable::run, eventPublisher);
+  }
+
+  @Test
+  void constructor_shouldApplyConfiguredWeights() {
+    assertEquals(CONFIGURED, scores.weights());
+    assertFalse(scores.isCurrent());
+  }
+
+  @Test
+  void reconcile_shouldBeCurrentOnceNoRowIsStale() {
+    when(jdbcRepository.maxId()).thenReturn(1500L);
+    when(jdbcRepository.recomputeInfluence(CONFIGURED, 0, 1000)).thenReturn(0);
+    when(jdbcRepository.recomputeInfluence(CONFIGURED, 1000, 2000)).thenReturn(0);
+
+    scores.reconcile();
+
+    assertTrue(scores.isCurrent());
+  }
+
+  @Test
+  void changeWeights_shouldRepeatPassesUntilNoRowChanges() {
+    when(jdbcRepository.maxId()).thenReturn(2500L);
+    when(jdbcRepository.recomputeInfluence(eq(CHANGED), anyLong(), anyLong()))
+        .thenReturn(1000, 1000, 500, 1, 0, 0, 0, 0, 0);
+
+    scores.changeWeights(CHANGED);
+
+    assertEquals(CHANGED, scores.weights());
+    assertTrue(scores.isCurrent());
+    verify(jdbcRepository, times(3)).recomputeInfluence(CHANGED, 0, 1000);
+    verify(jdbcRepository, times(3)).recomputeInfluence(CHANGED, 2000, 3000);
+    verify(eventPublisher).publishEvent(new InfluenceWeightsChangedEvent(CHANGED));
+  }
+
+  @Test
+  void changeWeights_shouldNotRecomputeForSameWeights() {
+    scores.changeWeights(CONFIGURED);
+
+    verify(jdbcRepository, never()).maxId();
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void changeWeights_shouldStayStaleWhenRecomputeFails() {
+    when(jdbcRepository.maxId()).thenThrow(new IllegalStateException("Database down"));
+
+    scores.changeWeights(CHANGED);
+
+    assertEquals(CHANGED, scores.weights());
+    assertFalse(scores.isCurrent());
+  }
+
+  @Test
+  void changeWeights_shouldWaitForWritesHoldingPreviousWeights() {
+    scores =
+        new InfluenceScores(
+            jdbcRepository, config, command -> Thread.ofPlatform().start(command), eventPublisher);
+    when(jdbcRepository.maxId()).thenReturn(0L);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      assertEquals(CONFIGURED, scores.weightsForWrite());
+      scores.changeWeights(CHANGED);
+      assertEquals(CONFIGURED, scores.weightsForWrite());
+
+      verify(jdbcRepository, after(200).never()).maxId();
+      assertFalse(scores.isCurrent());
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(
+              synchronization ->
+                  synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    verify(jdbcRepository, timeout(5000)).maxId();
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          while (!scores.isCurrent()) {
+            Thread.onSpinWait();
+          }
+        });
+    assertEquals(CHANGED, scores.weightsForWrite());
+  }
+}
@@ -0,0 +1,50 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+final class LongLongHashMapTest {
+
+  @Test
+  void put_shouldGrowAndKeepEveryEntry() {
+    LongLongHashMap map = new LongLongHashMap(4);
+    Map<Long, Long> expected = new HashMap<>();
+    SplittableRandom random = new SplittableRandom(42);
+
+    for (int i = 0; i < 10_000; i++) {
+      long key = random.nextLong();
+      long value = random.nextLong();
+      map.put(key, value);
+      expected.put(key, value);
+    }
+
+    assertEquals(expected.size(), map.size());
+    expected.forEach(
+        (key, value) -> {
+          assertTrue(map.containsKey(key));
+          assertEquals(value, map.getOrDefault(key, 0));
+        });
+  }
+
+  @Test
+  void put_shouldReplaceValueAndHandleZeroKey() {
+    LongLongHashMap map = new LongLongHashMap(16);
+
+    map.put(0, 1);
+    map.put(0, 2);
+    map.put(7, 3);
+    map.put(7, 4);
+
+    assertEquals(2, map.size());
+    assertEquals(2, map.getOrDefault(0, -1));
+    assertEquals(4, map.getOrDefault(7, -1));
+    assertFalse(map.containsKey(8));
+    assertEquals(-1, map.getOrDefault(8, -1));
+  }
+}
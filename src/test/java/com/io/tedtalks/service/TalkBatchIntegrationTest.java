@@ -0,0 +1,69 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.dto.TalkBatchOperation;
+import com.io.tedtalks.dto.TalkBatchResponse;
+import com.io.tedtalks.dto.TalkSuggestion;
+import com.io.tedtalks.dto.TedTalkRequest;
+import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.dto.TotalCount;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+@SpringBootTest
+final class TalkBatchIntegrationTest {
+
+  private static final String LINK = "http://ted.com/batch-update";
+
+  @Autowired private TedTalkService tedTalkService;
+
+  @Autowired private InfluenceAnalysisService influenceAnalysisService;
+
+  @Test
+  void applyBatch_shouldServeUpdatedTalkFromSearchSuggestionsAndRankings() {
+    TedTalkResponse talk =
+        tedTalkService.createTalk(
+            new TedTalkRequest("Ordinary Gardens", "John Doe", YearMonth.of(2020, 1), 10, 1, LINK));
+    TedTalkRequest changed =
+        new TedTalkRequest(
+            "Quantum Gardens", "John Doe", YearMonth.of(2020, 1), 1_000_000, 1_000, LINK);
+
+    TalkBatchResponse response =
+        tedTalkService.applyBatch(
+            List.of(new TalkBatchOperation(TalkBatchOperation.Type.UPDATE, talk.id(), changed))
+                .iterator());
+
+    assertEquals(1, response.succeeded());
+    List<TedTalkResponse> found =
+        tedTalkService
+            .getTalks(
+                null,
+                null,
+                "quantum",
+                new PaginationParams(0, 10, "id", Sort.Direction.ASC),
+                TotalCount.NONE)
+            .rows();
+    assertEquals(List.of(talk.id()), found.stream().map(TedTalkResponse::id).toList());
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          while (tedTalkService.suggest("quantum", 5).isEmpty()) {
+            Thread.sleep(50);
+          }
+        });
+    assertEquals(
+        List.of("Quantum Gardens"),
+        tedTalkService.suggest("quantum", 5).stream().map(TalkSuggestion::title).toList());
+    TedTalkResponse ranked = influenceAnalysisService.getMostInfluentialTalks(1).getFirst();
+    assertEquals("Quantum Gardens", ranked.title());
+    assertEquals(1_000_000, ranked.views());
+  }
+}
@@ -0,0 +1,68 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.repository.TedTalkJdbcRepository;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class TalkCountEstimatorTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+  @Mock private TedTalkRepository repository;
+  @Mock private TedTalkJdbcRepository jdbcRepository;
+  @Mock private TedTalksConfig config;
+  @Mock private InstantSource clock;
+
+  private TalkCountEstimator estimator;
+
+  @BeforeEach
+  void setUp() {
+    estimator = new TalkCountEstimator(repository, jdbcRepository, config, clock);
+  }
+
+  private void mockListingConfig() {
+    when(config.listing())
+        .thenReturn(
+            new TedTalksConfig.Listing(
+                10,
+                Duration.ofSeconds(60),
+                TedTalksConfig.Listing.KeywordSearch.PREFIX,
+                Duration.ofSeconds(1)));
+  }
+
+  @Test
+  void estimate_shouldUseTableStatisticsWithoutFilters() {
+    when(jdbcRepository.estimateRowCount()).thenReturn(1234L);
+
+    assertEquals(1234, estimator.estimate(null, null, null));
+    verify(repository, never()).countByFilters(null, null, null);
+  }
+
+  @Test
+  void estimate_shouldScaleCachedCountUntilItExpires() {
+    mockListingConfig();
+    when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(30), NOW.plusSeconds(61));
+    when(jdbcRepository.estimateRowCount()).thenReturn(100L, 200L, 200L);
+    when(repository.countByFilters("John", 2020, null)).thenReturn(10L, 25L);
+
+    assertEquals(10, estimator.estimate("John", 2020, null));
+    assertEquals(20, estimator.estimate("JOHN", 2020, null));
+    assertEquals(25, estimator.estimate("John", 2020, null));
+    verify(repository, times(2)).countByFilters("John", 2020, null);
+  }
+}
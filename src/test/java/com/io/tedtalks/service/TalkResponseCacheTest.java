@@ -0,0 +1,140 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.TalkCacheStats;
+import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+final class TalkResponseCacheTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(0.7, 0.3);
+
+  @Mock private InstantSource clock;
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private TalkResponseCache cache;
+
+  @BeforeEach
+  void setUp() {
+    TedTalksConfig config =
+        new TedTalksConfig(
+            null, null, null, new TedTalksConfig.TalkCache(2, Duration.ofSeconds(60)));
+    cache = new TalkResponseCache(config, clock);
+  }
+
+  private static TedTalkResponse talk(long id) {
+    return new TedTalkResponse(
+        id, "Talk " + id, "Author", YearMonth.of(2020, 1), 1000, 100, "http://ted.com/" + id, 730);
+  }
+
+  private TedTalkResponse get(long id) {
+    return get(id, WEIGHTS);
+  }
+
+  private TedTalkResponse get(long id, InfluenceWeights weights) {
+    return cache.get(
+        id,
+        weights,
+        () -> {
+          loads.incrementAndGet();
+          return talk(id);
+        });
+  }
+
+  @Test
+  void get_shouldServeRepeatedLookupsUntilExpired() {
+    when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(59), NOW.plusSeconds(60));
+
+    get(1);
+    get(1);
+    get(1);
+
+    assertEquals(2, loads.get());
+    assertEquals(new TalkCacheStats(1, 2, 1, 2, 1, 0), cache.stats());
+  }
+
+  @Test
+  void get_shouldReadAgainUnderOtherWeights() {
+    when(clock.instant()).thenReturn(NOW);
+
+    get(1);
+    get(1, new InfluenceWeights(0.5, 0.5));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_shouldEvictLeastRecentlyReadTalk() {
+    when(clock.instant()).thenReturn(NOW);
+
+    get(1);
+    get(2);
+    get(1);
+    get(3);
+    get(1);
+    get(2);
+
+    assertEquals(4, loads.get());
+    assertEquals(2, cache.stats().evictions());
+  }
+
+  @Test
+  void onTalksSaved_shouldInvalidateOnlySavedTalks() {
+    when(clock.instant()).thenReturn(NOW);
+    get(1);
+    get(2);
+
+    cache.onTalksSaved(new TalksSavedEvent(List.of("http://ted.com/1", "http://ted.com/9")));
+    get(1);
+    get(2);
+
+    assertEquals(3, loads.get());
+    assertEquals(1, cache.stats().invalidations());
+  }
+
+  @Test
+  void onTalkDeleted_shouldInvalidateDeletedTalk() {
+    when(clock.instant()).thenReturn(NOW);
+    get(1);
+
+    cache.onTalkDeleted(new TalkDeletedEvent(1));
+    get(1);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_shouldNotCacheTalkReadBeforeConcurrentWrite() {
+    when(clock.instant()).thenReturn(NOW);
+
+    cache.get(
+        1,
+        WEIGHTS,
+        () -> {
+          cache.onTalksSaved(new TalksSavedEvent(List.of("http://ted.com/1")));
+          return talk(1);
+        });
+    get(1);
+
+    assertEquals(1, loads.get());
+    assertEquals(0, cache.stats().hits());
+  }
+}
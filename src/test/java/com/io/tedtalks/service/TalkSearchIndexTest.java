@@ -0,0 +1,234 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.PageCursor;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+final class TalkSearchIndexTest {
+
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(0.7, 0.3);
+
+  private static final List<TedTalkEntity> TALKS =
+      List.of(
+          talk(1, "The future of artificial intelligence", "Jane Smith", 2020, 500),
+          talk(2, "Why we sleep", "Matthew Walker", 2019, 900),
+          talk(3, "How artificial intelligence learns", "Futura Lee", 2021, 300),
+          talk(4, "Intelligence in nature", "John Future", 2020, 700));
+
+  @Mock private TedTalkRepository repository;
+
+  private TalkSearchIndex index;
+
+  private static TedTalkEntity talk(long id, String title, String author, int year, long views) {
+    TedTalkEntity talk =
+        TedTalkEntity.of(
+            title,
+            author,
+            YearMonth.of(year, 1),
+            views,
+            10,
+            "http://ted.com/" + id,
+            WEIGHTS);
+    ReflectionTestUtils.setField(talk, "id", id);
+    return talk;
+  }
+
+  @BeforeEach
+  void setUp() throws IOException {
+    TedTalksConfig config =
+        new TedTalksConfig(
+            null,
+            null,
+            new TedTalksConfig.Listing(
+                10,
+                Duration.ofSeconds(60),
+                TedTalksConfig.Listing.KeywordSearch.FULL_TEXT,
+                Duration.ofSeconds(1)),
+            null);
+    index = new TalkSearchIndex(repository, config);
+
+    rebuildWith(TALKS);
+  }
+
+  private void rebuildWith(List<TedTalkEntity> talks) {
+    storeTalks(talks);
+    index.rebuild();
+  }
+
+  private void storeTalks(List<TedTalkEntity> talks) {
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<List<TedTalkEntity>>>getArgument(1).accept(talks);
+              return null;
+            })
+        .when(repository)
+        .forEachBatch(anyInt(), any());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    index.destroy();
+  }
+
+  private List<Long> ids(TalkSearchIndex.Result result) {
+    return result.hits().stream().map(TalkSearchIndex.Hit::id).toList();
+  }
+
+  private TalkSearchIndex.Result search(String keyword, String sortBy, Sort.Direction direction) {
+    return index.search(null, null, keyword, sortBy, direction, null, 0, 10);
+  }
+
+  @Test
+  void search_shouldMatchWordsAnywhereInTitleOrAuthor() {
+    assertEquals(List.of(1L, 3L), ids(search("artificial", "id", Sort.Direction.ASC)));
+    assertEquals(List.of(2L), ids(search("walker", "id", Sort.Direction.ASC)));
+    assertEquals(List.of(1L, 3L), ids(search("intelligence artificial", "id", Sort.Direction.ASC)));
+  }
+
+  @Test
+  void search_shouldMatchLastWordAsPrefix() {
+    assertEquals(List.of(1L, 3L, 4L), ids(search("futur", "id", Sort.Direction.ASC)));
+    assertEquals(List.of(), ids(search("futur sleep", "id", Sort.Direction.ASC)));
+  }
+
+  @Test
+  void search_shouldRankTitleMatchesFirstByRelevance() {
+    List<Long> ids = ids(search("future", "relevance", Sort.Direction.DESC));
+
+    assertEquals(List.of(1L, 4L), ids);
+  }
+
+  @Test
+  void search_shouldApplyAuthorAndYearFilters() {
+    TalkSearchIndex.Result result =
+        index.search("john", 2020, "intelligence", "id", Sort.Direction.ASC, null, 0, 10);
+
+    assertEquals(List.of(4L), ids(result));
+    assertEquals(2, index.count(null, 2020, "intelligence"));
+  }
+
+  @Test
+  void search_shouldWalkPagesAfterCursor() {
+    for (String sortBy : List.of("id", "title", "views", "relevance")) {
+      List<Long> expected = ids(search("intelligence", sortBy, Sort.Direction.DESC));
+      List<Long> walked = new ArrayList<>();
+      PageCursor cursor = null;
+      do {
+        TalkSearchIndex.Result page =
+            index.search(null, null, "intelligence", sortBy, Sort.Direction.DESC, cursor, 0, 1);
+        if (page.hits().isEmpty()) {
+          break;
+        }
+        TalkSearchIndex.Hit last = page.hits().getLast();
+        walked.add(last.id());
+        cursor = new PageCursor(sortBy, Sort.Direction.DESC, last.sortValue(), last.id());
+      } while (true);
+
+      assertEquals(3, expected.size(), sortBy);
+      assertEquals(expected, walked, sortBy);
+    }
+  }
+
+  @Test
+  void search_shouldSkipOffsetAndReportExactTotal() {
+    TalkSearchIndex.Result result =
+        index.search(null, null, "intelligence", "views", Sort.Direction.ASC, null, 1, 10);
+
+    assertEquals(List.of(1L, 4L), ids(result));
+    assertEquals(3, result.totalHits());
+    assertTrue(result.exact());
+  }
+
+  @Test
+  void onTalksSaved_shouldReplaceIndexedDocument() {
+    TedTalkEntity renamed = talk(2, "Why we dream", "Matthew Walker", 2019, 900);
+    when(repository.findAllByLinkIn(List.of("http://ted.com/2"))).thenReturn(List.of(renamed));
+
+    index.onTalksSaved(new TalksSavedEvent(List.of("http://ted.com/2")));
+
+    assertEquals(List.of(), ids(search("sleep", "id", Sort.Direction.ASC)));
+    assertEquals(List.of(2L), ids(search("dream", "id", Sort.Direction.ASC)));
+  }
+
+  @Test
+  void onTalksSaved_shouldSearchDatabaseUntilRebuiltAfterFailure() {
+    List<String> links = List.of("http://ted.com/5");
+    when(repository.findAllByLinkIn(links)).thenThrow(new IllegalStateException("Connection lost"));
+    doThrow(new IllegalStateException("Connection lost"))
+        .when(repository)
+        .forEachBatch(anyInt(), any());
+
+    index.onTalksSaved(new TalksSavedEvent(links));
+    assertFalse(index.isEnabled());
+
+    List<TedTalkEntity> stored = new ArrayList<>(TALKS.subList(0, 3));
+    stored.add(talk(5, "Sleeping giants", "Ann Lee", 2022, 100));
+    storeTalks(stored);
+    index.onTalkDeleted(new TalkDeletedEvent(4L));
+
+    assertTrue(index.isEnabled());
+    assertEquals(List.of(2L, 5L), ids(search("slee", "id", Sort.Direction.ASC)));
+    assertEquals(4, index.count(null, null, null));
+  }
+
+  @Test
+  void onTalksSaved_shouldRebuildAfterFailedUpdate() {
+    List<String> links = List.of("http://ted.com/2");
+    when(repository.findAllByLinkIn(links)).thenThrow(new IllegalStateException("Connection lost"));
+
+    index.onTalksSaved(new TalksSavedEvent(links));
+
+    assertTrue(index.isEnabled());
+    assertEquals(List.of(2L), ids(search("sleep", "id", Sort.Direction.ASC)));
+  }
+
+  @Test
+  void onTalkDeleted_shouldRemoveDocument() {
+    index.onTalkDeleted(new TalkDeletedEvent(1L));
+
+    assertEquals(List.of(3L), ids(search("artificial", "id", Sort.Direction.ASC)));
+  }
+
+  @Test
+  void search_shouldMatchNothingForKeywordWithoutWords() {
+    TalkSearchIndex.Result result = search("!!!", "id", Sort.Direction.ASC);
+
+    assertTrue(result.hits().isEmpty());
+    assertEquals(4, ids(search(null, "id", Sort.Direction.ASC)).size());
+  }
+
+  @Test
+  void rebuild_shouldReplacePreviousDocuments() {
+    rebuildWith(TALKS.subList(0, 2));
+
+    assertEquals(2, index.count(null, null, null));
+  }
+}
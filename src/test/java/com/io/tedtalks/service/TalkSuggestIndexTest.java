@@ -0,0 +1,152 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.io.tedtalks.dto.TalkSuggestion;
+import com.io.tedtalks.entity.InfluenceWeights;
+import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
+import com.io.tedtalks.repository.TedTalkRepository;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+final class TalkSuggestIndexTest {
+
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(0.7, 0.3);
+
+  @Mock private TedTalkRepository repository;
+
+  private TalkSuggestIndex index;
+
+  private static TedTalkEntity talk(long id, String title, String author, long views) {
+    TedTalkEntity talk =
+        TedTalkEntity.of(
+            title,
+            author,
+            YearMonth.of(2020, 1),
+            views,
+            10,
+            "http://ted.com/" + id,
+            WEIGHTS);
+    ReflectionTestUtils.setField(talk, "id", id);
+    return talk;
+  }
+
+  @BeforeEach
+  void setUp() {
+    rebuild(
+        List.of(
+            talk(1, "The future of artificial intelligence", "Jane Smith", 500),
+            talk(2, "Why we sleep", "Matthew Walker", 900),
+            talk(3, "How artificial intelligence learns", "Futura Lee", 300),
+            talk(4, "Intelligence in nature", "John Future", 700)));
+  }
+
+  private void rebuild(List<TedTalkEntity> talks) {
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<List<TedTalkEntity>>>getArgument(1).accept(talks);
+              return null;
+            })
+        .when(repository)
+        .forEachBatch(anyInt(), any());
+
+    index = new TalkSuggestIndex(repository);
+    index.rebuild();
+  }
+
+  private List<Long> suggest(String query, int limit) {
+    return index.suggest(query, limit).stream().map(TalkSuggestion::id).toList();
+  }
+
+  @Test
+  void suggest_shouldMatchWordPrefixesMostViewedFirst() {
+    assertEquals(List.of(4L, 1L, 3L), suggest("Fut", 10));
+    assertEquals(List.of(4L, 1L, 3L), suggest("intel", 10));
+    assertEquals(List.of(2L), suggest("walk", 10));
+  }
+
+  @Test
+  void suggest_shouldRequireEveryWordAndStopAtLimit() {
+    assertEquals(List.of(1L, 3L), suggest("art intel", 10));
+    assertEquals(List.of(4L, 1L), suggest("intel, future", 10));
+    assertEquals(List.of(4L, 1L), suggest("i", 2));
+    assertEquals(List.of(), suggest("sleep future", 10));
+    assertEquals(List.of(), suggest("!!", 10));
+  }
+
+  @Test
+  void suggest_shouldFilterShortPrefixWhenLongPrefixStartsManyWords() {
+    String manyWords =
+        IntStream.range(0, 20)
+            .mapToObj(i -> "quant" + (char) ('a' + i))
+            .collect(Collectors.joining(" "));
+    rebuild(
+        List.of(
+            talk(1, manyWords, "Jane Smith", 500),
+            talk(2, "Quantum leaps", "Matthew Walker", 100),
+            talk(3, "Quasars", "Quentin Quaid", 900)));
+
+    assertEquals(List.of(1L, 2L), suggest("quant", 10));
+    assertEquals(List.of(2L), suggest("quantu", 10));
+    assertEquals(List.of(3L, 1L, 2L), suggest("qua", 10));
+    assertEquals(List.of(1L), suggest("quant sm", 10));
+  }
+
+  @Test
+  void suggest_shouldReflectWritesBeforeRefresh() {
+    when(repository.findAllByLinkIn(List.of("http://ted.com/2", "http://ted.com/5")))
+        .thenReturn(
+            List.of(
+                talk(2, "Why we dream", "Matthew Walker", 900),
+                talk(5, "Futures of dreams", "Ann Lee", 600)));
+
+    index.onTalksSaved(new TalksSavedEvent(List.of("http://ted.com/2", "http://ted.com/5")));
+    index.onTalkDeleted(new TalkDeletedEvent(4L));
+
+    assertEquals(List.of(), suggest("sle", 10));
+    assertEquals(List.of(2L, 5L), suggest("dre", 10));
+    assertEquals(List.of(5L, 1L, 3L), suggest("fut", 10));
+    assertEquals(List.of(5L, 1L), suggest("fut", 2));
+  }
+
+  @Test
+  void refresh_shouldMergeManyWritesIntoSnapshot() {
+    List<TedTalkEntity> saved = new ArrayList<>();
+    for (long id = 10; id < 1_200; id++) {
+      saved.add(talk(id, "Imported talk " + id, "Importer", id));
+    }
+    saved.add(talk(2, "Why we dream", "Matthew Walker", 900));
+    List<String> links = saved.stream().map(TedTalkEntity::getLink).toList();
+    when(repository.findAllByLinkIn(links)).thenReturn(saved);
+    index.onTalksSaved(new TalksSavedEvent(links));
+    index.onTalkDeleted(new TalkDeletedEvent(4L));
+    List<Long> imported = suggest("imported", 3);
+
+    index.refresh();
+    index.onTalkDeleted(new TalkDeletedEvent(1_199L));
+
+    assertEquals(List.of(1_199L, 1_198L, 1_197L), imported);
+    assertEquals(List.of(1_198L, 1_197L, 1_196L), suggest("imported", 3));
+    assertEquals(List.of(2L), suggest("dre", 10));
+    assertEquals(List.of(), suggest("sle", 10));
+    assertEquals(List.of(1L, 3L), suggest("fut", 10));
+    assertEquals(List.of(501L, 1L, 500L), suggest("i", 1_000).subList(697, 700));
+  }
+}
@@ -0,0 +1,159 @@
+package com.io.tedtalks.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.io.tedtalks.exception.CsvImportException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+final class TedTalkCsvParserTest {
+
+  private static final String HEADER = "title,author,date,views,likes,link\n";
+
+  private final List<Row> rows = new ArrayList<>();
+  private final List<Long> invalid = new ArrayList<>();
+
+  private final TedTalkCsvParser.RowHandler handler =
+      new TedTalkCsvParser.RowHandler() {
+        @Override
+        public void onRow(
+            String title, String author, int year, int month, long views, long likes, String link) {
+          rows.add(new Row(title, author, year, month, views, likes, link));
+        }
+
+        @Override
+        public void onInvalidRow(long recordNumber) {
+          invalid.add(recordNumber);
+        }
+      };
+
+  private void parse(String csv) throws IOException {
+    TedTalkCsvParser.withHeader(handler).parse(new StringReader(csv));
+  }
+
+  @Test
+  void parse_shouldDecodeRows() throws IOException {
+    parse(HEADER + "Talk 1,John Doe,January 2020,1000,100,http://test.com/1\n");
+
+    assertEquals(
+        List.of(new Row("Talk 1", "John Doe", 2020, 1, 1000, 100, "http://test.com/1")), rows);
+  }
+
+  @Test
+  void parse_shouldHandleQuotedFields() throws IOException {
+    parse(
+        HEADER
+            + "\"Hello, \"\"World\"\"\nPart 2\", \"Doe, John\" ,Sep 2019,\"42\",7,http://x\r\n");
+
+    assertEquals(
+        List.of(new Row("Hello, \"World\"\nPart 2", "Doe, John", 2019, 9, 42, 7, "http://x")),
+        rows);
+  }
+
+  @Test
+  void parse_shouldMapColumnsByHeaderName() throws IOException {
+    parse("LINK, Views ,extra,Title,Author,Date,Likes\nhttp://x,5,ignored,Talk,Jane,May 2021,3\n");
+
+    assertEquals(List.of(new Row("Talk", "Jane", 2021, 5, 5, 3, "http://x")), rows);
+  }
+
+  @Test
+  void parse_shouldDefaultUnparsableCountsToZero() throws IOException {
+    parse(HEADER + "Talk,Jane,May 2021,\"1,000\",-3,http://x\nTalk,Jane,May 2021,,1 2,http://y\n");
+
+    assertEquals(0, rows.get(0).views());
+    assertEquals(0, rows.get(0).likes());
+    assertEquals(0, rows.get(1).views());
+    assertEquals(0, rows.get(1).likes());
+  }
+
+  @Test
+  void parse_shouldSkipInvalidRowsAndEmptyLines() throws IOException {
+    parse(
+        HEADER
+            + "\n"
+            + ",John Doe,January 2020,1,1,http://x\n"
+            + "Talk,John Doe,Janvier 2020,1,1,http://x\n"
+            + "Talk,John Doe,January 20,1,1,http://x\n"
+            + "Talk,John Doe,January 2020,1,1\n"
+            + "Talk,John Doe,Dec 2020,1,1,http://x");
+
+    assertEquals(1, rows.size());
+    assertEquals(12, rows.getFirst().month());
+    assertEquals(List.of(1L, 2L, 3L, 4L), invalid);
+  }
+
+  @Test
+  void parse_shouldRejectMissingRequiredColumn() {
+    assertThrows(CsvImportException.class, () -> parse("title,author,views\nTalk,Jane,1\n"));
+  }
+
+  @Test
+  void feed_shouldHandleRecordsSplitAcrossSlices() {
+    String csv = HEADER + "\"Talk, one\",John Doe,March 2020,1000,100,http://test.com/1\n";
+    TedTalkCsvParser parser = TedTalkCsvParser.withHeader(handler);
+
+    for (char c : csv.toCharArray()) {
+      parser.feed(new char[] {c}, 0, 1);
+    }
+    parser.finish();
+
+    assertEquals(
+        List.of(new Row("Talk, one", "John Doe", 2020, 3, 1000, 100, "http://test.com/1")), rows);
+  }
+
+  @Test
+  void withColumnLayout_shouldParseHeaderlessSlices() throws IOException {
+    TedTalkCsvParser headerParser = TedTalkCsvParser.withHeader(handler);
+    headerParser.parse(new StringReader(HEADER));
+
+    TedTalkCsvParser.withColumnLayout(handler, headerParser.columnLayout())
+        .parse(new StringReader("Talk,Jane,May 2021,3,1,http://x\n"));
+
+    assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5}, headerParser.columnLayout());
+    assertEquals(List.of(new Row("Talk", "Jane", 2021, 5, 3, 1, "http://x")), rows);
+  }
+
+  @Test
+  void onRecordEnd_shouldReportUtf8ByteOffsets() throws IOException {
+    String first = "Caf\u00e9 \ud83d\ude00,\u00c5sa,May 2021,3,1,http://x\n";
+    String second = "\"Two\nlines\",Jane,May 2021,3,1,http://y";
+    List<Long> offsets = new ArrayList<>();
+
+    TedTalkCsvParser.withHeader(
+            new TedTalkCsvParser.RowHandler() {
+              @Override
+              public void onRow(
+                  String title,
+                  String author,
+                  int year,
+                  int month,
+                  long views,
+                  long likes,
+                  String link) {}
+
+              @Override
+              public void onInvalidRow(long recordNumber) {}
+
+              @Override
+              public void onRecordEnd(long byteOffset) {
+                offsets.add(byteOffset);
+              }
+            })
+        .parse(new StringReader(HEADER + first + second));
+
+    long header = HEADER.getBytes(StandardCharsets.UTF_8).length;
+    long firstEnd = header + first.getBytes(StandardCharsets.UTF_8).length;
+    assertEquals(
+        List.of(firstEnd, firstEnd + second.getBytes(StandardCharsets.UTF_8).length), offsets);
+  }
+
+  private record Row(
+      String title, String author, int year, int month, long views, long likes, String link) {}
+}
@@ -2,40 +2,83 @@ package com.io.tedtalks.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.io.tedtalks.config.TedTalksConfig;
+import com.io.tedtalks.dto.PageCursor;
 import com.io.tedtalks.dto.PagedResponse;
+import com.io.tedtalks.dto.PaginationParams;
+import com.io.tedtalks.dto.TalkBatchOperation;
+import com.io.tedtalks.dto.TalkBatchResponse;
+import com.io.tedtalks.dto.TalkBatchResult;
 import com.io.tedtalks.dto.TedTalkRequest;
 import com.io.tedtalks.dto.TedTalkResponse;
+import com.io.tedtalks.dto.TotalCount;
+import com.io.tedtalks.entity.InfluenceWeights;
 import com.io.tedtalks.entity.TedTalkEntity;
+import com.io.tedtalks.event.SpeakersChangedEvent;
+import com.io.tedtalks.event.TalkDeletedEvent;
+import com.io.tedtalks.event.TalksSavedEvent;
 import com.io.tedtalks.exception.ResourceNotFoundException;
+import com.io.tedtalks.repository.SpeakerStatsRepository;
+import com.io.tedtalks.repository.TedTalkJdbcRepository;
 import com.io.tedtalks.repository.TedTalkRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
 import java.time.YearMonth;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 final class TedTalkServiceImplTest {
 
   private static final double VIEWS_WEIGHT = 0.7;
   private static final double LIKES_WEIGHT = 0.3;
+  private static final InfluenceWeights WEIGHTS = new InfluenceWeights(VIEWS_WEIGHT, LIKES_WEIGHT);
+  private static final Validator VALIDATOR =
+      Validation.buildDefaultValidatorFactory().getValidator();
 
   @Mock private TedTalkRepository repository;
+  @Mock private TedTalkJdbcRepository jdbcRepository;
+  @Mock private SpeakerStatsRepository speakerStatsRepository;
   @Mock private TedTalksConfig config;
-  @Mock private TedTalksConfig.Influence influenceConfig;
+  @Mock private TedTalksConfig.Csv csvConfig;
+  @Mock private TalkCountEstimator countEstimator;
+  @Mock private TalkSearchIndex searchIndex;
+  @Mock private TalkSuggestIndex suggestIndex;
+  @Mock private InfluenceScores influenceScores;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Mock private ApplicationEventPublisher eventPublisher;
 
   private TedTalkServiceImpl service;
 
@@ -58,23 +101,70 @@ final class TedTalkServiceImplTest {
         YearMonth.of(2020, 1),
         1000,
         100,
-        "http://test.com/" + title.replace(" ", "-"));
+        "http://test.com/" + title.replace(" ", "-"),
+        WEIGHTS);
+  }
+
+  private static TedTalkJdbcRepository.StoredTalk stored(String title, long id) {
+    return new TedTalkJdbcRepository.StoredTalk(
+        id, "John Doe", 1000, 100, "http://test.com/" + title.replace(" ", "-"));
+  }
+
+  private static TedTalkEntity entity(String title, long id) {
+    TedTalkEntity entity = entity(title);
+    ReflectionTestUtils.setField(entity, "id", id);
+    return entity;
   }
 
   @BeforeEach
   void setUp() {
-    service = new TedTalkServiceImpl(repository, config);
+    service = new TedTalkServiceImpl(
+            repository,
+            jdbcRepository,
+            speakerStatsRepository,
+            config,
+            countEstimator,
+            searchIndex,
+            suggestIndex,
+            influenceScores,
+            new TalkResponseCache(
+                new TedTalksConfig(
+                    null, null, null, new TedTalksConfig.TalkCache(100, Duration.ofMinutes(5))),
+                InstantSource.fixed(Instant.EPOCH)),
+            new TransactionTemplate(transactionManager),
+            VALIDATOR,
+            eventPublisher);
+  }
+
+  private static TalkBatchOperation create(TedTalkRequest talk) {
+    return new TalkBatchOperation(TalkBatchOperation.Type.CREATE, null, talk);
+  }
+
+  private static TalkBatchOperation update(long id, TedTalkRequest talk) {
+    return new TalkBatchOperation(TalkBatchOperation.Type.UPDATE, id, talk);
+  }
+
+  private static TalkBatchOperation delete(long id) {
+    return new TalkBatchOperation(TalkBatchOperation.Type.DELETE, id, null);
+  }
+
+  private void givenBatchSize(int batchSize) {
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.batchSize()).thenReturn(batchSize);
+  }
+
+  private void mockInfluenceWeights() {
+    when(influenceScores.weights()).thenReturn(WEIGHTS);
   }
 
-  private void mockInfluenceConfig() {
-    when(config.influence()).thenReturn(influenceConfig);
-    when(influenceConfig.viewsWeight()).thenReturn(VIEWS_WEIGHT);
-    when(influenceConfig.likesWeight()).thenReturn(LIKES_WEIGHT);
+  private void mockWriteWeights() {
+    when(influenceScores.weightsForWrite()).thenReturn(WEIGHTS);
   }
 
   @Test
   void createTalk_shouldSaveAndReturnTalk() {
-    mockInfluenceConfig();
+    mockInfluenceWeights();
+    mockWriteWeights();
 
     TedTalkRequest request = request("Test Talk", "John Doe", 2020, 1);
     TedTalkEntity entity = entity("Test Talk");
@@ -85,11 +175,15 @@ final class TedTalkServiceImplTest {
 
     assertEquals("Test Talk", response.title());
     verify(repository).save(any(TedTalkEntity.class));
+    verify(speakerStatsRepository)
+        .applyOnCommit(List.of(SpeakerStatsRepository.Delta.added(entity)));
+    verify(eventPublisher).publishEvent(new TalksSavedEvent(List.of(entity.getLink())));
   }
 
   @Test
   void updateTalk_shouldUpdateAndReturnTalk() {
-    mockInfluenceConfig();
+    mockInfluenceWeights();
+    mockWriteWeights();
 
     TedTalkRequest request = request("Updated Talk", "Jane Doe", 2021, 5);
     TedTalkEntity entity = entity("Old Talk");
@@ -100,9 +194,21 @@ final class TedTalkServiceImplTest {
 
     assertNotNull(response);
     assertEquals("Updated Talk", response.title());
+    assertEquals(WEIGHTS.score(1000, 100), entity.getInfluence());
 
     verify(repository).findById(1L);
     verify(repository, never()).save(any());
+    verify(speakerStatsRepository)
+        .applyOnCommit(
+            List.of(
+                new SpeakerStatsRepository.Delta("John Doe", -1000, -100, -1),
+                new SpeakerStatsRepository.Delta("Jane Doe", 1000, 100, 1)));
+    verify(eventPublisher)
+        .publishEvent(new SpeakersChangedEvent(List.of("John Doe", "Jane Doe")));
+    verify(eventPublisher)
+        .publishEvent(
+            new TalksSavedEvent(
+                List.of("http://test.com/Updated-Talk", "http://test.com/Old-Talk")));
   }
 
   @Test
@@ -116,23 +222,28 @@ final class TedTalkServiceImplTest {
 
   @Test
   void deleteTalk_shouldDeleteTalk() {
-    when(repository.existsById(1L)).thenReturn(true);
+    TedTalkEntity entity = entity("Test Talk", 1L);
+    when(repository.findById(1L)).thenReturn(Optional.of(entity));
 
     service.deleteTalk(1L);
 
-    verify(repository).deleteById(1L);
+    verify(repository).delete(entity);
+    verify(speakerStatsRepository)
+        .applyOnCommit(List.of(SpeakerStatsRepository.Delta.removed(entity)));
+    verify(eventPublisher).publishEvent(new TalkDeletedEvent(1L));
   }
 
   @Test
   void deleteTalk_shouldThrowExceptionWhenNotFound() {
-    when(repository.existsById(1L)).thenReturn(false);
+    when(repository.findById(1L)).thenReturn(Optional.empty());
 
     assertThrows(ResourceNotFoundException.class, () -> service.deleteTalk(1L));
+    verify(repository, never()).delete(any());
   }
 
   @Test
   void getTalkById_shouldReturnTalk() {
-    mockInfluenceConfig();
+    mockInfluenceWeights();
 
     when(repository.findById(1L)).thenReturn(Optional.of(entity("Test Talk")));
 
@@ -141,6 +252,19 @@ final class TedTalkServiceImplTest {
     assertEquals("Test Talk", response.title());
   }
 
+  @Test
+  void getTalkById_shouldServeRepeatedLookupsFromCache() {
+    mockInfluenceWeights();
+    when(repository.findById(1L)).thenReturn(Optional.of(entity("Test Talk", 1L)));
+
+    service.getTalkById(1L);
+    TedTalkResponse response = service.getTalkById(1L);
+
+    assertEquals("Test Talk", response.title());
+    verify(repository).findById(1L);
+    assertEquals(1, service.getCacheStats().hits());
+  }
+
   @Test
   void getTalkById_shouldThrowExceptionWhenNotFound() {
     when(repository.findById(1L)).thenReturn(Optional.empty());
@@ -150,16 +274,377 @@ final class TedTalkServiceImplTest {
 
   @Test
   void getTalks_shouldReturnPagedResponse() {
-    mockInfluenceConfig();
+    mockInfluenceWeights();
 
     Page<TedTalkEntity> page = new PageImpl<>(List.of(entity("Test Talk")));
 
     when(repository.findByFilters(any(), any(), any(), any(PageRequest.class))).thenReturn(page);
 
+    PaginationParams params = PaginationParams.of(0, 10, "id", null);
     PagedResponse<TedTalkResponse> response =
-        service.getTalks("John", 2020, "test", PageRequest.of(0, 10));
+        service.getTalks("John", 2020, "test", params, TotalCount.EXACT);
 
     assertEquals(1, response.rows().size());
     assertEquals("Test Talk", response.rows().get(0).title());
+    assertNull(response.nextCursor());
+  }
+
+  @Test
+  void getTalks_shouldSkipCountAndReturnCursorWithoutTotals() {
+    mockInfluenceWeights();
+
+    TedTalkEntity last = entity("Test Talk", 7L);
+    PaginationParams params = PaginationParams.of(0, 1, "views", Sort.Direction.DESC);
+    when(repository.findSliceByFilters(null, null, null, params.toPageable()))
+        .thenReturn(new SliceImpl<>(List.of(last), params.toPageable(), true));
+
+    PagedResponse<TedTalkResponse> response =
+        service.getTalks(null, null, null, params, TotalCount.NONE);
+
+    assertEquals(
+        new PageCursor("views", Sort.Direction.DESC, "1000", 7L),
+        PageCursor.decode(response.nextCursor()));
+    verify(repository, never()).findByFilters(any(), any(), any(), any());
+  }
+
+  @Test
+  void getTalks_shouldEstimateTotalWithoutCountQuery() {
+    mockInfluenceWeights();
+
+    PaginationParams params = PaginationParams.of(0, 10, "id", null);
+    when(repository.findSliceByFilters("John", null, null, params.toPageable()))
+        .thenReturn(new SliceImpl<>(List.of(entity("Test Talk")), params.toPageable(), false));
+    when(countEstimator.estimate("John", null, null)).thenReturn(42L);
+
+    PagedResponse<TedTalkResponse> response =
+        service.getTalks("John", null, null, params, TotalCount.ESTIMATE);
+
+    assertEquals(1, response.rows().size());
+    verify(repository, never()).findByFilters(any(), any(), any(), any());
+    verify(repository, never()).countByFilters(any(), any(), any());
+  }
+
+  @Test
+  void getTalks_shouldSearchIndexForKeywordAndKeepRankedOrder() {
+    mockInfluenceWeights();
+
+    PaginationParams params = PaginationParams.of(1, 2, "relevance", Sort.Direction.DESC);
+    when(searchIndex.isEnabled()).thenReturn(true);
+    when(searchIndex.search(null, null, "ai", "relevance", Sort.Direction.DESC, null, 2, 3))
+        .thenReturn(
+            new TalkSearchIndex.Result(
+                List.of(
+                    new TalkSearchIndex.Hit(9L, "3.5"),
+                    new TalkSearchIndex.Hit(4L, "2.5"),
+                    new TalkSearchIndex.Hit(6L, "1.5")),
+                5,
+                true));
+    when(repository.findAllById(List.of(9L, 4L)))
+        .thenReturn(List.of(entity("Four", 4L), entity("Nine", 9L)));
+
+    PagedResponse<TedTalkResponse> response =
+        service.getTalks(null, null, "ai", params, TotalCount.EXACT);
+
+    assertEquals(
+        List.of("Nine", "Four"), response.rows().stream().map(TedTalkResponse::title).toList());
+    assertEquals(
+        new PageCursor("relevance", Sort.Direction.DESC, "2.5", 4L),
+        PageCursor.decode(response.nextCursor()));
+    verify(repository, never()).findByFilters(any(), any(), any(), any());
+    verify(searchIndex, never()).count(any(), any(), any());
+  }
+
+  @Test
+  void getTalksAfter_shouldReadOneExtraRowToFindNextPage() {
+    mockInfluenceWeights();
+
+    PageCursor cursor = new PageCursor("title", Sort.Direction.ASC, "A", 1L);
+    when(repository.findByFiltersAfter("John", null, null, cursor, 3))
+        .thenReturn(List.of(entity("B", 2L), entity("C", 3L), entity("D", 4L)));
+
+    PagedResponse<TedTalkResponse> response =
+        service.getTalksAfter("John", null, null, cursor, 2, TotalCount.NONE);
+
+    assertEquals(List.of("B", "C"), response.rows().stream().map(TedTalkResponse::title).toList());
+    assertEquals(
+        new PageCursor("title", Sort.Direction.ASC, "C", 3L),
+        PageCursor.decode(response.nextCursor()));
+    verify(repository, never()).countByFilters(any(), any(), any());
+  }
+
+  @Test
+  void getTalksAfter_shouldCountWhenTotalRequested() {
+    mockInfluenceWeights();
+
+    PageCursor cursor = new PageCursor("id", Sort.Direction.ASC, "1", 1L);
+    when(repository.findByFiltersAfter(null, null, null, cursor, 3))
+        .thenReturn(List.of(entity("B", 2L)));
+    when(repository.countByFilters(null, null, null)).thenReturn(2L);
+
+    PagedResponse<TedTalkResponse> response =
+        service.getTalksAfter(null, null, null, cursor, 2, TotalCount.EXACT);
+
+    assertNull(response.nextCursor());
+    assertEquals(1, response.rows().size());
+  }
+
+  @Test
+  void createTalksBatch_shouldSaveThroughRepositoryWithJpaEngine() {
+    mockWriteWeights();
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.engine()).thenReturn(TedTalksConfig.Csv.Engine.JPA);
+
+    service.createTalksBatch(List.of(request("Test Talk", "John Doe", 2020, 1)));
+
+    verify(repository).saveAll(anyList());
+    verify(jdbcRepository, never()).insertAll(any(), any());
+  }
+
+  @Test
+  void createTalksBatch_shouldBypassRepositoryWithJdbcEngine() {
+    mockWriteWeights();
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.engine()).thenReturn(TedTalksConfig.Csv.Engine.JDBC);
+
+    List<TedTalkRequest> requests = List.of(request("Test Talk", "John Doe", 2020, 1));
+    service.createTalksBatch(requests);
+
+    verify(jdbcRepository).insertAll(requests, WEIGHTS);
+    verify(repository, never()).saveAll(any());
+    verify(speakerStatsRepository)
+        .applyOnCommit(List.of(new SpeakerStatsRepository.Delta("John Doe", 1000, 100, 1)));
+  }
+
+  @Test
+  void createTalksBatch_shouldSkipStoredLinks() {
+    mockWriteWeights();
+    when(config.csv()).thenReturn(csvConfig);
+    when(csvConfig.engine()).thenReturn(TedTalksConfig.Csv.Engine.JDBC);
+    TedTalkRequest stored = request("Stored Talk", "John Doe", 2020, 1);
+    TedTalkRequest created = request("New Talk", "Jane Doe", 2021, 2);
+    when(jdbcRepository.findStoredLinks(List.of(stored.link(), created.link())))
+        .thenReturn(Set.of(stored.link()));
+
+    int count = service.createTalksBatch(List.of(stored, created));
+
+    assertEquals(1, count);
+    verify(jdbcRepository).insertAll(List.of(created), WEIGHTS);
+    verify(eventPublisher).publishEvent(new TalksSavedEvent(List.of(created.link())));
+  }
+
+  @Test
+  void upsertTalksBatch_shouldMergeThroughJdbcRepository() {
+    mockWriteWeights();
+    List<TedTalkRequest> requests = List.of(request("Test Talk", "John Doe", 2020, 1));
+    SpeakerStatsRepository.Delta stored = new SpeakerStatsRepository.Delta("John Doe", -10, -1, -1);
+    when(speakerStatsRepository.removalsOf(List.of("http://test.com/Test-Talk")))
+        .thenReturn(List.of(stored));
+
+    service.upsertTalksBatch(requests);
+
+    verify(jdbcRepository).mergeAll(requests, WEIGHTS);
+    verify(speakerStatsRepository)
+        .applyOnCommit(List.of(stored, new SpeakerStatsRepository.Delta("John Doe", 1000, 100, 1)));
+    verify(repository, never()).saveAll(any());
+    verify(eventPublisher).publishEvent(new TalksSavedEvent(List.of("http://test.com/Test-Talk")));
+  }
+
+  @Test
+  void applyBatch_shouldWriteChunkWithBatchedStatements() {
+    mockWriteWeights();
+    givenBatchSize(10);
+    TedTalkRequest created = request("New Talk", "Jane Roe", 2021, 3);
+    TedTalkRequest changed = request("Changed Talk", "John Doe", 2020, 1);
+    when(jdbcRepository.findStoredTalks(List.of(1L, 2L)))
+        .thenReturn(Map.of(1L, stored("Old Talk", 1L), 2L, stored("Gone Talk", 2L)));
+    when(jdbcRepository.deleteAll(List.of(2L))).thenReturn(new int[] {1});
+    when(jdbcRepository.updateAll(List.of(1L), List.of(changed), WEIGHTS))
+        .thenReturn(new int[] {1});
+    when(jdbcRepository.insertAll(List.of(created), WEIGHTS)).thenReturn(new long[] {10});
+
+    TalkBatchResponse response =
+        service.applyBatch(List.of(create(created), update(1L, changed), delete(2L)).iterator());
+
+    assertEquals(3, response.succeeded());
+    assertEquals(
+        List.of(
+            new TalkBatchResult(0, TalkBatchOperation.Type.CREATE, 201, 10L, null),
+            new TalkBatchResult(1, TalkBatchOperation.Type.UPDATE, 200, 1L, null),
+            new TalkBatchResult(2, TalkBatchOperation.Type.DELETE, 204, 2L, null)),
+        response.results());
+    verify(transactionManager).commit(any());
+    verify(speakerStatsRepository)
+        .applyOnCommit(
+            List.of(
+                new SpeakerStatsRepository.Delta("John Doe", -1000, -100, -1),
+                new SpeakerStatsRepository.Delta("John Doe", -1000, -100, -1),
+                new SpeakerStatsRepository.Delta("John Doe", 1000, 100, 1),
+                new SpeakerStatsRepository.Delta("Jane Roe", 1000, 100, 1)));
+    verify(eventPublisher).publishEvent(new TalkDeletedEvent(2L));
+    verify(eventPublisher)
+        .publishEvent(
+            new TalksSavedEvent(
+                List.of(
+                    "http://test.com/Changed-Talk",
+                    "http://test.com/Old-Talk",
+                    "http://test.com/New-Talk")));
+  }
+
+  @Test
+  void applyBatch_shouldReportEachFailedOperation() {
+    mockWriteWeights();
+    givenBatchSize(10);
+    when(jdbcRepository.findStoredLinks(
+            List.of("http://test.com/Other-Talk", "http://test.com/Taken-Talk")))
+        .thenReturn(Set.of("http://test.com/Taken-Talk"));
+    TedTalkRequest blank =
+        new TedTalkRequest(" ", "John Doe", YearMonth.of(2020, 1), 1, 1, "http://test.com/x");
+
+    TalkBatchResponse response =
+        service.applyBatch(
+            List.of(
+                    new TalkBatchOperation(TalkBatchOperation.Type.CREATE, null, null),
+                    update(99L, request("Other Talk", "John Doe", 2020, 1)),
+                    create(request("Taken Talk", "John Doe", 2020, 1)),
+                    new TalkBatchOperation(TalkBatchOperation.Type.DELETE, null, null),
+                    create(blank))
+                .iterator());
+
+    assertEquals(0, response.succeeded());
+    assertEquals(
+        List.of(
+            new TalkBatchResult(
+                0, TalkBatchOperation.Type.CREATE, 400, null, "talk: must not be null"),
+            new TalkBatchResult(
+                1, TalkBatchOperation.Type.UPDATE, 404, 99L, "TED Talk not found with id: 99"),
+            new TalkBatchResult(
+                2,
+                TalkBatchOperation.Type.CREATE,
+                409,
+                null,
+                "Link already stored: http://test.com/Taken-Talk"),
+            new TalkBatchResult(
+                3, TalkBatchOperation.Type.DELETE, 400, null, "id: must not be null"),
+            new TalkBatchResult(
+                4, TalkBatchOperation.Type.CREATE, 400, null, "talk.title: must not be blank")),
+        response.results());
+    verify(jdbcRepository).insertAll(List.of(), WEIGHTS);
+    verify(speakerStatsRepository, never()).applyOnCommit(any());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void applyBatch_shouldRollBackOnlyTheFailedChunk() {
+    mockWriteWeights();
+    givenBatchSize(1);
+    when(jdbcRepository.insertAll(anyList(), eq(WEIGHTS)))
+        .thenThrow(linkViolation())
+        .thenReturn(new long[] {11});
+
+    TalkBatchResponse response =
+        service.applyBatch(
+            List.of(
+                    create(request("First Talk", "John Doe", 2020, 1)),
+                    create(request("Second Talk", "John Doe", 2020, 1)))
+                .iterator());
+
+    assertEquals(1, response.failed());
+    assertEquals(
+        List.of(
+            new TalkBatchResult(
+                0,
+                TalkBatchOperation.Type.CREATE,
+                409,
+                null,
+                "Link already stored: http://test.com/First-Talk"),
+            new TalkBatchResult(1, TalkBatchOperation.Type.CREATE, 201, 11L, null)),
+        response.results());
+    verify(transactionManager).rollback(any());
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  void applyBatch_shouldRetryFailedChunkOneOperationAtATime() {
+    mockWriteWeights();
+    givenBatchSize(10);
+    TedTalkRequest taken = request("Taken Talk", "John Doe", 2020, 1);
+    TedTalkRequest other = request("Other Talk", "John Doe", 2020, 1);
+    TedTalkRequest invalid = request("Invalid Talk", "John Doe", 2020, 1);
+    when(jdbcRepository.insertAll(List.of(taken, other, invalid), WEIGHTS))
+        .thenThrow(linkViolation());
+    when(jdbcRepository.insertAll(List.of(taken), WEIGHTS)).thenThrow(linkViolation());
+    when(jdbcRepository.insertAll(List.of(other), WEIGHTS)).thenReturn(new long[] {12});
+    when(jdbcRepository.insertAll(List.of(invalid), WEIGHTS))
+        .thenThrow(new DataIntegrityViolationException("Check constraint violation"));
+
+    TalkBatchResponse response =
+        service.applyBatch(List.of(create(taken), create(other), create(invalid)).iterator());
+
+    assertEquals(
+        List.of(
+            new TalkBatchResult(
+                0,
+                TalkBatchOperation.Type.CREATE,
+                409,
+                null,
+                "Link already stored: http://test.com/Taken-Talk"),
+            new TalkBatchResult(1, TalkBatchOperation.Type.CREATE, 201, 12L, null),
+            new TalkBatchResult(
+                2, TalkBatchOperation.Type.CREATE, 500, null, "An unexpected error occurred")),
+        response.results());
+    verify(transactionManager, times(3)).rollback(any());
+    verify(transactionManager).commit(any());
+    verify(eventPublisher).publishEvent(new TalksSavedEvent(List.of(other.link())));
+  }
+
+  private static DataIntegrityViolationException linkViolation() {
+    return new DataIntegrityViolationException(
+        "Unique index or primary key violation: \"PUBLIC.UK_TED_TALKS_LINK_INDEX_2\"");
+  }
+
+  @Test
+  void applyBatch_shouldWriteTalkOncePerChunkAndStopAtUnreadableOperation() {
+    mockWriteWeights();
+    givenBatchSize(10);
+    when(jdbcRepository.findStoredTalks(List.of(1L)))
+        .thenReturn(Map.of(1L, stored("Old Talk", 1L)));
+    when(jdbcRepository.updateAll(anyList(), anyList(), eq(WEIGHTS)))
+        .thenReturn(new int[] {1}, new int[0]);
+    when(jdbcRepository.deleteAll(anyList())).thenReturn(new int[0], new int[] {1});
+    Iterator<TalkBatchOperation> readable =
+        List.of(update(1L, request("Old Talk", "John Doe", 2021, 1)), delete(1L)).iterator();
+    Iterator<TalkBatchOperation> operations =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return true;
+          }
+
+          @Override
+          public TalkBatchOperation next() {
+            if (!readable.hasNext()) {
+              throw new IllegalArgumentException("Unexpected character");
+            }
+            return readable.next();
+          }
+        };
+
+    TalkBatchResponse response = service.applyBatch(operations);
+
+    assertEquals(
+        List.of(
+            new TalkBatchResult(0, TalkBatchOperation.Type.UPDATE, 200, 1L, null),
+            new TalkBatchResult(1, TalkBatchOperation.Type.DELETE, 204, 1L, null),
+            new TalkBatchResult(2, null, 400, null, "Unreadable operation")),
+        response.results());
+    verify(transactionManager, times(2)).commit(any());
+  }
+
+  @Test
+  void forEachContentHash_shouldStreamFromJdbcRepository() {
+    ObjLongConsumer<String> action = (link, hash) -> {};
+    service.forEachContentHash(action);
+
+    verify(jdbcRepository).forEachContentHash(action);
   }
 }